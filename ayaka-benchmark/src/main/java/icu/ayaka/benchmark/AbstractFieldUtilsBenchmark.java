@@ -0,0 +1,112 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.benchmark.bean.WideBean;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.FieldUtils;
+import icu.ayaka.reflect.PropertyIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * FieldUtils 所有公开方法的基准测试
+ * 子类决定 线程数 / 冷热缓存 等运行方式，方法返回结果交由 JMH 消费，避免被 JIT 消除
+ *
+ * @author Ayaka
+ */
+public abstract class AbstractFieldUtilsBenchmark {
+
+    // ================= 基线 ===================
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public Method thisIsAVeryStupidMethode(BeanState s) {
+        return FieldUtils.thisIsAVeryStupidMethode(s.clazz, s.fieldName);
+    }
+
+    // ================= 通过字段 获取 get/set方法 ===================
+
+    @Benchmark
+    public Method getFieldGetMethodByField(BeanState s) {
+        return FieldUtils.getFieldGetMethod(s.field);
+    }
+
+    @Benchmark
+    public Method getFieldGetMethodByName(BeanState s) {
+        return FieldUtils.getFieldGetMethod(s.clazz, s.fieldName);
+    }
+
+    @Benchmark
+    public Method getFieldSetMethodByField(BeanState s) {
+        return FieldUtils.getFieldSetMethod(s.field);
+    }
+
+    @Benchmark
+    public Method getFieldSetMethodByName(BeanState s) {
+        return FieldUtils.getFieldSetMethod(s.clazz, s.fieldName);
+    }
+
+    @Benchmark
+    public Map<String, Method> getGetSetMethodMapByField(BeanState s) {
+        return FieldUtils.getGetSetMethodMap(s.field);
+    }
+
+    @Benchmark
+    public Map<String, Method> getGetSetMethodMapByName(BeanState s) {
+        return FieldUtils.getGetSetMethodMap(s.clazz, s.fieldName);
+    }
+
+    @Benchmark
+    public Map<String, Method> getGetMethodMap(BeanState s) {
+        return FieldUtils.getGetMethodMap(s.clazz, s.fields);
+    }
+
+    @Benchmark
+    public Map<String, Method> getFieldsSetMethods(BeanState s) {
+        return FieldUtils.getFieldsSetMethods(s.clazz, s.fields);
+    }
+
+    @Benchmark
+    public Map<String, Method> getBeanGetMethods(BeanState s) {
+        return FieldUtils.getBeanGetMethods(s.clazz);
+    }
+
+    @Benchmark
+    public Map<String, Method> getBeanSetMethods(BeanState s) {
+        return FieldUtils.getBeanSetMethods(s.clazz);
+    }
+
+    // ================= 通过 get/set方法 获取字段  ===================
+
+    @Benchmark
+    public Field getFieldByLambda(BeanState s) {
+        return "user".equals(s.bean) ? FieldUtils.getField(User::getName) : FieldUtils.getField(WideBean::getP100);
+    }
+
+    @Benchmark
+    public PropertyIndex.Property getPropertyByLambda(BeanState s) {
+        return "user".equals(s.bean) ? FieldUtils.getProperty(User::getName) : FieldUtils.getProperty(WideBean::getP100);
+    }
+
+    @Benchmark
+    public Field getFieldByGetMethod(BeanState s) {
+        return FieldUtils.getFieldByGetMethod(s.getMethod);
+    }
+
+    @Benchmark
+    public Field getFieldByGetMethodName(BeanState s) {
+        return FieldUtils.getFieldByGetMethod(s.clazz, s.getName);
+    }
+
+    @Benchmark
+    public Field getFieldBySetMethod(BeanState s) {
+        return FieldUtils.getFieldBySetMethod(s.setMethod);
+    }
+
+    @Benchmark
+    public Field getFieldBySetMethodName(BeanState s) {
+        return FieldUtils.getFieldBySetMethod(s.clazz, s.setName);
+    }
+}
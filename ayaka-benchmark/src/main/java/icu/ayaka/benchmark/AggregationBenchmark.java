@@ -0,0 +1,90 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.Aggregation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 1000000 个 User 按 admin / createTime 的日期分组，统计 id 的 count / sum / min / max：
+ * Collectors.groupingBy + summarizingLong / Aggregation
+ *
+ * @author Ayaka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AggregationBenchmark {
+
+    private static final int SIZE = 1_000_000;
+
+    private static final Aggregation<User> BY_ADMIN = Aggregation.builder(User.class)
+            .groupBy(User::isAdmin)
+            .count(User::getId)
+            .sum(User::getId)
+            .min(User::getId)
+            .max(User::getId)
+            .build();
+
+    private static final Aggregation<User> BY_DAY = Aggregation.builder(User.class)
+            .groupBy(User::getCreateTime, Aggregation.DAY)
+            .count(User::getId)
+            .sum(User::getId)
+            .min(User::getId)
+            .max(User::getId)
+            .build();
+
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        long start = 1_700_000_000_000L;
+        users = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            Date createTime = new Date(start + (long) random.nextInt(365) * Aggregation.DAY + random.nextInt(86_400_000));
+            users.add(new User((long) i, "user", null, null, null, createTime, random.nextInt(10) == 0));
+        }
+    }
+
+    @Benchmark
+    public Map<Boolean, LongSummaryStatistics> byAdminStream() {
+        return users.stream().collect(Collectors.groupingBy(User::isAdmin, Collectors.summarizingLong(User::getId)));
+    }
+
+    @Benchmark
+    public List<Aggregation.Group> byAdminAggregation() {
+        return BY_ADMIN.apply(users);
+    }
+
+    @Benchmark
+    public Map<Long, LongSummaryStatistics> byDayStream() {
+        return users.stream().collect(Collectors.groupingBy(u -> u.getCreateTime().getTime() / Aggregation.DAY * Aggregation.DAY,
+                Collectors.summarizingLong(User::getId)));
+    }
+
+    @Benchmark
+    public List<Aggregation.Group> byDayAggregation() {
+        return BY_DAY.apply(users);
+    }
+}
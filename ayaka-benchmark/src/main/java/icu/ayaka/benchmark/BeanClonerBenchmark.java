@@ -0,0 +1,99 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.benchmark.bean.SerialDepartment;
+import icu.ayaka.benchmark.bean.SerialOrder;
+import icu.ayaka.common.entry.Department;
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.BeanCloner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 深拷贝 Order（无环）和 Department（有环）：序列化往返（同结构的 Serializable 实体）/ 手写 / BeanCloner
+ *
+ * @author Ayaka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BeanClonerBenchmark {
+
+    private static final BeanCloner<Order> ORDER = BeanCloner.of(Order.class);
+
+    private static final BeanCloner<Department> DEPARTMENT = BeanCloner.of(Department.class);
+
+    private Order order;
+
+    private Department department;
+
+    private SerialOrder serialOrder;
+
+    private SerialDepartment serialDepartment;
+
+    @Setup
+    public void setup() {
+        order = Order.getTestOrder();
+        department = Department.getTestDepartment();
+        serialOrder = SerialOrder.of(order);
+        serialDepartment = SerialDepartment.of(department);
+    }
+
+    @Benchmark
+    public Object orderSerialization() throws IOException, ClassNotFoundException {
+        return roundTrip(serialOrder);
+    }
+
+    @Benchmark
+    public Order orderHandWritten() {
+        User u = order.getUser();
+        User user = new User(u.getId(), u.getName(), u.getPassword(), u.getNickname(), u.getEmail(),
+                u.getCreateTime() == null ? null : new Date(u.getCreateTime().getTime()), u.isAdmin());
+        return new Order(order.getId(), order.getTitle(), order.getAmount(), user,
+                order.getCreateTime() == null ? null : new Date(order.getCreateTime().getTime()));
+    }
+
+    @Benchmark
+    public Order orderCloner() {
+        return ORDER.clone(order);
+    }
+
+    @Benchmark
+    public Object departmentSerialization() throws IOException, ClassNotFoundException {
+        return roundTrip(serialDepartment);
+    }
+
+    @Benchmark
+    public Department departmentCloner() {
+        return DEPARTMENT.clone(department);
+    }
+
+    private static Object roundTrip(Object bean) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(bean);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return ois.readObject();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.benchmark.bean.SerialUser;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.BeanCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User 编码 + 解码：BeanCodec（direct ByteBuffer、复用实例）/ ObjectOutputStream + ObjectInputStream（同属性的 SerialUser）
+ *
+ * @author Ayaka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BeanCodecBenchmark {
+
+    private static final BeanCodec<User> CODEC = BeanCodec.of(User.class);
+
+    private User user;
+
+    private User reuse;
+
+    private ByteBuffer buffer;
+
+    private SerialUser serialUser;
+
+    @Setup
+    public void setup() {
+        user = User.getTestUser();
+        reuse = new User();
+        buffer = ByteBuffer.allocateDirect(1024);
+        serialUser = SerialUser.of(user);
+    }
+
+    @Benchmark
+    public User beanCodec() {
+        buffer.clear();
+        CODEC.encode(user, buffer);
+        buffer.flip();
+        return CODEC.decode(buffer, reuse);
+    }
+
+    @Benchmark
+    public User beanCodecBytes() {
+        return CODEC.decode(CODEC.encode(user));
+    }
+
+    @Benchmark
+    public Object objectStream() throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(serialUser);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return ois.readObject();
+        }
+    }
+}
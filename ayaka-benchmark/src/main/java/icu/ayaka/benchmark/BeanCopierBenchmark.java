@@ -0,0 +1,75 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.common.entry.UserView;
+import icu.ayaka.reflect.BeanCopier;
+import icu.ayaka.reflect.FieldUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User -> UserView 单次复制：手写 / BeanCopier / getBeanGetMethods + getBeanSetMethods + Method.invoke
+ *
+ * @author Ayaka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BeanCopierBenchmark {
+
+    private static final BeanCopier<User, UserView> COPIER = BeanCopier.of(User.class, UserView.class);
+
+    private User user;
+
+    private UserView view;
+
+    @Setup
+    public void setup() {
+        user = User.getTestUser();
+        view = new UserView();
+    }
+
+    @Benchmark
+    public UserView handWritten() {
+        view.setId(user.getId());
+        view.setName(user.getName());
+        view.setNickname(user.getNickname());
+        view.setEmail(user.getEmail());
+        view.setAdmin(user.isAdmin());
+        return view;
+    }
+
+    @Benchmark
+    public UserView beanCopier() {
+        return COPIER.copy(user, view);
+    }
+
+    @Benchmark
+    public UserView methodInvoke() throws ReflectiveOperationException {
+        Map<String, Method> getters = FieldUtils.getBeanGetMethods(User.class);
+        Map<String, Method> setters = FieldUtils.getBeanSetMethods(UserView.class);
+        for (Map.Entry<String, Method> e : setters.entrySet()) {
+            Method getter = getters.get(e.getKey());
+            Method setter = e.getValue();
+            if (getter != null && setter.getParameterTypes()[0].isAssignableFrom(getter.getReturnType())) {
+                setter.invoke(view, getter.invoke(user));
+            }
+        }
+        return view;
+    }
+}
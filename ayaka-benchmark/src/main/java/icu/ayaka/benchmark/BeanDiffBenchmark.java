@@ -0,0 +1,83 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.BeanDiff;
+import icu.ayaka.reflect.FieldUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 比较两个 User 哪些属性变化：反射循环 getBeanGetMethods / BeanDiff / BeanDiff 快照
+ *
+ * @author Ayaka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BeanDiffBenchmark {
+
+    private static final BeanDiff<User> DIFF = BeanDiff.of(User.class);
+
+    private User before;
+
+    private User after;
+
+    private BeanDiff.Snapshot<User> snapshot;
+
+    private final BitSet dirty = new BitSet();
+
+    @Setup
+    public void setup() {
+        before = User.getTestUser();
+        after = User.getTestUser();
+        after.setName("绫华");
+        after.setAdmin(false);
+        snapshot = DIFF.snapshot(before);
+    }
+
+    @Benchmark
+    public List<String> reflection() throws ReflectiveOperationException {
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, Method> e : FieldUtils.getBeanGetMethods(User.class).entrySet()) {
+            Method m = e.getValue();
+            if (!Objects.equals(m.invoke(before), m.invoke(after))) {
+                changed.add(e.getKey());
+            }
+        }
+        return changed;
+    }
+
+    @Benchmark
+    public BitSet beanDiff() {
+        return DIFF.diff(before, after, dirty);
+    }
+
+    @Benchmark
+    public BitSet snapshotDiff() {
+        return snapshot.diff(after, dirty);
+    }
+
+    @Benchmark
+    public BeanDiff.Snapshot<User> snapshot() {
+        return DIFF.snapshot(after, snapshot);
+    }
+}
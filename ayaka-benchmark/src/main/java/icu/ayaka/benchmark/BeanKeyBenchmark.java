@@ -0,0 +1,107 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.reflect.BeanKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 100000 个 Order 按 (amount, title, id) 排序、按 (amount, title) 去重：Comparator.comparing 链 / 手写 / BeanKey
+ *
+ * @author Ayaka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BeanKeyBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    private static final Comparator<Order> CHAIN = Comparator.comparing(Order::getAmount)
+            .thenComparing(Order::getTitle)
+            .thenComparing(Order::getId);
+
+    private static final Comparator<Order> HAND_WRITTEN = (a, b) -> {
+        int r = Long.compare(a.getAmount(), b.getAmount());
+        if (r != 0) {
+            return r;
+        }
+        r = a.getTitle().compareTo(b.getTitle());
+        return r != 0 ? r : a.getId().compareTo(b.getId());
+    };
+
+    private static final BeanKey<Order> SORT_KEY = BeanKey.of(Order::getAmount, Order::getTitle, Order::getId);
+
+    private static final BeanKey<Order> DISTINCT_KEY = BeanKey.of(Order::getAmount, Order::getTitle);
+
+    private Order[] orders;
+
+    private List<Order> list;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        orders = new Order[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            orders[i] = new Order((long) i, "order-" + random.nextInt(100), 1000 + random.nextInt(1000), null, null);
+        }
+        list = Arrays.asList(orders);
+    }
+
+    @Benchmark
+    public Order[] sortChain() {
+        Order[] a = orders.clone();
+        Arrays.sort(a, CHAIN);
+        return a;
+    }
+
+    @Benchmark
+    public Order[] sortHandWritten() {
+        Order[] a = orders.clone();
+        Arrays.sort(a, HAND_WRITTEN);
+        return a;
+    }
+
+    @Benchmark
+    public Order[] sortBeanKey() {
+        Order[] a = orders.clone();
+        Arrays.sort(a, SORT_KEY.comparator());
+        return a;
+    }
+
+    @Benchmark
+    public List<Order> distinctListKey() {
+        LinkedHashSet<List<Object>> keys = new LinkedHashSet<>();
+        List<Order> out = new ArrayList<>();
+        for (Order order : orders) {
+            if (keys.add(Arrays.asList(order.getAmount(), order.getTitle()))) {
+                out.add(order);
+            }
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<Order> distinctBeanKey() {
+        return DISTINCT_KEY.distinct(list);
+    }
+}
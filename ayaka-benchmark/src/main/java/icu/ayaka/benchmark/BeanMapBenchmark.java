@@ -0,0 +1,84 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.BeanMap;
+import icu.ayaka.reflect.FieldUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User <-> Map：BeanMap / getBeanGetMethods + getBeanSetMethods + HashMap + Method.invoke
+ * 配合 -prof gc 查看每次转换的分配量
+ *
+ * @author Ayaka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BeanMapBenchmark {
+
+    private User user;
+
+    private Map<String, Object> hashMap;
+
+    private BeanMap beanMap;
+
+    @Setup
+    public void setup() {
+        user = User.getTestUser();
+        hashMap = new HashMap<>(BeanMap.of(user));
+        beanMap = BeanMap.of(user);
+    }
+
+    @Benchmark
+    public Map<String, Object> beanToMap() {
+        return BeanMap.of(user);
+    }
+
+    @Benchmark
+    public Map<String, Object> reflectToMap() throws ReflectiveOperationException {
+        Map<String, Object> map = new HashMap<>();
+        for (Map.Entry<String, Method> e : FieldUtils.getBeanGetMethods(User.class).entrySet()) {
+            map.put(e.getKey(), e.getValue().invoke(user));
+        }
+        return map;
+    }
+
+    @Benchmark
+    public User beanMapToBean() {
+        return BeanMap.toBean(beanMap, User.class);
+    }
+
+    @Benchmark
+    public User hashMapToBean() {
+        return BeanMap.toBean(hashMap, User.class);
+    }
+
+    @Benchmark
+    public User reflectToBean() throws ReflectiveOperationException {
+        User bean = new User();
+        for (Map.Entry<String, Method> e : FieldUtils.getBeanSetMethods(User.class).entrySet()) {
+            Object value = hashMap.get(e.getKey());
+            if (value != null) {
+                e.getValue().invoke(bean, value);
+            }
+        }
+        return bean;
+    }
+}
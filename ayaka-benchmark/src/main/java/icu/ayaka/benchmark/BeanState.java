@@ -0,0 +1,63 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.benchmark.bean.WideBean;
+import icu.ayaka.common.entry.User;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * 基准测试的输入
+ * 只通过原生反射准备 Field / Method，不经过 FieldUtils，保证冷启动基准测试时缓存为空
+ *
+ * @author Ayaka
+ */
+@State(Scope.Benchmark)
+public class BeanState {
+
+    /**
+     * user: 7 个属性的 User
+     * wide: 200 个属性的 WideBean
+     */
+    @Param({"user", "wide"})
+    public String bean;
+
+    public Class<?> clazz;
+
+    public String fieldName;
+
+    public String getName;
+
+    public String setName;
+
+    public Field field;
+
+    public Method getMethod;
+
+    public Method setMethod;
+
+    public Field[] fields;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        if ("user".equals(bean)) {
+            clazz = User.class;
+            fieldName = "name";
+        } else {
+            clazz = WideBean.class;
+            fieldName = "p100";
+        }
+        String upper = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        getName = "get" + upper;
+        setName = "set" + upper;
+        field = clazz.getDeclaredField(fieldName);
+        getMethod = clazz.getMethod(getName);
+        setMethod = clazz.getMethod(setName, field.getType());
+        Field[] declared = clazz.getDeclaredFields();
+        fields = new Field[]{declared[0], declared[declared.length / 2], declared[declared.length - 1]};
+    }
+}
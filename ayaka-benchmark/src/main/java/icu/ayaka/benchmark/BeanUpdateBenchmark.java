@@ -0,0 +1,80 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.BeanUpdate;
+import icu.ayaka.reflect.FieldUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对 10000 个 User 设置 name / admin / createTime：按名称查找 set方法 + Method.invoke / BeanUpdate / 直接调用
+ *
+ * @author Ayaka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BeanUpdateBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    private static final Date TIME = new Date(0);
+
+    private static final BeanUpdate<User> UPDATE = BeanUpdate.builder(User.class)
+            .set(User::setName, "ayaka")
+            .set(User::setAdmin, false)
+            .set(User::setCreateTime, TIME)
+            .build();
+
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        users = new ArrayList<>(SIZE);
+        for (long i = 0; i < SIZE; i++) {
+            users.add(new User(i, "user", "pwd", "nick", i + "@ayaka.icu", null, true));
+        }
+    }
+
+    @Benchmark
+    public List<User> reflection() throws ReflectiveOperationException {
+        for (User user : users) {
+            FieldUtils.getFieldSetMethod(User.class, "name").invoke(user, "ayaka");
+            FieldUtils.getFieldSetMethod(User.class, "admin").invoke(user, false);
+            FieldUtils.getFieldSetMethod(User.class, "createTime").invoke(user, TIME);
+        }
+        return users;
+    }
+
+    @Benchmark
+    public List<User> beanUpdate() {
+        UPDATE.applyAll(users);
+        return users;
+    }
+
+    @Benchmark
+    public List<User> direct() {
+        for (User user : users) {
+            user.setName("ayaka");
+            user.setAdmin(false);
+            user.setCreateTime(TIME);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,129 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.BeanFormat;
+import icu.ayaka.reflect.BeanReader;
+import icu.ayaka.reflect.BeanWriter;
+import icu.ayaka.reflect.FieldUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 10000 个 User 写出为 CSV：BeanWriter / Method.invoke + String 拼接 + Writer；以及 BeanReader 读回
+ * 通道丢弃写出的内容，只比较编码开销
+ *
+ * @author Ayaka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BeanWriterBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    private static final WritableByteChannel DISCARD = new WritableByteChannel() {
+        @Override
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            src.position(src.limit());
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private List<User> users;
+
+    private byte[] csv;
+
+    @Setup
+    public void setup() {
+        users = new ArrayList<>(SIZE);
+        for (long i = 0; i < SIZE; i++) {
+            users.add(new User(i, "user-" + i, "pwd", "nick, " + i, i + "@ayaka.icu", new Date(i * 1000), i % 2 == 0));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BeanWriter<User> writer = BeanWriter.builder(User.class).build(Channels.newChannel(out))) {
+            writer.writeAll(users);
+        }
+        csv = out.toByteArray();
+    }
+
+    @Benchmark
+    public long beanWriter() {
+        try (BeanWriter<User> writer = BeanWriter.builder(User.class).format(BeanFormat.CSV).build(DISCARD)) {
+            writer.writeAll(users);
+            writer.flush();
+            return writer.getBytes();
+        }
+    }
+
+    @Benchmark
+    public long reflectConcat() throws Exception {
+        List<Method> getters = new ArrayList<>(FieldUtils.getBeanGetMethods(User.class).values());
+        Writer writer = new OutputStreamWriter(Channels.newOutputStream(DISCARD), StandardCharsets.UTF_8);
+        long length = 0;
+        for (User user : users) {
+            String line = "";
+            for (int i = 0; i < getters.size(); i++) {
+                Object v = getters.get(i).invoke(user);
+                String s = v == null ? "" : v instanceof Date ? ((Date) v).toInstant().toString() : v.toString();
+                if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0) {
+                    s = "\"" + s.replace("\"", "\"\"") + "\"";
+                }
+                line = i == 0 ? s : line + "," + s;
+            }
+            writer.write(line);
+            writer.write('\n');
+            length += line.length() + 1;
+        }
+        writer.flush();
+        return length;
+    }
+
+    @Benchmark
+    public long beanReader() {
+        long rows;
+        try (BeanReader<User> reader = BeanReader.builder(User.class)
+                .build(Channels.newChannel(new ByteArrayInputStream(csv)))) {
+            User user = new User();
+            while (reader.read(user)) {
+                // 复用同一个 bean，只测量解析
+            }
+            rows = reader.getRows();
+        }
+        return rows;
+    }
+}
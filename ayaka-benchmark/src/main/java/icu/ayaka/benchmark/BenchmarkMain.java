@@ -0,0 +1,37 @@
+package icu.ayaka.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口，参数与 JMH 命令行一致
+ * 未指定结果格式时默认输出 JSON，便于在版本之间对比
+ * <blockquote><pre>
+ * {@code mvn -pl ayaka-benchmark -am package
+ *  java -jar ayaka-benchmark/target/benchmarks.jar FieldUtilsBenchmark
+ *  java -jar ayaka-benchmark/target/benchmarks.jar -rff jmh-result-1.0.json
+ * }</pre></blockquote>
+ *
+ * @author Ayaka
+ */
+public class BenchmarkMain {
+
+    private static final String DEFAULT_RESULT = "jmh-result.json";
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmd);
+        if (!cmd.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            builder.result(DEFAULT_RESULT);
+        }
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,24 @@
+package icu.ayaka.benchmark;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 冷缓存：每个 fork 是一个新的 JVM，只测量首次调用
+ * 即 Introspector 构建索引 / SerializedLambda 解析 的耗时
+ *
+ * @author Ayaka
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class FieldUtilsColdBenchmark extends AbstractFieldUtilsBenchmark {
+}
@@ -0,0 +1,94 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.IndexedCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 100000 个 User：按 email / id 查找、按 createTime 范围查询，线性扫描 / IndexedCollection
+ *
+ * @author Ayaka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class IndexedCollectionBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    private List<User> users;
+
+    private IndexedCollection<User> collection;
+
+    private long next;
+
+    @Setup
+    public void setup() {
+        users = new ArrayList<>(SIZE);
+        for (long i = 0; i < SIZE; i++) {
+            users.add(new User(i, "user-" + i, "pwd", "nick", i + "@ayaka.icu", new Date(i * 1000), i % 2 == 0));
+        }
+        collection = new IndexedCollection<>(users)
+                .uniqueIndex(User::getId)
+                .uniqueIndex(User::getEmail)
+                .sortedIndex(User::getCreateTime);
+    }
+
+    private long nextId() {
+        next = (next + 7919) % SIZE;
+        return next;
+    }
+
+    @Benchmark
+    public User scanEmail() {
+        String email = nextId() + "@ayaka.icu";
+        for (User user : users) {
+            if (email.equals(user.getEmail())) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public User indexEmail() {
+        return collection.findOne(User::getEmail, nextId() + "@ayaka.icu");
+    }
+
+    @Benchmark
+    public User indexId() {
+        return collection.findOne(User::getId, nextId());
+    }
+
+    @Benchmark
+    public List<User> scanRange() {
+        long from = nextId() * 1000;
+        return users.stream()
+                .filter(u -> u.getCreateTime().getTime() >= from && u.getCreateTime().getTime() < from + 100_000)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<User> indexRange() {
+        long from = nextId() * 1000;
+        return collection.range(User::getCreateTime, from, from + 100_000);
+    }
+}
@@ -0,0 +1,94 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.FieldUtils;
+import icu.ayaka.reflect.LambdaCondition;
+import icu.ayaka.reflect.NamingStrategy;
+import icu.ayaka.reflect.SFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 构建并渲染 20 个条件：LambdaCondition / 每个条件经 FieldUtils.getField 解析列名 / 手写 SQL
+ *
+ * @author Ayaka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LambdaConditionBenchmark {
+
+    private final StringBuilder sql = new StringBuilder(1024);
+
+    private final List<Object> params = new ArrayList<>(32);
+
+    private final LambdaCondition<User> condition = LambdaCondition.create();
+
+    @Benchmark
+    public StringBuilder lambdaCondition() {
+        sql.setLength(0);
+        params.clear();
+        condition.clear();
+        for (int i = 0; i < 4; i++) {
+            condition.eq(User::getName, "ayaka").gt(User::getId, i).like(User::getEmail, "%ayaka%")
+                    .isNotNull(User::getCreateTime).ne(User::isAdmin, false);
+        }
+        return condition.render(sql, params);
+    }
+
+    @Benchmark
+    public StringBuilder fieldUtils() {
+        sql.setLength(0);
+        params.clear();
+        for (int i = 0; i < 4; i++) {
+            clause(column(User::getName), " = ?", "ayaka");
+            clause(column(User::getId), " > ?", i);
+            clause(column(User::getEmail), " LIKE ?", "%ayaka%");
+            clause(column(User::getCreateTime), " IS NOT NULL", null);
+            clause(column(User::isAdmin), " <> ?", false);
+        }
+        return sql;
+    }
+
+    @Benchmark
+    public StringBuilder handWritten() {
+        sql.setLength(0);
+        params.clear();
+        for (int i = 0; i < 4; i++) {
+            clause("name", " = ?", "ayaka");
+            clause("id", " > ?", i);
+            clause("email", " LIKE ?", "%ayaka%");
+            clause("create_time", " IS NOT NULL", null);
+            clause("admin", " <> ?", false);
+        }
+        return sql;
+    }
+
+    private static String column(SFunction<User, ?> fn) {
+        return NamingStrategy.SNAKE_CASE.translate(FieldUtils.getField(fn).getName());
+    }
+
+    private void clause(String column, String op, Object value) {
+        if (sql.length() > 0) {
+            sql.append(" AND ");
+        }
+        sql.append(column).append(op);
+        if (value != null) {
+            params.add(value);
+        }
+    }
+}
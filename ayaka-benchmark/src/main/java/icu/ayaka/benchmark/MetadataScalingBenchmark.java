@@ -0,0 +1,58 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.FieldUtils;
+import icu.ayaka.reflect.PropertyIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多线程元数据查询的吞吐量：Introspector.getBeanInfo（全局锁 + 每个 ThreadGroup 的缓存）/ PropertyIndex / FieldUtils
+ * <p>
+ * 默认使用所有核心，用 -t 1,2,4,8... 对比吞吐量随线程数的变化：无锁路径应随核心数线性增长
+ *
+ * @author Ayaka
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(Threads.MAX)
+public class MetadataScalingBenchmark {
+
+    @Benchmark
+    public BeanInfo introspector() throws IntrospectionException {
+        return Introspector.getBeanInfo(User.class);
+    }
+
+    @Benchmark
+    public PropertyIndex.Property propertyIndex() {
+        return PropertyIndex.of(User.class).getByName("name");
+    }
+
+    @Benchmark
+    public Method getFieldGetMethod() {
+        return FieldUtils.getFieldGetMethod(User.class, "name");
+    }
+
+    @Benchmark
+    public PropertyIndex.Property getPropertyByLambda() {
+        return FieldUtils.getProperty(User::getName);
+    }
+}
@@ -0,0 +1,88 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.Projections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 将 List&lt;User&gt; 的 id / admin 投影到基本类型数组：手写循环 / Projections / Method.invoke
+ * size 超过 Projections.PARALLEL_THRESHOLD 时 Projections 会并行读取
+ *
+ * @author Ayaka
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProjectionBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int size;
+
+    private List<User> users;
+
+    private long[] ids;
+
+    private long[] bits;
+
+    private Method getId;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            users.add(new User((long) i, "ayaka", "521", "ayaka-icu", "admin", new Date(), (i & 1) == 0));
+        }
+        ids = new long[size];
+        bits = new long[(size + 63) >>> 6];
+        getId = User.class.getMethod("getId");
+    }
+
+    @Benchmark
+    public long[] handWritten() {
+        for (int i = 0; i < size; i++) {
+            Long id = users.get(i).getId();
+            ids[i] = id == null ? 0L : id;
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public long[] projection() {
+        Projections.project(users, User::getId, 0L, ids, 0);
+        return ids;
+    }
+
+    @Benchmark
+    public long[] methodInvoke() throws ReflectiveOperationException {
+        for (int i = 0; i < size; i++) {
+            Object id = getId.invoke(users.get(i));
+            ids[i] = id == null ? 0L : (Long) id;
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public long[] bitsProjection() {
+        Projections.projectBits(users, User::isAdmin, false, bits);
+        return bits;
+    }
+}
@@ -0,0 +1,83 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.PropertyPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 三级属性路径 order.user.createTime.time：手写代码 / PropertyPath / static final 方法句柄 / Method.invoke
+ *
+ * @author Ayaka
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PropertyPathBenchmark {
+
+    private static final PropertyPath<Order, Long> PATH = PropertyPath.of(Order::getUser)
+            .then(User::getCreateTime)
+            .then(Date::getTime);
+
+    private static final MethodHandle HANDLE = PATH.toMethodHandle();
+
+    private Order order;
+
+    private Method[] methods;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        order = Order.getTestOrder();
+        methods = new Method[]{Order.class.getMethod("getUser"), User.class.getMethod("getCreateTime"),
+                Date.class.getMethod("getTime")};
+    }
+
+    @Benchmark
+    public Long handWritten() {
+        User user = order.getUser();
+        if (user == null) {
+            return null;
+        }
+        Date time = user.getCreateTime();
+        return time == null ? null : time.getTime();
+    }
+
+    @Benchmark
+    public Long propertyPath() {
+        return PATH.get(order);
+    }
+
+    @Benchmark
+    public Object staticHandle() throws Throwable {
+        return (Object) HANDLE.invokeExact((Object) order);
+    }
+
+    @Benchmark
+    public Object methodInvoke() throws ReflectiveOperationException {
+        Object value = order;
+        for (Method method : methods) {
+            if (value == null) {
+                return null;
+            }
+            value = method.invoke(value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,102 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.RecordStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1000000 个 User 按 id / admin 扫描：堆上 List&lt;User&gt; / RecordStore 槽位；以及按下标读取单条记录
+ *
+ * @author Ayaka
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RecordStoreBenchmark {
+
+    private static final int SIZE = 1_000_000;
+
+    private List<User> users;
+
+    private Path path;
+
+    private RecordStore<User> store;
+
+    private RecordStore<User>.Slot id;
+
+    private RecordStore<User>.Slot admin;
+
+    private long next;
+
+    @Setup
+    public void setup() throws IOException {
+        users = new ArrayList<>(SIZE);
+        path = Files.createTempFile("record-store", ".rec");
+        Files.delete(path);
+        store = RecordStore.open(User.class, path);
+        for (long i = 0; i < SIZE; i++) {
+            User user = new User(i, "user-" + i, "pwd", "nick", i + "@ayaka.icu", new Date(i * 1000), i % 2 == 0);
+            users.add(user);
+            store.append(user);
+        }
+        id = store.slot(User::getId);
+        admin = store.slot(User::isAdmin);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(Paths.get(path + ".arena"));
+    }
+
+    @Benchmark
+    public long heapScan() {
+        long sum = 0;
+        for (User user : users) {
+            if (user.isAdmin()) {
+                sum += user.getId();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long slotScan() {
+        long sum = 0;
+        for (long i = 0, n = store.size(); i < n; i++) {
+            if (admin.getBoolean(i)) {
+                sum += id.getLong(i);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public User materialize() {
+        next = (next + 7919) % SIZE;
+        return store.get(next);
+    }
+}
@@ -0,0 +1,89 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.FieldUtils;
+import icu.ayaka.reflect.RowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 100000 行 Object[] (id, name, createTime, admin) 转换为 User：
+ * 无参构造 + getBeanSetMethods 反射调用 / 手写构造器调用 / RowMapper
+ *
+ * @author Ayaka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RowMapperBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    private static final String[] COLUMNS = {"id", "name", "createTime", "admin"};
+
+    private static final RowMapper<User> MAPPER = RowMapper.of(User.class, COLUMNS);
+
+    private List<Object[]> rows;
+
+    private Map<String, Method> setters;
+
+    @Setup
+    public void setup() {
+        rows = new ArrayList<>(SIZE);
+        long start = 1_700_000_000_000L;
+        for (int i = 0; i < SIZE; i++) {
+            rows.add(new Object[]{(long) i, "user" + i, new Date(start + i), i % 2 == 0});
+        }
+        setters = FieldUtils.getBeanSetMethods(User.class);
+    }
+
+    @Benchmark
+    public List<User> reflective() throws ReflectiveOperationException {
+        List<User> out = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            User user = new User();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                setters.get(COLUMNS[i]).invoke(user, row[i]);
+            }
+            out.add(user);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<User> handWritten() {
+        List<User> out = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            out.add(new User((Long) row[0], (String) row[1], null, null, null, (Date) row[2], (Boolean) row[3]));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<User> rowMapper() {
+        return MAPPER.mapAll(rows, false);
+    }
+
+    @Benchmark
+    public List<User> rowMapperParallel() {
+        return MAPPER.mapAll(rows);
+    }
+}
@@ -0,0 +1,130 @@
+package icu.ayaka.benchmark;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 校验 100000 个 User（name 非空、email 格式、password 长度，1% 不合法）：
+ * 每个对象重新查找 getter 并反射调用 / 手写 / Validator
+ *
+ * @author Ayaka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ValidatorBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    private static final String EMAIL = "^[\\w.+-]+@[\\w-]+(\\.[\\w-]+)+$";
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL);
+
+    private static final Validator<User> VALIDATOR = Validator.builder(User.class)
+            .rule(User::getName).notNull().notBlank()
+            .rule(User::getEmail).notNull().matches(EMAIL_PATTERN)
+            .rule(User::getPassword).notNull().length(6, 64)
+            .build();
+
+    private List<User> users;
+
+    private final Validator.Violations violations = new Validator.Violations();
+
+    @Setup
+    public void setup() {
+        users = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            User user = User.getTestUser();
+            user.setId((long) i);
+            user.setName("user" + i);
+            user.setEmail(i % 100 == 0 ? "invalid" : "user" + i + "@example.com");
+            user.setPassword("password" + i);
+            users.add(user);
+        }
+    }
+
+    @Benchmark
+    public int reflective() throws Exception {
+        int violations = 0;
+        for (User user : users) {
+            for (PropertyDescriptor pd : Introspector.getBeanInfo(User.class).getPropertyDescriptors()) {
+                Method read = pd.getReadMethod();
+                switch (pd.getName()) {
+                    case "name" -> {
+                        Object v = read.invoke(user);
+                        if (v == null || ((String) v).isBlank()) {
+                            violations++;
+                        }
+                    }
+                    case "email" -> {
+                        Object v = read.invoke(user);
+                        if (v == null || !Pattern.matches(EMAIL, (String) v)) {
+                            violations++;
+                        }
+                    }
+                    case "password" -> {
+                        Object v = read.invoke(user);
+                        if (v == null || ((String) v).length() < 6 || ((String) v).length() > 64) {
+                            violations++;
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        return violations;
+    }
+
+    @Benchmark
+    public int handWritten() {
+        int violations = 0;
+        for (User user : users) {
+            String name = user.getName();
+            if (name == null || name.isBlank()) {
+                violations++;
+            }
+            String email = user.getEmail();
+            if (email == null || !EMAIL_PATTERN.matcher(email).matches()) {
+                violations++;
+            }
+            String password = user.getPassword();
+            if (password == null || password.length() < 6 || password.length() > 64) {
+                violations++;
+            }
+        }
+        return violations;
+    }
+
+    @Benchmark
+    public int validator() {
+        VALIDATOR.validateAll(users, violations);
+        return violations.size();
+    }
+
+    @Benchmark
+    public boolean validatorFailFast() {
+        return VALIDATOR.validateAll(users, violations, 1);
+    }
+}
@@ -0,0 +1,90 @@
+package icu.ayaka.benchmark.bean;
+
+import icu.ayaka.common.entry.Department;
+import icu.ayaka.common.entry.User;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 与 Department 结构相同的 Serializable 实体，保留 parent / children 的环和共享引用
+ *
+ * @author Ayaka
+ */
+@Getter
+@Setter
+public class SerialDepartment implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String name;
+
+    private SerialDepartment parent;
+
+    private List<SerialDepartment> children;
+
+    private List<SerialUser> members;
+
+    private List<String> tags;
+
+    private Map<String, Object> attributes;
+
+    private long[] budgets;
+
+    private Date createTime;
+
+    public static SerialDepartment of(Department department) {
+        return of(department, new IdentityHashMap<>());
+    }
+
+    private static SerialDepartment of(Department department, IdentityHashMap<Object, Object> seen) {
+        if (department == null) {
+            return null;
+        }
+        Object existing = seen.get(department);
+        if (existing != null) {
+            return (SerialDepartment) existing;
+        }
+        SerialDepartment copy = new SerialDepartment();
+        seen.put(department, copy);
+        copy.setId(department.getId());
+        copy.setName(department.getName());
+        copy.setParent(of(department.getParent(), seen));
+        if (department.getChildren() != null) {
+            List<SerialDepartment> children = new ArrayList<>();
+            for (Department child : department.getChildren()) {
+                children.add(of(child, seen));
+            }
+            copy.setChildren(children);
+        }
+        if (department.getMembers() != null) {
+            List<SerialUser> members = new ArrayList<>();
+            for (User member : department.getMembers()) {
+                members.add(user(member, seen));
+            }
+            copy.setMembers(members);
+        }
+        copy.setTags(department.getTags() == null ? null : new ArrayList<>(department.getTags()));
+        if (department.getAttributes() != null) {
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            department.getAttributes().forEach((k, v) -> attributes.put(k, v instanceof User ? user((User) v, seen) : v));
+            copy.setAttributes(attributes);
+        }
+        copy.setBudgets(department.getBudgets());
+        copy.setCreateTime(department.getCreateTime());
+        return copy;
+    }
+
+    private static SerialUser user(User user, IdentityHashMap<Object, Object> seen) {
+        return (SerialUser) seen.computeIfAbsent(user, u -> SerialUser.of((User) u));
+    }
+}
@@ -0,0 +1,38 @@
+package icu.ayaka.benchmark.bean;
+
+import icu.ayaka.common.entry.Order;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 与 Order 属性相同的 Serializable 实体
+ *
+ * @author Ayaka
+ */
+@Data
+public class SerialOrder implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String title;
+
+    private long amount;
+
+    private SerialUser user;
+
+    private Date createTime;
+
+    public static SerialOrder of(Order order) {
+        SerialOrder copy = new SerialOrder();
+        copy.setId(order.getId());
+        copy.setTitle(order.getTitle());
+        copy.setAmount(order.getAmount());
+        copy.setUser(SerialUser.of(order.getUser()));
+        copy.setCreateTime(order.getCreateTime());
+        return copy;
+    }
+}
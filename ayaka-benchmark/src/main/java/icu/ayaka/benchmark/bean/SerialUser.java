@@ -0,0 +1,47 @@
+package icu.ayaka.benchmark.bean;
+
+import icu.ayaka.common.entry.User;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 与 User 属性相同的 Serializable 实体，用于和 ObjectOutputStream 对比，公共实体不需要实现 Serializable
+ *
+ * @author Ayaka
+ */
+@Data
+public class SerialUser implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String name;
+
+    private String password;
+
+    private String nickname;
+
+    private String email;
+
+    private Date createTime;
+
+    private boolean admin;
+
+    public static SerialUser of(User user) {
+        if (user == null) {
+            return null;
+        }
+        SerialUser copy = new SerialUser();
+        copy.setId(user.getId());
+        copy.setName(user.getName());
+        copy.setPassword(user.getPassword());
+        copy.setNickname(user.getNickname());
+        copy.setEmail(user.getEmail());
+        copy.setCreateTime(user.getCreateTime());
+        copy.setAdmin(user.isAdmin());
+        return copy;
+    }
+}
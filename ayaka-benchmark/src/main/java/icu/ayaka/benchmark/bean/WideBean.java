@@ -0,0 +1,416 @@
+package icu.ayaka.benchmark.bean;
+
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 200 个属性的宽实体，用于测试属性数量对查找的影响
+ * 属性类型按 long / String / int / boolean / Long / Date / double / Integer 轮换
+ *
+ * @author Ayaka
+ */
+@Data
+public class WideBean {
+
+    private long p000;
+
+    private String p001;
+
+    private int p002;
+
+    private boolean p003;
+
+    private Long p004;
+
+    private Date p005;
+
+    private double p006;
+
+    private Integer p007;
+
+    private long p008;
+
+    private String p009;
+
+    private int p010;
+
+    private boolean p011;
+
+    private Long p012;
+
+    private Date p013;
+
+    private double p014;
+
+    private Integer p015;
+
+    private long p016;
+
+    private String p017;
+
+    private int p018;
+
+    private boolean p019;
+
+    private Long p020;
+
+    private Date p021;
+
+    private double p022;
+
+    private Integer p023;
+
+    private long p024;
+
+    private String p025;
+
+    private int p026;
+
+    private boolean p027;
+
+    private Long p028;
+
+    private Date p029;
+
+    private double p030;
+
+    private Integer p031;
+
+    private long p032;
+
+    private String p033;
+
+    private int p034;
+
+    private boolean p035;
+
+    private Long p036;
+
+    private Date p037;
+
+    private double p038;
+
+    private Integer p039;
+
+    private long p040;
+
+    private String p041;
+
+    private int p042;
+
+    private boolean p043;
+
+    private Long p044;
+
+    private Date p045;
+
+    private double p046;
+
+    private Integer p047;
+
+    private long p048;
+
+    private String p049;
+
+    private int p050;
+
+    private boolean p051;
+
+    private Long p052;
+
+    private Date p053;
+
+    private double p054;
+
+    private Integer p055;
+
+    private long p056;
+
+    private String p057;
+
+    private int p058;
+
+    private boolean p059;
+
+    private Long p060;
+
+    private Date p061;
+
+    private double p062;
+
+    private Integer p063;
+
+    private long p064;
+
+    private String p065;
+
+    private int p066;
+
+    private boolean p067;
+
+    private Long p068;
+
+    private Date p069;
+
+    private double p070;
+
+    private Integer p071;
+
+    private long p072;
+
+    private String p073;
+
+    private int p074;
+
+    private boolean p075;
+
+    private Long p076;
+
+    private Date p077;
+
+    private double p078;
+
+    private Integer p079;
+
+    private long p080;
+
+    private String p081;
+
+    private int p082;
+
+    private boolean p083;
+
+    private Long p084;
+
+    private Date p085;
+
+    private double p086;
+
+    private Integer p087;
+
+    private long p088;
+
+    private String p089;
+
+    private int p090;
+
+    private boolean p091;
+
+    private Long p092;
+
+    private Date p093;
+
+    private double p094;
+
+    private Integer p095;
+
+    private long p096;
+
+    private String p097;
+
+    private int p098;
+
+    private boolean p099;
+
+    private Long p100;
+
+    private Date p101;
+
+    private double p102;
+
+    private Integer p103;
+
+    private long p104;
+
+    private String p105;
+
+    private int p106;
+
+    private boolean p107;
+
+    private Long p108;
+
+    private Date p109;
+
+    private double p110;
+
+    private Integer p111;
+
+    private long p112;
+
+    private String p113;
+
+    private int p114;
+
+    private boolean p115;
+
+    private Long p116;
+
+    private Date p117;
+
+    private double p118;
+
+    private Integer p119;
+
+    private long p120;
+
+    private String p121;
+
+    private int p122;
+
+    private boolean p123;
+
+    private Long p124;
+
+    private Date p125;
+
+    private double p126;
+
+    private Integer p127;
+
+    private long p128;
+
+    private String p129;
+
+    private int p130;
+
+    private boolean p131;
+
+    private Long p132;
+
+    private Date p133;
+
+    private double p134;
+
+    private Integer p135;
+
+    private long p136;
+
+    private String p137;
+
+    private int p138;
+
+    private boolean p139;
+
+    private Long p140;
+
+    private Date p141;
+
+    private double p142;
+
+    private Integer p143;
+
+    private long p144;
+
+    private String p145;
+
+    private int p146;
+
+    private boolean p147;
+
+    private Long p148;
+
+    private Date p149;
+
+    private double p150;
+
+    private Integer p151;
+
+    private long p152;
+
+    private String p153;
+
+    private int p154;
+
+    private boolean p155;
+
+    private Long p156;
+
+    private Date p157;
+
+    private double p158;
+
+    private Integer p159;
+
+    private long p160;
+
+    private String p161;
+
+    private int p162;
+
+    private boolean p163;
+
+    private Long p164;
+
+    private Date p165;
+
+    private double p166;
+
+    private Integer p167;
+
+    private long p168;
+
+    private String p169;
+
+    private int p170;
+
+    private boolean p171;
+
+    private Long p172;
+
+    private Date p173;
+
+    private double p174;
+
+    private Integer p175;
+
+    private long p176;
+
+    private String p177;
+
+    private int p178;
+
+    private boolean p179;
+
+    private Long p180;
+
+    private Date p181;
+
+    private double p182;
+
+    private Integer p183;
+
+    private long p184;
+
+    private String p185;
+
+    private int p186;
+
+    private boolean p187;
+
+    private Long p188;
+
+    private Date p189;
+
+    private double p190;
+
+    private Integer p191;
+
+    private long p192;
+
+    private String p193;
+
+    private int p194;
+
+    private boolean p195;
+
+    private Long p196;
+
+    private Date p197;
+
+    private double p198;
+
+    private Integer p199;
+
+}
@@ -0,0 +1,65 @@
+package icu.ayaka.common.entry;
+
+import icu.ayaka.processor.BeanMeta;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 部门：包含集合、数组，parent / children 互相引用，不生成 equals / hashCode / toString
+ */
+@Getter
+@Setter
+@BeanMeta
+@NoArgsConstructor
+public class Department {
+
+    private Long id;
+
+    private String name;
+
+    private Department parent;
+
+    private List<Department> children;
+
+    private List<User> members;
+
+    private List<String> tags;
+
+    private Map<String, Object> attributes;
+
+    private long[] budgets;
+
+    private Date createTime;
+
+    public static Department getTestDepartment() {
+        Department root = new Department();
+        root.setId(1L);
+        root.setName("root");
+        root.setChildren(new ArrayList<>());
+        root.setMembers(new ArrayList<>(Arrays.asList(User.getTestUser(), User.getTestUser())));
+        root.setTags(new ArrayList<>(Arrays.asList("ayaka", "icu")));
+        root.setAttributes(new LinkedHashMap<>());
+        root.getAttributes().put("level", 1);
+        root.getAttributes().put("leader", root.getMembers().get(0));
+        root.setBudgets(new long[]{521, 1314});
+        root.setCreateTime(new Date());
+        for (long i = 2; i < 4; i++) {
+            Department child = new Department();
+            child.setId(i);
+            child.setName("child-" + i);
+            child.setParent(root);
+            child.setMembers(new ArrayList<>());
+            child.setCreateTime(new Date());
+            root.getChildren().add(child);
+        }
+        return root;
+    }
+}
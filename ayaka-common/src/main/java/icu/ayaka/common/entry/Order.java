@@ -0,0 +1,30 @@
+package icu.ayaka.common.entry;
+
+import icu.ayaka.processor.BeanMeta;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@BeanMeta
+@NoArgsConstructor
+@AllArgsConstructor
+public class Order {
+
+    private Long id;
+
+    private String title;
+
+    private long amount;
+
+    private User user;
+
+    private Date createTime;
+
+    public static Order getTestOrder(){
+        return new Order(1L, "ayaka", 521L, User.getTestUser(), new Date());
+    }
+
+}
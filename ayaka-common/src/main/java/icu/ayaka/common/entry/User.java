@@ -1,5 +1,6 @@
 package icu.ayaka.common.entry;
 
+import icu.ayaka.processor.BeanMeta;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -7,6 +8,7 @@ import lombok.NoArgsConstructor;
 import java.util.Date;
 
 @Data
+@BeanMeta
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
@@ -0,0 +1,26 @@
+package icu.ayaka.common.entry;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * 对外展示的用户，不包含密码
+ */
+@Data
+@NoArgsConstructor
+public class UserView {
+
+    private Long id;
+
+    private String name;
+
+    private String nickname;
+
+    private String email;
+
+    private String createTime;
+
+    private boolean admin;
+
+}
@@ -0,0 +1,23 @@
+package icu.ayaka.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记需要在编译期生成属性元数据的bean
+ * 编译时 BeanMetaProcessor 会在同一个包下生成 [类名]$BeanMeta，实现 BeanMetadata
+ * 运行时 FieldUtils 发现该注解时 直接使用生成的元数据，不再通过 Introspector 扫描
+ * <p>
+ * 属性按 bean 及其父类的 public get/set方法 生成，get/set方法 可以显式声明 或 由 Lombok 的 @Data / @Getter / @Setter 生成；
+ * 生成的属性集合与 Introspector 不一致时，运行时退化为 Introspector
+ *
+ * @author Ayaka
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface BeanMeta {
+}
@@ -0,0 +1,286 @@
+package icu.ayaka.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 为 @BeanMeta 标记的类 生成 [类名]$BeanMeta 属性元数据
+ * <blockquote><pre>
+ * {@code public final class User$BeanMeta implements BeanMetadata {
+ *      NAMES   = ["admin", "createTime", ...]
+ *      GETTERS = [bean -> ((User) bean).isAdmin(), ...]
+ *      SETTERS = [(bean, value) -> ((User) bean).setAdmin((java.lang.Boolean) value), ...]
+ *  }
+ * }</pre></blockquote>
+ * 不依赖其它处理器（如 Lombok）的执行顺序：显式声明的 get/set方法 直接读取，Lombok 生成的 按字段和注解推导，
+ * 生成的源码在 Lombok 修改语法树之后才会被编译；包含父类的属性
+ * <p>
+ * 处理器没有通过 META-INF/services 注册，需要在编译插件的 annotationProcessorPaths / annotationProcessors 中显式声明，
+ * 只依赖 @BeanMeta / BeanMetadata 的模块不会在编译时运行处理器
+ *
+ * @author Ayaka
+ */
+@SupportedAnnotationTypes("icu.ayaka.processor.BeanMeta")
+public class BeanMetaProcessor extends AbstractProcessor {
+
+    private static final String CLASS = "class";
+
+    private static final String LOMBOK = "lombok.";
+
+    private static final Set<String> LOMBOK_GETTER = Set.of("lombok.Data", "lombok.Value", "lombok.Getter");
+
+    private static final Set<String> LOMBOK_SETTER = Set.of("lombok.Data", "lombok.Setter");
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(BeanMeta.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@BeanMeta 只能用于类");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            try {
+                generate(type, properties(type));
+            } catch (IOException e) {
+                error(type, "生成 BeanMeta 失败：" + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * <h3>
+     * 收集属性，按属性名称排序，与 Introspector 的顺序一致
+     * </h3>
+     * 从类本身开始向父类（不包含 Object）收集：显式声明的 public get/is/set方法，以及 Lombok 注解隐含的 get/set方法；
+     * 子类的方法优先。属性名称由方法名按 Introspector.decapitalize 规则推导（如 getURL -> URL，getXIndex -> XIndex），
+     * 与 Introspector / FieldUtils 一致。运行时 PropertyIndex 会再与类的方法核对，不一致时退化为 Introspector
+     */
+    private List<Prop> properties(TypeElement type) {
+        Map<String, Prop> props = new TreeMap<>();
+        for (TypeElement c = type; c != null; c = superclass(c)) {
+            List<ExecutableElement> methods = ElementFilter.methodsIn(c.getEnclosedElements());
+            for (ExecutableElement m : methods) {
+                if (!m.getModifiers().contains(Modifier.PUBLIC) || m.getModifiers().contains(Modifier.STATIC)) {
+                    continue;
+                }
+                String name = m.getSimpleName().toString();
+                TypeMirror returnType = m.getReturnType();
+                if (m.getParameters().isEmpty() && name.length() > 3 && name.startsWith("get")
+                        && returnType.getKind() != TypeKind.VOID) {
+                    read(props, name.substring(3), name, returnType);
+                } else if (m.getParameters().isEmpty() && name.length() > 2 && name.startsWith("is")
+                        && returnType.getKind() == TypeKind.BOOLEAN) {
+                    read(props, name.substring(2), name, returnType);
+                } else if (m.getParameters().size() == 1 && name.length() > 3 && name.startsWith("set")
+                        && returnType.getKind() == TypeKind.VOID) {
+                    write(props, name.substring(3), name, m.getParameters().get(0).asType());
+                }
+            }
+            // Lombok 生成的方法在本轮处理时还不可见，按注解推导
+            boolean classGetter = hasLombok(c, LOMBOK_GETTER);
+            boolean classSetter = hasLombok(c, LOMBOK_SETTER);
+            for (VariableElement field : ElementFilter.fieldsIn(c.getEnclosedElements())) {
+                if (field.getModifiers().contains(Modifier.STATIC)) {
+                    continue;
+                }
+                String name = field.getSimpleName().toString();
+                TypeMirror fieldType = field.asType();
+                String cap = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+                if (classGetter || hasLombok(field, LOMBOK_GETTER)) {
+                    read(props, cap, (fieldType.getKind() == TypeKind.BOOLEAN ? "is" : "get") + cap, fieldType);
+                }
+                if (!field.getModifiers().contains(Modifier.FINAL) && (classSetter || hasLombok(field, LOMBOK_SETTER))) {
+                    write(props, cap, "set" + cap, fieldType);
+                }
+            }
+        }
+        List<Prop> list = new ArrayList<>();
+        for (Prop p : props.values()) {
+            // 与 Introspector 一致：set方法的参数类型与get方法的返回值类型不同时 不属于该属性
+            if (p.read != null && p.write != null
+                    && !processingEnv.getTypeUtils().isSameType(p.readType, p.writeType)) {
+                p.write = null;
+            }
+            list.add(p);
+        }
+        return list;
+    }
+
+    private void read(Map<String, Prop> props, String suffix, String method, TypeMirror type) {
+        String name = Introspector.decapitalize(suffix);
+        if (CLASS.equals(name)) {
+            return;
+        }
+        Prop p = props.computeIfAbsent(name, Prop::new);
+        if (p.read == null) {
+            p.read = method;
+            p.readType = processingEnv.getTypeUtils().erasure(type);
+        }
+    }
+
+    private void write(Map<String, Prop> props, String suffix, String method, TypeMirror type) {
+        Prop p = props.computeIfAbsent(Introspector.decapitalize(suffix), Prop::new);
+        if (p.write == null) {
+            p.write = method;
+            p.writeType = processingEnv.getTypeUtils().erasure(type);
+        }
+    }
+
+    /**
+     * 父类，到 Object 为止
+     */
+    private static TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals(Object.class.getName()) ? null : element;
+    }
+
+    private void generate(TypeElement type, List<Prop> props) throws IOException {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + BeanMetadata.SUFFIX;
+        String bean = type.getQualifiedName().toString();
+
+        StringBuilder names = new StringBuilder();
+        StringBuilder types = new StringBuilder();
+        StringBuilder reads = new StringBuilder();
+        StringBuilder writes = new StringBuilder();
+        StringBuilder getters = new StringBuilder();
+        StringBuilder setters = new StringBuilder();
+        for (int i = 0; i < props.size(); i++) {
+            Prop p = props.get(i);
+            String sep = i == props.size() - 1 ? "\n" : ",\n";
+            String boxed = p.type().getKind().isPrimitive()
+                    ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) p.type()).getQualifiedName().toString()
+                    : p.type().toString();
+            names.append("            \"").append(p.name).append('"').append(sep);
+            types.append("            ").append(p.type()).append(".class").append(sep);
+            reads.append("            ").append(quote(p.read)).append(sep);
+            writes.append("            ").append(quote(p.write)).append(sep);
+            getters.append("            ").append(p.read == null ? "null"
+                    : "bean -> ((" + bean + ") bean)." + p.read + "()").append(sep);
+            setters.append("            ").append(p.write == null ? "null"
+                    : "(bean, value) -> ((" + bean + ") bean)." + p.write + "((" + boxed + ") value)").append(sep);
+        }
+
+        try (Writer w = processingEnv.getFiler().createSourceFile(
+                packageName.isEmpty() ? simpleName : packageName + '.' + simpleName, type).openWriter()) {
+            if (!packageName.isEmpty()) {
+                w.write("package " + packageName + ";\n\n");
+            }
+            w.write("import icu.ayaka.processor.BeanMetadata;\n\n");
+            w.write("import java.util.Arrays;\n");
+            w.write("import java.util.Collections;\n");
+            w.write("import java.util.List;\n");
+            w.write("import java.util.function.BiConsumer;\n");
+            w.write("import java.util.function.Function;\n\n");
+            w.write("/**\n * " + bean + " 的属性元数据，由 " + BeanMetaProcessor.class.getName() + " 生成\n */\n");
+            w.write("@javax.annotation.processing.Generated(\"" + BeanMetaProcessor.class.getName() + "\")\n");
+            w.write("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+            w.write("public final class " + simpleName + " implements BeanMetadata {\n\n");
+            field(w, "String", "NAMES", names);
+            field(w, "Class<?>", "TYPES", types);
+            field(w, "String", "READ_METHOD_NAMES", reads);
+            field(w, "String", "WRITE_METHOD_NAMES", writes);
+            field(w, "Function<Object, Object>", "GETTERS", getters);
+            field(w, "BiConsumer<Object, Object>", "SETTERS", setters);
+            method(w, "Class<?>", "getBeanClass", bean + ".class");
+            method(w, "List<String>", "getNames", "NAMES");
+            method(w, "List<Class<?>>", "getTypes", "TYPES");
+            method(w, "List<String>", "getReadMethodNames", "READ_METHOD_NAMES");
+            method(w, "List<String>", "getWriteMethodNames", "WRITE_METHOD_NAMES");
+            method(w, "List<Function<Object, Object>>", "getGetters", "GETTERS");
+            method(w, "List<BiConsumer<Object, Object>>", "getSetters", "SETTERS");
+            w.write("}\n");
+        }
+    }
+
+    private static void field(Writer w, String type, String name, StringBuilder values) throws IOException {
+        w.write("    private static final List<" + type + "> " + name + " = Collections.unmodifiableList(Arrays.<"
+                + type + ">asList(\n" + values + "    ));\n\n");
+    }
+
+    private static void method(Writer w, String type, String name, String value) throws IOException {
+        w.write("    @Override\n    public " + type + " " + name + "() {\n        return " + value + ";\n    }\n\n");
+    }
+
+    /**
+     * 元素上是否有指定的 Lombok 注解，Lombok 注解保留策略为 SOURCE，只能在编译期读取
+     */
+    private static boolean hasLombok(Element element, Set<String> names) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            String name = mirror.getAnnotationType().toString();
+            if (name.startsWith(LOMBOK) && names.contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String quote(String s) {
+        return s == null ? "null" : '"' + s + '"';
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * 推导出的属性，type 为 get方法的返回值类型，没有get方法时为 set方法的参数类型
+     */
+    private static final class Prop {
+
+        private final String name;
+
+        private String read;
+
+        private TypeMirror readType;
+
+        private String write;
+
+        private TypeMirror writeType;
+
+        private Prop(String name) {
+            this.name = name;
+        }
+
+        private TypeMirror type() {
+            return read != null ? readType : writeType;
+        }
+    }
+}
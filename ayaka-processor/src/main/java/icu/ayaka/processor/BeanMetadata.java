@@ -0,0 +1,39 @@
+package icu.ayaka.processor;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 编译期生成的bean属性元数据
+ * 所有列表按属性名称排序且长度一致，没有get/set方法的属性 对应位置为 null
+ *
+ * @author Ayaka
+ */
+public interface BeanMetadata {
+
+    /**
+     * 生成类的类名后缀
+     */
+    String SUFFIX = "$BeanMeta";
+
+    Class<?> getBeanClass();
+
+    List<String> getNames();
+
+    List<Class<?>> getTypes();
+
+    List<String> getReadMethodNames();
+
+    List<String> getWriteMethodNames();
+
+    /**
+     * 直接调用get方法的函数，基本类型会装箱
+     */
+    List<Function<Object, Object>> getGetters();
+
+    /**
+     * 直接调用set方法的函数，基本类型属性传入 null 会抛出 NullPointerException
+     */
+    List<BiConsumer<Object, Object>> getSetters();
+}
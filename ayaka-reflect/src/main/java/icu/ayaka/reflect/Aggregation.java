@@ -0,0 +1,867 @@
+package icu.ayaka.reflect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 分组聚合：按一个属性分组，对其他属性求 count / sum / min / max / avg
+ * <p>
+ * 分组键和度量值按属性类型选择读取方式：整数、boolean、Date 读取为 long，浮点数读取为 double，基本类型属性不装箱；
+ * long 键的分组使用开放寻址的 long -> 分组下标 表，其余类型（String、枚举等）按对象分组；
+ * 每个分组的累加值保存在按度量排列的 long[] / double[] 中，聚合过程中每个元素不分配对象，只有输出结果时装箱。
+ * 元素数量达到 PARALLEL_THRESHOLD 时，拆分到 ForkJoinPool.commonPool() 分片聚合后合并
+ * <blockquote><pre>
+ * {@code private static final Aggregation<User> BY_DAY = Aggregation.builder(User.class)
+ *          .groupBy(User::getCreateTime, Aggregation.DAY)   // 按 UTC 日期分组
+ *          .sum(User::getId)
+ *          .min(User::getId)
+ *          .max(User::getId)
+ *          .count(User::isAdmin)
+ *          .build();
+ *
+ *  for (Aggregation.Group group : BY_DAY.apply(users)) {
+ *      Date day = (Date) group.getKey();
+ *      long users = group.getCount();
+ *      long maxId = group.getLong(2);                   // 也可以按标签读取：group.get("max(id)")
+ *  }
+ * }</pre></blockquote>
+ * null 的分组键单独成组，null 的度量值不参与计算（与 SQL 相同）。编译结果不可变，线程安全
+ *
+ * @param <T> bean类型
+ * @author Ayaka
+ */
+public final class Aggregation<T> {
+
+    private static final String ERROR_MESSAGE = "[Aggregation] 聚合异常";
+
+    /**
+     * 并行阈值，小于该数量时单线程聚合
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    /**
+     * 一天的毫秒数，用于按日期分组
+     */
+    public static final long DAY = 24L * 60 * 60 * 1000;
+
+    private static final int MIN_CHUNK = 1 << 12;
+
+    private static final int INITIAL_GROUPS = 16;
+
+    private final Key<T> key;
+
+    private final Measure[] measures;
+
+    /**
+     * 度量按属性合并，每个元素的每个属性只读取一次
+     */
+    private final Source<T>[] sources;
+
+    private final String[] labels;
+
+    private Aggregation(Key<T> key, Measure[] measures, Source<T>[] sources) {
+        this.key = key;
+        this.measures = measures;
+        this.sources = sources;
+        this.labels = new String[measures.length];
+        for (int i = 0; i < measures.length; i++) {
+            labels[i] = measures[i].label;
+        }
+    }
+
+    public static <T> Builder<T> builder(Class<T> type) {
+        return new Builder<>();
+    }
+
+    /**
+     * 度量的标签，如 sum(id)，与 Group.get(int) 的下标一一对应
+     */
+    public List<String> getLabels() {
+        return Collections.unmodifiableList(Arrays.asList(labels));
+    }
+
+    /**
+     * <h3>
+     * 分组聚合
+     * </h3>
+     *
+     * @param list 元素，不能包含 null
+     * @return 分组，分组键可以比较大小时按分组键排序（null 在最前），否则按第一次出现的顺序
+     */
+    public List<Group> apply(List<? extends T> list) {
+        List<? extends T> src = Ranges.randomAccess(list);
+        Queue<Partition> partitions = new ConcurrentLinkedQueue<>();
+        Ranges.run(src.size(), PARALLEL_THRESHOLD, MIN_CHUNK, (from, to) -> {
+            Partition p = new Partition(measures, sources.length);
+            for (int i = from; i < to; i++) {
+                accumulate(p, src.get(i));
+            }
+            partitions.add(p);
+        });
+        Partition total = partitions.poll();
+        if (total == null) {
+            return new ArrayList<>();
+        }
+        for (Partition p; (p = partitions.poll()) != null; ) {
+            merge(total, p);
+        }
+        return groups(total);
+    }
+
+    @Override
+    public String toString() {
+        return "Aggregation{groupBy " + key.name + ", " + Arrays.toString(labels) + "}";
+    }
+
+    private void accumulate(Partition p, T bean) {
+        int g = key.group(bean, p);
+        p.sizes[g]++;
+        for (Source<T> source : sources) {
+            source.accumulate(bean, p, g);
+        }
+    }
+
+    /**
+     * 把 from 的每个分组合并到 into 中键相同的分组
+     */
+    private void merge(Partition into, Partition from) {
+        for (int g = 0; g < from.groups; g++) {
+            int target;
+            if (g == from.nullGroup) {
+                target = into.nullGroup();
+            } else if (key.objects) {
+                target = into.group(from.groupObjects[g]);
+            } else {
+                target = into.group(from.groupKeys[g]);
+            }
+            into.sizes[target] += from.sizes[g];
+            for (int c = 0; c < sources.length; c++) {
+                into.counts[c][target] += from.counts[c][g];
+            }
+            for (int m = 0; m < measures.length; m++) {
+                measures[m].merge(into, target, from, g, m);
+            }
+        }
+    }
+
+    private List<Group> groups(Partition p) {
+        List<Group> groups = new ArrayList<>(p.groups);
+        boolean comparable = true;
+        for (int g = 0; g < p.groups; g++) {
+            Object k = g == p.nullGroup ? null : key.objects ? p.groupObjects[g] : key.box.apply(p.groupKeys[g]);
+            comparable &= k == null || k instanceof Comparable;
+            Object[] values = new Object[measures.length];
+            for (int m = 0; m < measures.length; m++) {
+                values[m] = measures[m].result(p, m, g);
+            }
+            groups.add(new Group(k, p.sizes[g], values, labels));
+        }
+        if (comparable) {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Comparator<Object> order = Comparator.nullsFirst((Comparator) Comparator.naturalOrder());
+            groups.sort((a, b) -> order.compare(a.key, b.key));
+        }
+        return groups;
+    }
+
+    // ================= 结果 ===================
+
+    /**
+     * 一个分组的聚合结果
+     */
+    public static final class Group {
+
+        private final Object key;
+
+        private final long count;
+
+        private final Object[] values;
+
+        private final String[] labels;
+
+        private Group(Object key, long count, Object[] values, String[] labels) {
+            this.key = key;
+            this.count = count;
+            this.values = values;
+            this.labels = labels;
+        }
+
+        /**
+         * 分组键，类型与分组属性相同（基本类型为其包装类型）；按区间分组时为区间的起点
+         */
+        public Object getKey() {
+            return key;
+        }
+
+        /**
+         * 分组的元素个数
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * <h3>
+         * 度量值
+         * </h3>
+         * count、整数和 boolean 的 sum 为 Long（boolean 的 sum 为 true 的个数），浮点数的 sum 与 avg 为 Double；
+         * min / max 为 Long / Double / Boolean / Date。没有非 null 值时 min / max / avg 为 null
+         *
+         * @param index 度量的下标，按添加顺序
+         */
+        public Object get(int index) {
+            return values[index];
+        }
+
+        public Object get(String label) {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i].equals(label)) {
+                    return values[i];
+                }
+            }
+            throw new RuntimeException(ERROR_MESSAGE + "：没有度量 " + label);
+        }
+
+        /**
+         * 度量值读取为 long，Date 为毫秒时间戳，boolean 为 0 / 1，null 为 0
+         */
+        public long getLong(int index) {
+            Object v = values[index];
+            if (v instanceof Date) {
+                return ((Date) v).getTime();
+            }
+            if (v instanceof Boolean) {
+                return (Boolean) v ? 1 : 0;
+            }
+            return v == null ? 0 : ((Number) v).longValue();
+        }
+
+        /**
+         * 度量值读取为 double，null 为 NaN
+         */
+        public double getDouble(int index) {
+            Object v = values[index];
+            return v instanceof Number ? ((Number) v).doubleValue() : v == null ? Double.NaN : getLong(index);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("Group{key=").append(key).append(", count=").append(count);
+            for (int i = 0; i < labels.length; i++) {
+                sb.append(", ").append(labels[i]).append('=').append(values[i]);
+            }
+            return sb.append('}').toString();
+        }
+    }
+
+    // ================= 分片 ===================
+
+    /**
+     * 一个分片的聚合状态，只被一个线程访问
+     */
+    private static final class Partition {
+
+        /**
+         * long 键 -> 分组下标 + 1，开放寻址，0 为空槽位
+         */
+        private long[] tableKeys = new long[INITIAL_GROUPS * 2];
+
+        private int[] tableGroups = new int[INITIAL_GROUPS * 2];
+
+        /**
+         * Fibonacci 散列取乘积的高位，64 - log2(表长)
+         */
+        private int shift = 64 - Integer.numberOfTrailingZeros(INITIAL_GROUPS * 2);
+
+        private Map<Object, Integer> objects;
+
+        private int nullGroup = -1;
+
+        private int groups;
+
+        private long[] groupKeys = new long[INITIAL_GROUPS];
+
+        private Object[] groupObjects;
+
+        private long[] sizes = new long[INITIAL_GROUPS];
+
+        /**
+         * 每个度量一个数组，按分组下标排列
+         */
+        private final long[][] longs;
+
+        private final double[][] doubles;
+
+        /**
+         * 每个属性参与计算的非 null 值个数，按 Source 排列
+         */
+        private final long[][] counts;
+
+        private final Measure[] measures;
+
+        private Partition(Measure[] measures, int sources) {
+            this.measures = measures;
+            this.longs = new long[measures.length][];
+            this.doubles = new double[measures.length][];
+            this.counts = new long[sources][INITIAL_GROUPS];
+            for (int m = 0; m < measures.length; m++) {
+                if (measures[m].floating) {
+                    doubles[m] = new double[INITIAL_GROUPS];
+                } else {
+                    longs[m] = new long[INITIAL_GROUPS];
+                }
+            }
+        }
+
+        private int group(long key) {
+            int mask = tableKeys.length - 1;
+            int slot = (int) (key * 0x9E3779B97F4A7C15L >>> shift);
+            while (true) {
+                int g = tableGroups[slot];
+                if (g == 0) {
+                    g = newGroup();
+                    groupKeys[g] = key;
+                    tableKeys[slot] = key;
+                    tableGroups[slot] = g + 1;
+                    if (groups * 2 > tableKeys.length) {
+                        rehash();
+                    }
+                    return g;
+                }
+                if (tableKeys[slot] == key) {
+                    return g - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private int group(Object key) {
+            if (objects == null) {
+                objects = new HashMap<>();
+                groupObjects = new Object[groupKeys.length];
+            }
+            Integer g = objects.get(key);
+            if (g == null) {
+                int n = newGroup();
+                groupObjects[n] = key;
+                objects.put(key, n);
+                return n;
+            }
+            return g;
+        }
+
+        private int nullGroup() {
+            if (nullGroup < 0) {
+                nullGroup = newGroup();
+            }
+            return nullGroup;
+        }
+
+        private int newGroup() {
+            int g = groups++;
+            if (g == sizes.length) {
+                int capacity = g * 2;
+                groupKeys = Arrays.copyOf(groupKeys, capacity);
+                if (groupObjects != null) {
+                    groupObjects = Arrays.copyOf(groupObjects, capacity);
+                }
+                sizes = Arrays.copyOf(sizes, capacity);
+                for (int m = 0; m < measures.length; m++) {
+                    if (longs[m] != null) {
+                        longs[m] = Arrays.copyOf(longs[m], capacity);
+                    } else {
+                        doubles[m] = Arrays.copyOf(doubles[m], capacity);
+                    }
+                }
+                for (int c = 0; c < counts.length; c++) {
+                    counts[c] = Arrays.copyOf(counts[c], capacity);
+                }
+            }
+            for (int m = 0; m < measures.length; m++) {
+                measures[m].init(this, m, g);
+            }
+            return g;
+        }
+
+        private void rehash() {
+            int capacity = tableKeys.length * 2;
+            int mask = capacity - 1;
+            shift--;
+            long[] keys = new long[capacity];
+            int[] table = new int[capacity];
+            for (int i = 0; i < tableKeys.length; i++) {
+                if (tableGroups[i] != 0) {
+                    int slot = (int) (tableKeys[i] * 0x9E3779B97F4A7C15L >>> shift);
+                    while (table[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = tableKeys[i];
+                    table[slot] = tableGroups[i];
+                }
+            }
+            tableKeys = keys;
+            tableGroups = table;
+        }
+    }
+
+    // ================= 分组键 ===================
+
+    /**
+     * 把元素放入分片中的分组，返回分组下标
+     */
+    private abstract static class Key<T> {
+
+        private final String name;
+
+        /**
+         * true 时按对象分组，否则按 long 分组
+         */
+        private final boolean objects;
+
+        /**
+         * long 键转换为分组属性的类型
+         */
+        private final LongFunction<Object> box;
+
+        private Key(String name, boolean objects, LongFunction<Object> box) {
+            this.name = name;
+            this.objects = objects;
+            this.box = box;
+        }
+
+        abstract int group(T bean, Partition p);
+
+        @SuppressWarnings("unchecked")
+        static <T> Key<T> of(PropertyAccessor<T> accessor, long width) {
+            Class<?> type = accessor.getType();
+            Class<?> wrapper = LambdaFactory.wrap(type);
+            String name = width > 1 ? accessor.getName() + "/" + width : accessor.getName();
+            boolean integral = wrapper == Long.class || wrapper == Integer.class || wrapper == Short.class
+                    || wrapper == Byte.class || wrapper == Character.class;
+            boolean date = Date.class.isAssignableFrom(type);
+            if (width > 1 && !integral && !date) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + accessor + " 不能按区间分组");
+            }
+            if (type == boolean.class) {
+                Predicate<T> g = accessor.booleanGetter();
+                return new Key<T>(name, false, v -> v != 0) {
+                    @Override
+                    int group(T bean, Partition p) {
+                        return p.group(g.test(bean) ? 1L : 0L);
+                    }
+                };
+            }
+            if (type == double.class || type == float.class) {
+                ToDoubleFunction<T> g = accessor.doubleGetter();
+                LongFunction<Object> box = type == double.class
+                        ? Double::longBitsToDouble : v -> (float) Double.longBitsToDouble(v);
+                return new Key<T>(name, false, box) {
+                    @Override
+                    int group(T bean, Partition p) {
+                        // 与 Double.equals 一致：NaN 为一组，0.0 与 -0.0 不同组
+                        return p.group(Double.doubleToLongBits(g.applyAsDouble(bean)));
+                    }
+                };
+            }
+            LongFunction<Object> box = date ? Date::new : integral ? integralBox(wrapper) : null;
+            if (type.isPrimitive()) {
+                ToLongFunction<T> g = accessor.longGetter();
+                if (width > 1) {
+                    return new Key<T>(name, false, box) {
+                        @Override
+                        int group(T bean, Partition p) {
+                            return p.group(Math.floorDiv(g.applyAsLong(bean), width) * width);
+                        }
+                    };
+                }
+                return new Key<T>(name, false, box) {
+                    @Override
+                    int group(T bean, Partition p) {
+                        return p.group(g.applyAsLong(bean));
+                    }
+                };
+            }
+            Function<T, Object> g = accessor.getter();
+            if (integral || date) {
+                ToLongFunction<Object> read = date ? v -> ((Date) v).getTime()
+                        : wrapper == Character.class ? v -> (Character) v : v -> ((Number) v).longValue();
+                return new Key<T>(name, false, box) {
+                    @Override
+                    int group(T bean, Partition p) {
+                        Object v = g.apply(bean);
+                        return v == null ? p.nullGroup() : p.group(Math.floorDiv(read.applyAsLong(v), width) * width);
+                    }
+                };
+            }
+            return new Key<T>(name, true, null) {
+                @Override
+                int group(T bean, Partition p) {
+                    Object v = g.apply(bean);
+                    return v == null ? p.nullGroup() : p.group(v);
+                }
+            };
+        }
+
+        private static LongFunction<Object> integralBox(Class<?> wrapper) {
+            if (wrapper == Integer.class) {
+                return v -> (int) v;
+            }
+            if (wrapper == Short.class) {
+                return v -> (short) v;
+            }
+            if (wrapper == Byte.class) {
+                return v -> (byte) v;
+            }
+            if (wrapper == Character.class) {
+                return v -> (char) v;
+            }
+            return v -> v;
+        }
+    }
+
+    // ================= 度量 ===================
+
+    private enum Op {
+        COUNT, SUM, MIN, MAX, AVG
+    }
+
+    /**
+     * 一个度量：属性 + 运算，累加值保存在分片中以度量下标排列的数组
+     */
+    private static final class Measure {
+
+        private final String label;
+
+        private final String property;
+
+        private final Op op;
+
+        private final Class<?> type;
+
+        /**
+         * 浮点数属性使用 double 累加，其余使用 long
+         */
+        private final boolean floating;
+
+        /**
+         * 所属 Source 的下标，非 null 值个数按 Source 统计
+         */
+        private final int source;
+
+        private Measure(PropertyAccessor<?> accessor, Op op, int source) {
+            this.source = source;
+            this.label = op.name().toLowerCase() + "(" + accessor.getName() + ")";
+            this.property = accessor.getName();
+            this.op = op;
+            this.type = accessor.getType();
+            Class<?> wrapper = LambdaFactory.wrap(type);
+            this.floating = wrapper == Double.class || wrapper == Float.class;
+            boolean numeric = Number.class.isAssignableFrom(wrapper) || wrapper == Boolean.class || wrapper == Character.class
+                    || Date.class.isAssignableFrom(type);
+            if (op != Op.COUNT && !numeric) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + accessor + " 不能计算 " + op.name().toLowerCase());
+            }
+        }
+
+        private void init(Partition p, int m, int g) {
+            if (op == Op.MIN) {
+                if (floating) {
+                    p.doubles[m][g] = Double.POSITIVE_INFINITY;
+                } else {
+                    p.longs[m][g] = Long.MAX_VALUE;
+                }
+            } else if (op == Op.MAX) {
+                if (floating) {
+                    p.doubles[m][g] = Double.NEGATIVE_INFINITY;
+                } else {
+                    p.longs[m][g] = Long.MIN_VALUE;
+                }
+            }
+        }
+
+        private void merge(Partition into, int target, Partition from, int g, int m) {
+            if (floating) {
+                double[] a = into.doubles[m];
+                double b = from.doubles[m][g];
+                a[target] = op == Op.MIN ? Math.min(a[target], b) : op == Op.MAX ? Math.max(a[target], b) : a[target] + b;
+            } else {
+                long[] a = into.longs[m];
+                long b = from.longs[m][g];
+                a[target] = op == Op.MIN ? Math.min(a[target], b) : op == Op.MAX ? Math.max(a[target], b) : a[target] + b;
+            }
+        }
+
+        private Object result(Partition p, int m, int g) {
+            long n = p.counts[source][g];
+            switch (op) {
+                case COUNT:
+                    return n;
+                case SUM:
+                    return floating ? (Object) p.doubles[m][g] : (Object) p.longs[m][g];
+                case AVG:
+                    if (n == 0) {
+                        return null;
+                    }
+                    return floating ? p.doubles[m][g] / n : (double) p.longs[m][g] / n;
+                default:
+                    if (n == 0) {
+                        return null;
+                    }
+                    if (floating) {
+                        return p.doubles[m][g];
+                    }
+                    long v = p.longs[m][g];
+                    if (Date.class.isAssignableFrom(type)) {
+                        return new Date(v);
+                    }
+                    if (LambdaFactory.wrap(type) == Boolean.class) {
+                        return v != 0;
+                    }
+                    return v;
+            }
+        }
+    }
+
+    /**
+     * 一个属性：每个元素只读取一次，累加到该属性的所有度量
+     */
+    private static final class Source<T> {
+
+        private final int index;
+
+        private final boolean floating;
+
+        /**
+         * 基本类型属性的读取函数，包装类型、Date 为 null
+         */
+        private final ToLongFunction<T> longs;
+
+        private final ToDoubleFunction<T> doubles;
+
+        /**
+         * 可以为 null 的属性先读取对象，再按类型转换为 long
+         */
+        private final Function<T, Object> getter;
+
+        private final ToLongFunction<Object> unbox;
+
+        /**
+         * 按运算分开的度量下标，累加时不需要判断运算；avg 与 sum 相同，count 只使用非 null 值个数
+         */
+        private final int[] sums;
+
+        private final int[] mins;
+
+        private final int[] maxs;
+
+        private Source(int index, PropertyAccessor<T> accessor, int[] sums, int[] mins, int[] maxs) {
+            this.index = index;
+            this.sums = sums;
+            this.mins = mins;
+            this.maxs = maxs;
+            Class<?> type = accessor.getType();
+            Class<?> wrapper = LambdaFactory.wrap(type);
+            this.floating = wrapper == Double.class || wrapper == Float.class;
+            if (type.isPrimitive()) {
+                this.getter = null;
+                this.unbox = null;
+                if (floating) {
+                    this.longs = null;
+                    this.doubles = accessor.doubleGetter();
+                } else if (type == boolean.class) {
+                    Predicate<T> g = accessor.booleanGetter();
+                    this.longs = bean -> g.test(bean) ? 1L : 0L;
+                    this.doubles = null;
+                } else {
+                    this.longs = accessor.longGetter();
+                    this.doubles = null;
+                }
+                return;
+            }
+            this.getter = accessor.getter();
+            this.longs = null;
+            this.doubles = null;
+            if (Date.class.isAssignableFrom(type)) {
+                this.unbox = v -> ((Date) v).getTime();
+            } else if (wrapper == Boolean.class) {
+                this.unbox = v -> (Boolean) v ? 1L : 0L;
+            } else if (wrapper == Character.class) {
+                this.unbox = v -> (Character) v;
+            } else if (Number.class.isAssignableFrom(wrapper)) {
+                this.unbox = v -> ((Number) v).longValue();
+            } else {
+                // 只用于 count 的其他类型
+                this.unbox = v -> 0L;
+            }
+        }
+
+        private void accumulate(T bean, Partition p, int g) {
+            if (floating) {
+                double v;
+                if (getter != null) {
+                    Object o = getter.apply(bean);
+                    if (o == null) {
+                        return;
+                    }
+                    v = ((Number) o).doubleValue();
+                } else {
+                    v = doubles.applyAsDouble(bean);
+                }
+                p.counts[index][g]++;
+                double[][] acc = p.doubles;
+                for (int m : sums) {
+                    acc[m][g] += v;
+                }
+                for (int m : mins) {
+                    acc[m][g] = Math.min(acc[m][g], v);
+                }
+                for (int m : maxs) {
+                    acc[m][g] = Math.max(acc[m][g], v);
+                }
+                return;
+            }
+            long v;
+            if (getter != null) {
+                Object o = getter.apply(bean);
+                if (o == null) {
+                    return;
+                }
+                v = unbox.applyAsLong(o);
+            } else {
+                v = longs.applyAsLong(bean);
+            }
+            p.counts[index][g]++;
+            long[][] acc = p.longs;
+            for (int m : sums) {
+                acc[m][g] += v;
+            }
+            for (int m : mins) {
+                acc[m][g] = Math.min(acc[m][g], v);
+            }
+            for (int m : maxs) {
+                acc[m][g] = Math.max(acc[m][g], v);
+            }
+        }
+    }
+
+    // ================= Builder ===================
+
+    public static final class Builder<T> {
+
+        private Key<T> key;
+
+        private final List<Measure> measures = new ArrayList<>();
+
+        /**
+         * 属性名称 -> 访问器，按第一次使用的顺序
+         */
+        private final Map<String, PropertyAccessor<T>> accessors = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder<T> groupBy(SFunction<T, ?> fn) {
+            return groupBy(fn, 1);
+        }
+
+        /**
+         * <h3>
+         * 按区间分组
+         * </h3>
+         * 整数属性按 floorDiv(值, width) * width 分组，Date 按毫秒时间戳分组（如 DAY 为按 UTC 日期）
+         *
+         * @param fn    lambda表达式，bean的属性的get方法
+         * @param width 区间宽度
+         * @return this
+         */
+        public Builder<T> groupBy(SFunction<T, ?> fn, long width) {
+            if (width < 1) {
+                throw new RuntimeException(ERROR_MESSAGE + "：区间宽度必须大于 0");
+            }
+            key = Key.of(BeanAccessor.accessor(fn), width);
+            return this;
+        }
+
+        /**
+         * 非 null 值的个数
+         */
+        public Builder<T> count(SFunction<T, ?> fn) {
+            return measure(fn, Op.COUNT);
+        }
+
+        /**
+         * 和，boolean 为 true 的个数，整数可能溢出
+         */
+        public Builder<T> sum(SFunction<T, ?> fn) {
+            return measure(fn, Op.SUM);
+        }
+
+        public Builder<T> min(SFunction<T, ?> fn) {
+            return measure(fn, Op.MIN);
+        }
+
+        public Builder<T> max(SFunction<T, ?> fn) {
+            return measure(fn, Op.MAX);
+        }
+
+        public Builder<T> avg(SFunction<T, ?> fn) {
+            return measure(fn, Op.AVG);
+        }
+
+        private Builder<T> measure(SFunction<T, ?> fn, Op op) {
+            PropertyAccessor<T> accessor = BeanAccessor.accessor(fn);
+            measures.add(new Measure(accessor, op, -1));
+            accessors.putIfAbsent(accessor.getName(), accessor);
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public Aggregation<T> build() {
+            if (key == null) {
+                throw new RuntimeException(ERROR_MESSAGE + "：没有指定分组属性");
+            }
+            Measure[] compiled = new Measure[measures.size()];
+            List<Source<T>> sources = new ArrayList<>(accessors.size());
+            for (PropertyAccessor<T> accessor : accessors.values()) {
+                int source = sources.size();
+                List<Integer> sums = new ArrayList<>();
+                List<Integer> mins = new ArrayList<>();
+                List<Integer> maxs = new ArrayList<>();
+                for (int m = 0; m < measures.size(); m++) {
+                    Measure measure = measures.get(m);
+                    if (!measure.property.equals(accessor.getName())) {
+                        continue;
+                    }
+                    compiled[m] = new Measure(accessor, measure.op, source);
+                    if (measure.op == Op.SUM || measure.op == Op.AVG) {
+                        sums.add(m);
+                    } else if (measure.op == Op.MIN) {
+                        mins.add(m);
+                    } else if (measure.op == Op.MAX) {
+                        maxs.add(m);
+                    }
+                }
+                sources.add(new Source<>(source, accessor, toArray(sums), toArray(mins), toArray(maxs)));
+            }
+            return new Aggregation<>(key, compiled, (Source<T>[]) sources.toArray(new Source<?>[0]));
+        }
+
+        private static int[] toArray(List<Integer> list) {
+            return list.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
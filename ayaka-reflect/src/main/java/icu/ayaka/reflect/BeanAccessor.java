@@ -0,0 +1,185 @@
+package icu.ayaka.reflect;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * bean的属性访问器
+ * 基于 PropertyIndex，为每个属性提供生成的 getter/setter 函数，替代 Method.invoke
+ * <blockquote><pre>
+ * {@code BeanAccessor<User> accessor = BeanAccessor.of(User.class);
+ *  ToLongFunction<User> id = accessor.property(User::getId).longGetter();
+ *  Predicate<User> admin = accessor.property(User::isAdmin).booleanGetter();
+ *  BiConsumer<User, Object> name = accessor.property("name").setter();
+ * }</pre></blockquote>
+ *
+ * @param <T> bean类型
+ * @author Ayaka
+ */
+public final class BeanAccessor<T> {
+
+    private static final String ERROR_MESSAGE = "[BeanAccessor] 属性解析异常";
+
+    private static final MetadataCache<BeanAccessor<?>> CACHE = new MetadataCache<>("BeanAccessor", BeanAccessor::new);
+
+    private final Class<T> type;
+
+    private final PropertyIndex index;
+
+    private final List<PropertyAccessor<T>> accessors;
+
+    /**
+     * 惰性生成，没有无参构造器的类不会生成
+     */
+    private Supplier<T> constructor;
+
+    @SuppressWarnings("unchecked")
+    private BeanAccessor(Class<T> type) {
+        this.type = type;
+        this.index = PropertyIndex.of(type);
+        PropertyAccessor<T>[] accessors = (PropertyAccessor<T>[]) new PropertyAccessor<?>[index.size()];
+        for (int i = 0; i < accessors.length; i++) {
+            accessors[i] = new PropertyAccessor<>(type, index.get(i));
+        }
+        this.accessors = List.of(accessors);
+    }
+
+    /**
+     * <h3>
+     * 获取类的属性访问器，每个类只构建一次
+     * </h3>
+     *
+     * @param clazz 类
+     * @param <T>   bean类型
+     * @return 属性访问器
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanAccessor<T> of(Class<T> clazz) {
+        return (BeanAccessor<T>) CACHE.get(clazz);
+    }
+
+    /**
+     * <h3>
+     * 根据 get方法引用 获取其所属类的属性访问器
+     * </h3>
+     *
+     * @param fn  lambda表达式，bean的属性的get方法
+     * @param <T> bean类型
+     * @return 属性访问器
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanAccessor<T> of(SFunction<T, ?> fn) {
+        return (BeanAccessor<T>) of(requireProperty(fn).getBeanClass());
+    }
+
+    /**
+     * <h3>
+     * 根据 get方法引用 获取单个属性的访问器
+     * </h3>
+     *
+     * @param fn  lambda表达式，bean的属性的get方法
+     * @param <T> bean类型
+     * @return 单个属性的访问器
+     */
+    public static <T> PropertyAccessor<T> accessor(SFunction<T, ?> fn) {
+        return BeanAccessor.of(fn).property(fn);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public PropertyIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * 调用无参构造器的 Supplier，首次调用时生成，没有可访问的无参构造器时抛出异常
+     */
+    public Supplier<T> constructor() {
+        Supplier<T> c = constructor;
+        if (c == null) {
+            constructor = c = LambdaFactory.constructor(type);
+        }
+        return c;
+    }
+
+    /**
+     * 通过无参构造器创建实例
+     */
+    public T newInstance() {
+        return constructor().get();
+    }
+
+    /**
+     * 属性个数，不包含 class 属性
+     */
+    public int size() {
+        return accessors.size();
+    }
+
+    /**
+     * 所有属性的访问器，按 ordinal 排序
+     */
+    public List<PropertyAccessor<T>> getAccessors() {
+        return accessors;
+    }
+
+    /**
+     * 按 ordinal 获取属性访问器
+     */
+    public PropertyAccessor<T> property(int ordinal) {
+        return accessors.get(ordinal);
+    }
+
+    /**
+     * 按属性名称获取属性访问器，属性不存在时返回 null
+     */
+    public PropertyAccessor<T> property(String name) {
+        PropertyIndex.Property p = index.getByName(name);
+        return p == null || p.getOrdinal() < 0 ? null : accessors.get(p.getOrdinal());
+    }
+
+    /**
+     * 按 get方法引用 获取属性访问器，lambda 不是属性的get方法时抛出异常
+     */
+    public PropertyAccessor<T> property(SFunction<T, ?> fn) {
+        PropertyIndex.Property p = requireProperty(fn);
+        // get方法声明在父类时，按名称定位到当前类的属性
+        PropertyAccessor<T> accessor = p.getBeanClass() == type ? accessors.get(p.getOrdinal()) : property(p.getName());
+        if (accessor == null) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + type.getName() + " 不包含属性 " + p.getName());
+        }
+        return accessor;
+    }
+
+    // ================= 快捷方法  ===================
+
+    public Function<T, Object> getter(SFunction<T, ?> fn) {
+        return property(fn).getter();
+    }
+
+    public BiConsumer<T, Object> setter(SFunction<T, ?> fn) {
+        return property(fn).setter();
+    }
+
+    public ToLongFunction<T> longGetter(SFunction<T, ?> fn) {
+        return property(fn).longGetter();
+    }
+
+    public Predicate<T> booleanGetter(SFunction<T, ?> fn) {
+        return property(fn).booleanGetter();
+    }
+
+    private static PropertyIndex.Property requireProperty(SFunction<?, ?> fn) {
+        PropertyIndex.Property p = FieldUtils.getProperty(fn);
+        if (p == null || p.getOrdinal() < 0) {
+            throw new RuntimeException(ERROR_MESSAGE + "：lambda 不是bean属性的get方法");
+        }
+        return p;
+    }
+}
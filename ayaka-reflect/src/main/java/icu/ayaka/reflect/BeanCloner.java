@@ -0,0 +1,555 @@
+package icu.ayaka.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * bean深拷贝
+ * 每个类只编译一次克隆计划：可读写的属性按声明类型选择复制方式，所有属性的 get/set方法 与克隆函数组合为一个方法句柄——
+ * 基本类型属性直接传递，不装箱；String、包装类型、枚举、BigDecimal、java.time 等不可变类型直接共享；
+ * Date 复制一份；数组、集合、Map 按运行时类型新建同类容器（不可变元素只复制容器）；嵌套的 bean 递归克隆。
+ * <p>
+ * 编译时按属性的声明类型（包括泛型参数）分析对象图：只有可能出现环（类型自引用，或声明为 Object / 接口等无法确定的类型）时，
+ * 才使用 IdentityHashMap 记录已克隆的对象，此时共享的引用克隆后仍然共享；不可能有环的对象图不分配 IdentityHashMap，
+ * 同一个对象被引用多次时会克隆多份
+ * <blockquote><pre>
+ * {@code User copy = BeanCloner.of(User.class).clone(user);
+ *  Department tree = BeanCloner.deepClone(department);      // parent / children 互相引用，克隆后结构不变
+ * }</pre></blockquote>
+ * 只克隆有 get/set方法 的属性；bean 需要无参构造器；不可变集合（List.of 等）克隆为可变的同类集合。
+ * 不认识的 JDK 类型（如 AtomicLong）抛出异常，而不是共享引用。线程安全
+ *
+ * @param <T> bean类型
+ * @author Ayaka
+ */
+public final class BeanCloner<T> {
+
+    private static final String ERROR_MESSAGE = "[BeanCloner] 克隆异常";
+
+    private static final MetadataCache<BeanCloner<?>> CACHE = new MetadataCache<>("BeanCloner", BeanCloner::new);
+
+    private static final int IMMUTABLE = 0;
+    private static final int DATE = 1;
+    private static final int ARRAY = 2;
+    private static final int COLLECTION = 3;
+    private static final int MAP = 4;
+    private static final int BEAN = 5;
+    private static final int UNSUPPORTED = 6;
+
+    /**
+     * 单个属性的复制句柄签名 (Object source, Object target, IdentityHashMap seen)void
+     */
+    private static final MethodType STEP = MethodType.methodType(void.class, Object.class, Object.class, IdentityHashMap.class);
+
+    private static final MethodType GET = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SET = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType CLONE = MethodType.methodType(Object.class, Object.class, IdentityHashMap.class);
+
+    private static final MethodHandle CLONE_DATE;
+
+    private static final MethodHandle CLONE_VALUE;
+
+    private static final MethodHandle CLONE_NESTED;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            CLONE_DATE = lookup.findStatic(BeanCloner.class, "cloneDate", CLONE);
+            CLONE_VALUE = lookup.findStatic(BeanCloner.class, "cloneValue", CLONE.appendParameterTypes(boolean.class));
+            CLONE_NESTED = lookup.findVirtual(Nested.class, "clone", CLONE);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * 运行时类型的克隆方式
+     */
+    private static final ClassValue<Integer> KINDS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return kind(type);
+        }
+    };
+
+    private final Class<T> type;
+
+    private final Supplier<T> constructor;
+
+    /**
+     * 所有属性的复制句柄组合为一个，签名同 STEP
+     */
+    private final MethodHandle plan;
+
+    /**
+     * 对象图是否可能有环，决定是否使用 IdentityHashMap
+     */
+    private final boolean cyclic;
+
+    @SuppressWarnings("unchecked")
+    private BeanCloner(Class<?> type) {
+        if (kind(type) != BEAN) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + type.getName() + " 不是bean");
+        }
+        this.type = (Class<T>) type;
+        BeanAccessor<Object> accessor = (BeanAccessor<Object>) BeanAccessor.of(type);
+        this.constructor = (Supplier<T>) accessor.constructor();
+        List<MethodHandle> steps = new ArrayList<>();
+        for (PropertyAccessor<Object> p : properties(type)) {
+            steps.add(step(p));
+        }
+        this.plan = LambdaFactory.combine(steps, STEP);
+        this.cyclic = cyclic(type, new HashSet<>());
+    }
+
+    /**
+     * <h3>
+     * 获取类的克隆器
+     * </h3>
+     *
+     * @param type bean类型，需要无参构造器
+     * @param <T>  bean类型
+     * @return 每个类只创建一次
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanCloner<T> of(Class<T> type) {
+        return (BeanCloner<T>) CACHE.get(type);
+    }
+
+    /**
+     * 按运行时类型克隆
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T deepClone(T bean) {
+        return bean == null ? null : ((BeanCloner<T>) of(bean.getClass())).clone(bean);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public boolean isCyclic() {
+        return cyclic;
+    }
+
+    /**
+     * <h3>
+     * 深拷贝
+     * </h3>
+     * bean 的运行时类型是子类时，按子类的计划克隆
+     *
+     * @param bean bean
+     * @return 新的实例，bean 为 null 时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public T clone(T bean) {
+        if (bean == null) {
+            return null;
+        }
+        BeanCloner<?> c = bean.getClass() == type ? this : of(bean.getClass());
+        return (T) c.copy(bean, c.cyclic ? new IdentityHashMap<>() : null);
+    }
+
+    public List<T> cloneList(List<T> list) {
+        List<T> out = new ArrayList<>(list.size());
+        for (T bean : list) {
+            out.add(clone(bean));
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanCloner{" + type.getName() + ", cyclic=" + cyclic + "}";
+    }
+
+    private T copy(Object src, IdentityHashMap<Object, Object> seen) {
+        T dst = constructor.get();
+        if (seen != null) {
+            seen.put(src, dst);
+        }
+        try {
+            plan.invokeExact(src, (Object) dst, seen);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        }
+        return dst;
+    }
+
+    // ================= 编译 ===================
+
+    private static List<PropertyAccessor<Object>> properties(Class<?> type) {
+        @SuppressWarnings("unchecked")
+        BeanAccessor<Object> accessor = (BeanAccessor<Object>) BeanAccessor.of(type);
+        return accessor.getAccessors().stream()
+                .filter(p -> p.isReadable() && p.isWritable())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 单个属性的复制句柄：不可变类型（包括基本类型）直接传递，不装箱；其余类型 set(target, clone(get(source), seen))
+     */
+    private static MethodHandle step(PropertyAccessor<Object> p) {
+        Method read = p.getProperty().getReadMethod();
+        Method write = p.getProperty().getWriteMethod();
+        Class<?> type = read.getReturnType();
+        if (isImmutable(type)) {
+            Class<?> value = type.isPrimitive() ? type : Object.class;
+            MethodHandle get = LambdaFactory.handle(read, MethodType.methodType(value, Object.class));
+            MethodHandle set = LambdaFactory.handle(write, MethodType.methodType(void.class, Object.class, value));
+            MethodHandle copy = MethodHandles.permuteArguments(MethodHandles.filterArguments(set, 1, get), SET, 1, 0);
+            return MethodHandles.dropArguments(copy, 2, IdentityHashMap.class);
+        }
+        MethodHandle clone;
+        if (kind(type) == DATE) {
+            clone = CLONE_DATE;
+        } else if (kind(type) == BEAN) {
+            clone = CLONE_NESTED.bindTo(new Nested(type));
+        } else {
+            clone = MethodHandles.insertArguments(CLONE_VALUE, 2, !shallow(read.getGenericReturnType()));
+        }
+        // (source, seen)Object
+        MethodHandle value = MethodHandles.filterArguments(clone, 0, LambdaFactory.handle(read, GET));
+        // (target, source, seen)void
+        MethodHandle copy = MethodHandles.collectArguments(LambdaFactory.handle(write, SET), 1, value);
+        return MethodHandles.permuteArguments(copy, STEP, 1, 0, 2);
+    }
+
+    /**
+     * 声明为 bean 类型的属性：克隆器第一次使用时获取（类型可能引用自身，不能在构造时获取），运行时类型是子类时按子类克隆
+     */
+    private static final class Nested {
+
+        private final Class<?> type;
+
+        private BeanCloner<?> cloner;
+
+        private Nested(Class<?> type) {
+            this.type = type;
+        }
+
+        private Object clone(Object v, IdentityHashMap<Object, Object> seen) {
+            if (v == null) {
+                return null;
+            }
+            BeanCloner<?> c = cloner;
+            if (c == null) {
+                cloner = c = of(type);
+            }
+            return cloneBean(v.getClass() == type ? c : of(v.getClass()), v, seen);
+        }
+    }
+
+    // ================= 对象图分析 ===================
+
+    private static int kind(Class<?> type) {
+        if (type.isPrimitive() || type == String.class || type.isEnum() || Enum.class.isAssignableFrom(type)
+                || type == Long.class || type == Integer.class || type == Short.class || type == Byte.class
+                || type == Double.class || type == Float.class || type == Boolean.class || type == Character.class
+                || type == BigInteger.class || type == BigDecimal.class
+                || type == UUID.class || type == Locale.class || type == URI.class || type == Class.class
+                || type.getName().startsWith("java.time.")) {
+            return IMMUTABLE;
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return DATE;
+        }
+        if (type.isArray()) {
+            return ARRAY;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return COLLECTION;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return MAP;
+        }
+        String name = type.getName();
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type == Object.class
+                || name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.")) {
+            return UNSUPPORTED;
+        }
+        return BEAN;
+    }
+
+    /**
+     * 类型的值没有可变的部分：不可变类型，或不可变元素的数组 / 集合只需要复制容器本身
+     */
+    private static boolean shallow(Type generic) {
+        if (generic instanceof Class) {
+            Class<?> c = (Class<?>) generic;
+            return c.isArray() && isImmutable(c.getComponentType());
+        }
+        if (generic instanceof ParameterizedType) {
+            ParameterizedType pt = (ParameterizedType) generic;
+            int kind = kind((Class<?>) pt.getRawType());
+            if (kind != COLLECTION && kind != MAP) {
+                return false;
+            }
+            for (Type arg : pt.getActualTypeArguments()) {
+                if (!(arg instanceof Class) || !isImmutable((Class<?>) arg)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isImmutable(Class<?> type) {
+        return type.isPrimitive() || kind(type) == IMMUTABLE;
+    }
+
+    /**
+     * 从 type 出发，沿属性的声明类型能否回到路径上的类型；遇到无法确定的类型（Object、接口、原始类型的集合）视为可能有环。
+     * bean 类型按声明类型分析，运行时遇到可能有环的子类再创建 IdentityHashMap（见 cloneBean）
+     */
+    private static boolean cyclic(Class<?> type, Set<Class<?>> path) {
+        if (!path.add(type)) {
+            return true;
+        }
+        for (PropertyAccessor<Object> p : properties(type)) {
+            Class<?> c = p.getType();
+            if (!c.isPrimitive() && cyclic(p.getProperty().getReadMethod().getGenericReturnType(), path)) {
+                return true;
+            }
+        }
+        path.remove(type);
+        return false;
+    }
+
+    private static boolean cyclic(Type generic, Set<Class<?>> path) {
+        if (generic instanceof Class) {
+            Class<?> c = (Class<?>) generic;
+            if (c.isPrimitive()) {
+                return false;
+            }
+            switch (kind(c)) {
+                case IMMUTABLE:
+                case DATE:
+                    return false;
+                case ARRAY:
+                    return cyclic(c.getComponentType(), path);
+                case BEAN:
+                    return cyclic(c, path);
+                default:
+                    // 原始类型的集合、Object、接口
+                    return true;
+            }
+        }
+        if (generic instanceof ParameterizedType) {
+            ParameterizedType pt = (ParameterizedType) generic;
+            Class<?> raw = (Class<?>) pt.getRawType();
+            int kind = kind(raw);
+            if (kind != COLLECTION && kind != MAP) {
+                return cyclic(raw, path);
+            }
+            for (Type arg : pt.getActualTypeArguments()) {
+                if (cyclic(arg, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (generic instanceof GenericArrayType) {
+            return cyclic(((GenericArrayType) generic).getGenericComponentType(), path);
+        }
+        // 类型变量、通配符
+        return true;
+    }
+
+    // ================= 运行时克隆 ===================
+
+    private static Object cloneDate(Object v, IdentityHashMap<Object, Object> seen) {
+        return v == null ? null : ((Date) v).clone();
+    }
+
+    /**
+     * 可能有环时先查找已经克隆过的对象；声明类型无环、运行时子类可能有环时，从这里开始记录
+     */
+    private static Object cloneBean(BeanCloner<?> c, Object v, IdentityHashMap<Object, Object> seen) {
+        if (seen != null) {
+            Object done = seen.get(v);
+            if (done != null) {
+                return done;
+            }
+        } else if (c.cyclic) {
+            seen = new IdentityHashMap<>();
+        }
+        return c.copy(v, seen);
+    }
+
+    /**
+     * 按运行时类型克隆任意值
+     *
+     * @param deep 是否克隆容器中的元素，false 时只复制容器（元素是不可变类型）
+     */
+    private static Object cloneValue(Object v, IdentityHashMap<Object, Object> seen, boolean deep) {
+        if (v == null) {
+            return null;
+        }
+        Class<?> type = v.getClass();
+        int kind = KINDS.get(type);
+        if (kind == IMMUTABLE) {
+            return v;
+        }
+        if (kind == DATE) {
+            return ((Date) v).clone();
+        }
+        if (seen != null) {
+            Object done = seen.get(v);
+            if (done != null) {
+                return done;
+            }
+        }
+        switch (kind) {
+            case ARRAY:
+                return cloneArray(v, seen, deep);
+            case COLLECTION:
+                return cloneCollection((Collection<?>) v, seen, deep);
+            case MAP:
+                return cloneMap((Map<?, ?>) v, seen, deep);
+            case BEAN:
+                return cloneBean(of(type), v, seen);
+            default:
+                throw new RuntimeException(ERROR_MESSAGE + "：不支持克隆 " + type.getName());
+        }
+    }
+
+    private static Object cloneArray(Object v, IdentityHashMap<Object, Object> seen, boolean deep) {
+        Class<?> component = v.getClass().getComponentType();
+        if (component.isPrimitive()) {
+            if (component == long.class) {
+                return ((long[]) v).clone();
+            }
+            if (component == int.class) {
+                return ((int[]) v).clone();
+            }
+            if (component == double.class) {
+                return ((double[]) v).clone();
+            }
+            if (component == byte.class) {
+                return ((byte[]) v).clone();
+            }
+            if (component == boolean.class) {
+                return ((boolean[]) v).clone();
+            }
+            if (component == char.class) {
+                return ((char[]) v).clone();
+            }
+            if (component == float.class) {
+                return ((float[]) v).clone();
+            }
+            return ((short[]) v).clone();
+        }
+        Object[] copy = ((Object[]) v).clone();
+        if (seen != null) {
+            seen.put(v, copy);
+        }
+        if (deep && !isImmutable(component)) {
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = cloneValue(copy[i], seen, true);
+            }
+        }
+        return copy;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Collection<Object> cloneCollection(Collection<?> v, IdentityHashMap<Object, Object> seen, boolean deep) {
+        Collection copy;
+        int capacity = Math.max(16, (int) (v.size() / .75f) + 1);
+        if (v instanceof EnumSet) {
+            copy = EnumSet.copyOf((EnumSet) v);
+            deep = false;
+        } else if (v instanceof SortedSet) {
+            copy = new TreeSet<>(((SortedSet) v).comparator());
+        } else if (v instanceof Set) {
+            copy = v instanceof HashSet && !(v instanceof LinkedHashSet) ? new HashSet<>(capacity) : new LinkedHashSet<>(capacity);
+        } else if (v instanceof LinkedList) {
+            copy = new LinkedList<>();
+        } else if (v instanceof PriorityQueue) {
+            copy = new PriorityQueue<>(((PriorityQueue) v).comparator());
+        } else if (v instanceof Deque) {
+            copy = new ArrayDeque<>();
+        } else {
+            copy = new ArrayList<>(v.size());
+        }
+        if (seen != null) {
+            seen.put(v, copy);
+        }
+        if (deep) {
+            for (Object e : v) {
+                copy.add(cloneValue(e, seen, true));
+            }
+        } else if (!(v instanceof EnumSet)) {
+            copy.addAll(v);
+        }
+        return copy;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<Object, Object> cloneMap(Map<?, ?> v, IdentityHashMap<Object, Object> seen, boolean deep) {
+        Map copy;
+        if (v instanceof EnumMap) {
+            copy = new EnumMap((EnumMap) v);
+        } else if (v instanceof SortedMap) {
+            copy = new TreeMap<>(((SortedMap) v).comparator());
+        } else if (v instanceof ConcurrentMap) {
+            copy = new ConcurrentHashMap<>(Math.max(16, v.size() * 2));
+        } else if (v instanceof HashMap && !(v instanceof LinkedHashMap)) {
+            copy = new HashMap<>(Math.max(16, (int) (v.size() / .75f) + 1));
+        } else {
+            copy = new LinkedHashMap<>(Math.max(16, (int) (v.size() / .75f) + 1));
+        }
+        if (seen != null) {
+            seen.put(v, copy);
+        }
+        if (!deep) {
+            copy.putAll(v);
+            return copy;
+        }
+        for (Map.Entry<?, ?> e : v.entrySet()) {
+            copy.put(cloneValue(e.getKey(), seen, true), cloneValue(e.getValue(), seen, true));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,660 @@
+package icu.ayaka.reflect;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import static icu.ayaka.reflect.Schema.BIG_DECIMAL;
+import static icu.ayaka.reflect.Schema.BIG_INTEGER;
+import static icu.ayaka.reflect.Schema.BOOLEAN;
+import static icu.ayaka.reflect.Schema.BYTE;
+import static icu.ayaka.reflect.Schema.CHAR;
+import static icu.ayaka.reflect.Schema.DATE;
+import static icu.ayaka.reflect.Schema.DOUBLE;
+import static icu.ayaka.reflect.Schema.ENUM;
+import static icu.ayaka.reflect.Schema.FLOAT;
+import static icu.ayaka.reflect.Schema.INT;
+import static icu.ayaka.reflect.Schema.LONG;
+import static icu.ayaka.reflect.Schema.SHORT;
+import static icu.ayaka.reflect.Schema.STRING;
+
+/**
+ * 基于属性元数据的二进制编解码
+ * 每个类只生成一次 schema：可读写的属性按名称排序，记录类型与是否可为 null，并计算 schema 指纹。
+ * 编码格式：指纹(4 字节) + null 位图 + 按 schema 顺序的非 null 值，
+ * 整数 / 时间为 zigzag varint，boolean / byte 为 1 字节，float / double 定长，字符串为 varint 长度 + UTF-8，
+ * 嵌套的 bean 按声明类型递归编码（带各自的指纹）
+ * <blockquote><pre>
+ * {@code BeanCodec<User> codec = BeanCodec.of(User.class);
+ *  byte[] bytes = codec.encode(user);
+ *  User copy = codec.decode(bytes);
+ *
+ *  ByteBuffer buf = ByteBuffer.allocateDirect(1 << 16);
+ *  codec.encode(user, buf);
+ *  buf.flip();
+ *  codec.decode(buf, reuse);                  // 写入已有的实例
+ * }</pre></blockquote>
+ * 编解码不创建中间对象（解码字符串 / BigDecimal 本身除外）；定长数值按 ByteBuffer 的字节序读写。
+ * 解码时指纹不一致（属性增删、改名、改类型）抛出异常。线程安全
+ *
+ * @param <T> bean类型
+ * @author Ayaka
+ */
+public final class BeanCodec<T> {
+
+    private static final String ERROR_MESSAGE = "[BeanCodec] 编解码异常";
+
+    private static final MetadataCache<BeanCodec<?>> CACHE = new MetadataCache<>("BeanCodec", BeanCodec::new);
+
+    private final Class<T> type;
+
+    private final Supplier<T> constructor;
+
+    private final Field[] fields;
+
+    /**
+     * 可为 null 的属性个数，null 位图占 (nullable + 7) / 8 字节
+     */
+    private final int nullable;
+
+    private final int fingerprint;
+
+    @SuppressWarnings("unchecked")
+    private BeanCodec(Class<?> type) {
+        this.type = (Class<T>) type;
+        BeanAccessor<Object> accessor = (BeanAccessor<Object>) BeanAccessor.of(type);
+        this.constructor = (Supplier<T>) accessor.constructor();
+        List<PropertyAccessor<Object>> properties = accessor.getAccessors().stream()
+                .filter(p -> p.isReadable() && p.isWritable())
+                .sorted(Comparator.comparing(PropertyAccessor::getName))
+                .collect(Collectors.toList());
+        this.fields = new Field[properties.size()];
+        int nullable = 0;
+        int hash = Schema.FNV_BASIS;
+        for (int i = 0; i < fields.length; i++) {
+            PropertyAccessor<Object> p = properties.get(i);
+            Field f = new Field(p, p.getType().isPrimitive() ? -1 : nullable);
+            if (!f.primitive) {
+                nullable++;
+            }
+            fields[i] = f;
+            hash = Schema.fnv(hash, f.signature());
+        }
+        this.nullable = nullable;
+        this.fingerprint = hash;
+    }
+
+    /**
+     * <h3>
+     * 获取类的编解码器
+     * </h3>
+     * 属性类型只支持 基本类型及其包装类型、String、Date、枚举、BigInteger、BigDecimal、bean，其他类型抛出异常
+     *
+     * @param type bean类型，需要无参构造器
+     * @param <T>  bean类型
+     * @return 编解码器，每个类只创建一次
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanCodec<T> of(Class<T> type) {
+        return (BeanCodec<T>) CACHE.get(type);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * schema 指纹：属性名称、类型（枚举包括常量名称）按顺序计算的 FNV-1a 哈希
+     */
+    public int getFingerprint() {
+        return fingerprint;
+    }
+
+    // ================= 编码 ===================
+
+    /**
+     * 编码到新的字节数组，长度恰好为 sizeOf(bean)
+     */
+    public byte[] encode(T bean) {
+        byte[] bytes = new byte[sizeOf(bean)];
+        encode(bean, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * <h3>
+     * 编码到 ByteBuffer 的当前位置
+     * </h3>
+     * 剩余空间不足时抛出 BufferOverflowException，可以先通过 sizeOf 确认
+     *
+     * @param bean bean，不能为 null
+     * @param buf  heap / direct ByteBuffer
+     */
+    public void encode(T bean, ByteBuffer buf) {
+        buf.putInt(fingerprint);
+        int bitmap = buf.position();
+        for (int i = (nullable + 7) >> 3; i > 0; i--) {
+            buf.put((byte) 0);
+        }
+        for (Field f : fields) {
+            switch (f.fast) {
+                case LONG:
+                case INT:
+                    putVarLong(buf, zigzag(f.longGetter.applyAsLong(bean)));
+                    break;
+                case BOOLEAN:
+                    buf.put(f.booleanGetter.test(bean) ? (byte) 1 : (byte) 0);
+                    break;
+                case DOUBLE:
+                    buf.putDouble(f.doubleGetter.applyAsDouble(bean));
+                    break;
+                default:
+                    Object v = f.getter.apply(bean);
+                    if (v != null) {
+                        putValue(buf, f, v);
+                    } else if (f.primitive) {
+                        throw new RuntimeException(ERROR_MESSAGE + "：" + f.name + " 为 null");
+                    } else {
+                        int at = bitmap + (f.nullIndex >> 3);
+                        buf.put(at, (byte) (buf.get(at) | 1 << (f.nullIndex & 7)));
+                    }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void putValue(ByteBuffer buf, Field f, Object v) {
+        switch (f.kind) {
+            case BOOLEAN:
+                buf.put((Boolean) v ? (byte) 1 : (byte) 0);
+                break;
+            case BYTE:
+                buf.put((Byte) v);
+                break;
+            case SHORT:
+            case INT:
+            case LONG:
+                putVarLong(buf, zigzag(((Number) v).longValue()));
+                break;
+            case CHAR:
+                putVarLong(buf, (Character) v);
+                break;
+            case FLOAT:
+                buf.putFloat((Float) v);
+                break;
+            case DOUBLE:
+                buf.putDouble((Double) v);
+                break;
+            case STRING:
+                putString(buf, (String) v);
+                break;
+            case DATE:
+                putVarLong(buf, zigzag(((Date) v).getTime()));
+                break;
+            case ENUM:
+                putVarLong(buf, ((Enum<?>) v).ordinal());
+                break;
+            case BIG_INTEGER:
+                putBytes(buf, ((BigInteger) v).toByteArray());
+                break;
+            case BIG_DECIMAL:
+                putVarLong(buf, zigzag(((BigDecimal) v).scale()));
+                putBytes(buf, ((BigDecimal) v).unscaledValue().toByteArray());
+                break;
+            default:
+                ((BeanCodec<Object>) f.nested()).encode(v, buf);
+        }
+    }
+
+    /**
+     * <h3>
+     * 编码后的字节数
+     * </h3>
+     *
+     * @param bean bean，不能为 null
+     * @return 字节数
+     */
+    public int sizeOf(T bean) {
+        int size = 4 + ((nullable + 7) >> 3);
+        for (Field f : fields) {
+            switch (f.fast) {
+                case LONG:
+                case INT:
+                    size += varLongSize(zigzag(f.longGetter.applyAsLong(bean)));
+                    break;
+                case BOOLEAN:
+                    size += 1;
+                    break;
+                case DOUBLE:
+                    size += 8;
+                    break;
+                default:
+                    Object v = f.getter.apply(bean);
+                    if (v != null) {
+                        size += sizeOf(f, v);
+                    }
+            }
+        }
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int sizeOf(Field f, Object v) {
+        switch (f.kind) {
+            case BOOLEAN:
+            case BYTE:
+                return 1;
+            case SHORT:
+            case INT:
+            case LONG:
+                return varLongSize(zigzag(((Number) v).longValue()));
+            case CHAR:
+                return varLongSize((Character) v);
+            case FLOAT:
+                return 4;
+            case DOUBLE:
+                return 8;
+            case STRING: {
+                int n = utf8Length((String) v);
+                return varLongSize(n) + n;
+            }
+            case DATE:
+                return varLongSize(zigzag(((Date) v).getTime()));
+            case ENUM:
+                return varLongSize(((Enum<?>) v).ordinal());
+            case BIG_INTEGER: {
+                int n = ((BigInteger) v).bitLength() / 8 + 1;
+                return varLongSize(n) + n;
+            }
+            case BIG_DECIMAL: {
+                int n = ((BigDecimal) v).unscaledValue().bitLength() / 8 + 1;
+                return varLongSize(zigzag(((BigDecimal) v).scale())) + varLongSize(n) + n;
+            }
+            default:
+                return ((BeanCodec<Object>) f.nested()).sizeOf(v);
+        }
+    }
+
+    // ================= 解码 ===================
+
+    public T decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * 从 ByteBuffer 的当前位置解码一个新实例
+     */
+    public T decode(ByteBuffer buf) {
+        return decode(buf, constructor.get());
+    }
+
+    /**
+     * <h3>
+     * 从 ByteBuffer 的当前位置解码，写入已有的实例
+     * </h3>
+     * 所有属性都会被覆盖，包括为 null 的属性；嵌套的 bean 总是创建新实例
+     *
+     * @param buf  heap / direct ByteBuffer
+     * @param bean 写入的实例
+     * @return bean
+     */
+    public T decode(ByteBuffer buf, T bean) {
+        int actual = buf.getInt();
+        if (actual != fingerprint) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + type.getName() + " schema 指纹不一致，期望 "
+                    + Integer.toHexString(fingerprint) + "，实际 " + Integer.toHexString(actual));
+        }
+        int bitmap = buf.position();
+        buf.position(bitmap + ((nullable + 7) >> 3));
+        for (Field f : fields) {
+            switch (f.fast) {
+                case LONG:
+                    f.longSetter.accept(bean, unzigzag(getVarLong(buf)));
+                    break;
+                case INT:
+                    f.intSetter.accept(bean, (int) unzigzag(getVarLong(buf)));
+                    break;
+                case BOOLEAN:
+                    f.booleanSetter.accept(bean, buf.get() != 0);
+                    break;
+                case DOUBLE:
+                    f.doubleSetter.accept(bean, buf.getDouble());
+                    break;
+                default:
+                    boolean isNull = !f.primitive && (buf.get(bitmap + (f.nullIndex >> 3)) & 1 << (f.nullIndex & 7)) != 0;
+                    f.setter.accept(bean, isNull ? null : getValue(buf, f));
+            }
+        }
+        return bean;
+    }
+
+    private static Object getValue(ByteBuffer buf, Field f) {
+        switch (f.kind) {
+            case BOOLEAN:
+                return buf.get() != 0;
+            case BYTE:
+                return buf.get();
+            case SHORT:
+                return (short) unzigzag(getVarLong(buf));
+            case INT:
+                return (int) unzigzag(getVarLong(buf));
+            case LONG:
+                return unzigzag(getVarLong(buf));
+            case CHAR:
+                return (char) getVarLong(buf);
+            case FLOAT:
+                return buf.getFloat();
+            case DOUBLE:
+                return buf.getDouble();
+            case STRING:
+                return getString(buf);
+            case DATE:
+                return new Date(unzigzag(getVarLong(buf)));
+            case ENUM: {
+                int ordinal = (int) getVarLong(buf);
+                Object[] constants = f.constants;
+                if (ordinal >= constants.length) {
+                    throw new RuntimeException(ERROR_MESSAGE + "：" + f.name + " 枚举序号越界 " + ordinal);
+                }
+                return constants[ordinal];
+            }
+            case BIG_INTEGER:
+                return new BigInteger(getBytes(buf));
+            case BIG_DECIMAL: {
+                int scale = (int) unzigzag(getVarLong(buf));
+                return new BigDecimal(new BigInteger(getBytes(buf)), scale);
+            }
+            default:
+                return f.nested().decode(buf);
+        }
+    }
+
+    // ================= 基础编码 ===================
+
+    private static long zigzag(long v) {
+        return v << 1 ^ v >> 63;
+    }
+
+    private static long unzigzag(long v) {
+        return v >>> 1 ^ -(v & 1);
+    }
+
+    private static void putVarLong(ByteBuffer buf, long v) {
+        while ((v & ~0x7FL) != 0) {
+            buf.put((byte) (v & 0x7F | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    private static long getVarLong(ByteBuffer buf) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buf.get();
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return v;
+            }
+        }
+        throw new RuntimeException(ERROR_MESSAGE + "：varint 超过 10 字节");
+    }
+
+    private static int varLongSize(long v) {
+        // 每 7 位一个字节，0 占 1 字节
+        return (63 - Long.numberOfLeadingZeros(v | 1)) / 7 + 1;
+    }
+
+    private static void putBytes(ByteBuffer buf, byte[] bytes) {
+        putVarLong(buf, bytes.length);
+        buf.put(bytes);
+    }
+
+    private static byte[] getBytes(ByteBuffer buf) {
+        byte[] bytes = new byte[length(buf)];
+        buf.get(bytes);
+        return bytes;
+    }
+
+    private static int length(ByteBuffer buf) {
+        long n = getVarLong(buf);
+        if (n > buf.remaining()) {
+            throw new RuntimeException(ERROR_MESSAGE + "：长度 " + n + " 超过剩余字节 " + buf.remaining());
+        }
+        return (int) n;
+    }
+
+    /**
+     * UTF-8 字节数，不成对的 surrogate 编码为 '?'，与 String.getBytes 一致
+     */
+    private static int utf8Length(String s) {
+        int length = s.length();
+        int n = length;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    n += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    n += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    n += 2;
+                }
+            }
+        }
+        return n;
+    }
+
+    private static void putString(ByteBuffer buf, String s) {
+        int n = utf8Length(s);
+        putVarLong(buf, n);
+        int length = s.length();
+        if (buf.hasArray()) {
+            if (buf.remaining() < n) {
+                throw new BufferOverflowException();
+            }
+            byte[] b = buf.array();
+            int start = buf.arrayOffset() + buf.position();
+            int p = start;
+            if (n == length) {
+                for (int i = 0; i < length; i++) {
+                    b[p++] = (byte) s.charAt(i);
+                }
+            } else {
+                p = putChars(b, p, s);
+            }
+            buf.position(buf.position() + (p - start));
+        } else {
+            // direct buffer 逐字符写入，不为每个值分配临时数组
+            if (buf.remaining() < n) {
+                throw new BufferOverflowException();
+            }
+            if (n == length) {
+                for (int i = 0; i < length; i++) {
+                    buf.put((byte) s.charAt(i));
+                }
+            } else {
+                putChars(buf, s);
+            }
+        }
+    }
+
+    private static int putChars(byte[] b, int p, String s) {
+        for (int i = 0, length = s.length(); i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                b[p++] = (byte) c;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                p = TextCodec.putCodePoint(b, p, Character.toCodePoint(c, s.charAt(++i)));
+            } else if (Character.isSurrogate(c)) {
+                b[p++] = '?';
+            } else {
+                p = TextCodec.putCodePoint(b, p, c);
+            }
+        }
+        return p;
+    }
+
+    private static void putChars(ByteBuffer buf, String s) {
+        for (int i = 0, length = s.length(); i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buf.put((byte) c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                putCodePoint(buf, Character.toCodePoint(c, s.charAt(++i)));
+            } else if (Character.isSurrogate(c)) {
+                buf.put((byte) '?');
+            } else {
+                putCodePoint(buf, c);
+            }
+        }
+    }
+
+    private static void putCodePoint(ByteBuffer buf, int cp) {
+        if (cp < 0x800) {
+            buf.put((byte) (0xC0 | cp >> 6));
+        } else if (cp < 0x10000) {
+            buf.put((byte) (0xE0 | cp >> 12));
+            buf.put((byte) (0x80 | cp >> 6 & 0x3F));
+        } else {
+            buf.put((byte) (0xF0 | cp >> 18));
+            buf.put((byte) (0x80 | cp >> 12 & 0x3F));
+            buf.put((byte) (0x80 | cp >> 6 & 0x3F));
+        }
+        buf.put((byte) (0x80 | cp & 0x3F));
+    }
+
+    private static String getString(ByteBuffer buf) {
+        int n = length(buf);
+        String s;
+        if (buf.hasArray()) {
+            s = new String(buf.array(), buf.arrayOffset() + buf.position(), n, StandardCharsets.UTF_8);
+            buf.position(buf.position() + n);
+        } else {
+            byte[] bytes = new byte[n];
+            buf.get(bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return s;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("BeanCodec(").append(type.getName()).append(", ")
+                .append(Integer.toHexString(fingerprint)).append(")[");
+        for (int i = 0; i < fields.length; i++) {
+            sb.append(i == 0 ? "" : ", ").append(fields[i].signature());
+        }
+        return sb.append(']').toString();
+    }
+
+    // ================= schema ===================
+
+    /**
+     * schema 中的一个属性，基本类型 long / int / boolean / double 通过不装箱的 getter / setter 读写
+     */
+    private static final class Field {
+
+        private final String name;
+
+        private final Class<?> type;
+
+        private final int kind;
+
+        /**
+         * 枚举常量，非枚举为 null
+         */
+        private final Object[] constants;
+
+        /**
+         * 不装箱读写的类型，-1 为通过 getter / setter 读写
+         */
+        private final int fast;
+
+        private final boolean primitive;
+
+        /**
+         * 在 null 位图中的下标，基本类型为 -1
+         */
+        private final int nullIndex;
+
+        private ToLongFunction<Object> longGetter;
+        private ObjLongConsumer<Object> longSetter;
+        private ObjIntConsumer<Object> intSetter;
+        private Predicate<Object> booleanGetter;
+        private ObjBooleanConsumer<Object> booleanSetter;
+        private ToDoubleFunction<Object> doubleGetter;
+        private ObjDoubleConsumer<Object> doubleSetter;
+        private Function<Object, Object> getter;
+        private BiConsumer<Object, Object> setter;
+
+        /**
+         * 嵌套 bean 的编解码器，首次使用时获取，允许自引用的类型
+         */
+        private volatile BeanCodec<?> nested;
+
+        private Field(PropertyAccessor<Object> p, int nullIndex) {
+            this.name = p.getName();
+            this.type = p.getType();
+            this.kind = Schema.kind(type);
+            if (kind < 0) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + p + " 不支持的属性类型 " + type.getName());
+            }
+            this.constants = Schema.constants(type, kind);
+            this.primitive = type.isPrimitive();
+            this.nullIndex = nullIndex;
+            Class<?> param = p.getProperty().getWriteMethod().getParameterTypes()[0];
+            if (param != type) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + p + " get / set 方法类型不一致");
+            }
+            if (type == long.class) {
+                fast = LONG;
+                longGetter = p.longGetter();
+                longSetter = p.longSetter();
+            } else if (type == int.class) {
+                fast = INT;
+                longGetter = p.longGetter();
+                intSetter = p.intSetter();
+            } else if (type == boolean.class) {
+                fast = BOOLEAN;
+                booleanGetter = p.booleanGetter();
+                booleanSetter = p.booleanSetter();
+            } else if (type == double.class) {
+                fast = DOUBLE;
+                doubleGetter = p.doubleGetter();
+                doubleSetter = p.doubleSetter();
+            } else {
+                fast = -1;
+                getter = p.getter();
+                setter = p.setter();
+            }
+        }
+
+        private BeanCodec<?> nested() {
+            BeanCodec<?> codec = nested;
+            if (codec == null) {
+                nested = codec = BeanCodec.of(type);
+            }
+            return codec;
+        }
+
+        private String signature() {
+            return Schema.signature(name, type, constants).append(';').toString();
+        }
+    }
+}
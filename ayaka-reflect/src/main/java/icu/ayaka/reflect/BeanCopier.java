@@ -0,0 +1,393 @@
+package icu.ayaka.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * bean复制器
+ * 每对 (源类型, 目标类型) 只编译一次复制计划：按名称匹配属性，类型可赋值时复制，
+ * 所有属性的 get/set方法 组合为一个方法句柄，复制时不构建 Map，不经过 Method.invoke；基本类型属性之间的复制不装箱
+ * <blockquote><pre>
+ * {@code UserView view = BeanCopier.of(User.class, UserView.class).copy(user);
+ *
+ *  private static final BeanCopier<User, UserView> COPIER = BeanCopier.builder(User.class, UserView.class)
+ *          .ignore(User::getEmail)
+ *          .convert(User::getCreateTime, time -> time == null ? null : time.toInstant().toString())
+ *          .build();
+ *  List<UserView> views = COPIER.copyList(users);
+ * }</pre></blockquote>
+ * of() 返回的默认复制器按类型对缓存，缓存在 classloader 生命周期较短的类型一侧（两个 classloader 互不可见时不缓存）；
+ * builder() 构建的复制器不缓存，应当保存在 static final 字段中复用
+ *
+ * @param <S> 源类型
+ * @param <D> 目标类型
+ * @author Ayaka
+ */
+public final class BeanCopier<S, D> {
+
+    private static final String ERROR_MESSAGE = "[BeanCopier] 复制异常";
+
+    /**
+     * 单个属性的复制句柄签名 (Object source, Object target)void
+     */
+    private static final MethodType STEP = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType GET = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SET = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodHandle APPLY;
+
+    private static final MethodHandle IS_NULL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            APPLY = lookup.findVirtual(Function.class, "apply", MethodType.methodType(Object.class, Object.class));
+            IS_NULL = lookup.findStatic(Objects.class, "isNull", MethodType.methodType(boolean.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * 批量复制的并行阈值
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private static final int MIN_CHUNK = 1 << 10;
+
+    /**
+     * 源类型 -> (目标类型 -> 默认复制器)，目标类型的 classloader 与源类型相同或是其祖先时使用
+     */
+    private static final MetadataCache<Map<Class<?>, BeanCopier<?, ?>>> BY_SOURCE =
+            new MetadataCache<>("BeanCopier", type -> new ConcurrentHashMap<>());
+
+    /**
+     * 目标类型 -> (源类型 -> 默认复制器)，源类型的 classloader 是目标类型的祖先时使用
+     */
+    private static final MetadataCache<Map<Class<?>, BeanCopier<?, ?>>> BY_TARGET =
+            new MetadataCache<>("BeanCopier.target", type -> new ConcurrentHashMap<>());
+
+    private final Class<S> sourceType;
+
+    private final Class<D> targetType;
+
+    /**
+     * 组合后的复制句柄，签名 (Object source, Object target)void
+     */
+    private final MethodHandle plan;
+
+    private final List<String> properties;
+
+    private BeanCopier(Class<S> sourceType, Class<D> targetType, MethodHandle plan, List<String> properties) {
+        this.sourceType = sourceType;
+        this.targetType = targetType;
+        this.plan = plan;
+        this.properties = properties;
+    }
+
+    /**
+     * <h3>
+     * 获取默认复制器：复制所有名称相同且类型可赋值的属性
+     * </h3>
+     *
+     * @param source 源类型
+     * @param target 目标类型
+     * @param <S>    源类型
+     * @param <D>    目标类型
+     * @return 复制器，每对类型只编译一次
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, D> BeanCopier<S, D> of(Class<S> source, Class<D> target) {
+        // 复制器同时引用两个类型，只能缓存在 classloader 生命周期较短的一侧，否则会让插件 classloader 无法回收
+        if (MetadataCache.isAncestor(target.getClassLoader(), source.getClassLoader())) {
+            return (BeanCopier<S, D>) BY_SOURCE.get(source).computeIfAbsent(target, t -> new Builder<>(source, t).build());
+        }
+        if (MetadataCache.isAncestor(source.getClassLoader(), target.getClassLoader())) {
+            return (BeanCopier<S, D>) BY_TARGET.get(target).computeIfAbsent(source, s -> new Builder<>(s, target).build());
+        }
+        // 两个互不可见的 classloader：任何一侧缓存都会持有另一侧，不缓存
+        return new Builder<>(source, target).build();
+    }
+
+
+    /**
+     * 自定义复制计划：忽略属性 / 转换 / 不同名称的属性映射
+     */
+    public static <S, D> Builder<S, D> builder(Class<S> source, Class<D> target) {
+        return new Builder<>(source, target);
+    }
+
+    /**
+     * <h3>
+     * 复制属性，使用默认复制器
+     * </h3>
+     * 与 copyProperties(source, Class) 一致，source 为 null 时没有可复制的属性，原样返回 target
+     *
+     * @param source 源对象，可以为 null
+     * @param target 目标对象
+     * @param <D>    目标类型
+     * @return target
+     */
+    @SuppressWarnings("unchecked")
+    public static <D> D copyProperties(Object source, D target) {
+        if (source == null) {
+            return target;
+        }
+        return ((BeanCopier<Object, D>) of(source.getClass(), target.getClass())).copy(source, target);
+    }
+
+    /**
+     * 创建目标类型的实例并复制属性，使用默认复制器
+     */
+    @SuppressWarnings("unchecked")
+    public static <D> D copyProperties(Object source, Class<D> target) {
+        return source == null ? null : ((BeanCopier<Object, D>) of(source.getClass(), target)).copy(source);
+    }
+
+    // ================= 复制 ===================
+
+    /**
+     * 通过目标类型的无参构造器创建实例并复制，source 为 null 时返回 null
+     */
+    public D copy(S source) {
+        if (source == null) {
+            return null;
+        }
+        return copy(source, BeanAccessor.of(targetType).newInstance());
+    }
+
+    /**
+     * <h3>
+     * 将 source 的属性复制到 target
+     * </h3>
+     *
+     * @param source 源对象
+     * @param target 目标对象
+     * @return target
+     */
+    public D copy(S source, D target) {
+        try {
+            plan.invokeExact((Object) source, (Object) target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        }
+        return target;
+    }
+
+    /**
+     * <h3>
+     * 批量复制
+     * </h3>
+     * 元素数量达到 PARALLEL_THRESHOLD 时在 ForkJoinPool.commonPool() 中并行复制，结果保持原有顺序
+     *
+     * @param sources 源对象，null 元素复制为 null
+     * @return 复制后的新对象
+     */
+    @SuppressWarnings("unchecked")
+    public List<D> copyList(List<? extends S> sources) {
+        List<? extends S> src = Ranges.randomAccess(sources);
+        Object[] out = new Object[src.size()];
+        Ranges.run(out.length, PARALLEL_THRESHOLD, MIN_CHUNK, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = copy(src.get(i));
+            }
+        });
+        return (List<D>) new ArrayList<>(Arrays.asList(out));
+    }
+
+    public Class<S> getSourceType() {
+        return sourceType;
+    }
+
+    public Class<D> getTargetType() {
+        return targetType;
+    }
+
+    /**
+     * 会被复制的目标属性名称
+     */
+    public List<String> getProperties() {
+        return properties;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanCopier{" + sourceType.getSimpleName() + " -> " + targetType.getSimpleName() + ", " + properties + '}';
+    }
+
+    // ================= 构建 ===================
+
+    /**
+     * 复制计划构造器
+     *
+     * @param <S> 源类型
+     * @param <D> 目标类型
+     */
+    public static final class Builder<S, D> {
+
+        private final Class<S> sourceType;
+
+        private final Class<D> targetType;
+
+        private final Set<String> ignored = new HashSet<>();
+
+        /**
+         * 目标属性名称 -> 源属性名称
+         */
+        private final Map<String, String> mappings = new HashMap<>();
+
+        /**
+         * 目标属性名称 -> 转换函数
+         */
+        private final Map<String, Function<Object, Object>> converters = new HashMap<>();
+
+        private boolean skipNull;
+
+        private Builder(Class<S> sourceType, Class<D> targetType) {
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+        }
+
+        /**
+         * 不复制该属性
+         */
+        public Builder<S, D> ignore(SFunction<S, ?> fn) {
+            return ignore(Column.of(fn).getPropertyName());
+        }
+
+        public Builder<S, D> ignore(String propertyName) {
+            ignored.add(propertyName);
+            return this;
+        }
+
+        /**
+         * <h3>
+         * 复制到同名属性前先转换
+         * </h3>
+         * 转换后的值直接写入目标属性，类型不匹配时复制会抛出 ClassCastException
+         *
+         * @param fn        lambda表达式，源类型属性的get方法
+         * @param converter 转换函数
+         * @param <V>       源属性类型
+         * @return this
+         */
+        public <V> Builder<S, D> convert(SFunction<S, V> fn, Function<? super V, ?> converter) {
+            String name = Column.of(fn).getPropertyName();
+            return put(name, name, converter);
+        }
+
+        /**
+         * 将源属性复制到名称不同的目标属性
+         */
+        public <V> Builder<S, D> map(SFunction<S, V> from, SFunction<D, ?> to) {
+            return put(Column.of(to).getPropertyName(), Column.of(from).getPropertyName(), null);
+        }
+
+        /**
+         * 将源属性转换后复制到名称不同的目标属性
+         */
+        public <V> Builder<S, D> map(SFunction<S, V> from, SFunction<D, ?> to, Function<? super V, ?> converter) {
+            return put(Column.of(to).getPropertyName(), Column.of(from).getPropertyName(), converter);
+        }
+
+        /**
+         * 源属性值为 null 时不覆盖目标属性，用于部分更新
+         */
+        public Builder<S, D> skipNull() {
+            this.skipNull = true;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Builder<S, D> put(String target, String source, Function<?, ?> converter) {
+            mappings.put(target, source);
+            if (converter != null) {
+                converters.put(target, (Function<Object, Object>) converter);
+            }
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public BeanCopier<S, D> build() {
+            BeanAccessor<Object> sources = (BeanAccessor<Object>) BeanAccessor.of(sourceType);
+            BeanAccessor<Object> targets = (BeanAccessor<Object>) BeanAccessor.of(targetType);
+            List<MethodHandle> steps = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            for (PropertyAccessor<Object> to : targets.getAccessors()) {
+                String name = to.getName();
+                if (!to.isWritable() || ignored.contains(name)) {
+                    continue;
+                }
+                PropertyAccessor<Object> from = sources.property(mappings.getOrDefault(name, name));
+                if (from == null || !from.isReadable() || ignored.contains(from.getName())) {
+                    continue;
+                }
+                MethodHandle step = step(from.getProperty().getReadMethod(), to.getProperty().getWriteMethod(),
+                        converters.get(name));
+                if (step != null) {
+                    steps.add(step);
+                    names.add(name);
+                }
+            }
+            return new BeanCopier<>(sourceType, targetType, LambdaFactory.combine(steps, STEP),
+                    Collections.unmodifiableList(names));
+        }
+
+        /**
+         * 单个属性的复制句柄，签名 (Object source, Object target)void，类型不兼容时返回 null
+         */
+        private MethodHandle step(Method read, Method write, Function<Object, Object> converter) {
+            Class<?> source = read.getReturnType();
+            Class<?> target = write.getParameterTypes()[0];
+            if (converter != null) {
+                MethodHandle get = MethodHandles.filterReturnValue(LambdaFactory.handle(read, GET),
+                        APPLY.bindTo(converter));
+                return checked(get, LambdaFactory.handle(write, SET), skipNull || target.isPrimitive());
+            }
+            if (source.isPrimitive() && target.isPrimitive()) {
+                if (!LambdaFactory.widens(source, target)) {
+                    return null;
+                }
+                // 基本类型之间直接传递，可以无损拓宽时不装箱，如 int -> long
+                MethodHandle get = LambdaFactory.handle(read, MethodType.methodType(target, Object.class));
+                MethodHandle set = LambdaFactory.handle(write, MethodType.methodType(void.class, Object.class, target));
+                return MethodHandles.permuteArguments(MethodHandles.filterArguments(set, 1, get), STEP, 1, 0);
+            }
+            if (!LambdaFactory.wrap(target).isAssignableFrom(LambdaFactory.wrap(source))) {
+                return null;
+            }
+            // 包装类型 -> 基本类型 时 null 不能写入，跳过
+            boolean skip = (skipNull && !source.isPrimitive()) || target.isPrimitive();
+            return checked(LambdaFactory.handle(read, GET), LambdaFactory.handle(write, SET), skip);
+        }
+
+        /**
+         * set(target, get(source))，skip 为 true 时 get 返回 null 则不写入
+         */
+        private static MethodHandle checked(MethodHandle get, MethodHandle set, boolean skip) {
+            // (value, target)void
+            MethodHandle put = MethodHandles.permuteArguments(set, STEP, 1, 0);
+            if (skip) {
+                put = MethodHandles.guardWithTest(IS_NULL, MethodHandles.empty(STEP), put);
+            }
+            return MethodHandles.filterArguments(put, 0, get);
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package icu.ayaka.reflect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 属性级变更比较
+ * 每个类只编译一次比较计划：可读属性按名称排序，下标即属性序号；基本类型属性通过基本类型 getter 读取后按位比较，
+ * 其余属性按 Objects.equals 比较。比较结果写入调用方复用的 BitSet，不分配对象
+ * <blockquote><pre>
+ * {@code BeanDiff<User> diff = BeanDiff.of(User.class);
+ *
+ *  BitSet dirty = new BitSet();
+ *  diff.diff(before, after, dirty);
+ *  List<String> columns = diff.names(dirty);                    // 只更新变化的列
+ *
+ *  BeanDiff.Snapshot<User> snapshot = diff.snapshot(user);       // 修改前保存快照
+ *  user.setName("ayaka");
+ *  List<BeanDiff.Change> changes = snapshot.changes(user);       // [name: admin -> ayaka]
+ * }</pre></blockquote>
+ * 快照是浅拷贝：只保存属性值本身（Date 复制一份），不复制嵌套的 bean、集合；
+ * 嵌套对象按 equals 比较，原地修改嵌套对象不会被快照发现。线程安全，快照不是线程安全的
+ *
+ * @param <T> bean类型
+ * @author Ayaka
+ */
+public final class BeanDiff<T> {
+
+    private static final String ERROR_MESSAGE = "[BeanDiff] 比较异常";
+
+    private static final MetadataCache<BeanDiff<?>> CACHE = new MetadataCache<>("BeanDiff", BeanDiff::new);
+
+    private final Class<T> type;
+
+    private final Property[] properties;
+
+    private final List<String> names;
+
+    private final Map<String, Integer> ordinals;
+
+    @SuppressWarnings("unchecked")
+    private BeanDiff(Class<?> type) {
+        this.type = (Class<T>) type;
+        List<PropertyAccessor<Object>> readable = ((BeanAccessor<Object>) BeanAccessor.of(type)).getAccessors().stream()
+                .filter(PropertyAccessor::isReadable)
+                .sorted(Comparator.comparing(PropertyAccessor::getName))
+                .collect(Collectors.toList());
+        this.properties = new Property[readable.size()];
+        Map<String, Integer> ordinals = new HashMap<>(properties.length * 2);
+        for (int i = 0; i < properties.length; i++) {
+            properties[i] = new Property(readable.get(i), i);
+            ordinals.put(properties[i].name, i);
+        }
+        this.names = Collections.unmodifiableList(Arrays.stream(properties).map(p -> p.name).collect(Collectors.toList()));
+        this.ordinals = ordinals;
+    }
+
+    /**
+     * <h3>
+     * 获取类的比较计划
+     * </h3>
+     *
+     * @param type bean类型
+     * @param <T>  bean类型
+     * @return 每个类只创建一次
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanDiff<T> of(Class<T> type) {
+        return (BeanDiff<T>) CACHE.get(type);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * 属性个数，序号为 [0, size)
+     */
+    public int size() {
+        return properties.length;
+    }
+
+    /**
+     * 按序号排列的属性名称
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    public String name(int ordinal) {
+        return properties[ordinal].name;
+    }
+
+    public int ordinal(String name) {
+        Integer i = ordinals.get(name);
+        if (i == null) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + type.getName() + " 没有可读属性 " + name);
+        }
+        return i;
+    }
+
+    public int ordinal(SFunction<T, ?> fn) {
+        return ordinal(Column.of(fn).getPropertyName());
+    }
+
+    /**
+     * 变化的属性名称，按序号排列
+     */
+    public List<String> names(BitSet dirty) {
+        List<String> out = new ArrayList<>(dirty.cardinality());
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+            out.add(properties[i].name);
+        }
+        return out;
+    }
+
+    // ================= 两个实例比较 ===================
+
+    public BitSet diff(T before, T after) {
+        return diff(before, after, new BitSet(properties.length));
+    }
+
+    /**
+     * <h3>
+     * 比较两个实例的所有可读属性
+     * </h3>
+     *
+     * @param before 修改前，不能为 null
+     * @param after  修改后，不能为 null
+     * @param dirty  复用的结果，先清空，再把变化的属性序号置位
+     * @return dirty
+     */
+    public BitSet diff(T before, T after, BitSet dirty) {
+        dirty.clear();
+        for (Property p : properties) {
+            if (!p.same(before, after)) {
+                dirty.set(p.ordinal);
+            }
+        }
+        return dirty;
+    }
+
+    /**
+     * 是否有属性变化，遇到第一个变化的属性即返回
+     */
+    public boolean isDirty(T before, T after) {
+        for (Property p : properties) {
+            if (!p.same(before, after)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 变化的属性及其新旧值，值会装箱，只在需要展示 / 记录变更时使用
+     */
+    public List<Change> changes(T before, T after) {
+        List<Change> out = new ArrayList<>();
+        for (Property p : properties) {
+            if (!p.same(before, after)) {
+                out.add(new Change(p.name, p.ordinal, p.getter.apply(before), p.getter.apply(after)));
+            }
+        }
+        return out;
+    }
+
+    // ================= 快照 ===================
+
+    public Snapshot<T> snapshot(T bean) {
+        return snapshot(bean, new Snapshot<>(this));
+    }
+
+    /**
+     * <h3>
+     * 保存 bean 当前的属性值
+     * </h3>
+     * 基本类型属性保存在 long[] 中，其余属性保存引用（Date 保存副本）
+     *
+     * @param bean  bean
+     * @param reuse 复用的快照，必须由同一个 BeanDiff 创建
+     * @return reuse
+     */
+    public Snapshot<T> snapshot(T bean, Snapshot<T> reuse) {
+        if (reuse.diff != this) {
+            throw new RuntimeException(ERROR_MESSAGE + "：快照不属于 " + type.getName());
+        }
+        for (Property p : properties) {
+            if (p.bits != null) {
+                reuse.bits[p.ordinal] = p.bits.applyAsLong(bean);
+            } else {
+                reuse.values[p.ordinal] = p.capture(bean);
+            }
+        }
+        return reuse;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanDiff" + names;
+    }
+
+    /**
+     * 某一时刻的属性值
+     */
+    public static final class Snapshot<T> {
+
+        private final BeanDiff<T> diff;
+
+        private final long[] bits;
+
+        private final Object[] values;
+
+        private Snapshot(BeanDiff<T> diff) {
+            this.diff = diff;
+            this.bits = new long[diff.properties.length];
+            this.values = new Object[diff.properties.length];
+        }
+
+        public BitSet diff(T current) {
+            return diff(current, new BitSet(bits.length));
+        }
+
+        /**
+         * <h3>
+         * 与快照比较
+         * </h3>
+         *
+         * @param current 当前的 bean
+         * @param dirty   复用的结果，先清空，再把变化的属性序号置位
+         * @return dirty
+         */
+        public BitSet diff(T current, BitSet dirty) {
+            dirty.clear();
+            for (Property p : diff.properties) {
+                if (!same(p, current)) {
+                    dirty.set(p.ordinal);
+                }
+            }
+            return dirty;
+        }
+
+        public boolean isDirty(T current) {
+            for (Property p : diff.properties) {
+                if (!same(p, current)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public List<Change> changes(T current) {
+            List<Change> out = new ArrayList<>();
+            for (Property p : diff.properties) {
+                if (!same(p, current)) {
+                    out.add(new Change(p.name, p.ordinal, get(p.ordinal), p.getter.apply(current)));
+                }
+            }
+            return out;
+        }
+
+        /**
+         * 快照中的属性值，基本类型装箱
+         */
+        public Object get(int ordinal) {
+            Property p = diff.properties[ordinal];
+            return p.bits != null ? p.box(bits[ordinal]) : p.copy(values[ordinal]);
+        }
+
+        public Object get(String name) {
+            return get(diff.ordinal(name));
+        }
+
+        private boolean same(Property p, T current) {
+            if (p.bits != null) {
+                return bits[p.ordinal] == p.bits.applyAsLong(current);
+            }
+            return Objects.equals(values[p.ordinal], p.getter.apply(current));
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("Snapshot{");
+            for (int i = 0; i < bits.length; i++) {
+                sb.append(i == 0 ? "" : ", ").append(diff.properties[i].name).append('=').append(get(i));
+            }
+            return sb.append('}').toString();
+        }
+    }
+
+    /**
+     * 一个属性的变化
+     */
+    public static final class Change {
+
+        private final String name;
+
+        private final int ordinal;
+
+        private final Object before;
+
+        private final Object after;
+
+        private Change(String name, int ordinal, Object before, Object after) {
+            this.name = name;
+            this.ordinal = ordinal;
+            this.before = before;
+            this.after = after;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getOrdinal() {
+            return ordinal;
+        }
+
+        public Object getBefore() {
+            return before;
+        }
+
+        public Object getAfter() {
+            return after;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + before + " -> " + after;
+        }
+    }
+
+    // ================= 单个属性 ===================
+
+    private static final class Property {
+
+        private final String name;
+
+        private final int ordinal;
+
+        private final Class<?> type;
+
+        private final Function<Object, Object> getter;
+
+        /**
+         * 基本类型属性读取为 long 的位表示，double 按 doubleToLongBits（与 Double.equals 一致）；其余属性为 null
+         */
+        private final ToLongFunction<Object> bits;
+
+        private Property(PropertyAccessor<Object> accessor, int ordinal) {
+            this.name = accessor.getName();
+            this.ordinal = ordinal;
+            this.type = accessor.getType();
+            this.getter = accessor.getter();
+            this.bits = bits(accessor);
+        }
+
+        private static ToLongFunction<Object> bits(PropertyAccessor<Object> accessor) {
+            Class<?> type = accessor.getType();
+            if (!type.isPrimitive()) {
+                return null;
+            }
+            if (type == boolean.class) {
+                Predicate<Object> g = accessor.booleanGetter();
+                return bean -> g.test(bean) ? 1L : 0L;
+            }
+            if (type == double.class || type == float.class) {
+                ToDoubleFunction<Object> g = accessor.doubleGetter();
+                return bean -> Double.doubleToLongBits(g.applyAsDouble(bean));
+            }
+            return accessor.longGetter();
+        }
+
+        private boolean same(Object a, Object b) {
+            if (bits != null) {
+                return bits.applyAsLong(a) == bits.applyAsLong(b);
+            }
+            return Objects.equals(getter.apply(a), getter.apply(b));
+        }
+
+        /**
+         * 快照保存的值：Date 可变，保存副本
+         */
+        private Object capture(Object bean) {
+            return copy(getter.apply(bean));
+        }
+
+        private Object copy(Object value) {
+            return value instanceof Date ? ((Date) value).clone() : value;
+        }
+
+        private Object box(long v) {
+            if (type == long.class) {
+                return v;
+            }
+            if (type == int.class) {
+                return (int) v;
+            }
+            if (type == boolean.class) {
+                return v != 0;
+            }
+            if (type == double.class) {
+                return Double.longBitsToDouble(v);
+            }
+            if (type == float.class) {
+                return (float) Double.longBitsToDouble(v);
+            }
+            if (type == short.class) {
+                return (short) v;
+            }
+            if (type == byte.class) {
+                return (byte) v;
+            }
+            return (char) v;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package icu.ayaka.reflect;
+
+/**
+ * BeanWriter / BeanReader 支持的文本格式，均为 UTF-8 编码，每行一条记录
+ *
+ * @author Ayaka
+ */
+public enum BeanFormat {
+
+    /**
+     * RFC 4180 CSV：包含 , " 换行 的值用双引号包裹，null 写为空值；时间写为 UTC 的 ISO-8601
+     */
+    CSV,
+
+    /**
+     * JSON Lines：每行一个扁平的 JSON 对象，key 为列名
+     */
+    JSON_LINES
+}
@@ -0,0 +1,372 @@
+package icu.ayaka.reflect;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 多属性组合键：由若干 get方法引用 编译出比较器、哈希函数与相等判断
+ * <p>
+ * 每个属性按类型选择读取函数：long / int / double / boolean 基本类型属性通过 PropertyAccessor 的基本类型 getter 读取，
+ * 比较、哈希、判等都不装箱；其余属性读取为对象，整数包装类型按 long 比较，Date 按毫秒比较，其余按 Comparable 比较。
+ * 所有属性按顺序串联为一个比较器（哈希函数、相等判断同理），不经过 Comparator.comparing 的链式调用。
+ * 编译结果不可变、无状态，可以用于 Arrays.parallelSort 和多线程去重
+ * <blockquote><pre>
+ * {@code private static final BeanKey<User> KEY = BeanKey.of(User::getName, User::getId, User::isAdmin);
+ *
+ *  users.sort(KEY.comparator());
+ *  List<User> unique = KEY.distinct(users);
+ *
+ *  private static final BeanKey<User> BY_TIME = BeanKey.builder(User.class)
+ *          .desc(User::getCreateTime)
+ *          .asc(User::getId)
+ *          .nullsLast()
+ *          .build();
+ * }</pre></blockquote>
+ * 不缓存，应当保存在 static final 字段中复用
+ *
+ * @param <T> bean类型
+ * @author Ayaka
+ */
+public final class BeanKey<T> {
+
+    private static final String ERROR_MESSAGE = "[BeanKey] 组合键异常";
+
+    private final List<Part<T>> parts;
+
+    private final boolean nullsLast;
+
+    private final ToIntFunction<T> hasher;
+
+    private final BiPredicate<T, T> equality;
+
+    private volatile Comparator<T> comparator;
+
+    private BeanKey(List<Part<T>> parts, boolean nullsLast) {
+        if (parts.isEmpty()) {
+            throw new RuntimeException(ERROR_MESSAGE + "：至少需要一个属性");
+        }
+        this.parts = parts;
+        this.nullsLast = nullsLast;
+        ToIntFunction<T> h = null;
+        BiPredicate<T, T> e = null;
+        for (Part<T> part : parts) {
+            h = part.hash(h);
+            e = part.equality(e);
+        }
+        this.hasher = h;
+        this.equality = e;
+    }
+
+    /**
+     * <h3>
+     * 按属性顺序升序，null 排在最前
+     * </h3>
+     *
+     * @param fns lambda表达式，bean的属性的get方法
+     * @param <T> bean类型
+     * @return 组合键
+     */
+    @SafeVarargs
+    public static <T> BeanKey<T> of(SFunction<T, ?>... fns) {
+        List<Part<T>> parts = new ArrayList<>(fns.length);
+        for (SFunction<T, ?> fn : fns) {
+            parts.add(new Part<>(BeanAccessor.accessor(fn), false));
+        }
+        return new BeanKey<>(parts, false);
+    }
+
+    public static <T> Builder<T> builder(Class<T> type) {
+        return new Builder<>();
+    }
+
+    // ================= 比较 / 哈希 / 判等 ===================
+
+    /**
+     * <h3>
+     * 按属性顺序比较
+     * </h3>
+     * 第一次调用时编译；属性不能比较大小时抛出异常（只用于哈希和判等的组合键不受影响）
+     *
+     * @return 比较器，与 equal 一致：compare 为 0 当且仅当所有属性相等（BigDecimal 等 compareTo 与 equals 不一致的类型除外）
+     */
+    public Comparator<T> comparator() {
+        Comparator<T> c = comparator;
+        if (c == null) {
+            for (int i = parts.size() - 1; i >= 0; i--) {
+                c = parts.get(i).comparator(c, nullsLast);
+            }
+            comparator = c;
+        }
+        return c;
+    }
+
+    public int compare(T a, T b) {
+        return comparator().compare(a, b);
+    }
+
+    /**
+     * 组合哈希，等价于 Objects.hash(属性值...)，基本类型属性不装箱
+     */
+    public ToIntFunction<T> hasher() {
+        return hasher;
+    }
+
+    public int hash(T bean) {
+        return hasher.applyAsInt(bean);
+    }
+
+    /**
+     * 所有属性相等，double 按 Double.equals 的语义比较
+     */
+    public BiPredicate<T, T> equality() {
+        return equality;
+    }
+
+    public boolean equal(T a, T b) {
+        return a == b || a != null && b != null && equality.test(a, b);
+    }
+
+    /**
+     * <h3>
+     * 按组合键去重
+     * </h3>
+     * 保留每个键第一次出现的元素，保持原有顺序；使用开放寻址的下标表，每个元素只读取一次哈希，不创建包装对象
+     *
+     * @param list 元素，不能包含 null
+     * @return 新的 ArrayList
+     */
+    public List<T> distinct(List<T> list) {
+        List<T> src = Ranges.randomAccess(list);
+        int n = src.size();
+        int capacity = Integer.highestOneBit(Math.max(n, 2) * 2 - 1) << 1;
+        int mask = capacity - 1;
+        int shift = Integer.numberOfLeadingZeros(mask);
+        // 下标 + 1，0 为空槽位
+        int[] table = new int[capacity];
+        int[] hashes = new int[capacity];
+        List<T> out = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            T bean = src.get(i);
+            int h = hasher.applyAsInt(bean);
+            // 组合哈希在连续的键上也是连续的，线性探测前先打散
+            int slot = h * 0x9E3779B9 >>> shift;
+            while (true) {
+                int j = table[slot];
+                if (j == 0) {
+                    table[slot] = i + 1;
+                    hashes[slot] = h;
+                    out.add(bean);
+                    break;
+                }
+                if (hashes[slot] == h && equality.test(src.get(j - 1), bean)) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("BeanKey[");
+        for (int i = 0; i < parts.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            Part<T> part = parts.get(i);
+            sb.append(part.accessor.getName()).append(part.descending ? " desc" : "");
+        }
+        return sb.append(nullsLast ? ", nulls last]" : "]").toString();
+    }
+
+    // ================= 单个属性 ===================
+
+    private static final class Part<T> {
+
+        private final PropertyAccessor<T> accessor;
+
+        private final boolean descending;
+
+        private final Class<?> type;
+
+        private Part(PropertyAccessor<T> accessor, boolean descending) {
+            if (!accessor.isReadable()) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + accessor + " 不可读");
+            }
+            this.accessor = accessor;
+            this.descending = descending;
+            this.type = accessor.getType();
+        }
+
+        private static boolean isInt(Class<?> type) {
+            return type == int.class || type == short.class || type == byte.class || type == char.class;
+        }
+
+        /**
+         * 在 prev 之后串联本属性：31 * prev + hash
+         */
+        private ToIntFunction<T> hash(ToIntFunction<T> prev) {
+            ToIntFunction<T> p = prev == null ? bean -> 1 : prev;
+            if (type == long.class) {
+                ToLongFunction<T> g = accessor.longGetter();
+                return bean -> 31 * p.applyAsInt(bean) + Long.hashCode(g.applyAsLong(bean));
+            }
+            if (isInt(type)) {
+                ToIntFunction<T> g = accessor.intGetter();
+                return bean -> 31 * p.applyAsInt(bean) + g.applyAsInt(bean);
+            }
+            if (type == double.class) {
+                ToDoubleFunction<T> g = accessor.doubleGetter();
+                return bean -> 31 * p.applyAsInt(bean) + Double.hashCode(g.applyAsDouble(bean));
+            }
+            if (type == float.class) {
+                // float 扩展为 double 再收窄不丢失精度，与 Float.hashCode 一致
+                ToDoubleFunction<T> g = accessor.doubleGetter();
+                return bean -> 31 * p.applyAsInt(bean) + Float.hashCode((float) g.applyAsDouble(bean));
+            }
+            if (type == boolean.class) {
+                Predicate<T> g = accessor.booleanGetter();
+                return bean -> 31 * p.applyAsInt(bean) + (g.test(bean) ? 1231 : 1237);
+            }
+            Function<T, Object> g = accessor.getter();
+            return bean -> 31 * p.applyAsInt(bean) + Objects.hashCode(g.apply(bean));
+        }
+
+        /**
+         * 在 prev 之后串联本属性
+         */
+        private BiPredicate<T, T> equality(BiPredicate<T, T> prev) {
+            BiPredicate<T, T> e;
+            if (type == long.class) {
+                ToLongFunction<T> g = accessor.longGetter();
+                e = (a, b) -> g.applyAsLong(a) == g.applyAsLong(b);
+            } else if (isInt(type)) {
+                ToIntFunction<T> g = accessor.intGetter();
+                e = (a, b) -> g.applyAsInt(a) == g.applyAsInt(b);
+            } else if (type == double.class || type == float.class) {
+                ToDoubleFunction<T> g = accessor.doubleGetter();
+                e = (a, b) -> Double.doubleToLongBits(g.applyAsDouble(a)) == Double.doubleToLongBits(g.applyAsDouble(b));
+            } else if (type == boolean.class) {
+                Predicate<T> g = accessor.booleanGetter();
+                e = (a, b) -> g.test(a) == g.test(b);
+            } else {
+                Function<T, Object> g = accessor.getter();
+                e = (a, b) -> Objects.equals(g.apply(a), g.apply(b));
+            }
+            if (prev == null) {
+                return e;
+            }
+            return (a, b) -> prev.test(a, b) && e.test(a, b);
+        }
+
+        /**
+         * 本属性相等时交给 next 比较
+         */
+        private Comparator<T> comparator(Comparator<T> next, boolean nullsLast) {
+            Comparator<T> c = descending ? compare(nullsLast).reversed() : compare(nullsLast);
+            if (next == null) {
+                return c;
+            }
+            return (a, b) -> {
+                int r = c.compare(a, b);
+                return r != 0 ? r : next.compare(a, b);
+            };
+        }
+
+        /**
+         * 单个属性的升序比较；降序时整体反转，因此 null 的位置也要预先反转
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Comparator<T> compare(boolean nullsLast) {
+            if (type == long.class) {
+                ToLongFunction<T> g = accessor.longGetter();
+                return (a, b) -> Long.compare(g.applyAsLong(a), g.applyAsLong(b));
+            }
+            if (isInt(type)) {
+                ToIntFunction<T> g = accessor.intGetter();
+                return (a, b) -> Integer.compare(g.applyAsInt(a), g.applyAsInt(b));
+            }
+            if (type == double.class || type == float.class) {
+                ToDoubleFunction<T> g = accessor.doubleGetter();
+                return (a, b) -> Double.compare(g.applyAsDouble(a), g.applyAsDouble(b));
+            }
+            if (type == boolean.class) {
+                Predicate<T> g = accessor.booleanGetter();
+                return (a, b) -> Boolean.compare(g.test(a), g.test(b));
+            }
+            Comparator<Object> values;
+            Class<?> wrapper = LambdaFactory.wrap(type);
+            if (wrapper == Long.class || wrapper == Integer.class || wrapper == Short.class || wrapper == Byte.class) {
+                values = (x, y) -> Long.compare(((Number) x).longValue(), ((Number) y).longValue());
+            } else if (Date.class.isAssignableFrom(type)) {
+                values = (x, y) -> Long.compare(((Date) x).getTime(), ((Date) y).getTime());
+            } else if (Comparable.class.isAssignableFrom(wrapper)) {
+                values = (x, y) -> ((Comparable) x).compareTo(y);
+            } else {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + accessor + " 不能比较大小");
+            }
+            Function<T, Object> g = accessor.getter();
+            int nullSign = nullsLast != descending ? 1 : -1;
+            return (a, b) -> {
+                Object x = g.apply(a);
+                Object y = g.apply(b);
+                if (x == null || y == null) {
+                    return x == y ? 0 : x == null ? nullSign : -nullSign;
+                }
+                return values.compare(x, y);
+            };
+        }
+    }
+
+    // ================= Builder ===================
+
+    public static final class Builder<T> {
+
+        private final List<Part<T>> parts = new ArrayList<>();
+
+        private boolean nullsLast;
+
+        private Builder() {
+        }
+
+        public Builder<T> asc(SFunction<T, ?> fn) {
+            parts.add(new Part<>(BeanAccessor.accessor(fn), false));
+            return this;
+        }
+
+        public Builder<T> desc(SFunction<T, ?> fn) {
+            parts.add(new Part<>(BeanAccessor.accessor(fn), true));
+            return this;
+        }
+
+        /**
+         * null 排在最前（默认），与升序 / 降序无关
+         */
+        public Builder<T> nullsFirst() {
+            nullsLast = false;
+            return this;
+        }
+
+        /**
+         * null 排在最后，与升序 / 降序无关
+         */
+        public Builder<T> nullsLast() {
+            nullsLast = true;
+            return this;
+        }
+
+        public BeanKey<T> build() {
+            return new BeanKey<>(new ArrayList<>(parts), nullsLast);
+        }
+    }
+}
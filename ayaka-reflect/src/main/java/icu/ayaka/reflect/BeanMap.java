@@ -0,0 +1,293 @@
+package icu.ayaka.reflect;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * bean 与 Map 互相转换
+ * 每个类只编译一次转换计划：属性名称、getter/setter、属性类型按属性名称排成数组，key 集合同一个类共享。
+ * BeanMap 本身是定长、以数组保存值的 Map，转换时只分配一个 BeanMap 和一个值数组，不构建 HashMap
+ * <blockquote><pre>
+ * {@code BeanMap map = BeanMap.of(user);                 // {admin=true, createTime=..., email=admin, ...}
+ *  User copy = BeanMap.toBean(map, User.class);           // 同类的 BeanMap 直接按下标读取，不查找 key
+ *  User other = BeanMap.toBean(hashMap, User.class);       // 普通 Map 按计划逐个读取，值按属性类型转换
+ * }</pre></blockquote>
+ * key 集合固定为可读属性，put 只能修改已有的 key，不支持 remove；不是线程安全的
+ *
+ * @author Ayaka
+ */
+public final class BeanMap extends AbstractMap<String, Object> {
+
+    private static final String ERROR_MESSAGE = "[BeanMap] 转换异常";
+
+    private static final MetadataCache<Plan> CACHE = new MetadataCache<>("BeanMap", Plan::new);
+
+    private final Plan plan;
+
+    private final Object[] values;
+
+    private EntrySet entrySet;
+
+    private BeanMap(Plan plan, Object[] values) {
+        this.plan = plan;
+        this.values = values;
+    }
+
+    /**
+     * <h3>
+     * 将 bean 的所有可读属性读取到 Map 中
+     * </h3>
+     * 返回的 Map 是读取时的快照，之后修改 bean 不会影响 Map
+     *
+     * @param bean bean
+     * @return key 为属性名称，按属性名称排序
+     */
+    public static BeanMap of(Object bean) {
+        Plan plan = CACHE.get(bean.getClass());
+        Function<Object, Object>[] getters = plan.getters;
+        Object[] values = new Object[getters.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getters[i].apply(bean);
+        }
+        return new BeanMap(plan, values);
+    }
+
+    /**
+     * 类的 key 集合，同一个类的所有 BeanMap 共享
+     */
+    public static Set<String> keys(Class<?> type) {
+        return CACHE.get(type).keySet;
+    }
+
+    /**
+     * 通过无参构造器创建实例，并从 Map 中读取属性
+     */
+    public static <T> T toBean(Map<String, ?> map, Class<T> type) {
+        return populate(map, BeanAccessor.of(type).newInstance());
+    }
+
+    /**
+     * <h3>
+     * 从 Map 中读取属性写入 bean
+     * </h3>
+     * Map 中不存在的 key 不修改；值按属性类型转换（如 Integer -> Long），null 不写入基本类型属性；
+     * map 是同一个类的 BeanMap 时直接按下标读取
+     *
+     * @param map  属性名称 -> 属性值
+     * @param bean bean
+     * @param <T>  bean类型
+     * @return bean
+     */
+    public static <T> T populate(Map<String, ?> map, T bean) {
+        Plan plan = CACHE.get(bean.getClass());
+        BiConsumer<Object, Object>[] setters = plan.setters;
+        Class<?>[] types = plan.types;
+        if (map instanceof BeanMap && ((BeanMap) map).plan == plan) {
+            Object[] values = ((BeanMap) map).values;
+            for (int i = 0; i < setters.length; i++) {
+                if (setters[i] != null) {
+                    set(setters[i], types[i], bean, values[i]);
+                }
+            }
+            return bean;
+        }
+        String[] keys = plan.keys;
+        for (int i = 0; i < setters.length; i++) {
+            if (setters[i] == null) {
+                continue;
+            }
+            Object v = map.get(keys[i]);
+            if (v != null || map.containsKey(keys[i])) {
+                set(setters[i], types[i], bean, Coercions.coerce(v, types[i]));
+            }
+        }
+        return bean;
+    }
+
+    private static void set(BiConsumer<Object, Object> setter, Class<?> type, Object bean, Object value) {
+        if (value != null || !type.isPrimitive()) {
+            setter.accept(bean, value);
+        }
+    }
+
+    /**
+     * 创建 bean 并写入当前的值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T toBean() {
+        return populate(this, (T) BeanAccessor.of(plan.type).newInstance());
+    }
+
+    public Class<?> getBeanType() {
+        return plan.type;
+    }
+
+    // ================= Map ===================
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return plan.index.containsKey(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        Integer i = plan.index.get(key);
+        return i == null ? null : values[i];
+    }
+
+    /**
+     * 只能修改已有的 key
+     */
+    @Override
+    public Object put(String key, Object value) {
+        Integer i = plan.index.get(key);
+        if (i == null) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + plan.type.getName() + " 不包含属性 " + key);
+        }
+        Object old = values[i];
+        values[i] = value;
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        throw new UnsupportedOperationException(ERROR_MESSAGE + "：key 集合是固定的");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException(ERROR_MESSAGE + "：key 集合是固定的");
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return plan.keySet;
+    }
+
+    @Override
+    public List<Object> values() {
+        return Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    /**
+     * 按下标遍历，不创建 Entry
+     */
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        String[] keys = plan.keys;
+        for (int i = 0; i < keys.length; i++) {
+            action.accept(keys[i], values[i]);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        EntrySet es = entrySet;
+        if (es == null) {
+            entrySet = es = new EntrySet();
+        }
+        return es;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            return new Iterator<>() {
+
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < values.length;
+                }
+
+                @Override
+                public Entry<String, Object> next() {
+                    if (next >= values.length) {
+                        throw new NoSuchElementException();
+                    }
+                    int i = next++;
+                    return new SimpleEntry<>(plan.keys[i], values[i]) {
+                        @Override
+                        public Object setValue(Object value) {
+                            values[i] = value;
+                            return super.setValue(value);
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    /**
+     * 类的转换计划，按属性名称排序，只包含可读属性
+     */
+    private static final class Plan {
+
+        private final Class<?> type;
+
+        private final String[] keys;
+
+        private final Map<String, Integer> index;
+
+        private final Set<String> keySet;
+
+        private final Function<Object, Object>[] getters;
+
+        /**
+         * 不可写的属性为 null
+         */
+        private final BiConsumer<Object, Object>[] setters;
+
+        private final Class<?>[] types;
+
+        @SuppressWarnings("unchecked")
+        private Plan(Class<?> type) {
+            this.type = type;
+            BeanAccessor<Object> accessor = (BeanAccessor<Object>) BeanAccessor.of(type);
+            List<PropertyAccessor<Object>> readable = accessor.getAccessors().stream()
+                    .filter(PropertyAccessor::isReadable)
+                    .sorted((a, b) -> a.getName().compareTo(b.getName()))
+                    .collect(Collectors.toList());
+            int n = readable.size();
+            this.keys = new String[n];
+            this.getters = (Function<Object, Object>[]) new Function<?, ?>[n];
+            this.setters = (BiConsumer<Object, Object>[]) new BiConsumer<?, ?>[n];
+            this.types = new Class<?>[n];
+            Map<String, Integer> index = new HashMap<>(n * 2);
+            for (int i = 0; i < n; i++) {
+                PropertyAccessor<Object> p = readable.get(i);
+                keys[i] = p.getName();
+                getters[i] = p.getter();
+                setters[i] = p.isWritable() ? p.setter() : null;
+                types[i] = p.isWritable() ? p.getProperty().getWriteMethod().getParameterTypes()[0] : p.getType();
+                index.put(keys[i], i);
+            }
+            this.index = index;
+            this.keySet = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(keys)));
+        }
+    }
+}
@@ -0,0 +1,709 @@
+package icu.ayaka.reflect;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 流式读取 BeanWriter 写出的 CSV / JSON Lines
+ * 每次从通道读入一块到复用的缓冲区，逐条切分记录并直接从字节解析整数 / boolean / 时间，
+ * 通过编译好的 setter 写入 bean，不为每个单元格创建 String
+ * <blockquote><pre>
+ * {@code try (BeanReader<User> reader = BeanReader.builder(User.class)
+ *          .format(BeanFormat.CSV)
+ *          .open(Paths.get("user.csv"))) {
+ *      reader.forEach(users::add);
+ *  }
+ * }</pre></blockquote>
+ * CSV 有表头时按列名匹配属性（未知的列忽略），没有表头时按指定的列顺序读取；
+ * JSON Lines 按 key 匹配属性，只支持扁平对象。空值 / null 不写入基本类型属性。不是线程安全的
+ *
+ * @param <T> bean类型
+ * @author Ayaka
+ */
+public final class BeanReader<T> implements Closeable {
+
+    private static final String ERROR_MESSAGE = "[BeanReader] 读取异常";
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private static final int MIN_BUFFER_SIZE = 256;
+
+    private final ReadableByteChannel channel;
+
+    private final boolean closeChannel;
+
+    private final boolean csv;
+
+    private final Supplier<T> constructor;
+
+    private final ByteBuffer buffer;
+
+    private final byte[] in;
+
+    private int pos;
+
+    private int limit;
+
+    private boolean eof;
+
+    /**
+     * 当前记录，CSV / JSON 字符串在此就地反转义
+     */
+    private byte[] line = new byte[256];
+
+    private int length;
+
+    /**
+     * CSV：按字段下标；JSON：按列，与 names 对应
+     */
+    private Cell[] cells;
+
+    private final byte[][] names;
+
+    /**
+     * JSON 字符串解析结束的位置
+     */
+    private int cursor;
+
+    private long rows;
+
+    private boolean closed;
+
+    private BeanReader(Builder<T> builder, List<PropertyAccessor<Object>> columns,
+                       ReadableByteChannel channel, boolean closeChannel) {
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.csv = builder.format == BeanFormat.CSV;
+        this.constructor = BeanAccessor.of(builder.type).constructor();
+        this.buffer = ByteBuffer.allocate(builder.bufferSize);
+        this.in = buffer.array();
+        this.cells = new Cell[columns.size()];
+        this.names = new byte[columns.size()][];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = cell(columns.get(i));
+            names[i] = TextCodec.bytes(builder.naming.translate(columns.get(i).getName()));
+        }
+        if (csv && builder.header && nextRecord()) {
+            header();
+        }
+    }
+
+    /**
+     * <h3>
+     * 创建读取器的构造器
+     * </h3>
+     *
+     * @param type bean类型，需要无参构造器
+     * @param <T>  bean类型
+     * @return 构造器，默认 CSV、有表头、所有可写属性
+     */
+    public static <T> Builder<T> builder(Class<T> type) {
+        return new Builder<>(type);
+    }
+
+    // ================= 读取 ===================
+
+    /**
+     * 读取下一条记录
+     *
+     * @return 新创建的 bean，没有更多记录时返回 null
+     */
+    public T read() {
+        T bean = null;
+        if (nextRecord()) {
+            bean = constructor.get();
+            parse(bean);
+        }
+        return bean;
+    }
+
+    /**
+     * 读取下一条记录写入已有的 bean，记录中不存在的属性保持不变
+     *
+     * @return 没有更多记录时返回 false
+     */
+    public boolean read(T bean) {
+        if (!nextRecord()) {
+            return false;
+        }
+        parse(bean);
+        return true;
+    }
+
+    public void forEach(Consumer<? super T> action) {
+        for (T bean = read(); bean != null; bean = read()) {
+            action.accept(bean);
+        }
+    }
+
+    /**
+     * 已读取的记录数，不包含表头
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (closeChannel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new RuntimeException(ERROR_MESSAGE, e);
+            }
+        }
+    }
+
+    private void parse(Object bean) {
+        try {
+            if (csv) {
+                parseCsv(bean);
+            } else {
+                parseJson(bean);
+            }
+        } catch (RuntimeException e) {
+            throw new RuntimeException(ERROR_MESSAGE + "：第 " + (rows + 1) + " 条记录 "
+                    + new String(line, 0, Math.min(length, 200), StandardCharsets.UTF_8), e);
+        }
+        rows++;
+    }
+
+    // ================= 记录 ===================
+
+    private boolean fill() {
+        if (eof) {
+            return false;
+        }
+        buffer.clear();
+        try {
+            int n;
+            do {
+                n = channel.read(buffer);
+            } while (n == 0);
+            if (n < 0) {
+                eof = true;
+                return false;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        }
+        pos = 0;
+        limit = buffer.position();
+        return true;
+    }
+
+    /**
+     * 将下一条非空记录复制到 line，跳过空行；CSV 引号内的换行属于值的一部分
+     */
+    private boolean nextRecord() {
+        do {
+            if (!nextLine()) {
+                return false;
+            }
+        } while (length == 0);
+        return true;
+    }
+
+    private boolean nextLine() {
+        int n = 0;
+        boolean quoted = false;
+        boolean any = false;
+        byte[] in = this.in;
+        while (true) {
+            if (pos >= limit) {
+                if (!fill()) {
+                    if (!any) {
+                        return false;
+                    }
+                    break;
+                }
+            }
+            any = true;
+            // 在当前块中找到行尾后整段复制
+            int start = pos;
+            int end = start;
+            if (csv) {
+                while (end < limit && (quoted || in[end] != '\n')) {
+                    if (in[end] == '"') {
+                        quoted = !quoted;
+                    }
+                    end++;
+                }
+            } else {
+                while (end < limit && in[end] != '\n') {
+                    end++;
+                }
+            }
+            int count = end - start;
+            if (n + count > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, n + count));
+            }
+            System.arraycopy(in, start, line, n, count);
+            n += count;
+            if (end < limit) {
+                pos = end + 1;
+                break;
+            }
+            pos = limit;
+        }
+        if (n > 0 && line[n - 1] == '\r') {
+            n--;
+        }
+        length = n;
+        return true;
+    }
+
+    // ================= CSV ===================
+
+    /**
+     * 按表头重新排列字段下标对应的列，未知的列为 null
+     */
+    private void header() {
+        List<String> header = new ArrayList<>();
+        splitCsv((field, from, to, isNull) -> header.add(new String(line, from, to - from, StandardCharsets.UTF_8)));
+        Cell[] byField = new Cell[header.size()];
+        for (int i = 0; i < byField.length; i++) {
+            byte[] name = TextCodec.bytes(header.get(i));
+            for (int j = 0; j < names.length; j++) {
+                if (Arrays.equals(name, names[j])) {
+                    byField[i] = cells[j];
+                    break;
+                }
+            }
+        }
+        cells = byField;
+    }
+
+    private void parseCsv(Object bean) {
+        Cell[] cells = this.cells;
+        splitCsv((field, from, to, isNull) -> {
+            if (field < cells.length && cells[field] != null) {
+                cells[field].read(bean, line, from, to, isNull);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface FieldVisitor {
+        void visit(int field, int from, int to, boolean isNull);
+    }
+
+    /**
+     * 切分 CSV 记录，带引号的值就地反转义；不带引号的空值为 null，"" 为空字符串
+     */
+    private void splitCsv(FieldVisitor visitor) {
+        byte[] b = line;
+        int n = length;
+        int i = 0;
+        for (int field = 0; ; field++) {
+            int from;
+            int to;
+            boolean isNull;
+            if (i < n && b[i] == '"') {
+                from = i;
+                int w = i++;
+                while (i < n) {
+                    byte c = b[i++];
+                    if (c == '"') {
+                        if (i < n && b[i] == '"') {
+                            b[w++] = '"';
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        b[w++] = c;
+                    }
+                }
+                to = w;
+                isNull = false;
+                while (i < n && b[i] != ',') {
+                    i++;
+                }
+            } else {
+                from = i;
+                while (i < n && b[i] != ',') {
+                    i++;
+                }
+                to = i;
+                isNull = from == to;
+            }
+            visitor.visit(field, from, to, isNull);
+            if (i >= n) {
+                return;
+            }
+            i++;
+        }
+    }
+
+    // ================= JSON ===================
+
+    private void parseJson(Object bean) {
+        byte[] b = line;
+        int n = length;
+        int i = skipSpace(b, 0, n);
+        expect(b, i, n, '{');
+        i = skipSpace(b, i + 1, n);
+        if (i < n && b[i] == '}') {
+            return;
+        }
+        int hint = 0;
+        while (true) {
+            expect(b, i, n, '"');
+            int keyFrom = ++i;
+            while (i < n && b[i] != '"') {
+                i += b[i] == '\\' ? 2 : 1;
+            }
+            int keyTo = i;
+            i = skipSpace(b, i + 1, n);
+            expect(b, i, n, ':');
+            i = skipSpace(b, i + 1, n);
+            int column = find(b, keyFrom, keyTo, hint);
+            Cell cell = column < 0 ? null : cells[column];
+            if (column >= 0) {
+                hint = column + 1;
+            }
+            if (i >= n) {
+                throw new RuntimeException("缺少值");
+            }
+            byte c = b[i];
+            if (c == '"') {
+                int from = i + 1;
+                int to = unescape(b, from, n);
+                i = cursor;
+                if (cell != null) {
+                    cell.read(bean, b, from, to, false);
+                }
+            } else if (c == '{' || c == '[') {
+                throw new RuntimeException("不支持嵌套的对象或数组");
+            } else {
+                int from = i;
+                while (i < n && b[i] != ',' && b[i] != '}' && b[i] != ' ' && b[i] != '\t') {
+                    i++;
+                }
+                if (cell != null) {
+                    boolean isNull = i - from == 4 && b[from] == 'n' && b[from + 1] == 'u' && b[from + 2] == 'l' && b[from + 3] == 'l';
+                    cell.read(bean, b, from, i, isNull);
+                }
+            }
+            i = skipSpace(b, i, n);
+            if (i < n && b[i] == ',') {
+                i = skipSpace(b, i + 1, n);
+            } else {
+                expect(b, i, n, '}');
+                return;
+            }
+        }
+    }
+
+    /**
+     * 按列名查找列，从上一个匹配的列之后开始，key 顺序与列顺序一致时每次只比较一次
+     */
+    private int find(byte[] b, int from, int to, int hint) {
+        byte[][] names = this.names;
+        for (int k = 0; k < names.length; k++) {
+            int j = hint + k;
+            if (j >= names.length) {
+                j -= names.length;
+            }
+            if (Arrays.equals(b, from, to, names[j], 0, names[j].length)) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 就地反转义 JSON 字符串，from 为开引号之后的位置
+     *
+     * @return 反转义后值的结束位置，闭引号之后的位置保存在 cursor
+     */
+    private int unescape(byte[] b, int from, int n) {
+        int i = from;
+        int w = from;
+        while (true) {
+            if (i >= n) {
+                throw new RuntimeException("字符串未结束");
+            }
+            byte c = b[i++];
+            if (c == '"') {
+                break;
+            }
+            if (c != '\\') {
+                b[w++] = c;
+                continue;
+            }
+            if (i >= n) {
+                throw new RuntimeException("字符串未结束");
+            }
+            byte e = b[i++];
+            switch (e) {
+                case 'n': b[w++] = '\n'; break;
+                case 'r': b[w++] = '\r'; break;
+                case 't': b[w++] = '\t'; break;
+                case 'b': b[w++] = '\b'; break;
+                case 'f': b[w++] = '\f'; break;
+                case 'u': {
+                    if (i + 4 > n) {
+                        throw new RuntimeException("字符串未结束");
+                    }
+                    int cp = hex(b, i);
+                    i += 4;
+                    if (Character.isHighSurrogate((char) cp) && i + 6 <= n && b[i] == '\\' && b[i + 1] == 'u') {
+                        int low = hex(b, i + 2);
+                        if (Character.isLowSurrogate((char) low)) {
+                            cp = Character.toCodePoint((char) cp, (char) low);
+                            i += 6;
+                        }
+                    }
+                    w = putCodePoint(b, w, cp);
+                    break;
+                }
+                default: b[w++] = e;
+            }
+        }
+        cursor = i;
+        return w;
+    }
+
+    private static int hex(byte[] b, int i) {
+        int v = 0;
+        for (int k = i; k < i + 4; k++) {
+            int d = Character.digit(b[k], 16);
+            if (d < 0) {
+                throw new RuntimeException("错误的 \\u 转义");
+            }
+            v = v << 4 | d;
+        }
+        return v;
+    }
+
+    /**
+     * 写入 UTF-8，\\uXXXX 至少 6 字节而编码最多 3 字节（surrogate 对 12 字节编码为 4 字节），不会覆盖未读取的内容
+     */
+    private static int putCodePoint(byte[] b, int w, int cp) {
+        if (cp < 0x80) {
+            b[w++] = (byte) cp;
+        } else if (cp < 0x800) {
+            b[w++] = (byte) (0xC0 | cp >> 6);
+            b[w++] = (byte) (0x80 | cp & 0x3F);
+        } else if (cp < 0x10000) {
+            b[w++] = (byte) (0xE0 | cp >> 12);
+            b[w++] = (byte) (0x80 | cp >> 6 & 0x3F);
+            b[w++] = (byte) (0x80 | cp & 0x3F);
+        } else {
+            b[w++] = (byte) (0xF0 | cp >> 18);
+            b[w++] = (byte) (0x80 | cp >> 12 & 0x3F);
+            b[w++] = (byte) (0x80 | cp >> 6 & 0x3F);
+            b[w++] = (byte) (0x80 | cp & 0x3F);
+        }
+        return w;
+    }
+
+    private static int skipSpace(byte[] b, int i, int n) {
+        while (i < n && (b[i] == ' ' || b[i] == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void expect(byte[] b, int i, int n, char c) {
+        if (i >= n || b[i] != c) {
+            throw new RuntimeException("位置 " + i + " 应为 " + c);
+        }
+    }
+
+    // ================= 列 ===================
+
+    /**
+     * 解析单元格写入 bean，isNull 为 true 时 [from, to) 没有意义
+     */
+    @FunctionalInterface
+    private interface Cell {
+        void read(Object bean, byte[] b, int from, int to, boolean isNull);
+    }
+
+    private static Cell cell(PropertyAccessor<Object> p) {
+        Class<?> type = p.getProperty().getWriteMethod().getParameterTypes()[0];
+        if (type == long.class) {
+            ObjLongConsumer<Object> set = p.longSetter();
+            return (bean, b, from, to, isNull) -> {
+                if (!isNull) {
+                    set.accept(bean, TextCodec.parseLong(b, from, to));
+                }
+            };
+        }
+        if (type == int.class) {
+            ObjIntConsumer<Object> set = p.intSetter();
+            return (bean, b, from, to, isNull) -> {
+                if (!isNull) {
+                    set.accept(bean, Math.toIntExact(TextCodec.parseLong(b, from, to)));
+                }
+            };
+        }
+        if (type == double.class) {
+            ObjDoubleConsumer<Object> set = p.doubleSetter();
+            return (bean, b, from, to, isNull) -> {
+                if (!isNull) {
+                    set.accept(bean, TextCodec.parseDouble(b, from, to));
+                }
+            };
+        }
+        if (type == boolean.class) {
+            ObjBooleanConsumer<Object> set = p.booleanSetter();
+            return (bean, b, from, to, isNull) -> {
+                if (!isNull) {
+                    set.accept(bean, TextCodec.parseBoolean(b, from, to));
+                }
+            };
+        }
+        BiConsumer<Object, Object> set = p.setter();
+        Parser parser = parser(type);
+        boolean primitive = type.isPrimitive();
+        return (bean, b, from, to, isNull) -> {
+            if (!isNull) {
+                set.accept(bean, parser.parse(b, from, to));
+            } else if (!primitive) {
+                set.accept(bean, null);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface Parser {
+        Object parse(byte[] b, int from, int to);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Parser parser(Class<?> type) {
+        if (type == String.class) {
+            return (b, from, to) -> new String(b, from, to - from, StandardCharsets.UTF_8);
+        }
+        if (type == Long.class) {
+            return (b, from, to) -> TextCodec.parseLong(b, from, to);
+        }
+        if (type == Integer.class) {
+            return (b, from, to) -> Math.toIntExact(TextCodec.parseLong(b, from, to));
+        }
+        if (type == Double.class) {
+            return TextCodec::parseDouble;
+        }
+        if (type == Boolean.class) {
+            return TextCodec::parseBoolean;
+        }
+        if (type == Date.class) {
+            return (b, from, to) -> new Date(TextCodec.parseDate(b, from, to));
+        }
+        if (type == char.class || type == Character.class) {
+            return (b, from, to) -> new String(b, from, to - from, StandardCharsets.UTF_8).charAt(0);
+        }
+        if (type.isEnum()) {
+            return (b, from, to) -> Enum.valueOf((Class) type, new String(b, from, to - from, StandardCharsets.UTF_8));
+        }
+        return (b, from, to) -> Coercions.coerce(new String(b, from, to - from, StandardCharsets.UTF_8), type);
+    }
+
+    /**
+     * 读取器构造器
+     *
+     * @param <T> bean类型
+     */
+    public static final class Builder<T> {
+
+        private final Class<T> type;
+
+        private final List<SFunction<?, ?>> columns = new ArrayList<>();
+
+        private BeanFormat format = BeanFormat.CSV;
+
+        private NamingStrategy naming = NamingStrategy.IDENTITY;
+
+        private boolean header = true;
+
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+        private Builder(Class<T> type) {
+            this.type = type;
+        }
+
+        public Builder<T> format(BeanFormat format) {
+            this.format = format;
+            return this;
+        }
+
+        /**
+         * 追加一列；CSV 没有表头时按调用顺序对应字段
+         */
+        public Builder<T> column(SFunction<T, ?> fn) {
+            columns.add(fn);
+            return this;
+        }
+
+        /**
+         * 列名（CSV 表头 / JSON key）的命名策略，需要与写出时一致
+         */
+        public Builder<T> naming(NamingStrategy naming) {
+            this.naming = naming;
+            return this;
+        }
+
+        /**
+         * CSV 第一行是否为表头，默认是
+         */
+        public Builder<T> header(boolean header) {
+            this.header = header;
+            return this;
+        }
+
+        public Builder<T> bufferSize(int bufferSize) {
+            this.bufferSize = Math.max(bufferSize, MIN_BUFFER_SIZE);
+            return this;
+        }
+
+        /**
+         * 从通道读取，通道由调用方关闭
+         */
+        public BeanReader<T> build(ReadableByteChannel channel) {
+            return new BeanReader<>(this, BeanWriter.columns(type, columns, false), channel, false);
+        }
+
+        /**
+         * 打开文件读取，close() 时关闭文件
+         */
+        public BeanReader<T> open(Path path) {
+            List<PropertyAccessor<Object>> resolved = BeanWriter.columns(type, columns, false);
+            FileChannel channel;
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + path, e);
+            }
+            try {
+                return new BeanReader<>(this, resolved, channel, true);
+            } catch (RuntimeException | Error e) {
+                BeanWriter.closeQuietly(channel, e);
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package icu.ayaka.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量赋值：把一组 (set方法引用, 值) 编译为一个方法句柄，应用到任意多个 bean 上
+ * <p>
+ * set方法引用 按 lambda合成类 解析一次（见 Column.of(SBiConsumer)），
+ * 每个属性的 set方法 绑定值后组合为一个方法句柄，赋值时不查找属性名称，不经过 Method.invoke；基本类型属性绑定的值不装箱
+ * <blockquote><pre>
+ * {@code BeanUpdate<User> update = BeanUpdate.builder(User.class)
+ *          .set(User::setName, "ayaka")
+ *          .set(User::setAdmin, false)
+ *          .build();
+ *  update.applyAll(users);
+ *  update.getColumns(NamingStrategy.SNAKE_CASE);   // [name, admin]，用于生成 UPDATE 语句
+ * }</pre></blockquote>
+ * 同一个属性赋值多次时保留最后一次；值只保存引用，可变的值（如 Date）会被所有 bean 共享。线程安全
+ *
+ * @param <T> bean类型
+ * @author Ayaka
+ */
+public final class BeanUpdate<T> {
+
+    private static final String ERROR_MESSAGE = "[BeanUpdate] 赋值异常";
+
+    /**
+     * 单个属性的赋值句柄签名 (Object bean)void
+     */
+    private static final MethodType STEP = MethodType.methodType(void.class, Object.class);
+
+    private final Class<T> type;
+
+    private final List<Column> columns;
+
+    private final List<Object> values;
+
+    private final MethodHandle plan;
+
+    private BeanUpdate(Class<T> type, List<Column> columns, List<Object> values, MethodHandle plan) {
+        this.type = type;
+        this.columns = columns;
+        this.values = values;
+        this.plan = plan;
+    }
+
+    public static <T> Builder<T> builder(Class<T> type) {
+        return new Builder<>(type);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * 被赋值的列，按第一次 set 的顺序
+     */
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    public List<String> getColumns(NamingStrategy strategy) {
+        List<String> names = new ArrayList<>(columns.size());
+        for (Column column : columns) {
+            names.add(column.getName(strategy));
+        }
+        return names;
+    }
+
+    /**
+     * 与 getColumns 一一对应的值
+     */
+    public List<Object> getValues() {
+        return values;
+    }
+
+    /**
+     * 对单个 bean 赋值
+     *
+     * @return bean
+     */
+    public T apply(T bean) {
+        try {
+            plan.invokeExact((Object) bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        }
+        return bean;
+    }
+
+    /**
+     * 对每个 bean 赋值，不能包含 null
+     */
+    public void applyAll(Iterable<? extends T> beans) {
+        try {
+            for (T bean : beans) {
+                plan.invokeExact((Object) bean);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("BeanUpdate{");
+        for (int i = 0; i < columns.size(); i++) {
+            sb.append(i == 0 ? "" : ", ").append(columns.get(i).getPropertyName()).append('=').append(values.get(i));
+        }
+        return sb.append('}').toString();
+    }
+
+    // ================= Builder ===================
+
+    public static final class Builder<T> {
+
+        private final Class<T> type;
+
+        /**
+         * 属性名称 -> (列, 值)
+         */
+        private final Map<String, Object[]> assignments = new LinkedHashMap<>();
+
+        private Builder(Class<T> type) {
+            this.type = type;
+        }
+
+        /**
+         * <h3>
+         * 为属性赋值
+         * </h3>
+         *
+         * @param setter lambda表达式，bean的属性的set方法
+         * @param value  值，基本类型属性不能为 null
+         * @param <V>    属性类型
+         * @return this
+         */
+        public <V> Builder<T> set(SBiConsumer<T, V> setter, V value) {
+            return put(Column.of(setter), value);
+        }
+
+        /**
+         * 按属性名称赋值，值按属性类型转换（见 Coercions），用于属性名称来自外部输入的场景
+         */
+        public Builder<T> set(String propertyName, Object value) {
+            PropertyIndex.Property p = PropertyIndex.of(type).getByName(propertyName);
+            if (p == null || p.getWriteMethod() == null) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + type.getName() + " 没有可写属性 " + propertyName);
+            }
+            Column column = Column.of(p);
+            return put(column, Coercions.coerce(value, p.getWriteMethod().getParameterTypes()[0]));
+        }
+
+        private Builder<T> put(Column column, Object value) {
+            PropertyIndex.Property p = column.getProperty();
+            if (!p.getBeanClass().isAssignableFrom(type)) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + column + " 不属于 " + type.getName());
+            }
+            Class<?> param = p.getWriteMethod().getParameterTypes()[0];
+            if (value == null && param.isPrimitive()) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + column + " 是基本类型，不能赋值为 null");
+            }
+            if (value != null && !LambdaFactory.wrap(param).isInstance(value)) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + column + " 不能赋值为 " + value.getClass().getName());
+            }
+            assignments.put(p.getName(), new Object[]{column, value});
+            return this;
+        }
+
+        public BeanUpdate<T> build() {
+            List<Column> columns = new ArrayList<>(assignments.size());
+            List<Object> values = new ArrayList<>(assignments.size());
+            List<MethodHandle> steps = new ArrayList<>(assignments.size());
+            for (Object[] a : assignments.values()) {
+                Column column = (Column) a[0];
+                columns.add(column);
+                values.add(a[1]);
+                steps.add(step(column.getProperty().getWriteMethod(), a[1]));
+            }
+            return new BeanUpdate<>(type, Collections.unmodifiableList(columns),
+                    Collections.unmodifiableList(values), LambdaFactory.combine(steps, STEP));
+        }
+
+        /**
+         * set(bean, value)，值绑定在句柄上；基本类型参数按基本类型绑定
+         */
+        private static MethodHandle step(Method write, Object value) {
+            Class<?> param = write.getParameterTypes()[0];
+            Class<?> bound = param.isPrimitive() ? param : Object.class;
+            MethodHandle set = LambdaFactory.handle(write, MethodType.methodType(void.class, Object.class, bound));
+            return MethodHandles.insertArguments(set, 1, value);
+        }
+    }
+}
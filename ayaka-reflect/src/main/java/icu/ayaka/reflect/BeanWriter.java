@@ -0,0 +1,555 @@
+package icu.ayaka.reflect;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 流式写出 bean：CSV / JSON Lines
+ * 每列按属性类型编译为写入函数，整数 / boolean / Date / 字符串直接编码为 UTF-8 字节写入复用的缓冲区，
+ * 缓冲区写满时阻塞写入通道（背压），内存占用与数据量无关
+ * <blockquote><pre>
+ * {@code try (BeanWriter<User> writer = BeanWriter.builder(User.class)
+ *          .format(BeanFormat.CSV)
+ *          .column(User::getId).column(User::getName).column(User::getCreateTime)
+ *          .open(Paths.get("user.csv"))) {
+ *      writer.writeAll(users);
+ *  }
+ * }</pre></blockquote>
+ * 不指定列时按属性顺序写出所有可读属性。不是线程安全的
+ *
+ * @param <T> bean类型
+ * @author Ayaka
+ */
+public final class BeanWriter<T> implements Closeable, Flushable {
+
+    private static final String ERROR_MESSAGE = "[BeanWriter] 写出异常";
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * 缓冲区至少能容纳一个最长的编码单元
+     */
+    private static final int MIN_BUFFER_SIZE = 256;
+
+    private final WritableByteChannel channel;
+
+    private final boolean closeChannel;
+
+    private final boolean csv;
+
+    private final Cell[] cells;
+
+    /**
+     * JSON Lines 每列之前的固定内容：{"id": / ,"name":
+     */
+    private final byte[][] prefixes;
+
+    /**
+     * 复用的缓冲区，直接编码到 buf，写出时包装为 buffer
+     */
+    private final byte[] buf;
+
+    private final ByteBuffer buffer;
+
+    private int pos;
+
+    private long rows;
+
+    private long bytes;
+
+    private boolean closed;
+
+    private BeanWriter(Builder<T> builder, List<PropertyAccessor<Object>> columns,
+                       WritableByteChannel channel, boolean closeChannel) {
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.csv = builder.format == BeanFormat.CSV;
+        this.buf = new byte[builder.bufferSize];
+        this.buffer = ByteBuffer.wrap(buf);
+        this.cells = new Cell[columns.size()];
+        this.prefixes = new byte[columns.size()][];
+        for (int i = 0; i < cells.length; i++) {
+            PropertyAccessor<Object> p = columns.get(i);
+            String name = builder.naming.translate(p.getName());
+            cells[i] = cell(p);
+            prefixes[i] = TextCodec.bytes((i == 0 ? "{" : ",") + quote(name) + ":");
+        }
+        if (csv && builder.header) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    put((byte) ',');
+                }
+                putString(builder.naming.translate(columns.get(i).getName()));
+            }
+            put((byte) '\n');
+        }
+    }
+
+    /**
+     * <h3>
+     * 创建写出器的构造器
+     * </h3>
+     *
+     * @param type bean类型
+     * @param <T>  bean类型
+     * @return 构造器，默认 CSV、写出表头、所有可读属性
+     */
+    public static <T> Builder<T> builder(Class<T> type) {
+        return new Builder<>(type);
+    }
+
+    // ================= 写出 ===================
+
+    /**
+     * 写出一条记录，bean 不能为 null
+     */
+    public void write(T bean) {
+        if (csv) {
+            for (int i = 0; i < cells.length; i++) {
+                if (i > 0) {
+                    put((byte) ',');
+                }
+                cells[i].write(bean, this);
+            }
+        } else {
+            for (int i = 0; i < cells.length; i++) {
+                putBytes(prefixes[i]);
+                cells[i].write(bean, this);
+            }
+            if (cells.length == 0) {
+                put((byte) '{');
+            }
+            put((byte) '}');
+        }
+        put((byte) '\n');
+        rows++;
+    }
+
+    public void writeAll(Iterable<? extends T> beans) {
+        for (T bean : beans) {
+            write(bean);
+        }
+    }
+
+    /**
+     * 已写出的记录数，不包含表头
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * 已写入通道的字节数，不包含缓冲区中的内容
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * 将缓冲区中的内容写入通道
+     */
+    @Override
+    public void flush() {
+        buffer.limit(pos).position(0);
+        try {
+            while (buffer.hasRemaining()) {
+                bytes += channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        } finally {
+            buffer.clear();
+            pos = 0;
+        }
+    }
+
+    /**
+     * 写出剩余内容；通过 open(Path) 打开的文件会被关闭，通过 build(channel) 传入的通道由调用方关闭
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            if (closeChannel) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new RuntimeException(ERROR_MESSAGE, e);
+                }
+            }
+        }
+    }
+
+    // ================= 编码 ===================
+
+    /**
+     * 剩余空间不足 n 时写出缓冲区，通道写满时在此阻塞；n 不超过 MIN_BUFFER_SIZE
+     */
+    private void ensure(int n) {
+        if (buf.length - pos < n) {
+            flush();
+        }
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        buf[pos++] = b;
+    }
+
+    private void putBytes(byte[] b) {
+        for (int from = 0; from < b.length; ) {
+            if (pos == buf.length) {
+                flush();
+            }
+            int n = Math.min(b.length - from, buf.length - pos);
+            System.arraycopy(b, from, buf, pos, n);
+            pos += n;
+            from += n;
+        }
+    }
+
+    private void putNull() {
+        if (!csv) {
+            putBytes(TextCodec.NULL);
+        }
+    }
+
+    private void putLong(long v) {
+        ensure(TextCodec.MAX_NUMBER_LENGTH);
+        pos = TextCodec.putLong(buf, pos, v);
+    }
+
+    private void putBoolean(boolean v) {
+        putBytes(v ? TextCodec.TRUE : TextCodec.FALSE);
+    }
+
+    private void putDouble(double v) {
+        if (!csv && (Double.isNaN(v) || Double.isInfinite(v))) {
+            // JSON 没有 NaN / Infinity
+            putBytes(TextCodec.NULL);
+            return;
+        }
+        putAscii(Double.toString(v));
+    }
+
+    /**
+     * 其他数值类型（float、BigDecimal 等）按 toString 写出，JSON 中非有限的 Double / Float 写为 null
+     */
+    private void putNumber(Number v) {
+        if (!csv && (v instanceof Double || v instanceof Float) && !Double.isFinite(v.doubleValue())) {
+            putBytes(TextCodec.NULL);
+            return;
+        }
+        putAscii(v.toString());
+    }
+
+    private void putDate(Date date) {
+        ensure(TextCodec.MAX_NUMBER_LENGTH + 2);
+        if (!csv) {
+            buf[pos++] = '"';
+        }
+        pos = TextCodec.putDate(buf, pos, date.getTime());
+        if (!csv) {
+            buf[pos++] = '"';
+        }
+    }
+
+    /**
+     * 数值的文本，JSON 中不加引号
+     */
+    private void putAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            put((byte) s.charAt(i));
+        }
+    }
+
+    private void putString(CharSequence s) {
+        int length = s.length();
+        if (csv) {
+            boolean quote = false;
+            for (int i = 0; i < length && !quote; i++) {
+                char c = s.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            // 空字符串写为 ""，与 null 区分
+            if (quote || length == 0) {
+                put((byte) '"');
+                putChars(s, true);
+                put((byte) '"');
+            } else {
+                putChars(s, false);
+            }
+        } else {
+            put((byte) '"');
+            putChars(s, false);
+            put((byte) '"');
+        }
+    }
+
+    private void putChars(CharSequence s, boolean csvQuoted) {
+        byte[] b = buf;
+        int p = pos;
+        for (int i = 0, length = s.length(); i < length; i++) {
+            char c = s.charAt(i);
+            if (b.length - p < 12) {
+                pos = p;
+                flush();
+                p = 0;
+            }
+            if (c < 0x80) {
+                if (csv) {
+                    if (c == '"' && csvQuoted) {
+                        b[p++] = '"';
+                    }
+                    b[p++] = (byte) c;
+                } else if (c >= 0x20 && c != '"' && c != '\\') {
+                    b[p++] = (byte) c;
+                } else if (c == '"' || c == '\\') {
+                    b[p++] = '\\';
+                    b[p++] = (byte) c;
+                } else if (c == '\n') {
+                    b[p++] = '\\';
+                    b[p++] = 'n';
+                } else if (c == '\r') {
+                    b[p++] = '\\';
+                    b[p++] = 'r';
+                } else if (c == '\t') {
+                    b[p++] = '\\';
+                    b[p++] = 't';
+                } else {
+                    p = TextCodec.putUnicodeEscape(b, p, c);
+                }
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                p = TextCodec.putCodePoint(b, p, Character.toCodePoint(c, s.charAt(++i)));
+            } else if (Character.isSurrogate(c)) {
+                // 不成对的 surrogate 不能编码为 UTF-8
+                b[p++] = '?';
+            } else {
+                p = TextCodec.putCodePoint(b, p, c);
+            }
+        }
+        pos = p;
+    }
+
+    /**
+     * 构造失败时关闭已打开的通道，关闭异常附加到原异常上
+     */
+    static void closeQuietly(Channel channel, Throwable cause) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static String quote(String name) {
+        return "\"" + name.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    // ================= 列 ===================
+
+    /**
+     * 写出单元格，值为 null 时 CSV 写为空值，JSON 写为 null
+     */
+    @FunctionalInterface
+    private interface Cell {
+        void write(Object bean, BeanWriter<?> writer);
+    }
+
+    private static Cell cell(PropertyAccessor<Object> p) {
+        Class<?> type = p.getType();
+        if (type == long.class || type == int.class || type == short.class || type == byte.class) {
+            ToLongFunction<Object> get = p.longGetter();
+            return (bean, w) -> w.putLong(get.applyAsLong(bean));
+        }
+        if (type == boolean.class) {
+            Predicate<Object> get = p.booleanGetter();
+            return (bean, w) -> w.putBoolean(get.test(bean));
+        }
+        if (type == double.class) {
+            ToDoubleFunction<Object> get = p.doubleGetter();
+            return (bean, w) -> w.putDouble(get.applyAsDouble(bean));
+        }
+        Function<Object, Object> get = p.getter();
+        if (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) {
+            return (bean, w) -> {
+                Object v = get.apply(bean);
+                if (v == null) {
+                    w.putNull();
+                } else {
+                    w.putLong(((Number) v).longValue());
+                }
+            };
+        }
+        if (type == Boolean.class) {
+            return (bean, w) -> {
+                Object v = get.apply(bean);
+                if (v == null) {
+                    w.putNull();
+                } else {
+                    w.putBoolean((Boolean) v);
+                }
+            };
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return (bean, w) -> {
+                Object v = get.apply(bean);
+                if (v == null) {
+                    w.putNull();
+                } else {
+                    w.putDate((Date) v);
+                }
+            };
+        }
+        return (bean, w) -> {
+            Object v = get.apply(bean);
+            if (v == null) {
+                w.putNull();
+            } else if (v instanceof Number) {
+                w.putNumber((Number) v);
+            } else if (v instanceof Boolean) {
+                w.putAscii(v.toString());
+            } else if (v instanceof CharSequence) {
+                w.putString((CharSequence) v);
+            } else {
+                w.putString(v.toString());
+            }
+        };
+    }
+
+    /**
+     * <h3>
+     * 解析列
+     * </h3>
+     *
+     * @param type     bean类型
+     * @param columns  指定的列，为空时使用所有属性
+     * @param readable true 选择可读属性，false 选择可写属性
+     * @return 列的属性访问器
+     */
+    @SuppressWarnings("unchecked")
+    static List<PropertyAccessor<Object>> columns(Class<?> type, List<SFunction<?, ?>> columns, boolean readable) {
+        List<PropertyAccessor<Object>> result = new ArrayList<>();
+        if (columns.isEmpty()) {
+            for (PropertyAccessor<?> p : BeanAccessor.of(type).getAccessors()) {
+                if (readable ? p.isReadable() : p.isWritable()) {
+                    result.add((PropertyAccessor<Object>) p);
+                }
+            }
+            return result;
+        }
+        for (SFunction<?, ?> fn : columns) {
+            PropertyAccessor<Object> p = Column.of(fn).getAccessor();
+            if (!(readable ? p.isReadable() : p.isWritable())) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + p + (readable ? " 不可读" : " 不可写"));
+            }
+            result.add(p);
+        }
+        return result;
+    }
+
+    /**
+     * 写出器构造器
+     *
+     * @param <T> bean类型
+     */
+    public static final class Builder<T> {
+
+        private final Class<T> type;
+
+        private final List<SFunction<?, ?>> columns = new ArrayList<>();
+
+        private BeanFormat format = BeanFormat.CSV;
+
+        private NamingStrategy naming = NamingStrategy.IDENTITY;
+
+        private boolean header = true;
+
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+        private Builder(Class<T> type) {
+            this.type = type;
+        }
+
+        public Builder<T> format(BeanFormat format) {
+            this.format = format;
+            return this;
+        }
+
+        /**
+         * 追加一列，按调用顺序写出
+         */
+        public Builder<T> column(SFunction<T, ?> fn) {
+            columns.add(fn);
+            return this;
+        }
+
+        /**
+         * 列名（CSV 表头 / JSON key）的命名策略，默认与属性名称相同
+         */
+        public Builder<T> naming(NamingStrategy naming) {
+            this.naming = naming;
+            return this;
+        }
+
+        /**
+         * CSV 是否写出表头，默认写出
+         */
+        public Builder<T> header(boolean header) {
+            this.header = header;
+            return this;
+        }
+
+        public Builder<T> bufferSize(int bufferSize) {
+            this.bufferSize = Math.max(bufferSize, MIN_BUFFER_SIZE);
+            return this;
+        }
+
+        /**
+         * 写出到通道，通道由调用方关闭
+         */
+        public BeanWriter<T> build(WritableByteChannel channel) {
+            return new BeanWriter<>(this, columns(type, columns, true), channel, false);
+        }
+
+        /**
+         * 创建 / 覆盖文件并写出，close() 时关闭文件
+         * 列在打开文件之前解析，列无效时不会覆盖已有文件
+         */
+        public BeanWriter<T> open(Path path) {
+            List<PropertyAccessor<Object>> resolved = columns(type, columns, true);
+            FileChannel channel;
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + path, e);
+            }
+            try {
+                return new BeanWriter<>(this, resolved, channel, true);
+            } catch (RuntimeException | Error e) {
+                closeQuietly(channel, e);
+                throw e;
+            }
+        }
+    }
+}
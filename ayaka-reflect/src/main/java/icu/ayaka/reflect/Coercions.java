@@ -0,0 +1,142 @@
+package icu.ayaka.reflect;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * 写入属性前的值转换
+ * 来自 Map / 消息 / 结果集 的值类型常常与属性类型不完全一致（如 JSON 反序列化得到的 Integer 写入 Long 属性），
+ * 这里只做无歧义的转换：数值之间、数值字符串、毫秒时间戳与 Date，无法转换时（类型不相关、非数值字符串）原样返回，
+ * 由 setter 抛出 ClassCastException；转换为整数类型时必须精确，有小数部分 / 超出范围 / NaN 时抛出异常，不截断也不回绕
+ *
+ * @author Ayaka
+ */
+final class Coercions {
+
+    private static final String ERROR_MESSAGE = "[Coercions] 类型转换异常";
+
+    private Coercions() {
+    }
+
+    /**
+     * <h3>
+     * 将值转换为属性类型
+     * </h3>
+     *
+     * @param value 值
+     * @param type  属性类型，可以是基本类型
+     * @return 转换后的值，value 为 null 或 已经是目标类型时原样返回
+     */
+    static Object coerce(Object value, Class<?> type) {
+        if (value == null) {
+            return null;
+        }
+        Class<?> target = LambdaFactory.wrap(type);
+        if (target.isInstance(value)) {
+            return value;
+        }
+        if (value instanceof Number) {
+            Object n = number((Number) value, target);
+            if (n != null) {
+                return n;
+            }
+            if (target == Date.class) {
+                return new Date(((Number) value).longValue());
+            }
+        } else if (value instanceof String) {
+            String s = ((String) value).trim();
+            if (target == Boolean.class) {
+                return Boolean.valueOf(s);
+            }
+            if (Number.class.isAssignableFrom(target) && !s.isEmpty()) {
+                BigDecimal d;
+                try {
+                    d = new BigDecimal(s);
+                } catch (NumberFormatException e) {
+                    return value;
+                }
+                Object n = number(d, target);
+                if (n != null) {
+                    return n;
+                }
+            }
+        } else if (value instanceof Date && target == Long.class) {
+            return ((Date) value).getTime();
+        }
+        if (target == String.class) {
+            return value.toString();
+        }
+        return value;
+    }
+
+    /**
+     * 数值之间的转换，target 不是数值类型时返回 null
+     */
+    private static Object number(Number n, Class<?> target) {
+        if (target == Long.class || target == Integer.class || target == Short.class || target == Byte.class
+                || target == BigInteger.class) {
+            return integral(n, target);
+        }
+        if (target == Double.class) {
+            return n.doubleValue();
+        }
+        if (target == Float.class) {
+            return n.floatValue();
+        }
+        if (target == BigDecimal.class) {
+            return n instanceof BigInteger ? new BigDecimal((BigInteger) n) : new BigDecimal(n.toString());
+        }
+        return null;
+    }
+
+    /**
+     * 转换为整数类型，值必须能精确表示
+     */
+    private static Object integral(Number n, Class<?> target) {
+        if (n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte) {
+            // 常见情况（如 Integer -> Long）不经过 BigDecimal
+            long v = n.longValue();
+            if (target == Long.class) {
+                return v;
+            }
+            if (target == Integer.class && v == (int) v) {
+                return (int) v;
+            }
+            if (target == Short.class && v == (short) v) {
+                return (short) v;
+            }
+            if (target == Byte.class && v == (byte) v) {
+                return (byte) v;
+            }
+            if (target == BigInteger.class) {
+                return BigInteger.valueOf(v);
+            }
+            throw inexact(n, target, null);
+        }
+        try {
+            BigDecimal d = n instanceof BigDecimal ? (BigDecimal) n
+                    : n instanceof BigInteger ? new BigDecimal((BigInteger) n) : new BigDecimal(n.toString());
+            if (target == Long.class) {
+                return d.longValueExact();
+            }
+            if (target == Integer.class) {
+                return d.intValueExact();
+            }
+            if (target == Short.class) {
+                return d.shortValueExact();
+            }
+            if (target == Byte.class) {
+                return d.byteValueExact();
+            }
+            return d.toBigIntegerExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            // NumberFormatException：NaN / Infinity
+            throw inexact(n, target, e);
+        }
+    }
+
+    private static RuntimeException inexact(Number n, Class<?> target, Exception cause) {
+        return new RuntimeException(ERROR_MESSAGE + "：" + n + " 不能精确转换为 " + target.getSimpleName(), cause);
+    }
+}
@@ -0,0 +1,140 @@
+package icu.ayaka.reflect;
+
+/**
+ * get/set方法引用 对应的列
+ * 按 lambda合成类 缓存：同一处方法引用 只解析一次，列名按命名策略缓存，之后构建条件不再经过反射
+ * <blockquote><pre>
+ * {@code Column column = Column.of(User::getCreateTime);
+ *  String name = column.getName(NamingStrategy.SNAKE_CASE); // create_time
+ *  Column.of(User::setName).getAccessor().setter();         // 生成的 set 函数
+ * }</pre></blockquote>
+ *
+ * @author Ayaka
+ */
+public final class Column {
+
+    private static final String ERROR_MESSAGE = "[Column] 列解析异常";
+
+    /**
+     * lambda合成类 -> 列
+     */
+    private static final MetadataCache<Holder> CACHE = new MetadataCache<>("Column", type -> new Holder());
+
+    private final PropertyIndex.Property property;
+
+    private final PropertyAccessor<Object> accessor;
+
+    /**
+     * 最近一次使用的命名策略与列名，通常整个应用只使用一种策略
+     */
+    private volatile Name name;
+
+    @SuppressWarnings("unchecked")
+    private Column(PropertyIndex.Property property) {
+        this.property = property;
+        this.accessor = (PropertyAccessor<Object>) BeanAccessor.of(property.getBeanClass()).property(property.getOrdinal());
+    }
+
+    /**
+     * <h3>
+     * 获取 get方法引用 对应的列
+     * </h3>
+     *
+     * @param fn  lambda表达式，bean的属性的get方法
+     * @param <T> bean类型
+     * @return 列，同一处方法引用 返回同一个对象
+     */
+    public static <T> Column of(SFunction<T, ?> fn) {
+        Holder holder = CACHE.get(fn.getClass());
+        Column column = holder.column;
+        if (column == null) {
+            PropertyIndex.Property p = FieldUtils.getProperty(fn);
+            if (p == null || p.getOrdinal() < 0) {
+                throw new RuntimeException(ERROR_MESSAGE + "：lambda 不是bean属性的get方法");
+            }
+            holder.column = column = new Column(p);
+        }
+        return column;
+    }
+
+    /**
+     * <h3>
+     * 获取 set方法引用 对应的列
+     * </h3>
+     *
+     * @param fn  lambda表达式，bean的属性的set方法
+     * @param <T> bean类型
+     * @param <V> 属性类型
+     * @return 列，同一处方法引用 返回同一个对象
+     */
+    public static <T, V> Column of(SBiConsumer<T, V> fn) {
+        Holder holder = CACHE.get(fn.getClass());
+        Column column = holder.column;
+        if (column == null) {
+            PropertyIndex.Property p = FieldUtils.getProperty(fn);
+            if (p == null || p.getOrdinal() < 0) {
+                throw new RuntimeException(ERROR_MESSAGE + "：lambda 不是bean属性的set方法");
+            }
+            holder.column = column = new Column(p);
+        }
+        return column;
+    }
+
+    /**
+     * 按属性名称得到的列，不缓存
+     */
+    static Column of(PropertyIndex.Property property) {
+        return new Column(property);
+    }
+
+    /**
+     * 按命名策略转换后的列名
+     */
+    public String getName(NamingStrategy strategy) {
+        Name n = name;
+        if (n == null || n.strategy != strategy) {
+            name = n = new Name(strategy, strategy.translate(property.getName()));
+        }
+        return n.value;
+    }
+
+    public String getPropertyName() {
+        return property.getName();
+    }
+
+    public Class<?> getType() {
+        return property.getType();
+    }
+
+    public PropertyIndex.Property getProperty() {
+        return property;
+    }
+
+    /**
+     * 属性访问器，用于在内存中读取属性值
+     */
+    public PropertyAccessor<Object> getAccessor() {
+        return accessor;
+    }
+
+    @Override
+    public String toString() {
+        return "Column{" + property.getBeanClass().getSimpleName() + "." + property.getName() + '}';
+    }
+
+    private static final class Holder {
+        private volatile Column column;
+    }
+
+    private static final class Name {
+
+        private final NamingStrategy strategy;
+
+        private final String value;
+
+        private Name(NamingStrategy strategy, String value) {
+            this.strategy = strategy;
+            this.value = value;
+        }
+    }
+}
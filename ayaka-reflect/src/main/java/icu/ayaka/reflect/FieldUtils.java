@@ -1,22 +1,21 @@
 package icu.ayaka.reflect;
 
-import java.beans.BeanInfo;
-import java.beans.IntrospectionException;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
+import java.io.Serializable;
 import java.lang.invoke.SerializedLambda;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
+
+import static icu.ayaka.reflect.ReflectMetrics.Path.LAMBDA;
+import static icu.ayaka.reflect.ReflectMetrics.Path.METHOD_TO_FIELD;
+import static icu.ayaka.reflect.ReflectMetrics.Path.NAME_TO_METHOD;
 
 /**
  * 通过反射获取属性，方法工具类
  * 通过 属性 获取 其get/set方法
  * 通过 方法 获取 其属性
+ * 开启 -Dayaka.reflect.instrumentation=true 后，各解析路径的耗时由 ReflectMetrics 统计
  *
  * @author Ayaka
  */
@@ -28,12 +27,22 @@ public class FieldUtils {
 
     public static final String IS = "is";
 
-    private static final String CLASS = "class";
-
     private static final String WRITE_REPLACE = "writeReplace";
 
     private static final String ERROR_MESSAGE = "[Field] [Method] 转换异常";
 
+    /**
+     * get方法 没有对应属性时 缓存的占位对象
+     */
+    private static final Object NO_PROPERTY = new Object();
+
+    /**
+     * lambda合成类 -> 解析出的属性
+     * 同一处方法引用 对应同一个合成类，合成类卸载或被淘汰时缓存随之失效
+     */
+    private static final MetadataCache<LambdaPropertyHolder> LAMBDA_PROPERTY_CACHE =
+            new MetadataCache<>("LambdaProperty", type -> new LambdaPropertyHolder());
+
     /**
      * 通过属性获取其get方法
      * <blockquote><pre>
@@ -69,13 +78,10 @@ public class FieldUtils {
      * @return field对应的get方法 的 Method对象
      */
     public static Method getFieldGetMethod(Field field) {
-        try {
-            PropertyDescriptor[] pds = getPropertyDescriptors(field.getDeclaringClass());
-            PropertyDescriptor pd = pdsHitName(pds, field.getName());
-            return get(pd);
-        } catch (IntrospectionException e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
-        }
+        long start = ReflectMetrics.start();
+        Method method = get(PropertyIndex.of(field.getDeclaringClass()).getByName(field.getName()));
+        ReflectMetrics.record(NAME_TO_METHOD, field.getDeclaringClass(), field, start);
+        return method;
     }
 
     /**
@@ -88,13 +94,10 @@ public class FieldUtils {
      * @return 字段对应的get方法 的 Method对象
      */
     public static Method getFieldGetMethod(Class<?> clazz, String fieldName) {
-        try {
-            PropertyDescriptor[] pds = getPropertyDescriptors(clazz);
-            PropertyDescriptor pd = pdsHitName(pds, fieldName);
-            return get(pd);
-        } catch (IntrospectionException e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
-        }
+        long start = ReflectMetrics.start();
+        Method method = get(PropertyIndex.of(clazz).getByName(fieldName));
+        ReflectMetrics.record(NAME_TO_METHOD, clazz, fieldName, start);
+        return method;
     }
 
     /**
@@ -106,13 +109,10 @@ public class FieldUtils {
      * @return field对应的set方法 的 Method对象
      */
     public static Method getFieldSetMethod(Field field) {
-        try {
-            PropertyDescriptor[] pds = getPropertyDescriptors(field.getDeclaringClass());
-            PropertyDescriptor pd = pdsHitName(pds, field.getName());
-            return set(pd);
-        } catch (IntrospectionException e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
-        }
+        long start = ReflectMetrics.start();
+        Method method = set(PropertyIndex.of(field.getDeclaringClass()).getByName(field.getName()));
+        ReflectMetrics.record(NAME_TO_METHOD, field.getDeclaringClass(), field, start);
+        return method;
     }
 
     /**
@@ -125,13 +125,10 @@ public class FieldUtils {
      * @return 字段对应的set方法 的 Method对象
      */
     public static Method getFieldSetMethod(Class<?> clazz, String fieldName) {
-        try {
-            PropertyDescriptor[] pds = getPropertyDescriptors(clazz);
-            PropertyDescriptor pd = pdsHitName(pds, fieldName);
-            return set(pd);
-        } catch (IntrospectionException e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
-        }
+        long start = ReflectMetrics.start();
+        Method method = set(PropertyIndex.of(clazz).getByName(fieldName));
+        ReflectMetrics.record(NAME_TO_METHOD, clazz, fieldName, start);
+        return method;
     }
 
     /**
@@ -144,16 +141,10 @@ public class FieldUtils {
      * @return 字段对应的set方法 的 Method对象
      */
     public static Map<String, Method> getGetSetMethodMap(Class<?> clazz, String fieldName) {
-        try {
-            PropertyDescriptor[] pds = getPropertyDescriptors(clazz);
-            PropertyDescriptor pd = pdsHitName(pds, fieldName);
-            return pd == null ? Map.of() : Map.of(
-                    GET, get(pd),
-                    SET, set(pd)
-            );
-        } catch (IntrospectionException e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
-        }
+        long start = ReflectMetrics.start();
+        Map<String, Method> methods = getSetMap(PropertyIndex.of(clazz).getByName(fieldName));
+        ReflectMetrics.record(NAME_TO_METHOD, clazz, fieldName, start);
+        return methods;
     }
 
 
@@ -166,16 +157,10 @@ public class FieldUtils {
      * @return Map key: get/set value: Method对象
      */
     public static Map<String, Method> getGetSetMethodMap(Field field) {
-        try {
-            PropertyDescriptor[] pds = getPropertyDescriptors(field.getDeclaringClass());
-            PropertyDescriptor pd = pdsHitName(pds, field.getName());
-            return pd == null ? Map.of() : Map.of(
-                    GET, get(pd),
-                    SET, set(pd)
-            );
-        } catch (IntrospectionException e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
-        }
+        long start = ReflectMetrics.start();
+        Map<String, Method> methods = getSetMap(PropertyIndex.of(field.getDeclaringClass()).getByName(field.getName()));
+        ReflectMetrics.record(NAME_TO_METHOD, field.getDeclaringClass(), field, start);
+        return methods;
     }
 
     /**
@@ -188,17 +173,14 @@ public class FieldUtils {
      * @return Map key: 字段名称 value: 字段名称对应的get方法
      */
     public static Map<String, Method> getGetMethodMap(Class<?> clazz, Field... fields) {
+        long start = ReflectMetrics.start();
         Map<String, Method> getMethods = new HashMap<>();
-        try {
-            PropertyDescriptor[] pds = getPropertyDescriptors(clazz);
-            for (Field field : fields) {
-                PropertyDescriptor pd = pdsHitName(pds, field.getName());
-                getMethods.put(field.getName(), get(pd));
-            }
-            return getMethods;
-        } catch (IntrospectionException e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
+        PropertyIndex index = PropertyIndex.of(clazz);
+        for (Field field : fields) {
+            getMethods.put(field.getName(), get(index.getByName(field.getName())));
         }
+        ReflectMetrics.record(NAME_TO_METHOD, clazz, fields, start);
+        return getMethods;
     }
 
     /**
@@ -211,17 +193,14 @@ public class FieldUtils {
      * @return Map key: 字段名称 value: 字段名称对应的set方法
      */
     public static Map<String, Method> getFieldsSetMethods(Class<?> clazz, Field... fields) {
+        long start = ReflectMetrics.start();
         Map<String, Method> getMethods = new HashMap<>();
-        try {
-            PropertyDescriptor[] pds = getPropertyDescriptors(clazz);
-            for (Field field : fields) {
-                PropertyDescriptor pd = pdsHitName(pds, field.getName());
-                getMethods.put(field.getName(), set(pd));
-            }
-            return getMethods;
-        } catch (IntrospectionException e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
+        PropertyIndex index = PropertyIndex.of(clazz);
+        for (Field field : fields) {
+            getMethods.put(field.getName(), set(index.getByName(field.getName())));
         }
+        ReflectMetrics.record(NAME_TO_METHOD, clazz, fields, start);
+        return getMethods;
     }
 
     /**
@@ -234,15 +213,10 @@ public class FieldUtils {
      * @return Map key: 字段名称 value: 字段名称对应的get方法
      */
     public static Map<String, Method> getBeanGetMethods(Class<?> clazz) {
-        try {
-            return Arrays.stream(getPropertyDescriptors(clazz))
-                    .filter(p -> !CLASS.equals(p.getName()))
-                    .filter(FieldUtils::existsGet)
-                    .collect(Collectors.toMap(PropertyDescriptor::getName,
-                            PropertyDescriptor::getReadMethod));
-        } catch (IntrospectionException e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
-        }
+        long start = ReflectMetrics.start();
+        Map<String, Method> methods = new HashMap<>(PropertyIndex.of(clazz).getReadMethods());
+        ReflectMetrics.record(NAME_TO_METHOD, clazz, GET, start);
+        return methods;
     }
 
     /**
@@ -254,15 +228,10 @@ public class FieldUtils {
      * @return Map key: 字段名称 value: 字段名称对应的set方法
      */
     public static Map<String, Method> getBeanSetMethods(Class<?> clazz) {
-        try {
-            return Arrays.stream(getPropertyDescriptors(clazz))
-                    .filter(p -> !CLASS.equals(p.getName()))
-                    .filter(FieldUtils::existsSet)
-                    .collect(Collectors.toMap(PropertyDescriptor::getName,
-                            PropertyDescriptor::getWriteMethod));
-        } catch (IntrospectionException e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
-        }
+        long start = ReflectMetrics.start();
+        Map<String, Method> methods = new HashMap<>(PropertyIndex.of(clazz).getWriteMethods());
+        ReflectMetrics.record(NAME_TO_METHOD, clazz, SET, start);
+        return methods;
     }
 
 
@@ -285,19 +254,65 @@ public class FieldUtils {
      * @return 属性对象
      */
     public static <T> Field getField(SFunction<T, ?> fn) {
-        try {
-            // 通过反射获取 lambda 表达式对象的 writeReplace 方法
-            Method writeReplaceMethod = fn.getClass().getDeclaredMethod(WRITE_REPLACE);
-            //boolean isAccessible = writeReplaceMethod.isAccessible(); // jdk9 已弃用
-            boolean isAccessible = Modifier.isPublic(writeReplaceMethod.getModifiers());
-            writeReplaceMethod.setAccessible(true);
-            SerializedLambda serializedLambda = (SerializedLambda) writeReplaceMethod.invoke(fn);
-            writeReplaceMethod.setAccessible(isAccessible);
-            Class<?> implClass = Class.forName(serializedLambda.getImplClass().replace("/", "."));
-            return getFieldByGetMethod(implClass, serializedLambda.getImplMethodName());
-        } catch (Exception e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
-        }
+        long start = ReflectMetrics.start();
+        PropertyIndex.Property p = lambdaProperty(fn);
+        ReflectMetrics.record(LAMBDA, p == null ? null : p.getBeanClass(), p, start);
+        return field(p);
+    }
+
+    /**
+     * <h3>
+     * 将bean的属性的get方法，作为lambda表达式传入时，获取get方法对应的属性
+     * </h3>
+     * 同一处方法引用 每次传入的lambda对象 都属于同一个合成类，按合成类缓存解析结果
+     *
+     * @param fn  lambda表达式，bean的属性的get方法
+     * @param <T> 泛型
+     * @return 属性元数据，get方法没有对应属性时返回 null
+     */
+    public static <T> PropertyIndex.Property getProperty(SFunction<T, ?> fn) {
+        long start = ReflectMetrics.start();
+        PropertyIndex.Property p = lambdaProperty(fn);
+        ReflectMetrics.record(LAMBDA, p == null ? null : p.getBeanClass(), p, start);
+        return p;
+    }
+
+    /**
+     * <h3>
+     * 将bean的属性的set方法，作为lambda表达式传入时，获取set方法对应的属性Field
+     * </h3>
+     * <blockquote><pre>
+     * {@code Field field = FieldUtils.getField(User::setName);
+     * }</pre></blockquote>
+     *
+     * @param fn  lambda表达式，bean的属性的set方法
+     * @param <T> 泛型
+     * @param <V> 属性类型
+     * @return 属性对象
+     */
+    public static <T, V> Field getField(SBiConsumer<T, V> fn) {
+        long start = ReflectMetrics.start();
+        PropertyIndex.Property p = lambdaProperty(fn);
+        ReflectMetrics.record(LAMBDA, p == null ? null : p.getBeanClass(), p, start);
+        return field(p);
+    }
+
+    /**
+     * <h3>
+     * 将bean的属性的set方法，作为lambda表达式传入时，获取set方法对应的属性
+     * </h3>
+     * 与 get方法引用 共用按合成类的缓存
+     *
+     * @param fn  lambda表达式，bean的属性的set方法
+     * @param <T> 泛型
+     * @param <V> 属性类型
+     * @return 属性元数据，set方法没有对应属性时返回 null
+     */
+    public static <T, V> PropertyIndex.Property getProperty(SBiConsumer<T, V> fn) {
+        long start = ReflectMetrics.start();
+        PropertyIndex.Property p = lambdaProperty(fn);
+        ReflectMetrics.record(LAMBDA, p == null ? null : p.getBeanClass(), p, start);
+        return p;
     }
 
     /**
@@ -309,14 +324,10 @@ public class FieldUtils {
      * @return Field 对象
      */
     public static Field getFieldByGetMethod(Method method) {
-        try {
-            Class<?> clazz = method.getDeclaringClass();
-            PropertyDescriptor[] pds = getPropertyDescriptors(clazz);
-            PropertyDescriptor pd = pdsHitGet(pds, method.getName());
-            return pd == null ? null : clazz.getDeclaredField(pd.getName());
-        } catch (IntrospectionException | NoSuchFieldException e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
-        }
+        long start = ReflectMetrics.start();
+        PropertyIndex.Property p = PropertyIndex.of(method.getDeclaringClass()).getByReadMethod(method);
+        ReflectMetrics.record(METHOD_TO_FIELD, method.getDeclaringClass(), method, start);
+        return field(p);
     }
 
     /**
@@ -329,14 +340,10 @@ public class FieldUtils {
      * @return get方法对应的Method对象
      */
     public static Field getFieldByGetMethod(Class<?> clazz, String methodName) {
-        try {
-            BeanInfo beanInfo = Introspector.getBeanInfo(clazz);
-            PropertyDescriptor[] pds = beanInfo.getPropertyDescriptors();
-            PropertyDescriptor pd = pdsHitGet(pds, methodName);
-            return pd == null ? null : clazz.getDeclaredField(pd.getName());
-        } catch (IntrospectionException | NoSuchFieldException e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
-        }
+        long start = ReflectMetrics.start();
+        PropertyIndex.Property p = PropertyIndex.of(clazz).getByReadName(methodName);
+        ReflectMetrics.record(METHOD_TO_FIELD, clazz, methodName, start);
+        return field(p);
     }
 
     /**
@@ -348,14 +355,10 @@ public class FieldUtils {
      * @return Field 对象
      */
     public static Field getFieldBySetMethod(Method method) {
-        try {
-            Class<?> clazz = method.getDeclaringClass();
-            PropertyDescriptor[] pds = getPropertyDescriptors(clazz);
-            PropertyDescriptor pd = pdsHitSet(pds, method.getName());
-            return pd == null ? null : clazz.getDeclaredField(pd.getName());
-        } catch (IntrospectionException | NoSuchFieldException e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
-        }
+        long start = ReflectMetrics.start();
+        PropertyIndex.Property p = PropertyIndex.of(method.getDeclaringClass()).getByWriteMethod(method);
+        ReflectMetrics.record(METHOD_TO_FIELD, method.getDeclaringClass(), method, start);
+        return field(p);
     }
 
     /**
@@ -368,107 +371,97 @@ public class FieldUtils {
      * @return Field 对象
      */
     public static Field getFieldBySetMethod(Class<?> clazz, String methodName) {
-        try {
-            BeanInfo beanInfo = Introspector.getBeanInfo(clazz);
-            PropertyDescriptor[] pds = beanInfo.getPropertyDescriptors();
-            PropertyDescriptor pd = pdsHitSet(pds, methodName);
-            return pd == null ? null : clazz.getDeclaredField(pd.getName());
-        } catch (IntrospectionException | NoSuchFieldException e) {
-            throw new RuntimeException(ERROR_MESSAGE, e);
-        }
+        long start = ReflectMetrics.start();
+        PropertyIndex.Property p = PropertyIndex.of(clazz).getByWriteName(methodName);
+        ReflectMetrics.record(METHOD_TO_FIELD, clazz, methodName, start);
+        return field(p);
     }
 
     // ================= 工具方法  ===================
 
     /**
-     * <h3>
-     * 获取class对象的PropertyDescriptor数组
-     * </h3>
-     *
-     * @param clazz 类
-     * @return PropertyDescriptor数组
-     * @throws IntrospectionException 异常
-     */
-    private static PropertyDescriptor[] getPropertyDescriptors(Class<?> clazz) throws IntrospectionException {
-        BeanInfo beanInfo = Introspector.getBeanInfo(clazz);
-        return beanInfo.getPropertyDescriptors();
-    }
-
-    /**
-     * 获取 get 方法
-     */
-    private static Method get(PropertyDescriptor pd) {
-        return pd == null ? null : pd.getReadMethod();
-    }
-
-    /**
-     * 获取 set 方法
-     */
-    private static Method set(PropertyDescriptor pd) {
-        return pd == null ? null : pd.getWriteMethod();
-    }
-
-    /**
-     * pd的字段描述名 是否与 字段名相同
+     * 按 lambda合成类 查询缓存，未解析过时解析并回填
      */
-    private static boolean eqName(PropertyDescriptor pd, String name) {
-        return pd.getName().equals(name);
+    private static PropertyIndex.Property lambdaProperty(Serializable fn) {
+        LambdaPropertyHolder holder = LAMBDA_PROPERTY_CACHE.get(fn.getClass());
+        Object property = holder.property;
+        if (property == null) {
+            property = resolveLambdaProperty(fn);
+            holder.property = property;
+        }
+        return property == NO_PROPERTY ? null : (PropertyIndex.Property) property;
     }
 
     /**
-     * pd是否有 get方法
+     * lambda合成类 的解析结果
+     * 缓存加载时拿不到lambda实例，首次调用 getProperty 时再回填
      */
-    private static boolean existsGet(PropertyDescriptor pd) {
-        return pd.getReadMethod() != null;
+    private static final class LambdaPropertyHolder {
+        private volatile Object property;
     }
 
     /**
-     * pd是否有 set方法
+     * <h3>
+     * 通过 writeReplace 拿到 SerializedLambda，解析出 get/set方法 对应的属性
+     * </h3>
+     * SBiConsumer 按 set方法 名称查找，其余按 get方法 名称查找
+     * 实现类 使用 lambda合成类 的 classloader 加载，多 classloader 下也能解析到正确的类
+     *
+     * @param fn lambda表达式
+     * @return 属性元数据，没有对应属性时返回 NO_PROPERTY
      */
-    private static boolean existsSet(PropertyDescriptor pd) {
-        return pd.getWriteMethod() != null;
+    private static Object resolveLambdaProperty(Serializable fn) {
+        try {
+            // 通过反射获取 lambda 表达式对象的 writeReplace 方法
+            Method writeReplaceMethod = fn.getClass().getDeclaredMethod(WRITE_REPLACE);
+            writeReplaceMethod.setAccessible(true);
+            SerializedLambda serializedLambda = (SerializedLambda) writeReplaceMethod.invoke(fn);
+            Class<?> implClass = Class.forName(serializedLambda.getImplClass().replace("/", "."),
+                    false, fn.getClass().getClassLoader());
+            PropertyIndex index = PropertyIndex.of(implClass);
+            String methodName = serializedLambda.getImplMethodName();
+            PropertyIndex.Property property = fn instanceof SBiConsumer
+                    ? index.getByWriteName(methodName) : index.getByReadName(methodName);
+            return property == null ? NO_PROPERTY : property;
+        } catch (Exception e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        }
     }
 
     /**
-     * pd是否有 get和set方法
+     * 获取 属性 对应的字段，属性存在但没有同名字段时抛出异常
      */
-    private static boolean existsGetAndSet(PropertyDescriptor pd) {
-        return pd.getWriteMethod() != null && pd.getReadMethod() != null;
+    private static Field field(PropertyIndex.Property p) {
+        if (p == null) {
+            return null;
+        }
+        if (p.getField() == null) {
+            throw new RuntimeException(ERROR_MESSAGE, new NoSuchFieldException(p.getName()));
+        }
+        return p.getField();
     }
 
     /**
-     * 根据字段名称，过滤出pds中，符合的pd
+     * 获取 get 方法
      */
-    private static PropertyDescriptor pdsHitName(PropertyDescriptor[] pds, String name) {
-        for (PropertyDescriptor pd : pds) {
-            if (eqName(pd, name)) {
-                return pd;
-            }
-        }
-        return null;
+    private static Method get(PropertyIndex.Property p) {
+        return p == null ? null : p.getReadMethod();
     }
 
     /**
-     * 根据字段get方法名，过滤出pds中，符合的pd
+     * 获取 set 方法
      */
-    private static PropertyDescriptor pdsHitGet(PropertyDescriptor[] pds, String name) {
-        for (PropertyDescriptor pd : pds) {
-            if (existsGet(pd) && get(pd).getName().equals(name)) {
-                return pd;
-            }
-        }
-        return null;
+    private static Method set(PropertyIndex.Property p) {
+        return p == null ? null : p.getWriteMethod();
     }
 
     /**
-     * 根据字段set方法名，过滤出pds中，符合的pd
+     * 获取 get/set 方法 Map
      */
-    private static PropertyDescriptor pdsHitSet(PropertyDescriptor[] pds, String name) {
-        for (PropertyDescriptor pd : pds) {
-            if (existsSet(pd) && set(pd).getName().equals(name)) {
-                return pd;
-            }
-        }
-        return null;
+    private static Map<String, Method> getSetMap(PropertyIndex.Property p) {
+        return p == null ? Map.of() : Map.of(
+                GET, get(p),
+                SET, set(p)
+        );
     }
 }
\ No newline at end of file
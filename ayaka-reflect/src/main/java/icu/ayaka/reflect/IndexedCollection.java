@@ -0,0 +1,747 @@
+package icu.ayaka.reflect;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 带二级索引的 bean 集合
+ * 通过属性的 get 方法引用声明索引：哈希索引（唯一 / 多值）按 key 查找为 O(1)，有序索引支持范围查询 O(log n)。
+ * long / Long / int / Integer 属性的哈希索引使用 long 为键的开放寻址表，不装箱
+ * <blockquote><pre>
+ * {@code IndexedCollection<User> users = new IndexedCollection<User>()
+ *          .uniqueIndex(User::getId)
+ *          .uniqueIndex(User::getEmail)
+ *          .index(User::isAdmin)
+ *          .sortedIndex(User::getCreateTime);
+ *  users.addAll(list);
+ *  User user = users.findOne(User::getId, 1L);
+ *  List<User> admins = users.find(User::isAdmin, true);
+ *  List<User> today = users.range(User::getCreateTime, start, end);     // [start, end)，按 createTime 排序
+ *  users.update(user, u -> u.setEmail("new@ayaka.icu"));               // 修改索引属性并更新索引
+ * }</pre></blockquote>
+ * 元素按引用区分（不使用 equals），索引键在加入时读取：直接修改元素的索引属性后需要调用 reindex。
+ * 写入互斥；读取（查找、范围查询、遍历）不加锁，可以与写入并发，看到的是弱一致的结果
+ *
+ * @param <T> 元素类型
+ * @author Ayaka
+ */
+public final class IndexedCollection<T> extends AbstractCollection<T> {
+
+    private static final String ERROR_MESSAGE = "[IndexedCollection] 索引异常";
+
+    /**
+     * ConcurrentHashMap 不支持 null 键
+     */
+    private static final Object NULL = new Object();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final ConcurrentHashMap<Node<T>, Node<T>> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * 属性名称 -> 索引，声明索引时整体替换
+     */
+    private volatile Map<String, Index<T>> hashIndexes = Collections.emptyMap();
+
+    private volatile Map<String, Index<T>> sortedIndexes = Collections.emptyMap();
+
+    private final List<Index<T>> indexes = new ArrayList<>();
+
+    public IndexedCollection() {
+    }
+
+    public IndexedCollection(Collection<? extends T> elements) {
+        addAll(elements);
+    }
+
+    // ================= 声明索引 ===================
+
+    /**
+     * 声明唯一哈希索引，已有元素的键重复时抛出异常；null 值不参与唯一性检查
+     */
+    public IndexedCollection<T> uniqueIndex(SFunction<T, ?> fn) {
+        return declare(fn, true, false);
+    }
+
+    /**
+     * 声明多值哈希索引
+     */
+    public IndexedCollection<T> index(SFunction<T, ?> fn) {
+        return declare(fn, false, false);
+    }
+
+    /**
+     * 声明有序索引，属性类型需要实现 Comparable，Date 按毫秒时间戳排序；null 值不参与范围查询
+     */
+    public IndexedCollection<T> sortedIndex(SFunction<T, ?> fn) {
+        return declare(fn, false, true);
+    }
+
+    private IndexedCollection<T> declare(SFunction<T, ?> fn, boolean unique, boolean sorted) {
+        PropertyAccessor<Object> accessor = Column.of(fn).getAccessor();
+        lock.lock();
+        try {
+            Map<String, Index<T>> current = sorted ? sortedIndexes : hashIndexes;
+            if (current.containsKey(accessor.getName())) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + accessor + " 已经声明过索引");
+            }
+            Index<T> index = sorted ? new SortedIndex<>(accessor, indexes.size())
+                    : LongHashIndex.supports(accessor.getType()) ? new LongHashIndex<>(accessor, indexes.size(), unique)
+                    : new HashIndex<>(accessor, indexes.size(), unique);
+            for (Node<T> node : nodes.keySet()) {
+                node.grow(indexes.size() + 1);
+                Object key = index.key(node.value);
+                if (unique && index.contains(key)) {
+                    index.clear();
+                    throw new RuntimeException(ERROR_MESSAGE + "：" + accessor + " 存在重复的值 " + key);
+                }
+                node.keys[index.ordinal] = key;
+                index.add(node, key);
+            }
+            indexes.add(index);
+            Map<String, Index<T>> next = new HashMap<>(current);
+            next.put(accessor.getName(), index);
+            if (sorted) {
+                sortedIndexes = next;
+            } else {
+                hashIndexes = next;
+            }
+            return this;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ================= 修改 ===================
+
+    /**
+     * 加入元素，已经在集合中时返回 false；违反唯一索引时抛出异常，集合不变
+     */
+    @Override
+    public boolean add(T value) {
+        if (value == null) {
+            throw new NullPointerException(ERROR_MESSAGE + "：元素不能为 null");
+        }
+        lock.lock();
+        try {
+            Node<T> node = new Node<>(value, indexes.size());
+            if (nodes.containsKey(node)) {
+                return false;
+            }
+            index(node);
+            nodes.put(node, node);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            Node<T> node = nodes.remove(new Node<>(o, 0));
+            if (node == null) {
+                return false;
+            }
+            unindex(node);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * <h3>
+     * 修改元素并更新索引
+     * </h3>
+     * 修改后违反唯一索引时恢复原来的索引并抛出异常，此时元素已被修改，需要修正后调用 reindex
+     *
+     * @param value  集合中的元素
+     * @param change 修改
+     */
+    public void update(T value, Consumer<? super T> change) {
+        lock.lock();
+        try {
+            Node<T> node = node(value);
+            unindex(node);
+            try {
+                change.accept(value);
+            } finally {
+                reindex(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 元素的索引属性被直接修改后，按当前的属性值重建其索引
+     */
+    public void reindex(T value) {
+        lock.lock();
+        try {
+            Node<T> node = node(value);
+            unindex(node);
+            reindex(node);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            nodes.clear();
+            for (Index<T> index : indexes) {
+                index.clear();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Node<T> node(T value) {
+        Node<T> node = nodes.get(new Node<>(value, 0));
+        if (node == null) {
+            throw new RuntimeException(ERROR_MESSAGE + "：元素不在集合中");
+        }
+        return node;
+    }
+
+    /**
+     * 读取所有索引键，先检查唯一索引再写入，失败时不修改任何索引
+     */
+    private void index(Node<T> node) {
+        node.grow(indexes.size());
+        for (Index<T> index : indexes) {
+            Object key = index.key(node.value);
+            if (index.unique && index.contains(key)) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + index.accessor + " 存在重复的值 " + key);
+            }
+            node.keys[index.ordinal] = key;
+        }
+        for (Index<T> index : indexes) {
+            index.add(node, node.keys[index.ordinal]);
+        }
+    }
+
+    private void unindex(Node<T> node) {
+        for (Index<T> index : indexes) {
+            index.remove(node, node.keys[index.ordinal]);
+        }
+    }
+
+    /**
+     * 按当前属性值索引，违反唯一索引时恢复原来的键
+     */
+    private void reindex(Node<T> node) {
+        Object[] old = node.keys.clone();
+        try {
+            index(node);
+        } catch (RuntimeException e) {
+            node.keys = old;
+            for (Index<T> index : indexes) {
+                index.add(node, old[index.ordinal]);
+            }
+            throw e;
+        }
+    }
+
+    // ================= 查询 ===================
+
+    /**
+     * <h3>
+     * 按哈希索引查找一个元素
+     * </h3>
+     *
+     * @param fn  声明了哈希索引的属性
+     * @param key 属性值，按属性类型转换（如 Integer -> Long）
+     * @return 唯一索引返回匹配的元素，多值索引返回任意一个匹配的元素，没有时返回 null
+     */
+    public T findOne(SFunction<T, ?> fn, Object key) {
+        Index<T> index = hashIndexOf(fn);
+        return value(index.get(index.normalize(key)));
+    }
+
+    /**
+     * long / int 属性的哈希索引查找，不装箱
+     */
+    public T findOne(SFunction<T, ?> fn, long key) {
+        Index<T> index = hashIndexOf(fn);
+        if (index instanceof LongHashIndex) {
+            return value(((LongHashIndex<T>) index).get(key));
+        }
+        return findOne(fn, (Object) key);
+    }
+
+    /**
+     * 按哈希索引查找所有匹配的元素，返回快照
+     */
+    public List<T> find(SFunction<T, ?> fn, Object key) {
+        Index<T> index = hashIndexOf(fn);
+        List<T> result = new ArrayList<>();
+        collect(index.get(index.normalize(key)), result);
+        return result;
+    }
+
+    /**
+     * 按哈希索引统计匹配的元素个数
+     */
+    public int count(SFunction<T, ?> fn, Object key) {
+        Index<T> index = hashIndexOf(fn);
+        Object v = index.get(index.normalize(key));
+        return v == null ? 0 : v instanceof Node ? 1 : ((Set<?>) v).size();
+    }
+
+    /**
+     * 按有序索引查询 [from, to)，按属性值升序
+     */
+    public List<T> range(SFunction<T, ?> fn, Object from, Object to) {
+        return range(fn, from, true, to, false);
+    }
+
+    /**
+     * <h3>
+     * 按有序索引范围查询
+     * </h3>
+     *
+     * @param fn            声明了有序索引的属性
+     * @param from          下界，null 为不限
+     * @param fromInclusive 是否包含下界
+     * @param to            上界，null 为不限
+     * @param toInclusive   是否包含上界
+     * @return 按属性值升序的快照，值相同的元素之间没有顺序
+     */
+    public List<T> range(SFunction<T, ?> fn, Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+        SortedIndex<T> index = sortedIndexOf(fn);
+        NavigableMap<Object, Object> map = index.map;
+        Object lo = from == null ? null : index.normalize(from);
+        Object hi = to == null ? null : index.normalize(to);
+        if (lo != null && hi != null) {
+            map = map.subMap(lo, fromInclusive, hi, toInclusive);
+        } else if (lo != null) {
+            map = map.tailMap(lo, fromInclusive);
+        } else if (hi != null) {
+            map = map.headMap(hi, toInclusive);
+        }
+        List<T> result = new ArrayList<>();
+        for (Object v : map.values()) {
+            collect(v, result);
+        }
+        return result;
+    }
+
+    /**
+     * 有序索引中属性值最小的元素，没有时返回 null
+     */
+    public T first(SFunction<T, ?> fn) {
+        Map.Entry<Object, Object> e = sortedIndexOf(fn).map.firstEntry();
+        return e == null ? null : value(e.getValue());
+    }
+
+    /**
+     * 有序索引中属性值最大的元素，没有时返回 null
+     */
+    public T last(SFunction<T, ?> fn) {
+        Map.Entry<Object, Object> e = sortedIndexOf(fn).map.lastEntry();
+        return e == null ? null : value(e.getValue());
+    }
+
+    private Index<T> hashIndexOf(SFunction<T, ?> fn) {
+        String name = Column.of(fn).getPropertyName();
+        Index<T> index = hashIndexes.get(name);
+        if (index == null) {
+            throw new RuntimeException(ERROR_MESSAGE + "：属性 " + name + " 没有声明哈希索引");
+        }
+        return index;
+    }
+
+    private SortedIndex<T> sortedIndexOf(SFunction<T, ?> fn) {
+        String name = Column.of(fn).getPropertyName();
+        Index<T> index = sortedIndexes.get(name);
+        if (index == null) {
+            throw new RuntimeException(ERROR_MESSAGE + "：属性 " + name + " 没有声明有序索引");
+        }
+        return (SortedIndex<T>) index;
+    }
+
+    /**
+     * 索引中的值：唯一为 Node，多值为 Set&lt;Node&gt;
+     */
+    @SuppressWarnings("unchecked")
+    private T value(Object v) {
+        if (v == null) {
+            return null;
+        }
+        if (v instanceof Node) {
+            return ((Node<T>) v).value;
+        }
+        Iterator<Node<T>> it = ((Set<Node<T>>) v).iterator();
+        return it.hasNext() ? it.next().value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(Object v, List<T> result) {
+        if (v instanceof Node) {
+            result.add(((Node<T>) v).value);
+        } else if (v != null) {
+            for (Node<T> node : (Set<Node<T>>) v) {
+                result.add(node.value);
+            }
+        }
+    }
+
+    // ================= Collection ===================
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * 按引用判断，O(1)
+     */
+    @Override
+    public boolean contains(Object o) {
+        return o != null && nodes.containsKey(new Node<>(o, 0));
+    }
+
+    /**
+     * 弱一致的迭代器，支持 remove
+     */
+    @Override
+    public Iterator<T> iterator() {
+        Iterator<Node<T>> it = nodes.keySet().iterator();
+        return new Iterator<>() {
+
+            private T last;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return last = it.next().value;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                IndexedCollection.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    // ================= 索引 ===================
+
+    /**
+     * 集合中的元素，按引用判断相等；keys 保存加入索引时的键，仅写入方访问
+     */
+    private static final class Node<T> {
+
+        private final T value;
+
+        private Object[] keys;
+
+        @SuppressWarnings("unchecked")
+        private Node(Object value, int indexes) {
+            this.value = (T) value;
+            this.keys = new Object[indexes];
+        }
+
+        private void grow(int indexes) {
+            if (keys.length < indexes) {
+                keys = Arrays.copyOf(keys, indexes);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Node && ((Node<?>) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(value);
+        }
+    }
+
+    private abstract static class Index<T> {
+
+        protected final PropertyAccessor<Object> accessor;
+
+        protected final int ordinal;
+
+        protected final boolean unique;
+
+        private final Function<Object, Object> getter;
+
+        private final Class<?> type;
+
+        private Index(PropertyAccessor<Object> accessor, int ordinal, boolean unique) {
+            this.accessor = accessor;
+            this.ordinal = ordinal;
+            this.unique = unique;
+            this.getter = accessor.getter();
+            this.type = accessor.getType();
+        }
+
+        /**
+         * 读取元素的索引键
+         */
+        protected Object key(T value) {
+            return normalize(getter.apply(value));
+        }
+
+        /**
+         * 查询值按属性类型转换，Date 转换为毫秒时间戳（Date 可变，不能作为键）
+         */
+        protected Object normalize(Object key) {
+            if (key == null) {
+                return NULL;
+            }
+            Object v = Coercions.coerce(key, type);
+            return v instanceof Date ? (Object) ((Date) v).getTime() : v;
+        }
+
+        abstract Object get(Object key);
+
+        boolean contains(Object key) {
+            return key != NULL && get(key) != null;
+        }
+
+        abstract void add(Node<T> node, Object key);
+
+        abstract void remove(Node<T> node, Object key);
+
+        abstract void clear();
+
+        /**
+         * 唯一索引的值为 Node；多值索引以及 null 键（不参与唯一性检查）为 Set&lt;Node&gt;
+         */
+        protected Object added(Object current, Node<T> node, Object key) {
+            if (unique && key != NULL) {
+                return node;
+            }
+            @SuppressWarnings("unchecked")
+            Set<Node<T>> set = current == null ? ConcurrentHashMap.newKeySet() : (Set<Node<T>>) current;
+            set.add(node);
+            return set;
+        }
+
+        /**
+         * @return 移除后的值，为空时返回 null
+         */
+        protected Object removed(Object current, Node<T> node) {
+            if (current == node) {
+                return null;
+            }
+            if (current instanceof Set) {
+                Set<?> set = (Set<?>) current;
+                set.remove(node);
+                return set.isEmpty() ? null : set;
+            }
+            return current;
+        }
+    }
+
+    private static final class HashIndex<T> extends Index<T> {
+
+        private final ConcurrentHashMap<Object, Object> map = new ConcurrentHashMap<>();
+
+        private HashIndex(PropertyAccessor<Object> accessor, int ordinal, boolean unique) {
+            super(accessor, ordinal, unique);
+        }
+
+        @Override
+        Object get(Object key) {
+            return map.get(key);
+        }
+
+        @Override
+        void add(Node<T> node, Object key) {
+            Object current = map.get(key);
+            Object next = added(current, node, key);
+            if (next != current) {
+                map.put(key, next);
+            }
+        }
+
+        @Override
+        void remove(Node<T> node, Object key) {
+            Object current = map.get(key);
+            Object next = removed(current, node);
+            if (next == null) {
+                map.remove(key);
+            }
+        }
+
+        @Override
+        void clear() {
+            map.clear();
+        }
+    }
+
+    /**
+     * long / Long / int / Integer 属性的哈希索引，非 null 键保存在 LongIndexMap 中，int 键扩展为 long
+     */
+    private static final class LongHashIndex<T> extends Index<T> {
+
+        private final LongIndexMap<Object> map = new LongIndexMap<>();
+
+        private final ToLongFunction<Object> longGetter;
+
+        private volatile Object nulls;
+
+        private LongHashIndex(PropertyAccessor<Object> accessor, int ordinal, boolean unique) {
+            super(accessor, ordinal, unique);
+            Class<?> type = accessor.getType();
+            if (type == long.class) {
+                this.longGetter = accessor.longGetter();
+            } else if (type == int.class) {
+                this.longGetter = accessor.intGetter()::applyAsInt;
+            } else {
+                this.longGetter = null;
+            }
+        }
+
+        static boolean supports(Class<?> type) {
+            Class<?> unwrapped = LambdaFactory.unwrap(type);
+            return unwrapped == long.class || unwrapped == int.class;
+        }
+
+        @Override
+        protected Object key(T value) {
+            return longGetter != null ? (Object) longGetter.applyAsLong(value) : super.key(value);
+        }
+
+        /**
+         * 先按属性类型转换（检查 int 范围），再统一为 Long
+         */
+        @Override
+        protected Object normalize(Object key) {
+            Object v = super.normalize(key);
+            return v instanceof Integer ? (Object) ((Integer) v).longValue() : v;
+        }
+
+        Object get(long key) {
+            return map.get(key);
+        }
+
+        @Override
+        Object get(Object key) {
+            return key == NULL ? nulls : map.get((Long) key);
+        }
+
+        @Override
+        void add(Node<T> node, Object key) {
+            if (key == NULL) {
+                nulls = added(nulls, node, key);
+                return;
+            }
+            long k = (Long) key;
+            Object current = map.get(k);
+            Object next = added(current, node, key);
+            if (next != current) {
+                map.put(k, next);
+            }
+        }
+
+        @Override
+        void remove(Node<T> node, Object key) {
+            if (key == NULL) {
+                nulls = removed(nulls, node);
+                return;
+            }
+            long k = (Long) key;
+            if (removed(map.get(k), node) == null) {
+                map.remove(k);
+            }
+        }
+
+        @Override
+        void clear() {
+            map.clear();
+            nulls = null;
+        }
+    }
+
+    private static final class SortedIndex<T> extends Index<T> {
+
+        private final ConcurrentSkipListMap<Object, Object> map = new ConcurrentSkipListMap<>();
+
+        /**
+         * null 值不参与排序
+         */
+        private final Set<Node<T>> nulls = ConcurrentHashMap.newKeySet();
+
+        private SortedIndex(PropertyAccessor<Object> accessor, int ordinal) {
+            super(accessor, ordinal, false);
+            Class<?> type = LambdaFactory.wrap(accessor.getType());
+            if (!Comparable.class.isAssignableFrom(type)) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + accessor + " 的类型不能排序");
+            }
+        }
+
+        @Override
+        Object get(Object key) {
+            return key == NULL ? nulls : map.get(key);
+        }
+
+        @Override
+        void add(Node<T> node, Object key) {
+            if (key == NULL) {
+                nulls.add(node);
+                return;
+            }
+            Object current = map.get(key);
+            Object next = added(current, node, key);
+            if (next != current) {
+                map.put(key, next);
+            }
+        }
+
+        @Override
+        void remove(Node<T> node, Object key) {
+            if (key == NULL) {
+                nulls.remove(node);
+                return;
+            }
+            if (removed(map.get(key), node) == null) {
+                map.remove(key);
+            }
+        }
+
+        @Override
+        void clear() {
+            map.clear();
+            nulls.clear();
+        }
+    }
+}
@@ -0,0 +1,555 @@
+package icu.ayaka.reflect;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+
+/**
+ * 以 get方法引用 表示列的条件构造器
+ * 列通过 Column 按 lambda合成类 缓存，构建条件时不经过反射；
+ * 同一个条件既可以渲染为参数化的 SQL 片段，也可以直接在内存中对 bean 求值
+ * <blockquote><pre>
+ * {@code LambdaCondition<User> condition = LambdaCondition.<User>create()
+ *          .eq(User::getName, "ayaka")
+ *          .gt(User::getId, 10)
+ *          .or(c -> c.isNull(User::getEmail).eq(User::isAdmin, true));
+ *
+ *  StringBuilder sql = new StringBuilder("SELECT * FROM user WHERE ");
+ *  List<Object> params = new ArrayList<>();
+ *  condition.render(sql, params);
+ *  // SELECT * FROM user WHERE name = ? AND id > ? OR (email IS NULL AND admin = ?)
+ *
+ *  List<User> admins = condition.filter(users);
+ * }</pre></blockquote>
+ * AND 的优先级高于 OR，与 SQL 一致。构建过程不是线程安全的，构建完成后 test/filter 可以并发调用
+ *
+ * @param <T> bean类型
+ * @author Ayaka
+ */
+public final class LambdaCondition<T> {
+
+    private static final String ERROR_MESSAGE = "[LambdaCondition] 条件构建异常";
+
+    private static final Predicate<Object> ALWAYS = bean -> true;
+
+    private final NamingStrategy strategy;
+
+    private final ArrayList<Clause> clauses = new ArrayList<>();
+
+    /**
+     * 下一个条件是否以 OR 连接
+     */
+    private boolean nextOr;
+
+    /**
+     * 内存求值用的谓词，首次求值时编译，条件变化后重新编译
+     */
+    private volatile Predicate<Object> compiled;
+
+    private LambdaCondition(NamingStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * 使用驼峰转下划线命名策略
+     */
+    public static <T> LambdaCondition<T> create() {
+        return new LambdaCondition<>(NamingStrategy.SNAKE_CASE);
+    }
+
+    public static <T> LambdaCondition<T> create(NamingStrategy strategy) {
+        return new LambdaCondition<>(strategy);
+    }
+
+    // ================= 条件 ===================
+
+    /**
+     * 等于，value 为 null 时等价于 isNull
+     */
+    public LambdaCondition<T> eq(SFunction<T, ?> fn, Object value) {
+        return value == null ? isNull(fn) : add(Operator.EQ, fn, value, null);
+    }
+
+    /**
+     * 不等于，value 为 null 时等价于 isNotNull
+     */
+    public LambdaCondition<T> ne(SFunction<T, ?> fn, Object value) {
+        return value == null ? isNotNull(fn) : add(Operator.NE, fn, value, null);
+    }
+
+    public LambdaCondition<T> gt(SFunction<T, ?> fn, Object value) {
+        return add(Operator.GT, fn, requireValue(value), null);
+    }
+
+    public LambdaCondition<T> ge(SFunction<T, ?> fn, Object value) {
+        return add(Operator.GE, fn, requireValue(value), null);
+    }
+
+    public LambdaCondition<T> lt(SFunction<T, ?> fn, Object value) {
+        return add(Operator.LT, fn, requireValue(value), null);
+    }
+
+    public LambdaCondition<T> le(SFunction<T, ?> fn, Object value) {
+        return add(Operator.LE, fn, requireValue(value), null);
+    }
+
+    /**
+     * 包含 low 与 high
+     */
+    public LambdaCondition<T> between(SFunction<T, ?> fn, Object low, Object high) {
+        return add(Operator.BETWEEN, fn, requireValue(low), requireValue(high));
+    }
+
+    /**
+     * SQL LIKE，% 匹配任意个字符，_ 匹配一个字符
+     */
+    public LambdaCondition<T> like(SFunction<T, ?> fn, String pattern) {
+        return add(Operator.LIKE, fn, requireValue(pattern), null);
+    }
+
+    /**
+     * values 为空时条件恒为假
+     */
+    public LambdaCondition<T> in(SFunction<T, ?> fn, Collection<?> values) {
+        return add(Operator.IN, fn, values.toArray(), null);
+    }
+
+    public LambdaCondition<T> isNull(SFunction<T, ?> fn) {
+        return add(Operator.IS_NULL, fn, null, null);
+    }
+
+    public LambdaCondition<T> isNotNull(SFunction<T, ?> fn) {
+        return add(Operator.IS_NOT_NULL, fn, null, null);
+    }
+
+    /**
+     * 下一个条件以 OR 连接
+     */
+    public LambdaCondition<T> or() {
+        nextOr = true;
+        return this;
+    }
+
+    /**
+     * 以 AND 连接一组括号内的条件，空的组被忽略
+     */
+    public LambdaCondition<T> and(Consumer<LambdaCondition<T>> group) {
+        return group(group);
+    }
+
+    /**
+     * 以 OR 连接一组括号内的条件，空的组被忽略
+     */
+    public LambdaCondition<T> or(Consumer<LambdaCondition<T>> group) {
+        nextOr = true;
+        return group(group);
+    }
+
+    /**
+     * 清空条件，以便复用构造器
+     */
+    public LambdaCondition<T> clear() {
+        clauses.clear();
+        nextOr = false;
+        compiled = null;
+        return this;
+    }
+
+    public int size() {
+        return clauses.size();
+    }
+
+    public boolean isEmpty() {
+        return clauses.isEmpty();
+    }
+
+    public NamingStrategy getStrategy() {
+        return strategy;
+    }
+
+    // ================= SQL ===================
+
+    /**
+     * <h3>
+     * 将条件渲染为参数化的 SQL 片段
+     * </h3>
+     * 占位符为 ?，参数按出现顺序追加到 params
+     *
+     * @param sql    追加到的 StringBuilder，可以复用
+     * @param params 参数列表，可以复用
+     * @return sql
+     */
+    public StringBuilder render(StringBuilder sql, List<Object> params) {
+        for (int i = 0, size = clauses.size(); i < size; i++) {
+            Clause c = clauses.get(i);
+            if (i > 0) {
+                sql.append(c.or ? " OR " : " AND ");
+            }
+            c.render(sql, params, strategy);
+        }
+        return sql;
+    }
+
+    public String toSql() {
+        return render(new StringBuilder(clauses.size() * 16), new ArrayList<>()).toString();
+    }
+
+    public List<Object> getParameters() {
+        List<Object> params = new ArrayList<>();
+        render(new StringBuilder(clauses.size() * 16), params);
+        return params;
+    }
+
+    @Override
+    public String toString() {
+        return toSql();
+    }
+
+    // ================= 内存求值 ===================
+
+    /**
+     * 对 bean 求值，没有条件时恒为真；与 SQL 一致，属性值为 null 时除 isNull 外的条件均为假
+     */
+    public boolean test(T bean) {
+        return compiled().test(bean);
+    }
+
+    /**
+     * 编译后的谓词，可用于 Stream.filter
+     */
+    @SuppressWarnings("unchecked")
+    public Predicate<T> toPredicate() {
+        return (Predicate<T>) (Predicate<?>) compiled();
+    }
+
+    /**
+     * 满足条件的元素，保持原有顺序
+     */
+    public List<T> filter(Collection<? extends T> beans) {
+        Predicate<Object> p = compiled();
+        List<T> result = new ArrayList<>();
+        for (T bean : beans) {
+            if (p.test(bean)) {
+                result.add(bean);
+            }
+        }
+        return result;
+    }
+
+    private Predicate<Object> compiled() {
+        Predicate<Object> p = compiled;
+        if (p == null) {
+            compiled = p = compile();
+        }
+        return p;
+    }
+
+    /**
+     * AND 优先于 OR：按 OR 切分为若干组，任一组的条件全部满足即满足
+     */
+    private Predicate<Object> compile() {
+        if (clauses.isEmpty()) {
+            return ALWAYS;
+        }
+        List<Predicate<Object>[]> anyOf = new ArrayList<>();
+        List<Predicate<Object>> allOf = new ArrayList<>();
+        for (Clause c : clauses) {
+            if (c.or && !allOf.isEmpty()) {
+                anyOf.add(allOf.toArray(newArray(allOf.size())));
+                allOf.clear();
+            }
+            allOf.add(c.compile());
+        }
+        anyOf.add(allOf.toArray(newArray(allOf.size())));
+        if (anyOf.size() == 1) {
+            return all(anyOf.get(0));
+        }
+        Predicate<Object>[] groups = newArray(anyOf.size());
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = all(anyOf.get(i));
+        }
+        return bean -> {
+            for (Predicate<Object> group : groups) {
+                if (group.test(bean)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate<Object>[] newArray(int length) {
+        return (Predicate<Object>[]) new Predicate<?>[length];
+    }
+
+    private static Predicate<Object> all(Predicate<Object>[] predicates) {
+        if (predicates.length == 1) {
+            return predicates[0];
+        }
+        return bean -> {
+            for (Predicate<Object> p : predicates) {
+                if (!p.test(bean)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    // ================= 构建 ===================
+
+    private LambdaCondition<T> add(Operator op, SFunction<T, ?> fn, Object value, Object value2) {
+        clauses.add(new Clause(nextOr, op, Column.of(fn), value, value2, null));
+        nextOr = false;
+        compiled = null;
+        return this;
+    }
+
+    private LambdaCondition<T> group(Consumer<LambdaCondition<T>> consumer) {
+        LambdaCondition<T> group = new LambdaCondition<>(strategy);
+        consumer.accept(group);
+        if (!group.isEmpty()) {
+            clauses.add(new Clause(nextOr, Operator.GROUP, null, null, null, group));
+            compiled = null;
+        }
+        nextOr = false;
+        return this;
+    }
+
+    private static <V> V requireValue(V value) {
+        if (value == null) {
+            throw new RuntimeException(ERROR_MESSAGE + "：比较的值不能为 null");
+        }
+        return value;
+    }
+
+    private enum Operator {
+        EQ("="), NE("<>"), GT(">"), GE(">="), LT("<"), LE("<="),
+        BETWEEN("BETWEEN"), LIKE("LIKE"), IN("IN"), IS_NULL("IS NULL"), IS_NOT_NULL("IS NOT NULL"), GROUP("");
+
+        private final String sql;
+
+        Operator(String sql) {
+            this.sql = sql;
+        }
+
+        /**
+         * 比较运算符，cmp 为 属性值 与 比较值 的比较结果
+         */
+        private boolean matches(int cmp) {
+            switch (this) {
+                case EQ:
+                    return cmp == 0;
+                case NE:
+                    return cmp != 0;
+                case GT:
+                    return cmp > 0;
+                case GE:
+                    return cmp >= 0;
+                case LT:
+                    return cmp < 0;
+                case LE:
+                    return cmp <= 0;
+                default:
+                    throw new IllegalStateException(name());
+            }
+        }
+    }
+
+    private static final class Clause {
+
+        private final boolean or;
+
+        private final Operator op;
+
+        private final Column column;
+
+        private final Object value;
+
+        private final Object value2;
+
+        private final LambdaCondition<?> group;
+
+        private Clause(boolean or, Operator op, Column column, Object value, Object value2, LambdaCondition<?> group) {
+            this.or = or;
+            this.op = op;
+            this.column = column;
+            this.value = value;
+            this.value2 = value2;
+            this.group = group;
+        }
+
+        private void render(StringBuilder sql, List<Object> params, NamingStrategy strategy) {
+            switch (op) {
+                case GROUP:
+                    group.render(sql.append('('), params).append(')');
+                    return;
+                case IS_NULL:
+                case IS_NOT_NULL:
+                    sql.append(column.getName(strategy)).append(' ').append(op.sql);
+                    return;
+                case BETWEEN:
+                    sql.append(column.getName(strategy)).append(" BETWEEN ? AND ?");
+                    params.add(value);
+                    params.add(value2);
+                    return;
+                case IN:
+                    Object[] values = (Object[]) value;
+                    if (values.length == 0) {
+                        sql.append("1 = 0");
+                        return;
+                    }
+                    sql.append(column.getName(strategy)).append(" IN (");
+                    for (int i = 0; i < values.length; i++) {
+                        sql.append(i == 0 ? "?" : ", ?");
+                        params.add(values[i]);
+                    }
+                    sql.append(')');
+                    return;
+                default:
+                    sql.append(column.getName(strategy)).append(' ').append(op.sql).append(" ?");
+                    params.add(value);
+            }
+        }
+
+        private Predicate<Object> compile() {
+            if (op == Operator.GROUP) {
+                return group.compiled();
+            }
+            PropertyAccessor<Object> accessor = column.getAccessor();
+            Function<Object, Object> getter = accessor.getter();
+            switch (op) {
+                case IS_NULL:
+                    return bean -> getter.apply(bean) == null;
+                case IS_NOT_NULL:
+                    return bean -> getter.apply(bean) != null;
+                case BETWEEN: {
+                    Object low = value;
+                    Object high = value2;
+                    return bean -> {
+                        Object x = getter.apply(bean);
+                        return x != null && compare(x, low) >= 0 && compare(x, high) <= 0;
+                    };
+                }
+                case LIKE: {
+                    Pattern pattern = like((String) value);
+                    return bean -> {
+                        Object x = getter.apply(bean);
+                        return x != null && pattern.matcher(x.toString()).matches();
+                    };
+                }
+                case IN: {
+                    Set<Object> set = new HashSet<>();
+                    for (Object v : (Object[]) value) {
+                        set.add(normalize(v));
+                    }
+                    return bean -> {
+                        Object x = getter.apply(bean);
+                        return x != null && set.contains(normalize(x));
+                    };
+                }
+                default:
+                    return comparison(accessor, getter);
+            }
+        }
+
+        /**
+         * 比较运算：整数基本类型属性 与 整数比较时不装箱
+         */
+        private Predicate<Object> comparison(PropertyAccessor<Object> accessor, Function<Object, Object> getter) {
+            Operator op = this.op;
+            Object v = value;
+            if (isIntegral(column.getType()) && isIntegral(v)) {
+                ToLongFunction<Object> g = accessor.longGetter();
+                long l = ((Number) v).longValue();
+                return bean -> op.matches(Long.compare(g.applyAsLong(bean), l));
+            }
+            if (op == Operator.EQ || op == Operator.NE) {
+                return bean -> {
+                    Object x = getter.apply(bean);
+                    return x != null && (equal(x, v) == (op == Operator.EQ));
+                };
+            }
+            return bean -> {
+                Object x = getter.apply(bean);
+                return x != null && op.matches(compare(x, v));
+            };
+        }
+    }
+
+    // ================= 值比较 ===================
+
+    private static boolean isIntegral(Class<?> type) {
+        return type == long.class || type == int.class || type == short.class || type == byte.class;
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    /**
+     * 数值按值比较，Long 1 与 Integer 1 相等
+     */
+    private static boolean equal(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number) {
+            return compare(a, b) == 0;
+        }
+        return a.equals(b);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number) {
+            if (isIntegral(a) && isIntegral(b)) {
+                return Long.compare(((Number) a).longValue(), ((Number) b).longValue());
+            }
+            return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+        }
+        if (a instanceof Comparable) {
+            return ((Comparable) a).compareTo(b);
+        }
+        throw new RuntimeException(ERROR_MESSAGE + "：" + a.getClass().getName() + " 不能比较大小");
+    }
+
+    /**
+     * IN 的 key：整数统一为 Long，整数值的浮点数也统一为 Long
+     */
+    private static Object normalize(Object value) {
+        if (isIntegral(value)) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            return d == (long) d ? (Object) (long) d : (Object) d;
+        }
+        return value;
+    }
+
+    /**
+     * SQL LIKE 模式 -> 正则表达式
+     */
+    private static Pattern like(String pattern) {
+        StringBuilder regex = new StringBuilder(pattern.length() + 8);
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else if (Character.isLetterOrDigit(c)) {
+                regex.append(c);
+            } else {
+                regex.append('\\').append(c);
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+}
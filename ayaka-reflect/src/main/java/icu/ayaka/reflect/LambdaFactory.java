@@ -0,0 +1,224 @@
+package icu.ayaka.reflect;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 通过 LambdaMetafactory 将 get/set方法 生成为函数式接口实例
+ * 生成的实现类与bean同属一个嵌套组，调用点单态时 JIT 可以直接内联到目标方法
+ * 无法生成时（如跨 classloader 没有完整访问权限）退化为 MethodHandle 调用
+ *
+ * @author Ayaka
+ */
+final class LambdaFactory {
+
+    private static final String ERROR_MESSAGE = "[LambdaFactory] 生成访问器异常";
+
+    /**
+     * 基本类型 -> 可以无损拓宽到的类型
+     */
+    private static final Map<Class<?>, Set<Class<?>>> WIDENING = Map.of(
+            byte.class, Set.of(byte.class, short.class, int.class, long.class, float.class, double.class),
+            short.class, Set.of(short.class, int.class, long.class, float.class, double.class),
+            char.class, Set.of(char.class, int.class, long.class, float.class, double.class),
+            int.class, Set.of(int.class, long.class, float.class, double.class),
+            long.class, Set.of(long.class, float.class, double.class),
+            float.class, Set.of(float.class, double.class),
+            double.class, Set.of(double.class),
+            boolean.class, Set.of(boolean.class)
+    );
+
+    /**
+     * 基本类型 <-> 包装类型，在复制 / 转换的热路径上使用，不通过 MethodType 查找
+     */
+    private static final Map<Class<?>, Class<?>> WRAP = Map.of(
+            byte.class, Byte.class, short.class, Short.class, char.class, Character.class,
+            int.class, Integer.class, long.class, Long.class, float.class, Float.class,
+            double.class, Double.class, boolean.class, Boolean.class, void.class, Void.class
+    );
+
+    private static final Map<Class<?>, Class<?>> UNWRAP = Map.of(
+            Byte.class, byte.class, Short.class, short.class, Character.class, char.class,
+            Integer.class, int.class, Long.class, long.class, Float.class, float.class,
+            Double.class, double.class, Boolean.class, boolean.class, Void.class, void.class
+    );
+
+    private LambdaFactory() {
+    }
+
+    /**
+     * <h3>
+     * 将方法生成为函数式接口实例
+     * </h3>
+     *
+     * @param iface        函数式接口
+     * @param samName      接口方法名称
+     * @param samType      接口方法擦除后的签名
+     * @param method       get/set方法
+     * @param beanClass    bean类型，作为接口方法第一个参数的实际类型
+     * @param instantiated 接口方法特化后的签名，第一个参数会替换为 beanClass
+     * @param <F>          接口类型
+     * @return 函数式接口实例，无法生成时返回 null
+     */
+    static <F> F spin(Class<F> iface, String samName, MethodType samType,
+                      Method method, Class<?> beanClass, MethodType instantiated) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(beanClass, MethodHandles.lookup());
+            MethodHandle impl = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, samName, MethodType.methodType(iface),
+                    samType, impl, instantiated.changeParameterType(0, beanClass));
+            return iface.cast(site.getTarget().invoke());
+        } catch (Throwable e) {
+            // 没有完整访问权限 / 接口对bean的classloader不可见 等情况，交由调用方退化为 MethodHandle
+            return null;
+        }
+    }
+
+    /**
+     * <h3>
+     * 将无参构造器生成为 Supplier
+     * </h3>
+     * 无法生成 lambda 时退化为 MethodHandle 调用
+     *
+     * @param type bean类型
+     * @param <T>  bean类型
+     * @return 调用无参构造器的 Supplier
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Supplier<T> constructor(Class<T> type) {
+        MethodHandle ctor;
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            ctor = lookup.findConstructor(type, MethodType.methodType(void.class));
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + type.getName() + " 没有可访问的无参构造器", e);
+        }
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class), ctor, MethodType.methodType(type));
+            return (Supplier<T>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            MethodHandle h = ctor.asType(MethodType.methodType(Object.class));
+            return () -> {
+                try {
+                    return (T) (Object) h.invokeExact();
+                } catch (RuntimeException | Error ex) {
+                    throw ex;
+                } catch (Throwable ex) {
+                    throw new RuntimeException(ERROR_MESSAGE, ex);
+                }
+            };
+        }
+    }
+
+    /**
+     * <h3>
+     * 调整为指定签名的方法句柄，生成失败时的退化方案 / 句柄组合使用
+     * </h3>
+     *
+     * @param method get/set方法
+     * @param erased 调整后的签名
+     * @return 已调整签名的方法句柄
+     */
+    static MethodHandle handle(Method method, MethodType erased) {
+        try {
+            Class<?> owner = method.getDeclaringClass();
+            MethodHandles.Lookup lookup;
+            if (Modifier.isPublic(owner.getModifiers()) && Modifier.isPublic(method.getModifiers())) {
+                // 公开方法（包括 JDK 类型的，如 Date.getTime）不需要私有访问权限
+                lookup = MethodHandles.publicLookup();
+            } else {
+                try {
+                    lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+                } catch (IllegalAccessException e) {
+                    method.setAccessible(true);
+                    lookup = MethodHandles.lookup();
+                }
+            }
+            return lookup.unreflect(method).asType(erased);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        }
+    }
+
+    /**
+     * 调整为指定签名的构造器句柄，返回类型通常擦除为 Object
+     */
+    static MethodHandle handle(Constructor<?> constructor, MethodType erased) {
+        try {
+            Class<?> owner = constructor.getDeclaringClass();
+            MethodHandles.Lookup lookup;
+            if (Modifier.isPublic(owner.getModifiers()) && Modifier.isPublic(constructor.getModifiers())) {
+                lookup = MethodHandles.publicLookup();
+            } else {
+                try {
+                    lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+                } catch (IllegalAccessException e) {
+                    constructor.setAccessible(true);
+                    lookup = MethodHandles.lookup();
+                }
+            }
+            return lookup.unreflectConstructor(constructor).asType(erased);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        }
+    }
+
+    /**
+     * <h3>
+     * 把多个句柄组合为一个，按顺序执行
+     * </h3>
+     * 按二分组合，句柄嵌套深度为 log(n)，属性很多时 JIT 仍然可以内联
+     *
+     * @param steps 签名都为 type 的句柄
+     * @param type  (参数...)void，steps 为空时返回该签名的空句柄
+     * @return 签名为 type 的句柄
+     */
+    static MethodHandle combine(List<MethodHandle> steps, MethodType type) {
+        return combine(steps, type, 0, steps.size());
+    }
+
+    private static MethodHandle combine(List<MethodHandle> steps, MethodType type, int from, int to) {
+        if (from == to) {
+            return MethodHandles.empty(type);
+        }
+        if (to - from == 1) {
+            return steps.get(from);
+        }
+        int mid = (from + to) >>> 1;
+        return MethodHandles.foldArguments(combine(steps, type, mid, to), combine(steps, type, from, mid));
+    }
+
+    /**
+     * 基本类型 from（或其包装类型）是否可以拓宽为基本类型 to
+     */
+    static boolean widens(Class<?> from, Class<?> to) {
+        Class<?> primitive = unwrap(from);
+        return primitive != null && WIDENING.getOrDefault(primitive, Set.of()).contains(to);
+    }
+
+    /**
+     * 包装类型 -> 基本类型，非包装类型返回 null
+     */
+    static Class<?> unwrap(Class<?> type) {
+        return type.isPrimitive() ? type : UNWRAP.get(type);
+    }
+
+    /**
+     * 基本类型 -> 包装类型，非基本类型原样返回
+     */
+    static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? WRAP.get(type) : type;
+    }
+}
@@ -0,0 +1,171 @@
+package icu.ayaka.reflect;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.BiConsumer;
+
+/**
+ * long -> V 的开放寻址哈希表，单写多读
+ * 写入方需要自行互斥；读取不加锁：值通过 release / acquire 发布，扩容时整体替换表，
+ * 删除只留下墓碑，扩容时清理，因此读取方不会看到移动中的槽位
+ *
+ * @param <V> 值类型
+ * @author Ayaka
+ */
+final class LongIndexMap<V> {
+
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private static final Object TOMBSTONE = new Object();
+
+    private static final int MIN_CAPACITY = 16;
+
+    private volatile Table table = new Table(MIN_CAPACITY);
+
+    /**
+     * 有效的键数，仅写入方访问
+     */
+    private int size;
+
+    /**
+     * 已占用的槽位数，包括墓碑，仅写入方访问
+     */
+    private int used;
+
+    private static final class Table {
+
+        private final long[] keys;
+
+        /**
+         * null 为空槽位，TOMBSTONE 为已删除
+         */
+        private final Object[] values;
+
+        private final int mask;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32) & mask;
+    }
+
+    /**
+     * 不加锁读取
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        Table t = table;
+        for (int i = slot(key, t.mask); ; i = (i + 1) & t.mask) {
+            Object v = VALUES.getAcquire(t.values, i);
+            if (v == null) {
+                return null;
+            }
+            if (t.keys[i] == key) {
+                return v == TOMBSTONE ? null : (V) v;
+            }
+        }
+    }
+
+    /**
+     * @return 原来的值
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        Table t = table;
+        for (int i = slot(key, t.mask); ; i = (i + 1) & t.mask) {
+            Object v = t.values[i];
+            if (v == null) {
+                // 先写键，再发布值
+                t.keys[i] = key;
+                VALUES.setRelease(t.values, i, value);
+                size++;
+                if (++used > t.keys.length * 3 / 4) {
+                    rehash();
+                }
+                return null;
+            }
+            if (t.keys[i] == key) {
+                VALUES.setRelease(t.values, i, value);
+                if (v == TOMBSTONE) {
+                    size++;
+                    return null;
+                }
+                return (V) v;
+            }
+        }
+    }
+
+    /**
+     * @return 原来的值
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        Table t = table;
+        for (int i = slot(key, t.mask); ; i = (i + 1) & t.mask) {
+            Object v = t.values[i];
+            if (v == null) {
+                return null;
+            }
+            if (t.keys[i] == key) {
+                if (v == TOMBSTONE) {
+                    return null;
+                }
+                VALUES.setRelease(t.values, i, TOMBSTONE);
+                size--;
+                return (V) v;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        table = new Table(MIN_CAPACITY);
+        size = 0;
+        used = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(BiConsumer<Long, ? super V> action) {
+        Table t = table;
+        for (int i = 0; i < t.keys.length; i++) {
+            Object v = VALUES.getAcquire(t.values, i);
+            if (v != null && v != TOMBSTONE) {
+                action.accept(t.keys[i], (V) v);
+            }
+        }
+    }
+
+    /**
+     * 按有效键数重建，丢弃墓碑，新表填满后再发布
+     */
+    private void rehash() {
+        Table old = table;
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 8 < size) {
+            capacity <<= 1;
+        }
+        Table t = new Table(capacity);
+        for (int i = 0; i < old.keys.length; i++) {
+            Object v = old.values[i];
+            if (v != null && v != TOMBSTONE) {
+                int j = slot(old.keys[i], t.mask);
+                while (t.values[j] != null) {
+                    j = (j + 1) & t.mask;
+                }
+                t.keys[j] = old.keys[i];
+                t.values[j] = v;
+            }
+        }
+        used = size;
+        table = t;
+    }
+}
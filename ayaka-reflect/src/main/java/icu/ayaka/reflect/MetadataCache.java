@@ -0,0 +1,501 @@
+package icu.ayaka.reflect;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 以 Class 为 key 的有界元数据缓存
+ * <p>
+ * 值通过 ClassValue 挂在 Class 自身上：查询无锁，类卸载时值随之回收，缓存不会钉住插件的 classloader。
+ * 淘汰记录只弱引用 Class、不引用值，超过 maximumSize 时按 CLOCK（近似 LRU）淘汰，
+ * 被淘汰的类下次访问时重新加载。
+ * <p>
+ * 加载是 single-flight 的：多个线程同时访问未加载的类时，只有一个线程调用 loader，其余线程等待同一个结果；
+ * 加载完成后值通过 volatile 字段发布，之后的查询只读取 ClassValue 和该字段，不加锁、不再调用 loader。
+ * 等待不使用 synchronized，不会钉住虚拟线程；loader 抛出异常时等待的线程收到同一个异常，下次访问重新加载。
+ * <p>
+ * loader 可以访问其他类的元数据（包括其他缓存），但加载之间不能形成环：
+ * 线程在等待之前沿 “flight 的加载线程正在等待的 flight” 查找，环回到自身时抛出 IllegalStateException，而不是互相等待死锁。
+ * <p>
+ * 默认容量由系统属性 ayaka.reflect.cache.maximumSize 配置
+ *
+ * @param <V> 元数据类型
+ * @author Ayaka
+ */
+public final class MetadataCache<V> {
+
+    /**
+     * 默认容量 系统属性名
+     */
+    public static final String MAXIMUM_SIZE_PROPERTY = "ayaka.reflect.cache.maximumSize";
+
+    public static final int DEFAULT_MAXIMUM_SIZE = Integer.getInteger(MAXIMUM_SIZE_PROPERTY, 4096);
+
+    private static final List<MetadataCache<?>> CACHES = new CopyOnWriteArrayList<>();
+
+    /**
+     * 正在等待的线程 -> 等待的 flight，所有缓存共用，用于检测跨线程、跨缓存的循环加载
+     */
+    private static final ConcurrentHashMap<Thread, Flight<?>> WAITING = new ConcurrentHashMap<>();
+
+    private final String name;
+
+    private final int maximumSize;
+
+    private final Function<Class<?>, V> loader;
+
+    private final ClassValue<Entry<V>> values;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * 以下字段只在加锁后访问，只有未命中时才会加锁
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final ReferenceQueue<Class<?>> queue = new ReferenceQueue<>();
+
+    private final ArrayList<Node> ring = new ArrayList<>();
+
+    private int hand;
+
+    /**
+     * <h3>
+     * 创建使用默认容量的缓存
+     * </h3>
+     *
+     * @param name   缓存名称，用于统计
+     * @param loader 未命中时加载元数据，不能返回 null
+     */
+    public MetadataCache(String name, Function<Class<?>, V> loader) {
+        this(name, DEFAULT_MAXIMUM_SIZE, loader);
+    }
+
+    /**
+     * <h3>
+     * 创建缓存
+     * </h3>
+     *
+     * @param name        缓存名称，用于统计
+     * @param maximumSize 最多缓存的类数量
+     * @param loader      未命中时加载元数据，不能返回 null
+     */
+    public MetadataCache(String name, int maximumSize, Function<Class<?>, V> loader) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize: " + maximumSize);
+        }
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.loader = loader;
+        // 竞争时 computeValue 可能被调用多次，但所有线程拿到同一个 Entry，因此只创建空的 Entry，由 load 保证只加载一次
+        this.values = new ClassValue<>() {
+            @Override
+            protected Entry<V> computeValue(Class<?> type) {
+                return new Entry<>();
+            }
+        };
+        CACHES.add(this);
+    }
+
+    /**
+     * <h3>
+     * ancestor 是否为 loader 本身或其祖先
+     * </h3>
+     * 为 true 时 ancestor 加载的类至少与 loader 加载的类存活一样久，后者的元数据可以强引用前者
+     *
+     * @param ancestor classloader，null 表示启动类加载器
+     * @param loader   classloader，null 表示启动类加载器
+     */
+    static boolean isAncestor(ClassLoader ancestor, ClassLoader loader) {
+        if (ancestor == null) {
+            return true;
+        }
+        for (ClassLoader l = loader; l != null; l = l.getParent()) {
+            if (l == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 所有已创建的缓存
+     */
+    public static List<MetadataCache<?>> caches() {
+        return List.copyOf(CACHES);
+    }
+
+    /**
+     * <h3>
+     * 获取类的元数据，未命中时加载
+     * </h3>
+     *
+     * @param type 类
+     * @return 元数据
+     */
+    public V get(Class<?> type) {
+        Entry<V> e = values.get(type);
+        V value = e.value;
+        if (value == null) {
+            value = load(type, e);
+        }
+        Node node = e.node;
+        if (node == null) {
+            register(type, e);
+        } else {
+            hits.increment();
+            if (!node.referenced) {
+                node.referenced = true;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 移除类的元数据
+     */
+    public void invalidate(Class<?> type) {
+        lock.lock();
+        try {
+            // ClassValue 没有不触发加载的查询方法，在淘汰记录中查找
+            for (Node node : ring) {
+                if (node.get() == type) {
+                    unlink(node);
+                    break;
+                }
+            }
+            values.remove(type);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 移除所有元数据
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            for (Node node : ring) {
+                Class<?> type = node.get();
+                if (type != null) {
+                    values.remove(type);
+                }
+                node.index = -1;
+            }
+            ring.clear();
+            hand = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * 当前缓存的类数量，包含已被回收但尚未清理的类
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return ring.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(name, hits.sum(), misses.sum(), evictions.sum(), size());
+    }
+
+    @Override
+    public String toString() {
+        return stats().toString();
+    }
+
+    // ================= 加载 ===================
+
+    /**
+     * <h3>
+     * single-flight 加载
+     * </h3>
+     * 抢到 flight 的线程调用 loader 并发布结果，其余线程等待该 flight 完成
+     */
+    private V load(Class<?> type, Entry<V> e) {
+        while (true) {
+            V value = e.value;
+            if (value != null) {
+                return value;
+            }
+            Flight<V> flight = e.flight.get();
+            if (flight == null) {
+                Flight<V> mine = new Flight<>(Thread.currentThread());
+                if (e.flight.compareAndSet(null, mine)) {
+                    return fly(type, e, mine);
+                }
+                continue;
+            }
+            Thread current = Thread.currentThread();
+            WAITING.put(current, flight);
+            try {
+                if (isCycle(flight, current)) {
+                    throw new IllegalStateException(name + " 循环加载 " + type.getName());
+                }
+                return flight.result.join();
+            } catch (CompletionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw ex;
+            } finally {
+                WAITING.remove(current);
+            }
+        }
+    }
+
+    /**
+     * 从 flight 开始沿加载线程正在等待的 flight 查找，回到 current 说明等待会形成环。
+     * 先登记自己的等待再查找，两个线程同时等待对方时至少有一个能发现环
+     */
+    private static boolean isCycle(Flight<?> flight, Thread current) {
+        for (Flight<?> f = flight; f != null && !f.result.isDone(); f = WAITING.get(f.owner)) {
+            if (f.owner == current) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private V fly(Class<?> type, Entry<V> e, Flight<V> flight) {
+        misses.increment();
+        try {
+            V value = loader.apply(type);
+            if (value == null) {
+                throw new IllegalStateException(name + " 加载 " + type.getName() + " 返回 null");
+            }
+            e.value = value;
+            flight.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flight.result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            // 成功时 value 已发布，之后不会再读取 flight；失败时允许下次重新加载
+            e.flight.set(null);
+        }
+    }
+
+    // ================= 淘汰 ===================
+
+    /**
+     * 首次访问时登记淘汰记录，超出容量时淘汰
+     */
+    private void register(Class<?> type, Entry<V> e) {
+        lock.lock();
+        try {
+            if (e.node != null) {
+                hits.increment();
+                return;
+            }
+            // 加载期间被 invalidate 的 Entry 已不在 ClassValue 中，登记后淘汰它会移除新的 Entry
+            if (values.get(type) != e) {
+                return;
+            }
+            expunge();
+            Node node = new Node(type, queue);
+            node.index = ring.size();
+            ring.add(node);
+            e.node = node;
+            while (ring.size() > maximumSize) {
+                evict();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 清理已被回收的类
+     */
+    private void expunge() {
+        Reference<? extends Class<?>> ref;
+        while ((ref = queue.poll()) != null) {
+            Node node = (Node) ref;
+            if (node.index >= 0) {
+                unlink(node);
+            }
+        }
+    }
+
+    /**
+     * CLOCK：跳过并清除最近访问过的记录，淘汰第一个未被访问的记录
+     */
+    private void evict() {
+        while (true) {
+            if (hand >= ring.size()) {
+                hand = 0;
+            }
+            Node node = ring.get(hand);
+            if (node.referenced) {
+                node.referenced = false;
+                hand++;
+                continue;
+            }
+            Class<?> type = node.get();
+            if (type != null) {
+                values.remove(type);
+            }
+            unlink(node);
+            evictions.increment();
+            return;
+        }
+    }
+
+    /**
+     * 从 ring 中移除，末尾的记录移动到空出的位置
+     */
+    private void unlink(Node node) {
+        int index = node.index;
+        Node last = ring.remove(ring.size() - 1);
+        if (last != node) {
+            ring.set(index, last);
+            last.index = index;
+        }
+        node.index = -1;
+    }
+
+    /**
+     * ClassValue 中保存的值
+     */
+    private static final class Entry<V> {
+
+        /**
+         * 加载完成后发布，之后不再修改
+         */
+        private volatile V value;
+
+        /**
+         * 正在进行的加载，没有加载时为 null
+         */
+        private final AtomicReference<Flight<V>> flight = new AtomicReference<>();
+
+        /**
+         * 登记后才会赋值，未登记的值视为未命中
+         */
+        private volatile Node node;
+    }
+
+    /**
+     * 一次加载：加载线程 和 等待的结果
+     */
+    private static final class Flight<V> {
+
+        private final Thread owner;
+
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+
+        private Flight(Thread owner) {
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * 淘汰记录，只弱引用 Class，不引用值
+     */
+    private static final class Node extends WeakReference<Class<?>> {
+
+        /**
+         * 最近是否被访问，可以容忍并发下丢失更新
+         */
+        private boolean referenced;
+
+        /**
+         * 在 ring 中的下标，-1 表示已移除
+         */
+        private int index;
+
+        private Node(Class<?> type, ReferenceQueue<Class<?>> queue) {
+            super(type, queue);
+        }
+    }
+
+    /**
+     * 缓存统计
+     */
+    public static final class Stats {
+
+        private final String name;
+
+        private final long hitCount;
+
+        private final long missCount;
+
+        private final long evictionCount;
+
+        private final int size;
+
+        private Stats(String name, long hitCount, long missCount, long evictionCount, int size) {
+            this.name = name;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.size = size;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public double getHitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 1.0 : (double) hitCount / total;
+        }
+
+        @Override
+        public String toString() {
+            return "MetadataCache{" + name + ", hit=" + hitCount + ", miss=" + missCount
+                    + ", eviction=" + evictionCount + ", size=" + size + '}';
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package icu.ayaka.reflect;
+
+import icu.ayaka.processor.BeanMetadata;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * 启动预热：在接收流量之前并行构建类的属性元数据和访问器
+ * <p>
+ * 每个类构建 PropertyIndex、BeanAccessor，生成每个属性的 getter / setter（基本类型属性同时生成对应的基本类型 getter / setter）
+ * 和无参构造器，之后第一次请求不再承担反射解析和 LambdaMetafactory 生成的开销。
+ * 类由包扫描（本地 classpath 的目录和 jar，包含子包）或显式指定，每个类作为一个任务提交到 executor，
+ * 默认为 ForkJoinPool.commonPool()，也可以传入虚拟线程的 executor
+ * <blockquote><pre>
+ * {@code MetadataWarmer.Report report = MetadataWarmer.builder()
+ *          .scan("icu.ayaka.common.entry")
+ *          .classes(Foo.class)
+ *          .build()
+ *          .run();                                  // 阻塞到预热完成
+ *  log.info(report.toString());
+ *
+ *  CompletableFuture<MetadataWarmer.Report> f = warmer.start();   // 后台预热
+ * }</pre></blockquote>
+ * 方法引用（SFunction）按调用处的 lambda合成类 缓存，没有实例无法预热，仍在第一次调用时解析。
+ * 单个类预热失败不影响其他类，失败记录在 Report 中
+ *
+ * @author Ayaka
+ */
+public final class MetadataWarmer {
+
+    private static final String ERROR_MESSAGE = "[MetadataWarmer] 预热异常";
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final List<String> packages;
+
+    private final List<Class<?>> classes;
+
+    private final ClassLoader classLoader;
+
+    private final Executor executor;
+
+    private MetadataWarmer(List<String> packages, List<Class<?>> classes, ClassLoader classLoader, Executor executor) {
+        this.packages = packages;
+        this.classes = classes;
+        this.classLoader = classLoader;
+        this.executor = executor;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 阻塞到所有类预热完成
+     */
+    public Report run() {
+        return start().join();
+    }
+
+    /**
+     * <h3>
+     * 在后台预热
+     * </h3>
+     * 包扫描在调用线程中完成，之后立即返回
+     *
+     * @return 所有类预热完成后完成
+     */
+    public CompletableFuture<Report> start() {
+        long begin = System.nanoTime();
+        Map<String, Throwable> failures = new ConcurrentHashMap<>();
+        Set<Class<?>> targets = new LinkedHashSet<>(classes);
+        for (String pkg : packages) {
+            for (String name : scan(pkg)) {
+                try {
+                    Class<?> type = Class.forName(name, false, classLoader);
+                    if (isBean(type)) {
+                        targets.add(type);
+                    }
+                } catch (LinkageError | ClassNotFoundException e) {
+                    failures.put(name, e);
+                }
+            }
+        }
+        Map<Class<?>, Long> nanos = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(targets.size());
+        for (Class<?> type : targets) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    warm(type);
+                    nanos.put(type, System.nanoTime() - start);
+                } catch (RuntimeException | LinkageError e) {
+                    failures.put(type.getName(), e);
+                }
+            }, executor));
+        }
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            Map<Class<?>, Long> ordered = new LinkedHashMap<>();
+            for (Class<?> type : targets) {
+                Long n = nanos.get(type);
+                if (n != null) {
+                    ordered.put(type, n);
+                }
+            }
+            return new Report(ordered, new TreeMap<>(failures), System.nanoTime() - begin);
+        });
+    }
+
+    /**
+     * <h3>
+     * 预热单个类
+     * </h3>
+     * 与 BeanAccessor 的惰性生成使用同一份缓存，预热后的访问器即之后请求使用的访问器
+     *
+     * @param type 类
+     */
+    public static void warm(Class<?> type) {
+        BeanAccessor<?> accessor = BeanAccessor.of(type);
+        for (PropertyAccessor<?> p : accessor.getAccessors()) {
+            Class<?> t = p.getType();
+            if (p.isReadable()) {
+                p.getter();
+                if (t == long.class || t == short.class || t == byte.class || t == char.class) {
+                    p.longGetter();
+                } else if (t == int.class) {
+                    p.intGetter();
+                } else if (t == double.class || t == float.class) {
+                    p.doubleGetter();
+                } else if (t == boolean.class) {
+                    p.booleanGetter();
+                }
+            }
+            if (p.isWritable()) {
+                p.setter();
+                if (t == long.class) {
+                    p.longSetter();
+                } else if (t == int.class) {
+                    p.intSetter();
+                } else if (t == double.class) {
+                    p.doubleSetter();
+                } else if (t == boolean.class) {
+                    p.booleanSetter();
+                }
+            }
+        }
+        if (!Modifier.isAbstract(type.getModifiers()) && hasNoArgConstructor(type)) {
+            accessor.constructor();
+        }
+    }
+
+    private static boolean hasNoArgConstructor(Class<?> type) {
+        try {
+            type.getDeclaredConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 扫描到的类中只预热可能作为 bean 使用的类：跳过接口（包含注解）、枚举、匿名 / 局部类、非静态内部类、合成类，以及 @BeanMeta 生成的元数据类
+     */
+    private static boolean isBean(Class<?> type) {
+        return !type.isInterface() && !type.isEnum() && !type.isAnonymousClass() && !type.isLocalClass()
+                && !type.isSynthetic() && !type.getName().endsWith(BeanMetadata.SUFFIX)
+                && !(type.isMemberClass() && !Modifier.isStatic(type.getModifiers()));
+    }
+
+    // ================= 包扫描 ===================
+
+    /**
+     * <h3>
+     * 扫描包及其子包下的所有类名
+     * </h3>
+     * 支持 classpath 中的目录和 jar，其他协议（如嵌套 jar）的资源会被忽略
+     *
+     * @param pkg 包名
+     * @return 类名，按名称排序
+     */
+    private List<String> scan(String pkg) {
+        String path = pkg.replace('.', '/');
+        Set<String> names = new TreeSet<>();
+        try {
+            Enumeration<URL> urls = classLoader.getResources(path);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                if ("file".equals(url.getProtocol())) {
+                    scanDirectory(Paths.get(url.toURI()), pkg, names);
+                } else if ("jar".equals(url.getProtocol())) {
+                    scanJar(url, path, names);
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new RuntimeException(ERROR_MESSAGE + "：扫描 " + pkg + " 失败", e);
+        }
+        return new ArrayList<>(names);
+    }
+
+    private static void scanDirectory(Path root, String pkg, Set<String> names) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(f -> f.toString().endsWith(CLASS_SUFFIX)).forEach(f -> {
+                String relative = root.relativize(f).toString().replace(f.getFileSystem().getSeparator(), ".");
+                addClassName(pkg + "." + relative, names);
+            });
+        }
+    }
+
+    private static void scanJar(URL url, String path, Set<String> names) throws IOException {
+        URLConnection connection = url.openConnection();
+        if (!(connection instanceof JarURLConnection)) {
+            return;
+        }
+        connection.setUseCaches(false);
+        try (JarFile jar = ((JarURLConnection) connection).getJarFile()) {
+            String prefix = path + "/";
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.startsWith(prefix) && name.endsWith(CLASS_SUFFIX)) {
+                    addClassName(name.replace('/', '.'), names);
+                }
+            }
+        }
+    }
+
+    private static void addClassName(String file, Set<String> names) {
+        String name = file.substring(0, file.length() - CLASS_SUFFIX.length());
+        if (!name.endsWith("package-info") && !name.endsWith("module-info")) {
+            names.add(name);
+        }
+    }
+
+    // ================= 结果 ===================
+
+    /**
+     * 预热结果
+     */
+    public static final class Report {
+
+        private final Map<Class<?>, Long> nanos;
+
+        private final Map<String, Throwable> failures;
+
+        private final long elapsedNanos;
+
+        private Report(Map<Class<?>, Long> nanos, Map<String, Throwable> failures, long elapsedNanos) {
+            this.nanos = Collections.unmodifiableMap(nanos);
+            this.failures = Collections.unmodifiableMap(failures);
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * 预热成功的类 -> 耗时（纳秒），按扫描顺序
+         */
+        public Map<Class<?>, Long> getNanos() {
+            return nanos;
+        }
+
+        /**
+         * 加载或预热失败的类名 -> 异常，按类名排序
+         */
+        public Map<String, Throwable> getFailures() {
+            return failures;
+        }
+
+        /**
+         * 从开始扫描到全部完成的耗时（纳秒），并行时小于各个类耗时之和
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public boolean isSuccess() {
+            return failures.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("MetadataWarmer{classes=").append(nanos.size())
+                    .append(", failures=").append(failures.size())
+                    .append(", elapsed=").append(elapsedNanos / 1_000_000).append("ms}");
+            nanos.entrySet().stream()
+                    .sorted(Map.Entry.<Class<?>, Long>comparingByValue().reversed())
+                    .forEach(e -> sb.append("\n  ").append(e.getKey().getName()).append(": ")
+                            .append(e.getValue() / 1_000).append("us"));
+            failures.forEach((name, e) -> sb.append("\n  ").append(name).append(": ").append(e));
+            return sb.toString();
+        }
+    }
+
+    // ================= Builder ===================
+
+    public static final class Builder {
+
+        private final List<String> packages = new ArrayList<>();
+
+        private final List<Class<?>> classes = new ArrayList<>();
+
+        private ClassLoader classLoader;
+
+        private Executor executor = ForkJoinPool.commonPool();
+
+        private Builder() {
+        }
+
+        /**
+         * 预热包及其子包下的类
+         */
+        public Builder scan(String... packages) {
+            Collections.addAll(this.packages, packages);
+            return this;
+        }
+
+        /**
+         * 预热指定的类，不做过滤
+         */
+        public Builder classes(Class<?>... classes) {
+            Collections.addAll(this.classes, classes);
+            return this;
+        }
+
+        /**
+         * 扫描使用的 classloader，默认为当前线程的 context classloader
+         */
+        public Builder classLoader(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+            return this;
+        }
+
+        /**
+         * 执行预热任务的 executor，默认为 ForkJoinPool.commonPool()
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public MetadataWarmer build() {
+            ClassLoader loader = classLoader;
+            if (loader == null) {
+                loader = Thread.currentThread().getContextClassLoader();
+            }
+            if (loader == null) {
+                loader = MetadataWarmer.class.getClassLoader();
+            }
+            return new MetadataWarmer(List.copyOf(packages), List.copyOf(classes), loader, executor);
+        }
+    }
+}
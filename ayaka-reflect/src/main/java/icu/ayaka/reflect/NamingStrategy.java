@@ -0,0 +1,60 @@
+package icu.ayaka.reflect;
+
+import java.util.Locale;
+
+/**
+ * 属性名称 -> 列名 的命名策略
+ * 实现应当是无状态的，Column 会按策略缓存转换结果
+ *
+ * @author Ayaka
+ */
+@FunctionalInterface
+public interface NamingStrategy {
+
+    /**
+     * 列名与属性名称相同
+     */
+    NamingStrategy IDENTITY = name -> name;
+
+    /**
+     * 驼峰转下划线：createTime -> create_time，URLValue -> url_value
+     */
+    NamingStrategy SNAKE_CASE = NamingStrategy::toSnakeCase;
+
+    /**
+     * 驼峰转大写下划线：createTime -> CREATE_TIME
+     */
+    NamingStrategy UPPER_SNAKE_CASE = name -> toSnakeCase(name).toUpperCase(Locale.ROOT);
+
+    /**
+     * <h3>
+     * 将属性名称转换为列名
+     * </h3>
+     *
+     * @param propertyName 属性名称
+     * @return 列名
+     */
+    String translate(String propertyName);
+
+    /**
+     * 驼峰转小写下划线，连续的大写字母视为一个单词
+     */
+    static String toSnakeCase(String name) {
+        int length = name.length();
+        StringBuilder sb = new StringBuilder(length + 4);
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                // aB -> a_b；ABc -> a_bc
+                if (i > 0 && (!Character.isUpperCase(name.charAt(i - 1))
+                        || (i + 1 < length && Character.isLowerCase(name.charAt(i + 1))))) {
+                    sb.append('_');
+                }
+                sb.append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,12 @@
+package icu.ayaka.reflect;
+
+/**
+ * 接收 对象 和 boolean值 的操作，java.util.function 中缺少该特化接口
+ *
+ * @param <T> 对象类型
+ */
+@FunctionalInterface
+public interface ObjBooleanConsumer<T> {
+
+    void accept(T t, boolean value);
+}
@@ -0,0 +1,231 @@
+package icu.ayaka.reflect;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 列式投影：把 List 中每个元素的同一个属性读取到基本类型数组 / 堆外缓冲区中
+ * <p>
+ * 读取函数按属性类型选择（见 PropertyAccessor.longValue 等），基本类型属性不装箱，循环中没有任何对象分配；
+ * 包装类型为 null 时写入 nullValue。
+ * 元素数量达到 PARALLEL_THRESHOLD 时，拆分到 ForkJoinPool.commonPool() 并行读取
+ * <blockquote><pre>
+ * {@code long[] ids = Projections.toLongArray(users, User::getId);
+ *  BitSet admins = Projections.toBitSet(users, User::isAdmin);
+ *
+ *  LongBuffer buffer = ByteBuffer.allocateDirect(users.size() * 8).asLongBuffer();
+ *  Projections.project(users, User::getId, 0L, buffer);
+ * }</pre></blockquote>
+ *
+ * @author Ayaka
+ */
+public final class Projections {
+
+    private static final String ERROR_MESSAGE = "[Projections] 投影异常";
+
+    /**
+     * 并行阈值，小于该数量时单线程读取
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    /**
+     * 并行拆分的最小分片
+     */
+    private static final int MIN_CHUNK = 1 << 12;
+
+    private Projections() {
+    }
+
+    // ================= long ===================
+
+    public static <T> long[] toLongArray(List<T> list, SFunction<T, ?> fn) {
+        long[] out = new long[list.size()];
+        project(list, fn, 0L, out, 0);
+        return out;
+    }
+
+    /**
+     * <h3>
+     * 将属性读取为 long 写入数组
+     * </h3>
+     *
+     * @param list      元素，不能包含 null
+     * @param fn        lambda表达式，bean的属性的get方法
+     * @param nullValue 属性值为 null 时写入的值
+     * @param out       目标数组
+     * @param offset    目标数组的起始下标
+     * @param <T>       bean类型
+     */
+    public static <T> void project(List<T> list, SFunction<T, ?> fn, long nullValue, long[] out, int offset) {
+        checkBounds(list.size(), out.length, offset);
+        List<T> src = Ranges.randomAccess(list);
+        ToLongFunction<T> f = BeanAccessor.accessor(fn).longValue(nullValue);
+        run(src, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[offset + i] = f.applyAsLong(src.get(i));
+            }
+        });
+    }
+
+    /**
+     * <h3>
+     * 将属性读取为 long 写入缓冲区（可以是 direct 缓冲区）
+     * </h3>
+     * 从 position 开始写入，写入后 position 增加 list.size()
+     */
+    public static <T> void project(List<T> list, SFunction<T, ?> fn, long nullValue, LongBuffer out) {
+        int base = out.position();
+        checkBounds(list.size(), out.limit(), base);
+        List<T> src = Ranges.randomAccess(list);
+        ToLongFunction<T> f = BeanAccessor.accessor(fn).longValue(nullValue);
+        // 绝对位置写入不修改 position，不同分片写入不相交的下标，可以并行
+        run(src, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out.put(base + i, f.applyAsLong(src.get(i)));
+            }
+        });
+        out.position(base + list.size());
+    }
+
+    // ================= int ===================
+
+    public static <T> int[] toIntArray(List<T> list, SFunction<T, ?> fn) {
+        int[] out = new int[list.size()];
+        project(list, fn, 0, out, 0);
+        return out;
+    }
+
+    public static <T> void project(List<T> list, SFunction<T, ?> fn, int nullValue, int[] out, int offset) {
+        checkBounds(list.size(), out.length, offset);
+        List<T> src = Ranges.randomAccess(list);
+        ToIntFunction<T> f = BeanAccessor.accessor(fn).intValue(nullValue);
+        run(src, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[offset + i] = f.applyAsInt(src.get(i));
+            }
+        });
+    }
+
+    // ================= double ===================
+
+    public static <T> double[] toDoubleArray(List<T> list, SFunction<T, ?> fn) {
+        double[] out = new double[list.size()];
+        project(list, fn, 0.0, out, 0);
+        return out;
+    }
+
+    public static <T> void project(List<T> list, SFunction<T, ?> fn, double nullValue, double[] out, int offset) {
+        checkBounds(list.size(), out.length, offset);
+        List<T> src = Ranges.randomAccess(list);
+        ToDoubleFunction<T> f = BeanAccessor.accessor(fn).doubleValue(nullValue);
+        run(src, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[offset + i] = f.applyAsDouble(src.get(i));
+            }
+        });
+    }
+
+    public static <T> void project(List<T> list, SFunction<T, ?> fn, double nullValue, DoubleBuffer out) {
+        int base = out.position();
+        checkBounds(list.size(), out.limit(), base);
+        List<T> src = Ranges.randomAccess(list);
+        ToDoubleFunction<T> f = BeanAccessor.accessor(fn).doubleValue(nullValue);
+        run(src, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out.put(base + i, f.applyAsDouble(src.get(i)));
+            }
+        });
+        out.position(base + list.size());
+    }
+
+    // ================= boolean ===================
+
+    public static <T> boolean[] toBooleanArray(List<T> list, SFunction<T, ?> fn) {
+        boolean[] out = new boolean[list.size()];
+        project(list, fn, false, out, 0);
+        return out;
+    }
+
+    public static <T> void project(List<T> list, SFunction<T, ?> fn, boolean nullValue, boolean[] out, int offset) {
+        checkBounds(list.size(), out.length, offset);
+        List<T> src = Ranges.randomAccess(list);
+        Predicate<T> f = BeanAccessor.accessor(fn).booleanValue(nullValue);
+        run(src, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[offset + i] = f.test(src.get(i));
+            }
+        });
+    }
+
+    /**
+     * 将 boolean 属性读取为位图，第 i 位对应第 i 个元素，null 视为 false
+     */
+    public static <T> BitSet toBitSet(List<T> list, SFunction<T, ?> fn) {
+        long[] words = new long[(list.size() + 63) >>> 6];
+        projectBits(list, fn, false, words);
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * <h3>
+     * 将 boolean 属性读取为位图，写入 long 数组
+     * </h3>
+     * 第 i 个元素对应 words[i >> 6] 的第 (i & 63) 位，与 BitSet.valueOf(long[]) 的布局一致
+     *
+     * @param words 目标数组，长度至少为 (list.size() + 63) / 64，写入前不会清零
+     */
+    public static <T> void projectBits(List<T> list, SFunction<T, ?> fn, boolean nullValue, long[] words) {
+        int n = list.size();
+        checkBounds((n + 63) >>> 6, words.length, 0);
+        List<T> src = Ranges.randomAccess(list);
+        Predicate<T> f = BeanAccessor.accessor(fn).booleanValue(nullValue);
+        // 按 64 对齐分片，每个分片独占自己的 word，没有写冲突
+        run(src, (from, to) -> {
+            for (int w = from >>> 6, end = (to + 63) >>> 6; w < end; w++) {
+                long word = 0L;
+                for (int i = w << 6, last = Math.min(i + 64, to); i < last; i++) {
+                    if (f.test(src.get(i))) {
+                        word |= 1L << i;
+                    }
+                }
+                words[w] |= word;
+            }
+        });
+    }
+
+    /**
+     * 将 boolean 属性读取为位图，写入缓冲区，每 64 个元素一个 little-endian 的 long
+     */
+    public static <T> void projectBits(List<T> list, SFunction<T, ?> fn, boolean nullValue, ByteBuffer out) {
+        int words = (list.size() + 63) >>> 6;
+        long[] bits = new long[words];
+        projectBits(list, fn, nullValue, bits);
+        LongBuffer target = out.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        checkBounds(words, target.limit(), 0);
+        target.put(bits);
+        out.position(out.position() + words * Long.BYTES);
+    }
+
+    // ================= 拆分 ===================
+
+    /**
+     * 分片按 64 对齐，位图投影依赖这一点
+     */
+    private static <T> void run(List<T> list, Ranges.Task task) {
+        Ranges.run(list.size(), PARALLEL_THRESHOLD, MIN_CHUNK, task);
+    }
+
+    private static void checkBounds(int size, int length, int offset) {
+        if (offset < 0 || length - offset < size) {
+            throw new RuntimeException(ERROR_MESSAGE + "：目标空间不足，需要 " + size + "，可用 " + (length - offset));
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package icu.ayaka.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * 单个属性的访问器
+ * get/set方法 在首次使用时通过 LambdaMetafactory 生成为函数式接口实例，之后直接复用
+ * 有 @BeanMeta 元数据时 getter()/setter() 直接使用编译期生成的函数
+ * 基本类型的 getter/setter 不装箱，包装类型通过 long/int/double/boolean 读取时 null 值会抛出 NullPointerException
+ *
+ * @param <T> bean类型
+ * @author Ayaka
+ */
+public final class PropertyAccessor<T> {
+
+    private static final String ERROR_MESSAGE = "[PropertyAccessor] 属性访问异常";
+
+    private final Class<T> beanClass;
+
+    private final PropertyIndex.Property property;
+
+    // 惰性生成，生成结果不可变，并发下重复生成也没有副作用
+
+    private Function<T, Object> getter;
+
+    private BiConsumer<T, Object> setter;
+
+    private ToLongFunction<T> longGetter;
+
+    private ToIntFunction<T> intGetter;
+
+    private ToDoubleFunction<T> doubleGetter;
+
+    private Predicate<T> booleanGetter;
+
+    private ObjLongConsumer<T> longSetter;
+
+    private ObjIntConsumer<T> intSetter;
+
+    private ObjDoubleConsumer<T> doubleSetter;
+
+    private ObjBooleanConsumer<T> booleanSetter;
+
+    PropertyAccessor(Class<T> beanClass, PropertyIndex.Property property) {
+        this.beanClass = beanClass;
+        this.property = property;
+    }
+
+    public PropertyIndex.Property getProperty() {
+        return property;
+    }
+
+    public String getName() {
+        return property.getName();
+    }
+
+    public Class<?> getType() {
+        return property.getType();
+    }
+
+    public boolean isReadable() {
+        return property.getReadMethod() != null;
+    }
+
+    public boolean isWritable() {
+        return property.getWriteMethod() != null;
+    }
+
+    /**
+     * 读取属性值，基本类型会装箱
+     */
+    public Object get(T bean) {
+        return getter().apply(bean);
+    }
+
+    /**
+     * 写入属性值，基本类型属性传入 null 会抛出 NullPointerException
+     */
+    public void set(T bean, Object value) {
+        setter().accept(bean, value);
+    }
+
+    // ================= getter ===================
+
+    @SuppressWarnings("unchecked")
+    public Function<T, Object> getter() {
+        Function<T, Object> f = getter;
+        if (f == null && property.getGeneratedGetter() != null) {
+            getter = f = (Function<T, Object>) (Function<?, Object>) property.getGeneratedGetter();
+        }
+        if (f == null) {
+            Method m = readMethod();
+            getter = f = generate(Function.class, "apply", methodType(Object.class, Object.class),
+                    m, methodType(LambdaFactory.wrap(m.getReturnType()), Object.class),
+                    mh -> bean -> {
+                        try {
+                            return (Object) mh.invokeExact((Object) bean);
+                        } catch (Throwable e) {
+                            throw rethrow(e);
+                        }
+                    });
+        }
+        return f;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ToLongFunction<T> longGetter() {
+        ToLongFunction<T> f = longGetter;
+        if (f == null) {
+            Method m = readMethod(long.class);
+            longGetter = f = generate(ToLongFunction.class, "applyAsLong", methodType(long.class, Object.class),
+                    m, methodType(long.class, Object.class),
+                    mh -> bean -> {
+                        try {
+                            return (long) mh.invokeExact((Object) bean);
+                        } catch (Throwable e) {
+                            throw rethrow(e);
+                        }
+                    });
+        }
+        return f;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ToIntFunction<T> intGetter() {
+        ToIntFunction<T> f = intGetter;
+        if (f == null) {
+            Method m = readMethod(int.class);
+            intGetter = f = generate(ToIntFunction.class, "applyAsInt", methodType(int.class, Object.class),
+                    m, methodType(int.class, Object.class),
+                    mh -> bean -> {
+                        try {
+                            return (int) mh.invokeExact((Object) bean);
+                        } catch (Throwable e) {
+                            throw rethrow(e);
+                        }
+                    });
+        }
+        return f;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ToDoubleFunction<T> doubleGetter() {
+        ToDoubleFunction<T> f = doubleGetter;
+        if (f == null) {
+            Method m = readMethod(double.class);
+            doubleGetter = f = generate(ToDoubleFunction.class, "applyAsDouble", methodType(double.class, Object.class),
+                    m, methodType(double.class, Object.class),
+                    mh -> bean -> {
+                        try {
+                            return (double) mh.invokeExact((Object) bean);
+                        } catch (Throwable e) {
+                            throw rethrow(e);
+                        }
+                    });
+        }
+        return f;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Predicate<T> booleanGetter() {
+        Predicate<T> f = booleanGetter;
+        if (f == null) {
+            Method m = readMethod(boolean.class);
+            booleanGetter = f = generate(Predicate.class, "test", methodType(boolean.class, Object.class),
+                    m, methodType(boolean.class, Object.class),
+                    mh -> bean -> {
+                        try {
+                            return (boolean) mh.invokeExact((Object) bean);
+                        } catch (Throwable e) {
+                            throw rethrow(e);
+                        }
+                    });
+        }
+        return f;
+    }
+
+    // ================= setter ===================
+
+    @SuppressWarnings("unchecked")
+    public BiConsumer<T, Object> setter() {
+        BiConsumer<T, Object> f = setter;
+        if (f == null && property.getGeneratedSetter() != null) {
+            setter = f = (BiConsumer<T, Object>) (BiConsumer<?, Object>) property.getGeneratedSetter();
+        }
+        if (f == null) {
+            Method m = writeMethod();
+            setter = f = generate(BiConsumer.class, "accept", methodType(void.class, Object.class, Object.class),
+                    m, methodType(void.class, Object.class, LambdaFactory.wrap(m.getParameterTypes()[0])),
+                    mh -> (bean, value) -> {
+                        try {
+                            mh.invokeExact((Object) bean, value);
+                        } catch (Throwable e) {
+                            throw rethrow(e);
+                        }
+                    });
+        }
+        return f;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ObjLongConsumer<T> longSetter() {
+        ObjLongConsumer<T> f = longSetter;
+        if (f == null) {
+            Method m = writeMethod(long.class);
+            longSetter = f = generate(ObjLongConsumer.class, "accept", methodType(void.class, Object.class, long.class),
+                    m, methodType(void.class, Object.class, long.class),
+                    mh -> (bean, value) -> {
+                        try {
+                            mh.invokeExact((Object) bean, value);
+                        } catch (Throwable e) {
+                            throw rethrow(e);
+                        }
+                    });
+        }
+        return f;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ObjIntConsumer<T> intSetter() {
+        ObjIntConsumer<T> f = intSetter;
+        if (f == null) {
+            Method m = writeMethod(int.class);
+            intSetter = f = generate(ObjIntConsumer.class, "accept", methodType(void.class, Object.class, int.class),
+                    m, methodType(void.class, Object.class, int.class),
+                    mh -> (bean, value) -> {
+                        try {
+                            mh.invokeExact((Object) bean, value);
+                        } catch (Throwable e) {
+                            throw rethrow(e);
+                        }
+                    });
+        }
+        return f;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ObjDoubleConsumer<T> doubleSetter() {
+        ObjDoubleConsumer<T> f = doubleSetter;
+        if (f == null) {
+            Method m = writeMethod(double.class);
+            doubleSetter = f = generate(ObjDoubleConsumer.class, "accept", methodType(void.class, Object.class, double.class),
+                    m, methodType(void.class, Object.class, double.class),
+                    mh -> (bean, value) -> {
+                        try {
+                            mh.invokeExact((Object) bean, value);
+                        } catch (Throwable e) {
+                            throw rethrow(e);
+                        }
+                    });
+        }
+        return f;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ObjBooleanConsumer<T> booleanSetter() {
+        ObjBooleanConsumer<T> f = booleanSetter;
+        if (f == null) {
+            Method m = writeMethod(boolean.class);
+            booleanSetter = f = generate(ObjBooleanConsumer.class, "accept", methodType(void.class, Object.class, boolean.class),
+                    m, methodType(void.class, Object.class, boolean.class),
+                    mh -> (bean, value) -> {
+                        try {
+                            mh.invokeExact((Object) bean, value);
+                        } catch (Throwable e) {
+                            throw rethrow(e);
+                        }
+                    });
+        }
+        return f;
+    }
+
+    // ================= 取值 ===================
+
+    /**
+     * <h3>
+     * 读取为 long，不分配对象
+     * </h3>
+     * 整数基本类型直接读取；Number 包装类型拆箱；Date 读取为毫秒时间戳；null 返回 nullValue
+     *
+     * @param nullValue 属性值为 null 时的返回值
+     * @return 读取函数
+     */
+    public ToLongFunction<T> longValue(long nullValue) {
+        Class<?> type = readMethod().getReturnType();
+        if (type.isPrimitive()) {
+            return longGetter();
+        }
+        Function<T, Object> f = getter();
+        if (Date.class.isAssignableFrom(type)) {
+            return bean -> {
+                Object v = f.apply(bean);
+                return v == null ? nullValue : ((Date) v).getTime();
+            };
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return bean -> {
+                Object v = f.apply(bean);
+                return v == null ? nullValue : ((Number) v).longValue();
+            };
+        }
+        throw new RuntimeException(ERROR_MESSAGE + "：" + this + " 不能读取为 long");
+    }
+
+    /**
+     * 读取为 int，规则同 longValue，Date 不支持
+     */
+    public ToIntFunction<T> intValue(int nullValue) {
+        Class<?> type = readMethod().getReturnType();
+        if (type.isPrimitive()) {
+            return intGetter();
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            Function<T, Object> f = getter();
+            return bean -> {
+                Object v = f.apply(bean);
+                return v == null ? nullValue : ((Number) v).intValue();
+            };
+        }
+        throw new RuntimeException(ERROR_MESSAGE + "：" + this + " 不能读取为 int");
+    }
+
+    /**
+     * 读取为 double，规则同 longValue
+     */
+    public ToDoubleFunction<T> doubleValue(double nullValue) {
+        Class<?> type = readMethod().getReturnType();
+        if (type.isPrimitive()) {
+            return doubleGetter();
+        }
+        Function<T, Object> f = getter();
+        if (Date.class.isAssignableFrom(type)) {
+            return bean -> {
+                Object v = f.apply(bean);
+                return v == null ? nullValue : ((Date) v).getTime();
+            };
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return bean -> {
+                Object v = f.apply(bean);
+                return v == null ? nullValue : ((Number) v).doubleValue();
+            };
+        }
+        throw new RuntimeException(ERROR_MESSAGE + "：" + this + " 不能读取为 double");
+    }
+
+    /**
+     * 读取为 boolean，boolean 直接读取，Boolean 为 null 时返回 nullValue
+     */
+    public Predicate<T> booleanValue(boolean nullValue) {
+        Class<?> type = readMethod().getReturnType();
+        if (type == boolean.class) {
+            return booleanGetter();
+        }
+        if (type == Boolean.class) {
+            Function<T, Object> f = getter();
+            return bean -> {
+                Object v = f.apply(bean);
+                return v == null ? nullValue : (Boolean) v;
+            };
+        }
+        throw new RuntimeException(ERROR_MESSAGE + "：" + this + " 不能读取为 boolean");
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyAccessor{" + beanClass.getSimpleName() + '.' + property.getName() + '}';
+    }
+
+    // ================= 工具方法  ===================
+
+    /**
+     * 优先通过 LambdaMetafactory 生成，失败时使用 签名与接口方法一致的 MethodHandle 退化实现
+     */
+    private <F> F generate(Class<F> iface, String samName, MethodType samType, Method method,
+                           MethodType instantiated, Function<MethodHandle, F> fallback) {
+        F f = LambdaFactory.spin(iface, samName, samType, method, beanClass, instantiated);
+        return f != null ? f : fallback.apply(LambdaFactory.handle(method, samType));
+    }
+
+    private Method readMethod() {
+        Method m = property.getReadMethod();
+        if (m == null) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + this + " 没有get方法");
+        }
+        return m;
+    }
+
+    /**
+     * get方法，且返回值可以拓宽为 primitive
+     */
+    private Method readMethod(Class<?> primitive) {
+        Method m = readMethod();
+        if (!LambdaFactory.widens(m.getReturnType(), primitive)) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + this + " 不能读取为 " + primitive);
+        }
+        return m;
+    }
+
+    private Method writeMethod() {
+        Method m = property.getWriteMethod();
+        if (m == null) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + this + " 没有set方法");
+        }
+        return m;
+    }
+
+    /**
+     * set方法，且 primitive 可以拓宽为参数类型
+     */
+    private Method writeMethod(Class<?> primitive) {
+        Method m = writeMethod();
+        Class<?> param = m.getParameterTypes()[0];
+        Class<?> target = LambdaFactory.unwrap(param);
+        // 包装类型参数只接受对应的基本类型装箱，基本类型参数允许拓宽
+        boolean ok = param.isPrimitive() ? LambdaFactory.widens(primitive, param) : target == primitive;
+        if (!ok) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + this + " 不能写入 " + primitive);
+        }
+        return m;
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new RuntimeException(ERROR_MESSAGE, e);
+    }
+}
@@ -0,0 +1,386 @@
+package icu.ayaka.reflect;
+
+import icu.ayaka.processor.BeanMeta;
+import icu.ayaka.processor.BeanMetadata;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 类的属性索引
+ * 每个类只构建一次（@BeanMeta 生成的元数据 或 Introspector），之后按 属性名 / get方法名 / set方法名 / Method 哈希查找
+ * 构建完成后不可变，可在多线程间直接共享
+ *
+ * @author Ayaka
+ */
+public final class PropertyIndex {
+
+    private static final String CLASS = "class";
+
+    private static final String ERROR_MESSAGE = "[PropertyIndex] 构建属性索引异常";
+
+    private static final MetadataCache<PropertyIndex> CACHE = new MetadataCache<>("PropertyIndex", type -> {
+        PropertyIndex index = type.isAnnotationPresent(BeanMeta.class) ? fromMetadata(type) : null;
+        return index != null ? index : introspect(type);
+    });
+
+    private final Class<?> type;
+
+    /**
+     * bean属性，不包含 class 属性，下标即 ordinal
+     */
+    private final Property[] properties;
+
+    private final List<Property> propertyList;
+
+    private final Map<String, Property> byName;
+
+    private final Map<String, Property> byReadName;
+
+    private final Map<String, Property> byWriteName;
+
+    private final Map<Method, Property> byReadMethod;
+
+    private final Map<Method, Property> byWriteMethod;
+
+    private final Map<String, Method> readMethods;
+
+    private final Map<String, Method> writeMethods;
+
+    private PropertyIndex(Class<?> type, List<Property> all) {
+        this.type = type;
+        Map<String, Property> byName = new HashMap<>();
+        Map<String, Property> byReadName = new HashMap<>();
+        Map<String, Property> byWriteName = new HashMap<>();
+        Map<Method, Property> byReadMethod = new HashMap<>();
+        Map<Method, Property> byWriteMethod = new HashMap<>();
+        Map<String, Method> readMethods = new HashMap<>();
+        Map<String, Method> writeMethods = new HashMap<>();
+        Property[] properties = new Property[all.size()];
+        int size = 0;
+        for (Property p : all) {
+            boolean bean = p.ordinal >= 0;
+            if (bean) {
+                properties[size++] = p;
+            }
+            byName.put(p.name, p);
+            if (p.readMethod != null) {
+                byReadName.putIfAbsent(p.readMethod.getName(), p);
+                byReadMethod.put(p.readMethod, p);
+                if (bean) {
+                    readMethods.put(p.name, p.readMethod);
+                }
+            }
+            if (p.writeMethod != null) {
+                byWriteName.putIfAbsent(p.writeMethod.getName(), p);
+                byWriteMethod.put(p.writeMethod, p);
+                if (bean) {
+                    writeMethods.put(p.name, p.writeMethod);
+                }
+            }
+        }
+        this.properties = Arrays.copyOf(properties, size);
+        this.propertyList = List.of(this.properties);
+        this.byName = byName;
+        this.byReadName = byReadName;
+        this.byWriteName = byWriteName;
+        this.byReadMethod = byReadMethod;
+        this.byWriteMethod = byWriteMethod;
+        this.readMethods = Collections.unmodifiableMap(readMethods);
+        this.writeMethods = Collections.unmodifiableMap(writeMethods);
+    }
+
+    /**
+     * 通过 Introspector 构建索引
+     */
+    private static PropertyIndex introspect(Class<?> type) {
+        PropertyDescriptor[] pds;
+        try {
+            pds = Introspector.getBeanInfo(type).getPropertyDescriptors();
+        } catch (IntrospectionException e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        } finally {
+            // Introspector 的缓存强引用 Class，插件等生命周期较短的 classloader 加载的类 结果已缓存在索引中，不再保留
+            if (!MetadataCache.isAncestor(type.getClassLoader(), PropertyIndex.class.getClassLoader())) {
+                Introspector.flushFromCaches(type);
+            }
+        }
+        List<Property> all = new ArrayList<>(pds.length);
+        int ordinal = 0;
+        for (PropertyDescriptor pd : pds) {
+            boolean bean = !CLASS.equals(pd.getName());
+            all.add(new Property(type, pd.getName(), bean ? ordinal++ : -1, pd.getPropertyType(),
+                    findField(type, pd.getName()), pd.getReadMethod(), pd.getWriteMethod(), null, null));
+        }
+        return new PropertyIndex(type, all);
+    }
+
+    /**
+     * 通过编译期生成的 [类名]$BeanMeta 构建索引，不经过 Introspector
+     * 元数据缺失或与类不一致（如类在生成后被单独修改、属性来自接口的默认方法、父类的泛型属性）时返回 null，由调用方退化为 Introspector
+     */
+    private static PropertyIndex fromMetadata(Class<?> type) {
+        try {
+            Class<?> metaClass = Class.forName(type.getName() + BeanMetadata.SUFFIX, true, type.getClassLoader());
+            BeanMetadata meta = (BeanMetadata) metaClass.getDeclaredConstructor().newInstance();
+            if (meta.getBeanClass() != type) {
+                return null;
+            }
+            List<String> names = meta.getNames();
+            if (!accessorNames(type).equals(new HashSet<>(names))) {
+                return null;
+            }
+            List<Property> all = new ArrayList<>(names.size() + 1);
+            all.add(new Property(type, CLASS, -1, Class.class, null,
+                    Object.class.getMethod("getClass"), null, null, null));
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i);
+                Class<?> propertyType = meta.getTypes().get(i);
+                String read = meta.getReadMethodNames().get(i);
+                String write = meta.getWriteMethodNames().get(i);
+                Method readMethod = read == null ? null : type.getMethod(read);
+                if (readMethod != null && readMethod.getReturnType() != propertyType) {
+                    return null;
+                }
+                all.add(new Property(type, name, i, propertyType, findField(type, name), readMethod,
+                        write == null ? null : type.getMethod(write, propertyType),
+                        meta.getGetters().get(i), meta.getSetters().get(i)));
+            }
+            return new PropertyIndex(type, all);
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 按 JavaBeans 命名规则 由 public 方法推导的属性名称，不包含 class 属性
+     */
+    private static Set<String> accessorNames(Class<?> type) {
+        Set<String> names = new HashSet<>();
+        for (Method m : type.getMethods()) {
+            if (Modifier.isStatic(m.getModifiers())) {
+                continue;
+            }
+            String name = m.getName();
+            int params = m.getParameterCount();
+            Class<?> returnType = m.getReturnType();
+            if (params == 0 && name.length() > 3 && name.startsWith("get") && returnType != void.class) {
+                names.add(Introspector.decapitalize(name.substring(3)));
+            } else if (params == 0 && name.length() > 2 && name.startsWith("is") && returnType == boolean.class) {
+                names.add(Introspector.decapitalize(name.substring(2)));
+            } else if (params == 1 && name.length() > 3 && name.startsWith("set") && returnType == void.class) {
+                names.add(Introspector.decapitalize(name.substring(3)));
+            }
+        }
+        names.remove(CLASS);
+        return names;
+    }
+
+    /**
+     * <h3>
+     * 获取类的属性索引，每个类只构建一次
+     * </h3>
+     * 类标记了 @BeanMeta 时使用编译期生成的元数据，否则通过 Introspector 构建
+     *
+     * @param clazz 类
+     * @return 属性索引
+     */
+    public static PropertyIndex of(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * 属性个数，不包含 class 属性
+     */
+    public int size() {
+        return properties.length;
+    }
+
+    /**
+     * 按 ordinal 获取属性
+     */
+    public Property get(int ordinal) {
+        return properties[ordinal];
+    }
+
+    /**
+     * 所有bean属性，按 ordinal 排序，不包含 class 属性
+     */
+    public List<Property> getProperties() {
+        return propertyList;
+    }
+
+    /**
+     * 根据属性名称获取属性，包含 class 属性
+     */
+    public Property getByName(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * 根据get方法名称获取属性
+     */
+    public Property getByReadName(String methodName) {
+        return byReadName.get(methodName);
+    }
+
+    /**
+     * 根据set方法名称获取属性
+     */
+    public Property getByWriteName(String methodName) {
+        return byWriteName.get(methodName);
+    }
+
+    /**
+     * 根据get方法获取属性，Method 不在索引中时按方法名称查找
+     */
+    public Property getByReadMethod(Method method) {
+        Property p = byReadMethod.get(method);
+        return p != null ? p : byReadName.get(method.getName());
+    }
+
+    /**
+     * 根据set方法获取属性，Method 不在索引中时按方法名称查找
+     */
+    public Property getByWriteMethod(Method method) {
+        Property p = byWriteMethod.get(method);
+        return p != null ? p : byWriteName.get(method.getName());
+    }
+
+    /**
+     * 属性名称 -> get方法，不包含 class 属性，不可修改
+     */
+    public Map<String, Method> getReadMethods() {
+        return readMethods;
+    }
+
+    /**
+     * 属性名称 -> set方法，不包含 class 属性，不可修改
+     */
+    public Map<String, Method> getWriteMethods() {
+        return writeMethods;
+    }
+
+    /**
+     * 从类本身开始 向父类查找 属性对应的字段
+     */
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+                // 继续查找父类
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 单个属性的元数据
+     */
+    public static final class Property {
+
+        private final Class<?> beanClass;
+
+        private final String name;
+
+        private final int ordinal;
+
+        private final Class<?> type;
+
+        private final Field field;
+
+        private final Method readMethod;
+
+        private final Method writeMethod;
+
+        /**
+         * 编译期生成的 get/set 函数，没有 @BeanMeta 元数据时为 null
+         */
+        private final Function<Object, Object> getter;
+
+        private final BiConsumer<Object, Object> setter;
+
+        private Property(Class<?> beanClass, String name, int ordinal, Class<?> type, Field field,
+                         Method readMethod, Method writeMethod,
+                         Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+            this.beanClass = beanClass;
+            this.name = name;
+            this.ordinal = ordinal;
+            this.type = type;
+            this.field = field;
+            this.readMethod = readMethod;
+            this.writeMethod = writeMethod;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        /**
+         * 属性所属的类，即构建索引的类
+         */
+        public Class<?> getBeanClass() {
+            return beanClass;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 属性在索引中的下标，class 属性为 -1
+         */
+        public int getOrdinal() {
+            return ordinal;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * 属性对应的字段，没有同名字段时为 null
+         */
+        public Field getField() {
+            return field;
+        }
+
+        public Method getReadMethod() {
+            return readMethod;
+        }
+
+        public Method getWriteMethod() {
+            return writeMethod;
+        }
+
+        Function<Object, Object> getGeneratedGetter() {
+            return getter;
+        }
+
+        BiConsumer<Object, Object> getGeneratedSetter() {
+            return setter;
+        }
+
+        @Override
+        public String toString() {
+            return "Property{" + name + ": " + (type == null ? null : type.getSimpleName()) + '}';
+        }
+    }
+}
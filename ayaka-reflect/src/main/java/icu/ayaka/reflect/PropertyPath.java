@@ -0,0 +1,179 @@
+package icu.ayaka.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * 多级属性路径
+ * 每一级 get方法 在首次读取时组合为一个方法句柄，中间值为 null 时直接返回 null，不经过 Method.invoke
+ * <blockquote><pre>
+ * {@code PropertyPath<Order, Long> time = PropertyPath.of(Order::getUser)
+ *          .then(User::getCreateTime)
+ *          .then(Date::getTime);
+ *  Long t = time.get(order);
+ *
+ *  PropertyPath<Order, Object> same = PropertyPath.parse(Order.class, "user.createTime.time");
+ * }</pre></blockquote>
+ * 需要极致性能时，可以将 toMethodHandle() 保存到 static final 字段中调用，JIT 会将整个路径内联
+ *
+ * @param <T> 根对象类型
+ * @param <R> 路径末端属性类型
+ * @author Ayaka
+ */
+public final class PropertyPath<T, R> {
+
+    private static final String ERROR_MESSAGE = "[PropertyPath] 属性路径解析异常";
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodHandle IS_NULL;
+
+    private static final MethodHandle RETURN_NULL = MethodHandles.dropArguments(
+            MethodHandles.constant(Object.class, null), 0, Object.class);
+
+    static {
+        try {
+            IS_NULL = MethodHandles.lookup().findStatic(Objects.class, "isNull",
+                    MethodType.methodType(boolean.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final List<PropertyIndex.Property> properties;
+
+    /**
+     * 组合后的方法句柄，签名 (Object)Object，首次读取时生成
+     */
+    private volatile MethodHandle handle;
+
+    private PropertyPath(List<PropertyIndex.Property> properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * <h3>
+     * 以 get方法引用 作为路径的第一级
+     * </h3>
+     *
+     * @param fn  lambda表达式，bean的属性的get方法
+     * @param <T> 根对象类型
+     * @param <R> 属性类型
+     * @return 属性路径
+     */
+    public static <T, R> PropertyPath<T, R> of(SFunction<T, R> fn) {
+        return new PropertyPath<>(List.of(requireReadable(FieldUtils.getProperty(fn), fn)));
+    }
+
+    /**
+     * <h3>
+     * 解析以 . 分隔的属性路径
+     * </h3>
+     *
+     * @param root 根对象类型
+     * @param path 属性路径，如 user.createTime.time
+     * @param <T>  根对象类型
+     * @return 属性路径
+     */
+    public static <T> PropertyPath<T, Object> parse(Class<T> root, String path) {
+        List<PropertyIndex.Property> properties = new ArrayList<>();
+        Class<?> type = root;
+        for (String name : path.split("\\.")) {
+            PropertyIndex.Property p = PropertyIndex.of(type).getByName(name);
+            if (p == null) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + type.getName() + " 不包含属性 " + name);
+            }
+            properties.add(requireReadable(p, path));
+            type = p.getType();
+        }
+        return new PropertyPath<>(Collections.unmodifiableList(properties));
+    }
+
+    /**
+     * <h3>
+     * 追加下一级属性
+     * </h3>
+     *
+     * @param fn  lambda表达式，当前末端属性类型的get方法
+     * @param <V> 下一级属性类型
+     * @return 新的属性路径，当前路径不变
+     */
+    public <V> PropertyPath<T, V> then(SFunction<R, V> fn) {
+        List<PropertyIndex.Property> next = new ArrayList<>(properties);
+        next.add(requireReadable(FieldUtils.getProperty(fn), fn));
+        return new PropertyPath<>(Collections.unmodifiableList(next));
+    }
+
+    /**
+     * 读取路径末端的属性值，根对象 或 任一中间值为 null 时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public R get(T root) {
+        try {
+            return (R) (Object) toMethodHandle().invokeExact((Object) root);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        }
+    }
+
+    public Function<T, R> toFunction() {
+        return this::get;
+    }
+
+    /**
+     * 组合后的方法句柄，签名 (Object)Object
+     */
+    public MethodHandle toMethodHandle() {
+        MethodHandle h = handle;
+        if (h == null) {
+            h = RETURN_NULL;
+            for (int i = properties.size() - 1; i >= 0; i--) {
+                MethodHandle getter = LambdaFactory.handle(properties.get(i).getReadMethod(), GETTER);
+                // x == null ? null : next(getter(x))
+                h = MethodHandles.guardWithTest(IS_NULL, RETURN_NULL,
+                        i == properties.size() - 1 ? getter : MethodHandles.filterReturnValue(getter, h));
+            }
+            handle = h;
+        }
+        return h;
+    }
+
+    /**
+     * 每一级的属性
+     */
+    public List<PropertyIndex.Property> getProperties() {
+        return properties;
+    }
+
+    /**
+     * 路径末端属性的类型
+     */
+    public Class<?> getType() {
+        return properties.get(properties.size() - 1).getType();
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(".");
+        properties.forEach(p -> joiner.add(p.getName()));
+        return joiner.toString();
+    }
+
+    private static PropertyIndex.Property requireReadable(PropertyIndex.Property p, Object source) {
+        Method read = p == null ? null : p.getReadMethod();
+        if (read == null) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + source + " 不是可读的bean属性");
+        }
+        return p;
+    }
+}
@@ -0,0 +1,82 @@
+package icu.ayaka.reflect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 按下标区间拆分批量任务，达到阈值时在 ForkJoinPool.commonPool() 中并行执行
+ * 分片边界按 64 对齐，每个分片独占自己的位图 word
+ *
+ * @author Ayaka
+ */
+final class Ranges {
+
+    private Ranges() {
+    }
+
+    /**
+     * 处理 [from, to) 范围内的元素
+     */
+    @FunctionalInterface
+    interface Task {
+        void run(int from, int to);
+    }
+
+    /**
+     * <h3>
+     * 处理 [0, n) 范围内的元素
+     * </h3>
+     *
+     * @param n         元素个数
+     * @param threshold 并行阈值，小于该数量时在当前线程执行
+     * @param minChunk  最小分片
+     * @param task      任务，不同分片的下标不相交
+     */
+    static void run(int n, int threshold, int minChunk, Task task) {
+        if (n < threshold) {
+            task.run(0, n);
+            return;
+        }
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int chunk = Math.max(minChunk, ((n / (parallelism * 4)) + 63) & ~63);
+        ForkJoinPool.commonPool().invoke(new Action(task, 0, n, chunk));
+    }
+
+    /**
+     * 链表等按下标访问是 O(n) 的，先复制一次
+     */
+    static <T> List<T> randomAccess(List<T> list) {
+        return list instanceof RandomAccess ? list : new ArrayList<>(list);
+    }
+
+    private static final class Action extends RecursiveAction {
+
+        private final Task task;
+
+        private final int from;
+
+        private final int to;
+
+        private final int chunk;
+
+        private Action(Task task, int from, int to, int chunk) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                task.run(from, to);
+                return;
+            }
+            int mid = from + (((to - from) >>> 1) & ~63);
+            invokeAll(new Action(task, from, mid, chunk), new Action(task, mid, to, chunk));
+        }
+    }
+}
@@ -0,0 +1,875 @@
+package icu.ayaka.reflect;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import static icu.ayaka.reflect.Schema.BOOLEAN;
+import static icu.ayaka.reflect.Schema.BYTE;
+import static icu.ayaka.reflect.Schema.CHAR;
+import static icu.ayaka.reflect.Schema.DATE;
+import static icu.ayaka.reflect.Schema.DOUBLE;
+import static icu.ayaka.reflect.Schema.ENUM;
+import static icu.ayaka.reflect.Schema.FLOAT;
+import static icu.ayaka.reflect.Schema.INT;
+import static icu.ayaka.reflect.Schema.LONG;
+import static icu.ayaka.reflect.Schema.SHORT;
+import static icu.ayaka.reflect.Schema.STRING;
+
+/**
+ * 基于内存映射文件的堆外记录存储
+ * 按类的属性生成定长记录布局：每个属性一个定长槽位（按宽度对齐），包装类型 / String / Date / 枚举 共用一个 null 位图，
+ * 字符串存放在单独的追加写 arena 文件中，槽位只保存其位置。数据在 page cache 中，不占用堆，重新打开时不需要加载
+ * <blockquote><pre>
+ * {@code try (RecordStore<User> store = RecordStore.open(User.class, Paths.get("user.rec"))) {
+ *      long index = store.append(user);
+ *      RecordStore<User>.Slot id = store.slot(User::getId);
+ *      long value = id.getLong(index);             // 不创建 User / Long
+ *      id.setLong(index, 2L);
+ *      User copy = store.get(index);               // 需要时再创建 bean
+ *  }
+ * }</pre></blockquote>
+ * 文件：path 保存记录，path + ".arena" 保存字符串；每 1 GB 映射为一段，记录不跨段。
+ * 修改字符串会追加新值，旧值占用的空间不回收。写入不是线程安全的，没有写入时可以并发读取
+ *
+ * @param <T> bean类型
+ * @author Ayaka
+ */
+public final class RecordStore<T> implements Closeable {
+
+    private static final String ERROR_MESSAGE = "[RecordStore] 记录存储异常";
+
+    private static final MetadataCache<Layout> LAYOUTS = new MetadataCache<>("RecordStore", Layout::new);
+
+    private static final long RECORD_MAGIC = 0x41594B5245433031L;
+
+    private static final long ARENA_MAGIC = 0x41594B41524E3031L;
+
+    private static final int SEGMENT_SHIFT = 30;
+
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    /**
+     * 每段开头保留的字节，第一段保存文件头：magic(8) + 指纹(4) + 记录长度(4) + 记录数 / arena 已用字节(8)
+     */
+    private static final int HEADER = 64;
+
+    private static final int SIZE_OFFSET = 16;
+
+    private static final int INITIAL_MAPPING = 1 << 16;
+
+    private final Layout layout;
+
+    private final Region records;
+
+    private final Region arena;
+
+    private final Slot[] slots;
+
+    private final long recordsPerSegment;
+
+    private long size;
+
+    private long arenaUsed;
+
+    private boolean closed;
+
+    @SuppressWarnings("unchecked")
+    private RecordStore(Layout layout, Path path) throws IOException {
+        this.layout = layout;
+        this.recordsPerSegment = (SEGMENT_SIZE - HEADER) / layout.recordSize;
+        this.records = new Region(path);
+        this.arena = new Region(Paths.get(path + ".arena"));
+        try {
+            this.size = records.header(RECORD_MAGIC, layout.fingerprint, layout.recordSize);
+            this.arenaUsed = Math.max(arena.header(ARENA_MAGIC, layout.fingerprint, 0), HEADER);
+            records.ensure(offset(size));
+        } catch (RuntimeException | IOException e) {
+            records.close();
+            arena.close();
+            throw e;
+        }
+        this.slots = (Slot[]) new RecordStore<?>.Slot[layout.properties.length];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot(layout.properties[i]);
+        }
+    }
+
+    /**
+     * <h3>
+     * 打开记录存储，文件不存在时创建
+     * </h3>
+     * 已有的文件必须由同一个布局创建（属性名称、类型一致），否则抛出异常
+     *
+     * @param type bean类型，属性只支持 基本类型及其包装类型、String、Date、枚举
+     * @param path 记录文件，字符串保存在 path + ".arena"
+     * @param <T>  bean类型
+     * @return 记录存储
+     */
+    public static <T> RecordStore<T> open(Class<T> type, Path path) {
+        try {
+            return new RecordStore<>(LAYOUTS.get(type), path);
+        } catch (IOException e) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + path, e);
+        }
+    }
+
+    /**
+     * 记录数
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 每条记录占用的字节数，不包括 arena 中的字符串
+     */
+    public int getRecordSize() {
+        return layout.recordSize;
+    }
+
+    // ================= 记录 ===================
+
+    /**
+     * 追加一条记录
+     *
+     * @return 记录下标
+     */
+    public long append(T bean) {
+        long index = size;
+        try {
+            records.ensure(offset(index + 1));
+        } catch (IOException e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        }
+        // 先写入记录再发布记录数：写入失败时记录数不变，文件头不会计入半条记录
+        size = index + 1;
+        try {
+            set(index, bean);
+        } catch (RuntimeException | Error e) {
+            size = index;
+            throw e;
+        }
+        records.segments[0].putLong(SIZE_OFFSET, size);
+        return index;
+    }
+
+    /**
+     * 用 bean 的属性覆盖一条记录
+     */
+    public void set(long index, T bean) {
+        check(index);
+        for (Slot slot : slots) {
+            slot.write(index, bean);
+        }
+    }
+
+    /**
+     * 读取一条记录，创建新实例
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long index) {
+        return get(index, (T) layout.accessor.newInstance());
+    }
+
+    /**
+     * 读取一条记录写入已有的实例
+     */
+    public T get(long index, T bean) {
+        check(index);
+        for (Slot slot : slots) {
+            slot.read(index, bean);
+        }
+        return bean;
+    }
+
+    /**
+     * <h3>
+     * 属性的槽位
+     * </h3>
+     * 通过槽位直接读写记录中的单个属性，不创建 bean
+     *
+     * @param fn 属性的get方法引用，如 User::getId
+     * @return 槽位
+     */
+    public Slot slot(SFunction<T, ?> fn) {
+        return slot(Column.of(fn).getPropertyName());
+    }
+
+    public Slot slot(String property) {
+        for (Slot slot : slots) {
+            if (slot.property.name.equals(property)) {
+                return slot;
+            }
+        }
+        throw new RuntimeException(ERROR_MESSAGE + "：" + layout.type.getName() + " 没有可存储的属性 " + property);
+    }
+
+    /**
+     * 将修改写回磁盘
+     */
+    public void flush() {
+        records.force();
+        arena.force();
+    }
+
+    /**
+     * 写回并关闭文件，映射的内存由 GC 回收
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            records.close();
+            arena.close();
+        }
+    }
+
+    private void check(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(ERROR_MESSAGE + "：下标 " + index + "，记录数 " + size);
+        }
+    }
+
+    /**
+     * 记录在文件中的位置，记录不跨段
+     */
+    private long offset(long index) {
+        long segment = index / recordsPerSegment;
+        return (segment << SEGMENT_SHIFT) + HEADER + (index - segment * recordsPerSegment) * layout.recordSize;
+    }
+
+    // ================= arena ===================
+
+    /**
+     * 追加字符串：长度(4) + UTF-8，不跨段
+     *
+     * @return 在 arena 文件中的位置
+     */
+    private long putString(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        int need = 4 + bytes.length;
+        if (need > SEGMENT_SIZE - HEADER) {
+            throw new RuntimeException(ERROR_MESSAGE + "：字符串过长 " + bytes.length);
+        }
+        long at = arenaUsed;
+        long segmentEnd = ((at >>> SEGMENT_SHIFT) + 1) << SEGMENT_SHIFT;
+        if (at + need > segmentEnd) {
+            at = segmentEnd + HEADER;
+        }
+        try {
+            arena.ensure(at + need);
+        } catch (IOException e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        }
+        ByteBuffer segment = arena.segments[(int) (at >>> SEGMENT_SHIFT)];
+        int pos = (int) (at & SEGMENT_MASK);
+        segment.putInt(pos, bytes.length);
+        segment.put(pos + 4, bytes);
+        arenaUsed = at + need;
+        arena.segments[0].putLong(SIZE_OFFSET, arenaUsed);
+        return at;
+    }
+
+    private String getString(long at) {
+        ByteBuffer segment = arena.segments[(int) (at >>> SEGMENT_SHIFT)];
+        int pos = (int) (at & SEGMENT_MASK);
+        byte[] bytes = new byte[segment.getInt(pos)];
+        segment.get(pos + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ================= 槽位 ===================
+
+    /**
+     * 记录中一个属性的槽位，按类型提供读写方法；类型不匹配的方法抛出异常
+     */
+    public final class Slot {
+
+        private final Property property;
+
+        private Slot(Property property) {
+            this.property = property;
+        }
+
+        public String getName() {
+            return property.name;
+        }
+
+        public Class<?> getType() {
+            return property.type;
+        }
+
+        /**
+         * 记录所在的段，第一段不需要除法
+         */
+        private ByteBuffer segment(long index) {
+            return records.segments[index < recordsPerSegment ? 0 : (int) (index / recordsPerSegment)];
+        }
+
+        private int position(long index) {
+            return HEADER + (int) (index < recordsPerSegment ? index : index % recordsPerSegment) * layout.recordSize;
+        }
+
+        public boolean isNull(long index) {
+            check(index);
+            int bit = property.nullIndex;
+            return bit >= 0 && (segment(index).get(position(index) + layout.bitmapOffset + (bit >> 3)) & 1 << (bit & 7)) != 0;
+        }
+
+        /**
+         * 读取整数 / 时间毫秒数，null 返回 0
+         */
+        public long getLong(long index) {
+            check(index);
+            ByteBuffer b = segment(index);
+            int p = position(index) + property.offset;
+            switch (property.kind) {
+                case BYTE:
+                    return b.get(p);
+                case SHORT:
+                    return b.getShort(p);
+                case CHAR:
+                    return b.getChar(p);
+                case INT:
+                    return b.getInt(p);
+                case LONG:
+                case DATE:
+                    return b.getLong(p);
+                default:
+                    throw unsupported("long");
+            }
+        }
+
+        public int getInt(long index) {
+            return Math.toIntExact(getLong(index));
+        }
+
+        /**
+         * 读取浮点数，整数属性拓宽为 double，null 返回 0
+         */
+        public double getDouble(long index) {
+            if (property.kind == FLOAT) {
+                check(index);
+                return segment(index).getFloat(position(index) + property.offset);
+            }
+            if (property.kind == DOUBLE) {
+                check(index);
+                return segment(index).getDouble(position(index) + property.offset);
+            }
+            return getLong(index);
+        }
+
+        /**
+         * null 返回 false
+         */
+        public boolean getBoolean(long index) {
+            if (property.kind != BOOLEAN) {
+                throw unsupported("boolean");
+            }
+            check(index);
+            return segment(index).get(position(index) + property.offset) != 0;
+        }
+
+        public String getString(long index) {
+            if (property.kind != STRING) {
+                throw unsupported("String");
+            }
+            return isNull(index) ? null : RecordStore.this.getString(segment(index).getLong(position(index) + property.offset));
+        }
+
+        public Date getDate(long index) {
+            if (property.kind != DATE) {
+                throw unsupported("Date");
+            }
+            return isNull(index) ? null : new Date(getLong(index));
+        }
+
+        /**
+         * 读取为属性类型的值，基本类型装箱
+         */
+        public Object get(long index) {
+            if (isNull(index)) {
+                return null;
+            }
+            switch (property.kind) {
+                case BOOLEAN:
+                    return getBoolean(index);
+                case BYTE:
+                    return (byte) getLong(index);
+                case SHORT:
+                    return (short) getLong(index);
+                case CHAR:
+                    return (char) getLong(index);
+                case INT:
+                    return (int) getLong(index);
+                case LONG:
+                    return getLong(index);
+                case FLOAT:
+                    return (float) getDouble(index);
+                case DOUBLE:
+                    return getDouble(index);
+                case DATE:
+                    return getDate(index);
+                case STRING:
+                    return getString(index);
+                default:
+                    return property.constants[segment(index).getInt(position(index) + property.offset)];
+            }
+        }
+
+        /**
+         * 写入整数 / 时间毫秒数，超出属性类型范围时抛出异常
+         */
+        public void setLong(long index, long v) {
+            check(index);
+            ByteBuffer b = segment(index);
+            int p = position(index);
+            switch (property.kind) {
+                case BYTE:
+                    b.put(p + property.offset, (byte) narrow(v, Byte.MIN_VALUE, Byte.MAX_VALUE));
+                    break;
+                case SHORT:
+                    b.putShort(p + property.offset, (short) narrow(v, Short.MIN_VALUE, Short.MAX_VALUE));
+                    break;
+                case CHAR:
+                    b.putChar(p + property.offset, (char) narrow(v, Character.MIN_VALUE, Character.MAX_VALUE));
+                    break;
+                case INT:
+                    b.putInt(p + property.offset, (int) narrow(v, Integer.MIN_VALUE, Integer.MAX_VALUE));
+                    break;
+                case LONG:
+                case DATE:
+                    b.putLong(p + property.offset, v);
+                    break;
+                default:
+                    throw unsupported("long");
+            }
+            clearNull(b, p);
+        }
+
+        public void setDouble(long index, double v) {
+            check(index);
+            ByteBuffer b = segment(index);
+            int p = position(index);
+            if (property.kind == FLOAT) {
+                b.putFloat(p + property.offset, (float) v);
+            } else if (property.kind == DOUBLE) {
+                b.putDouble(p + property.offset, v);
+            } else {
+                throw unsupported("double");
+            }
+            clearNull(b, p);
+        }
+
+        public void setBoolean(long index, boolean v) {
+            if (property.kind != BOOLEAN) {
+                throw unsupported("boolean");
+            }
+            check(index);
+            ByteBuffer b = segment(index);
+            int p = position(index);
+            b.put(p + property.offset, v ? (byte) 1 : (byte) 0);
+            clearNull(b, p);
+        }
+
+        /**
+         * 写入字符串，每次写入都追加到 arena
+         */
+        public void setString(long index, String v) {
+            if (property.kind != STRING) {
+                throw unsupported("String");
+            }
+            if (v == null) {
+                setNull(index);
+                return;
+            }
+            check(index);
+            long at = putString(v);
+            ByteBuffer b = segment(index);
+            int p = position(index);
+            b.putLong(p + property.offset, at);
+            clearNull(b, p);
+        }
+
+        /**
+         * 置为 null，基本类型属性置为 0
+         */
+        public void setNull(long index) {
+            check(index);
+            ByteBuffer b = segment(index);
+            int p = position(index);
+            for (int i = 0; i < property.width; i++) {
+                b.put(p + property.offset + i, (byte) 0);
+            }
+            int bit = property.nullIndex;
+            if (bit >= 0) {
+                int at = p + layout.bitmapOffset + (bit >> 3);
+                b.put(at, (byte) (b.get(at) | 1 << (bit & 7)));
+            }
+        }
+
+        /**
+         * 写入属性类型的值，null 写入基本类型属性时置为 0
+         */
+        public void set(long index, Object v) {
+            if (v == null) {
+                setNull(index);
+                return;
+            }
+            switch (property.kind) {
+                case BOOLEAN:
+                    setBoolean(index, (Boolean) v);
+                    break;
+                case CHAR:
+                    setLong(index, (Character) v);
+                    break;
+                case FLOAT:
+                case DOUBLE:
+                    setDouble(index, ((Number) v).doubleValue());
+                    break;
+                case DATE:
+                    setLong(index, ((Date) v).getTime());
+                    break;
+                case STRING:
+                    setString(index, (String) v);
+                    break;
+                case ENUM: {
+                    check(index);
+                    ByteBuffer b = segment(index);
+                    int p = position(index);
+                    b.putInt(p + property.offset, ((Enum<?>) v).ordinal());
+                    clearNull(b, p);
+                    break;
+                }
+                default:
+                    setLong(index, ((Number) v).longValue());
+            }
+        }
+
+        private void clearNull(ByteBuffer b, int p) {
+            int bit = property.nullIndex;
+            if (bit >= 0) {
+                int at = p + layout.bitmapOffset + (bit >> 3);
+                b.put(at, (byte) (b.get(at) & ~(1 << (bit & 7))));
+            }
+        }
+
+        private long narrow(long v, long min, long max) {
+            if (v < min || v > max) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + v + " 超出 " + property.name + " 的范围");
+            }
+            return v;
+        }
+
+        private RuntimeException unsupported(String as) {
+            return new RuntimeException(ERROR_MESSAGE + "：" + property.name + "(" + property.type.getName() + ") 不能读写为 " + as);
+        }
+
+        /**
+         * 从 bean 读取属性写入记录
+         */
+        private void write(long index, Object bean) {
+            Property p = property;
+            switch (p.fast) {
+                case LONG:
+                case INT:
+                    setLong(index, p.longGetter.applyAsLong(bean));
+                    break;
+                case DOUBLE:
+                    setDouble(index, p.doubleGetter.applyAsDouble(bean));
+                    break;
+                case BOOLEAN:
+                    setBoolean(index, p.booleanGetter.test(bean));
+                    break;
+                default:
+                    set(index, p.getter.apply(bean));
+            }
+        }
+
+        /**
+         * 从记录读取属性写入 bean，null 不写入基本类型属性
+         */
+        private void read(long index, Object bean) {
+            Property p = property;
+            switch (p.fast) {
+                case LONG:
+                    p.longSetter.accept(bean, getLong(index));
+                    break;
+                case INT:
+                    p.intSetter.accept(bean, (int) getLong(index));
+                    break;
+                case DOUBLE:
+                    p.doubleSetter.accept(bean, getDouble(index));
+                    break;
+                case BOOLEAN:
+                    p.booleanSetter.accept(bean, getBoolean(index));
+                    break;
+                default:
+                    Object v = get(index);
+                    if (v != null || !p.type.isPrimitive()) {
+                        p.setter.accept(bean, v);
+                    }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return property.name + ":" + property.type.getName() + "@" + property.offset;
+        }
+    }
+
+    // ================= 文件 ===================
+
+    /**
+     * 按段映射的文件，段的大小为 SEGMENT_SIZE，最后一段按需倍增
+     */
+    private static final class Region implements Closeable {
+
+        private final Path path;
+
+        private final FileChannel channel;
+
+        private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+        private long mapped;
+
+        private Region(Path path) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        /**
+         * 校验或写入文件头
+         *
+         * @return 文件头中的记录数 / 已用字节
+         */
+        private long header(long magic, int fingerprint, int recordSize) throws IOException {
+            boolean exists = channel.size() > 0;
+            ensure(Math.max(channel.size(), INITIAL_MAPPING));
+            ByteBuffer b = segments[0];
+            if (!exists) {
+                b.putLong(0, magic);
+                b.putInt(8, fingerprint);
+                b.putInt(12, recordSize);
+                b.putLong(SIZE_OFFSET, 0);
+                return 0;
+            }
+            if (b.getLong(0) != magic) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + path + " 不是记录文件");
+            }
+            if (b.getInt(8) != fingerprint || b.getInt(12) != recordSize) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + path + " 的布局与类不一致");
+            }
+            return b.getLong(SIZE_OFFSET);
+        }
+
+        private void ensure(long end) throws IOException {
+            if (end <= mapped) {
+                return;
+            }
+            long size = Math.max(end, Math.max(mapped * 2, INITIAL_MAPPING));
+            int last = (int) ((size - 1) >>> SEGMENT_SHIFT);
+            MappedByteBuffer[] s = Arrays.copyOf(segments, last + 1);
+            for (int i = Math.max(segments.length - 1, 0); i <= last; i++) {
+                long start = (long) i << SEGMENT_SHIFT;
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(SEGMENT_SIZE, size - start));
+                segment.order(ByteOrder.LITTLE_ENDIAN);
+                s[i] = segment;
+            }
+            segments = s;
+            mapped = size;
+        }
+
+        private void force() {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + path, e);
+            }
+        }
+    }
+
+    // ================= 布局 ===================
+
+    /**
+     * 类的记录布局：槽位按宽度降序、名称升序排列以自然对齐，null 位图在最后，记录长度按 8 字节对齐
+     */
+    private static final class Layout {
+
+        private final Class<?> type;
+
+        private final BeanAccessor<?> accessor;
+
+        private final Property[] properties;
+
+        private final int bitmapOffset;
+
+        private final int recordSize;
+
+        private final int fingerprint;
+
+        @SuppressWarnings("unchecked")
+        private Layout(Class<?> type) {
+            this.type = type;
+            this.accessor = BeanAccessor.of(type);
+            List<PropertyAccessor<Object>> list = ((BeanAccessor<Object>) accessor).getAccessors().stream()
+                    .filter(p -> p.isReadable() && p.isWritable())
+                    .collect(Collectors.toList());
+            Property[] properties = new Property[list.size()];
+            for (int i = 0; i < properties.length; i++) {
+                properties[i] = new Property(list.get(i));
+            }
+            Arrays.sort(properties, Comparator.comparingInt((Property p) -> -p.width).thenComparing(p -> p.name));
+            int offset = 0;
+            int nullable = 0;
+            int hash = Schema.FNV_BASIS;
+            for (Property p : properties) {
+                p.offset = offset;
+                offset += p.width;
+                p.nullIndex = p.type.isPrimitive() ? -1 : nullable++;
+                hash = Schema.fnv(hash, p.signature());
+            }
+            this.properties = properties;
+            this.bitmapOffset = offset;
+            this.recordSize = Math.max(8, (offset + (nullable + 7) / 8 + 7) & ~7);
+            this.fingerprint = hash;
+        }
+    }
+
+    private static final class Property {
+
+        private final String name;
+
+        private final Class<?> type;
+
+        private final int kind;
+
+        /**
+         * 枚举常量，非枚举为 null
+         */
+        private final Object[] constants;
+
+        private final int width;
+
+        /**
+         * 不装箱读写的类型，-1 为通过 getter / setter 读写
+         */
+        private final int fast;
+
+        private int offset;
+
+        private int nullIndex;
+
+        private ToLongFunction<Object> longGetter;
+        private ObjLongConsumer<Object> longSetter;
+        private ObjIntConsumer<Object> intSetter;
+        private Predicate<Object> booleanGetter;
+        private ObjBooleanConsumer<Object> booleanSetter;
+        private ToDoubleFunction<Object> doubleGetter;
+        private ObjDoubleConsumer<Object> doubleSetter;
+        private Function<Object, Object> getter;
+        private BiConsumer<Object, Object> setter;
+
+        private Property(PropertyAccessor<Object> p) {
+            this.name = p.getName();
+            this.type = p.getType();
+            this.kind = Schema.kind(type);
+            this.width = width(kind);
+            if (width == 0) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + p + " 不支持的属性类型 " + type.getName());
+            }
+            this.constants = Schema.constants(type, kind);
+            if (p.getProperty().getWriteMethod().getParameterTypes()[0] != type) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + p + " get / set 方法类型不一致");
+            }
+            if (type == long.class) {
+                fast = LONG;
+                longGetter = p.longGetter();
+                longSetter = p.longSetter();
+            } else if (type == int.class) {
+                fast = INT;
+                longGetter = p.longGetter();
+                intSetter = p.intSetter();
+            } else if (type == boolean.class) {
+                fast = BOOLEAN;
+                booleanGetter = p.booleanGetter();
+                booleanSetter = p.booleanSetter();
+            } else if (type == double.class) {
+                fast = DOUBLE;
+                doubleGetter = p.doubleGetter();
+                doubleSetter = p.doubleSetter();
+            } else {
+                fast = -1;
+                getter = p.getter();
+                setter = p.setter();
+            }
+        }
+
+        /**
+         * 布局签名：名称、类型、偏移；枚举槽位保存 ordinal，包括常量名称，常量调整顺序 / 插入后指纹随之变化
+         */
+        private String signature() {
+            return Schema.signature(name, type, constants).append('@').append(offset).append(';').toString();
+        }
+
+        /**
+         * 槽位宽度，不支持的类型返回 0
+         */
+        private static int width(int kind) {
+            switch (kind) {
+                case BOOLEAN:
+                case BYTE:
+                    return 1;
+                case SHORT:
+                case CHAR:
+                    return 2;
+                case INT:
+                case FLOAT:
+                case ENUM:
+                    return 4;
+                case LONG:
+                case DOUBLE:
+                case DATE:
+                case STRING:
+                    return 8;
+                default:
+                    return 0;
+            }
+        }
+    }
+}
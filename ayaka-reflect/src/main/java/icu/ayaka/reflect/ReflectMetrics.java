@@ -0,0 +1,178 @@
+package icu.ayaka.reflect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * FieldUtils 的可选埋点：按解析路径统计 调用次数 / 延迟分布 / 最常解析的类，并发出 JFR 事件
+ * <p>
+ * 通过 -Dayaka.reflect.instrumentation=true 开启，默认关闭。
+ * 开关是 static final 常量，关闭时 JIT 会把埋点代码整体消除，热路径上没有额外开销。
+ * <blockquote><pre>
+ * {@code long start = ReflectMetrics.start();
+ *  ... 解析 ...
+ *  ReflectMetrics.record(ReflectMetrics.Path.LAMBDA, clazz, member, start);
+ * }</pre></blockquote>
+ *
+ * @author Ayaka
+ */
+public final class ReflectMetrics {
+
+    public static final String ENABLED_PROPERTY = "ayaka.reflect.instrumentation";
+
+    private static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /**
+     * 最多统计的类数量，超出后计入 OTHER，避免类名无限增长
+     */
+    private static final int MAX_CLASSES = 1024;
+
+    private static final String OTHER = "<other>";
+
+    private static final Map<Path, LatencyHistogram> HISTOGRAMS = new EnumMap<>(Path.class);
+
+    private static final ConcurrentHashMap<String, LongAdder> CLASSES = new ConcurrentHashMap<>();
+
+    static {
+        for (Path path : Path.values()) {
+            HISTOGRAMS.put(path, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * 解析路径
+     */
+    public enum Path {
+
+        /**
+         * getField / getProperty：lambda -> 属性
+         */
+        LAMBDA,
+
+        /**
+         * 属性名称 / Field -> get/set方法
+         */
+        NAME_TO_METHOD,
+
+        /**
+         * get/set方法 -> Field
+         */
+        METHOD_TO_FIELD
+    }
+
+    private ReflectMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * 开始计时，关闭时返回 0
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * <h3>
+     * 记录一次解析
+     * </h3>
+     *
+     * @param path   解析路径
+     * @param type   解析的类
+     * @param member 解析的成员（属性名 / Method / Field），只在 JFR 事件开启时转为字符串
+     * @param start  start() 的返回值
+     */
+    public static void record(Path path, Class<?> type, Object member, long start) {
+        if (!ENABLED) {
+            return;
+        }
+        long latency = System.nanoTime() - start;
+        HISTOGRAMS.get(path).record(latency);
+        if (type != null) {
+            classCounter(type.getName()).increment();
+        }
+        ResolutionEvent event = new ResolutionEvent();
+        if (event.shouldCommit()) {
+            event.path = path.name();
+            event.beanClass = type;
+            event.member = member instanceof Object[] ? Arrays.toString((Object[]) member) : String.valueOf(member);
+            event.latency = latency;
+            event.commit();
+        }
+    }
+
+    // ================= 查询 ===================
+
+    public static long getCount(Path path) {
+        return HISTOGRAMS.get(path).getCount();
+    }
+
+    public static LatencyHistogram getHistogram(Path path) {
+        return HISTOGRAMS.get(path);
+    }
+
+    /**
+     * 最常解析的类，按次数倒序
+     */
+    public static Map<String, Long> getTopClasses(int limit) {
+        List<Map.Entry<String, LongAdder>> entries = new ArrayList<>(CLASSES.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed());
+        Map<String, Long> top = new LinkedHashMap<>();
+        for (Map.Entry<String, LongAdder> e : entries.subList(0, Math.min(limit, entries.size()))) {
+            top.put(e.getKey(), e.getValue().sum());
+        }
+        return top;
+    }
+
+    /**
+     * 各元数据缓存的命中统计
+     */
+    public static List<MetadataCache.Stats> getCacheStats() {
+        List<MetadataCache.Stats> stats = new ArrayList<>();
+        for (MetadataCache<?> cache : MetadataCache.caches()) {
+            stats.add(cache.stats());
+        }
+        return stats;
+    }
+
+    public static void reset() {
+        HISTOGRAMS.values().forEach(LatencyHistogram::reset);
+        CLASSES.clear();
+    }
+
+    /**
+     * 可读的统计报告
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder("[ReflectMetrics] enabled=").append(ENABLED).append('\n');
+        for (Path path : Path.values()) {
+            sb.append("  ").append(path).append(": ").append(HISTOGRAMS.get(path)).append('\n');
+        }
+        for (MetadataCache.Stats s : getCacheStats()) {
+            sb.append("  ").append(s.getName()).append(": hitRate=")
+                    .append(String.format("%.4f", s.getHitRate())).append(", ").append(s).append('\n');
+        }
+        getTopClasses(10).forEach((name, count) -> sb.append("  ").append(name).append(": ").append(count).append('\n'));
+        return sb.toString();
+    }
+
+    private static LongAdder classCounter(String name) {
+        LongAdder counter = CLASSES.get(name);
+        if (counter != null) {
+            return counter;
+        }
+        if (CLASSES.size() >= MAX_CLASSES) {
+            name = OTHER;
+        }
+        return CLASSES.computeIfAbsent(name, k -> new LongAdder());
+    }
+}
@@ -0,0 +1,34 @@
+package icu.ayaka.reflect;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * FieldUtils 一次解析的 JFR 事件，带调用栈，便于在火焰图中定位调用方
+ *
+ * @author Ayaka
+ */
+@Name("icu.ayaka.reflect.Resolution")
+@Label("Property Resolution")
+@Category({"Ayaka", "Reflect"})
+@Description("FieldUtils 属性 / 方法 解析")
+@StackTrace
+final class ResolutionEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Bean Class")
+    Class<?> beanClass;
+
+    @Label("Member")
+    String member;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+}
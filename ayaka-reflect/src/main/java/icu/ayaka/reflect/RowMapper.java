@@ -0,0 +1,400 @@
+package icu.ayaka.reflect;
+
+import java.beans.ConstructorProperties;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 行 -> bean：把按列排列的 Object[] 行转换为 bean
+ * <p>
+ * 按 (类, 列) 编译一次计划，所有行共用：
+ * 类有能确定参数名称的构造器（record 的规范构造器、@ConstructorProperties、-parameters 编译的参数名）
+ * 且每个参数都有对应的列时，直接调用构造器；否则调用无参构造器后逐列调用 set方法，保留字段的初始值。
+ * 每一列的读取、类型转换与构造器 / set方法 组合为一个方法句柄，转换行时不查找属性、不经过 Method.invoke
+ * <blockquote><pre>
+ * {@code RowMapper<User> mapper = RowMapper.of(User.class, "id", "name", "createTime", "admin");
+ *  User user = mapper.map(new Object[]{1, "ayaka", 1700000000000L, true});   // Integer -> Long，毫秒时间戳 -> Date
+ *  List<User> users = mapper.mapAll(rows);                                   // 超过 PARALLEL_THRESHOLD 时并行
+ *  mapper.forEachBatch(cursor, 10_000, batch -> ...);                         // 流式分批
+ * }</pre></blockquote>
+ * 值的类型与属性类型不一致时按 Coercions 转换（数值之间、数值字符串、毫秒时间戳与 Date），
+ * null 写入基本类型属性时为 0 / false（与 ResultSet.getLong 等一致）。编译结果不可变，线程安全
+ *
+ * @param <T> bean类型
+ * @author Ayaka
+ */
+public final class RowMapper<T> {
+
+    private static final String ERROR_MESSAGE = "[RowMapper] 行转换异常";
+
+    /**
+     * 并行阈值，行数小于该数量时单线程转换
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    private static final int MIN_CHUNK = 1 << 12;
+
+    /**
+     * 单个 set方法 的句柄签名 (Object bean, Object[] row)void
+     */
+    private static final MethodType STEP = MethodType.methodType(void.class, Object.class, Object[].class);
+
+    private static final MethodType PLAN = MethodType.methodType(Object.class, Object[].class);
+
+    private static final MethodHandle COERCE;
+
+    static {
+        try {
+            COERCE = MethodHandles.lookup().findStatic(RowMapper.class, "coerce",
+                    MethodType.methodType(Object.class, Class.class, Object.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Class<T> type;
+
+    private final List<String> columns;
+
+    private final boolean constructorBased;
+
+    /**
+     * (Object[] row)Object
+     */
+    private final MethodHandle plan;
+
+    /**
+     * @param properties 与 columns 对应的属性；record 没有 bean属性，为 null
+     */
+    private RowMapper(Class<T> type, List<String> columns, List<PropertyIndex.Property> properties) {
+        this.type = type;
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.indexOf(columns.get(i)) != i) {
+                throw new RuntimeException(ERROR_MESSAGE + "：列 " + columns.get(i) + " 重复");
+            }
+        }
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+        MethodHandle plan = constructorPlan(type, columns);
+        if (plan == null && properties == null) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + type.getName() + " 没有属性 " + columns);
+        }
+        this.constructorBased = plan != null;
+        this.plan = plan != null ? plan : setterPlan(type, properties);
+    }
+
+    /**
+     * <h3>
+     * 按属性名称指定列
+     * </h3>
+     *
+     * @param type    bean类型
+     * @param columns 属性名称，与行中的下标一一对应
+     * @param <T>     bean类型
+     * @return 编译后的转换计划
+     */
+    public static <T> RowMapper<T> of(Class<T> type, String... columns) {
+        return of(type, Arrays.asList(columns));
+    }
+
+    public static <T> RowMapper<T> of(Class<T> type, List<String> columns) {
+        if (type.isRecord()) {
+            // record 的组件不是 bean属性，按组件名称匹配规范构造器的参数
+            return new RowMapper<>(type, columns, null);
+        }
+        PropertyIndex index = PropertyIndex.of(type);
+        List<PropertyIndex.Property> properties = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            PropertyIndex.Property p = index.getByName(column);
+            if (p == null || p.getOrdinal() < 0) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + type.getName() + " 没有属性 " + column);
+            }
+            properties.add(p);
+        }
+        return new RowMapper<>(type, columns, properties);
+    }
+
+    /**
+     * 按 get方法引用 指定列
+     */
+    @SafeVarargs
+    public static <T> RowMapper<T> of(Class<T> type, SFunction<T, ?>... columns) {
+        List<String> names = new ArrayList<>(columns.length);
+        List<PropertyIndex.Property> properties = new ArrayList<>(columns.length);
+        for (SFunction<T, ?> column : columns) {
+            PropertyIndex.Property p = Column.of(column).getProperty();
+            if (!p.getBeanClass().isAssignableFrom(type)) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + p + " 不属于 " + type.getName());
+            }
+            names.add(p.getName());
+            properties.add(p);
+        }
+        return new RowMapper<>(type, names, properties);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * 列对应的属性名称
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 是否通过全参构造器创建 bean，否则为 无参构造器 + set方法
+     */
+    public boolean isConstructorBased() {
+        return constructorBased;
+    }
+
+    // ================= 转换 ===================
+
+    /**
+     * <h3>
+     * 转换一行
+     * </h3>
+     *
+     * @param row 与列一一对应的值，可以比列多（多出的值被忽略）
+     * @return bean
+     */
+    @SuppressWarnings("unchecked")
+    public T map(Object[] row) {
+        if (row.length < columns.size()) {
+            throw new RuntimeException(ERROR_MESSAGE + "：行只有 " + row.length + " 列，需要 " + columns.size() + " 列");
+        }
+        try {
+            return (T) (Object) plan.invokeExact(row);
+        } catch (ClassCastException e) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + Arrays.toString(row) + " 无法转换为 " + columns, e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        }
+    }
+
+    public List<T> mapAll(List<Object[]> rows) {
+        return mapAll(rows, true);
+    }
+
+    /**
+     * <h3>
+     * 转换多行
+     * </h3>
+     * 行数达到 PARALLEL_THRESHOLD 且 parallel 为 true 时，拆分到 ForkJoinPool.commonPool() 并行转换，结果顺序与行顺序一致
+     *
+     * @param rows     行，不能包含 null
+     * @param parallel 是否允许并行
+     * @return 固定大小的 List
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> mapAll(List<Object[]> rows, boolean parallel) {
+        List<Object[]> src = Ranges.randomAccess(rows);
+        Object[] out = new Object[src.size()];
+        Ranges.run(out.length, parallel ? PARALLEL_THRESHOLD : Integer.MAX_VALUE, MIN_CHUNK, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = map(src.get(i));
+            }
+        });
+        return (List<T>) Arrays.asList(out);
+    }
+
+    /**
+     * <h3>
+     * 流式分批转换
+     * </h3>
+     * 每次从 rows 中取出 batchSize 行转换后交给 sink，适合逐批读取的游标；每批是新的 List，sink 可以保留
+     *
+     * @param rows      行
+     * @param batchSize 每批行数
+     * @param sink      接收每批 bean
+     * @return 总行数
+     */
+    public long forEachBatch(Iterator<Object[]> rows, int batchSize, Consumer<? super List<T>> sink) {
+        if (batchSize <= 0) {
+            throw new RuntimeException(ERROR_MESSAGE + "：batchSize 必须大于 0");
+        }
+        long total = 0;
+        List<Object[]> batch = new ArrayList<>(Math.min(batchSize, 1 << 16));
+        while (rows.hasNext()) {
+            batch.add(rows.next());
+            if (batch.size() == batchSize || !rows.hasNext()) {
+                sink.accept(mapAll(batch));
+                total += batch.size();
+                batch.clear();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "RowMapper{" + type.getName() + columns + (constructorBased ? ", constructor}" : ", setter}");
+    }
+
+    // ================= 计划 ===================
+
+    /**
+     * <h3>
+     * 构造器计划
+     * </h3>
+     * 只使用能证明 参数 -> 属性 对应关系的构造器：record 的规范构造器、@ConstructorProperties 标注的构造器、
+     * 用 -parameters 编译保留了参数名的构造器。
+     * 参数类型序列相同但顺序不同的手写构造器（如 (String email, String name)）无法按位置推断，不使用。
+     * 参数与列必须一一对应：列只覆盖部分参数时不用零值补齐，否则会覆盖字段的初始值
+     *
+     * @return 没有可用的构造器时返回 null，由调用方使用 set方法 计划
+     */
+    private static MethodHandle constructorPlan(Class<?> type, List<String> columns) {
+        if (Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            positions.put(columns.get(i), i);
+        }
+        Constructor<?> constructor = null;
+        List<String> names = null;
+        if (type.isRecord()) {
+            RecordComponent[] components = type.getRecordComponents();
+            Class<?>[] types = new Class<?>[components.length];
+            names = new ArrayList<>(components.length);
+            for (int i = 0; i < components.length; i++) {
+                names.add(components[i].getName());
+                types[i] = components[i].getType();
+            }
+            if (!covers(names, positions)) {
+                // record 没有 set方法，只能通过规范构造器创建
+                throw new RuntimeException(ERROR_MESSAGE + "：" + type.getName() + " 的列必须包含所有 record 组件 " + names);
+            }
+            try {
+                constructor = type.getDeclaredConstructor(types);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        } else {
+            for (Constructor<?> c : type.getDeclaredConstructors()) {
+                List<String> parameters = parameterNames(c);
+                if (parameters != null && covers(parameters, positions)) {
+                    constructor = c;
+                    names = parameters;
+                    break;
+                }
+            }
+            if (constructor == null) {
+                return null;
+            }
+        }
+        Class<?>[] types = constructor.getParameterTypes();
+        MethodHandle[] filters = new MethodHandle[types.length];
+        for (int i = 0; i < filters.length; i++) {
+            filters[i] = read(positions.get(names.get(i)), types[i]);
+        }
+        MethodHandle ctor = LambdaFactory.handle(constructor, MethodType.methodType(Object.class, types));
+        // (Object[] row, Object[] row, ...)Object -> (Object[] row)Object
+        MethodHandle h = MethodHandles.filterArguments(ctor, 0, filters);
+        return MethodHandles.permuteArguments(h, PLAN, new int[filters.length]);
+    }
+
+    /**
+     * 每个参数都有对应的列，且每一列都是参数
+     */
+    private static boolean covers(List<String> parameters, Map<String, Integer> positions) {
+        return parameters.size() == positions.size() && positions.keySet().containsAll(parameters);
+    }
+
+    /**
+     * 构造器参数对应的属性名称：@ConstructorProperties 或 -parameters 保留的参数名，都没有时返回 null
+     */
+    private static List<String> parameterNames(Constructor<?> constructor) {
+        if (constructor.isSynthetic() || constructor.getParameterCount() == 0) {
+            return null;
+        }
+        ConstructorProperties annotation = constructor.getAnnotation(ConstructorProperties.class);
+        if (annotation != null) {
+            String[] names = annotation.value();
+            return names.length == constructor.getParameterCount() ? Arrays.asList(names) : null;
+        }
+        List<String> names = new ArrayList<>(constructor.getParameterCount());
+        for (Parameter p : constructor.getParameters()) {
+            if (!p.isNamePresent()) {
+                return null;
+            }
+            names.add(p.getName());
+        }
+        return names;
+    }
+
+    /**
+     * 无参构造器 + set方法 计划
+     */
+    private static MethodHandle setterPlan(Class<?> type, List<PropertyIndex.Property> properties) {
+        Constructor<?> constructor;
+        try {
+            constructor = type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(ERROR_MESSAGE + "：" + type.getName() + " 没有可确定参数名称的构造器，也没有无参构造器");
+        }
+        List<MethodHandle> steps = new ArrayList<>(properties.size());
+        for (int i = 0; i < properties.size(); i++) {
+            PropertyIndex.Property p = properties.get(i);
+            Method write = p.getWriteMethod();
+            if (write == null) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + p + " 没有set方法");
+            }
+            Class<?> param = write.getParameterTypes()[0];
+            MethodHandle set = LambdaFactory.handle(write, MethodType.methodType(void.class, Object.class, param));
+            steps.add(MethodHandles.filterArguments(set, 1, read(i, param)));
+        }
+        // (Object bean, Object[] row)Object：执行所有 set方法 后返回 bean
+        MethodHandle body = MethodHandles.foldArguments(
+                MethodHandles.dropArguments(MethodHandles.identity(Object.class), 1, Object[].class),
+                LambdaFactory.combine(steps, STEP));
+        MethodHandle newInstance = LambdaFactory.handle(constructor, MethodType.methodType(Object.class));
+        return MethodHandles.foldArguments(body, MethodHandles.dropArguments(newInstance, 0, Object[].class));
+    }
+
+    /**
+     * (Object[] row)type：读取第 index 列并转换为 type
+     */
+    private static MethodHandle read(int index, Class<?> type) {
+        MethodHandle get = MethodHandles.insertArguments(MethodHandles.arrayElementGetter(Object[].class), 1, index);
+        Object nullValue = type.isPrimitive() ? zero(type) : null;
+        MethodHandle coerce = MethodHandles.insertArguments(COERCE, 0, LambdaFactory.wrap(type), nullValue);
+        return MethodHandles.filterReturnValue(get, coerce.asType(MethodType.methodType(type, Object.class)));
+    }
+
+    private static Object zero(Class<?> type) {
+        try {
+            return MethodHandles.zero(type).invoke();
+        } catch (Throwable e) {
+            throw new RuntimeException(ERROR_MESSAGE, e);
+        }
+    }
+
+    /**
+     * 值已经是属性类型时原样返回（不分配），否则按 Coercions 转换
+     */
+    private static Object coerce(Class<?> wrapper, Object nullValue, Object value) {
+        if (value == null) {
+            return nullValue;
+        }
+        return wrapper.isInstance(value) ? value : Coercions.coerce(value, wrapper);
+    }
+}
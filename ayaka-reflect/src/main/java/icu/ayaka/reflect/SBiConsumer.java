@@ -0,0 +1,11 @@
+package icu.ayaka.reflect;
+
+import java.io.Serializable;
+import java.util.function.BiConsumer;
+
+/**
+ * SBiConsumer代替BiConsumer，获取序列化能力，用于传入 set方法引用，如 User::setName
+ */
+@FunctionalInterface
+public interface SBiConsumer<T, V> extends BiConsumer<T, V>, Serializable {
+}
@@ -0,0 +1,117 @@
+package icu.ayaka.reflect;
+
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * 二进制格式（BeanCodec、RecordStore）共用的属性类型分类与 schema 指纹
+ * 两种格式按同一套规则识别属性类型、生成签名、计算指纹，修改时不会各自漂移
+ *
+ * @author Ayaka
+ */
+final class Schema {
+
+    static final int BOOLEAN = 0;
+    static final int BYTE = 1;
+    static final int SHORT = 2;
+    static final int CHAR = 3;
+    static final int INT = 4;
+    static final int LONG = 5;
+    static final int FLOAT = 6;
+    static final int DOUBLE = 7;
+    static final int STRING = 8;
+    static final int DATE = 9;
+    static final int ENUM = 10;
+    static final int BIG_INTEGER = 11;
+    static final int BIG_DECIMAL = 12;
+    static final int BEAN = 13;
+
+    /**
+     * FNV-1a 32 位初始值
+     */
+    static final int FNV_BASIS = 0x811C9DC5;
+
+    private static final int FNV_PRIME = 0x01000193;
+
+    private Schema() {
+    }
+
+    /**
+     * <h3>
+     * 属性类型分类
+     * </h3>
+     * 基本类型与其包装类型属于同一类；非 JDK 的具体类归为 BEAN
+     *
+     * @param type 属性类型
+     * @return 分类，不支持的类型（数组、接口、抽象类、其他 JDK 类型）返回 -1
+     */
+    static int kind(Class<?> type) {
+        Class<?> t = LambdaFactory.wrap(type);
+        if (t == Boolean.class) {
+            return BOOLEAN;
+        } else if (t == Byte.class) {
+            return BYTE;
+        } else if (t == Short.class) {
+            return SHORT;
+        } else if (t == Character.class) {
+            return CHAR;
+        } else if (t == Integer.class) {
+            return INT;
+        } else if (t == Long.class) {
+            return LONG;
+        } else if (t == Float.class) {
+            return FLOAT;
+        } else if (t == Double.class) {
+            return DOUBLE;
+        } else if (t == String.class) {
+            return STRING;
+        } else if (t == Date.class) {
+            return DATE;
+        } else if (t.isEnum()) {
+            return ENUM;
+        } else if (t == BigInteger.class) {
+            return BIG_INTEGER;
+        } else if (t == BigDecimal.class) {
+            return BIG_DECIMAL;
+        } else if (!t.isArray() && !t.isInterface() && !Modifier.isAbstract(t.getModifiers())
+                && !t.getName().startsWith("java.")) {
+            return BEAN;
+        }
+        return -1;
+    }
+
+    /**
+     * 枚举常量，其他类型返回 null；构建 schema 时获取一次，读写时不再复制常量数组
+     */
+    static Object[] constants(Class<?> type, int kind) {
+        return kind == ENUM ? type.getEnumConstants() : null;
+    }
+
+    /**
+     * 属性签名：名称:类型，枚举追加常量名称（按 ordinal 顺序），常量调整顺序 / 插入后签名随之变化
+     *
+     * @param constants 枚举常量，非枚举为 null
+     * @return 可以继续追加格式相关内容（如偏移）的签名
+     */
+    static StringBuilder signature(String name, Class<?> type, Object[] constants) {
+        StringBuilder sb = new StringBuilder(name).append(':').append(type.getName());
+        if (constants != null) {
+            for (Object c : constants) {
+                sb.append(',').append(((Enum<?>) c).name());
+            }
+        }
+        return sb;
+    }
+
+    /**
+     * 在 hash 之后串联 s 的 FNV-1a 哈希，从 FNV_BASIS 开始
+     */
+    static int fnv(int hash, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            hash = (hash ^ s.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
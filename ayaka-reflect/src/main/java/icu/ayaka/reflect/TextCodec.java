@@ -0,0 +1,257 @@
+package icu.ayaka.reflect;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * 文本格式的字节级编解码：整数、ISO-8601 时间、UTF-8 字符串
+ * 直接读写 byte[]，不经过 String 拼接与 DateFormat
+ *
+ * @author Ayaka
+ */
+final class TextCodec {
+
+    static final byte[] TRUE = bytes("true");
+
+    static final byte[] FALSE = bytes("false");
+
+    static final byte[] NULL = bytes("null");
+
+    private static final byte[] MIN_LONG = bytes(Long.toString(Long.MIN_VALUE));
+
+    private static final byte[] HEX = bytes("0123456789abcdef");
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    /**
+     * 0000-01-01 与 9999-12-31 对应的毫秒，超出范围的时间写为毫秒数
+     */
+    private static final long MIN_ISO_MILLIS = -62_167_219_200_000L;
+
+    private static final long MAX_ISO_MILLIS = 253_402_300_799_999L;
+
+    /**
+     * 整数最长 20 字节，ISO 时间 24 字节
+     */
+    static final int MAX_NUMBER_LENGTH = 24;
+
+    private TextCodec() {
+    }
+
+    static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // ================= 写入 ===================
+
+    /**
+     * 写入十进制整数，调用方保证剩余空间不少于 MAX_NUMBER_LENGTH
+     *
+     * @return 写入后的位置
+     */
+    static int putLong(byte[] b, int pos, long v) {
+        if (v == Long.MIN_VALUE) {
+            System.arraycopy(MIN_LONG, 0, b, pos, MIN_LONG.length);
+            return pos + MIN_LONG.length;
+        }
+        if (v < 0) {
+            b[pos++] = '-';
+            v = -v;
+        }
+        int end = pos + digits(v);
+        for (int i = end - 1; ; i--) {
+            b[i] = (byte) ('0' + v % 10);
+            v /= 10;
+            if (v == 0) {
+                break;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * 写入 UTC 时间 yyyy-MM-ddTHH:mm:ss.SSSZ，调用方保证剩余空间不少于 MAX_NUMBER_LENGTH
+     *
+     * @return 写入后的位置
+     */
+    static int putDate(byte[] b, int pos, long millis) {
+        if (millis < MIN_ISO_MILLIS || millis > MAX_ISO_MILLIS) {
+            return putLong(b, pos, millis);
+        }
+        long days = Math.floorDiv(millis, MILLIS_PER_DAY);
+        int ms = (int) Math.floorMod(millis, MILLIS_PER_DAY);
+        // Howard Hinnant, civil_from_days
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yoe + era * 400 + (month <= 2 ? 1 : 0));
+        put(b, pos, year, 4);
+        b[pos + 4] = '-';
+        put(b, pos + 5, month, 2);
+        b[pos + 7] = '-';
+        put(b, pos + 8, day, 2);
+        b[pos + 10] = 'T';
+        put(b, pos + 11, ms / 3_600_000, 2);
+        b[pos + 13] = ':';
+        put(b, pos + 14, ms / 60_000 % 60, 2);
+        b[pos + 16] = ':';
+        put(b, pos + 17, ms / 1000 % 60, 2);
+        b[pos + 19] = '.';
+        put(b, pos + 20, ms % 1000, 3);
+        b[pos + 23] = 'Z';
+        return pos + 24;
+    }
+
+    /**
+     * JSON 字符串中需要转义的字符写为 \\uXXXX，调用方保证剩余空间不少于 6
+     *
+     * @return 写入后的位置
+     */
+    static int putUnicodeEscape(byte[] b, int pos, char c) {
+        b[pos] = '\\';
+        b[pos + 1] = 'u';
+        b[pos + 2] = HEX[c >> 12 & 0xF];
+        b[pos + 3] = HEX[c >> 8 & 0xF];
+        b[pos + 4] = HEX[c >> 4 & 0xF];
+        b[pos + 5] = HEX[c & 0xF];
+        return pos + 6;
+    }
+
+    /**
+     * 写入一个字符的 UTF-8 编码，surrogate 对由调用方合并为 codePoint，调用方保证剩余空间不少于 4
+     *
+     * @return 写入后的位置
+     */
+    static int putCodePoint(byte[] b, int pos, int cp) {
+        if (cp < 0x80) {
+            b[pos++] = (byte) cp;
+        } else if (cp < 0x800) {
+            b[pos++] = (byte) (0xC0 | cp >> 6);
+            b[pos++] = (byte) (0x80 | cp & 0x3F);
+        } else if (cp < 0x10000) {
+            b[pos++] = (byte) (0xE0 | cp >> 12);
+            b[pos++] = (byte) (0x80 | cp >> 6 & 0x3F);
+            b[pos++] = (byte) (0x80 | cp & 0x3F);
+        } else {
+            b[pos++] = (byte) (0xF0 | cp >> 18);
+            b[pos++] = (byte) (0x80 | cp >> 12 & 0x3F);
+            b[pos++] = (byte) (0x80 | cp >> 6 & 0x3F);
+            b[pos++] = (byte) (0x80 | cp & 0x3F);
+        }
+        return pos;
+    }
+
+    private static void put(byte[] b, int pos, int v, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            b[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+    }
+
+    private static int digits(long v) {
+        int n = 1;
+        while (v >= 10) {
+            v /= 10;
+            n++;
+        }
+        return n;
+    }
+
+    // ================= 读取 ===================
+
+    /**
+     * 解析十进制整数 [from, to)
+     */
+    static long parseLong(byte[] b, int from, int to) {
+        if (from >= to) {
+            throw new NumberFormatException("empty");
+        }
+        boolean negative = b[from] == '-';
+        int i = negative || b[from] == '+' ? from + 1 : from;
+        if (i >= to || to - i > 19) {
+            // 超过 19 位可能溢出，交给 Long.parseLong 判断
+            return Long.parseLong(new String(b, from, to - from, StandardCharsets.US_ASCII));
+        }
+        long v = 0;
+        for (; i < to; i++) {
+            int d = b[i] - '0';
+            if (d < 0 || d > 9) {
+                throw new NumberFormatException(new String(b, from, to - from, StandardCharsets.UTF_8));
+            }
+            v = v * 10 - d;
+        }
+        if (v > 0 || (!negative && v == Long.MIN_VALUE)) {
+            throw new NumberFormatException(new String(b, from, to - from, StandardCharsets.US_ASCII));
+        }
+        return negative ? v : -v;
+    }
+
+    static double parseDouble(byte[] b, int from, int to) {
+        return Double.parseDouble(new String(b, from, to - from, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * true / 1 为 true，其余为 false
+     */
+    static boolean parseBoolean(byte[] b, int from, int to) {
+        int n = to - from;
+        if (n == 1) {
+            return b[from] == '1';
+        }
+        return n == 4 && (b[from] | 0x20) == 't' && (b[from + 1] | 0x20) == 'r'
+                && (b[from + 2] | 0x20) == 'u' && (b[from + 3] | 0x20) == 'e';
+    }
+
+    /**
+     * 解析时间：毫秒数 / yyyy-MM-ddTHH:mm:ss[.SSS]Z，其他 ISO-8601 格式交给 Instant.parse
+     */
+    static long parseDate(byte[] b, int from, int to) {
+        int n = to - from;
+        if (isNumber(b, from, to)) {
+            return parseLong(b, from, to);
+        }
+        if ((n == 20 || n == 24) && b[from + 4] == '-' && b[from + 10] == 'T' && b[to - 1] == 'Z') {
+            int year = (int) parseLong(b, from, from + 4);
+            int month = (int) parseLong(b, from + 5, from + 7);
+            int day = (int) parseLong(b, from + 8, from + 10);
+            long millis = parseLong(b, from + 11, from + 13) * 3_600_000L
+                    + parseLong(b, from + 14, from + 16) * 60_000L
+                    + parseLong(b, from + 17, from + 19) * 1000L
+                    + (n == 24 ? parseLong(b, from + 20, from + 23) : 0);
+            return daysFromCivil(year, month, day) * MILLIS_PER_DAY + millis;
+        }
+        return Instant.parse(new String(b, from, n, StandardCharsets.US_ASCII)).toEpochMilli();
+    }
+
+    private static boolean isNumber(byte[] b, int from, int to) {
+        if (from < to && b[from] == '-') {
+            from++;
+        }
+        if (from >= to) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (b[i] < '0' || b[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Howard Hinnant, days_from_civil
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+}
@@ -0,0 +1,718 @@
+package icu.ayaka.reflect;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+
+/**
+ * 编译后的 bean 校验
+ * <p>
+ * 约束按 get方法引用 声明，build 时每条规则编译为一次属性读取（生成的访问器，不经过 Method.invoke）加一组预编译的检查，
+ * 整个校验器是一个扁平的检查数组；只有范围约束的基本类型属性通过基本类型 getter 读取，不装箱。
+ * 同一属性的约束按声明顺序检查，第一个不满足的约束即为该属性的违规，其余约束跳过（如 notNull 不满足时不再检查格式）；
+ * 值为 null 时只有 notNull 会违规，其余约束视为满足
+ * <blockquote><pre>
+ * {@code private static final Validator<User> VALIDATOR = Validator.builder(User.class)
+ *          .rule(User::getName).notNull().notBlank().length(1, 32)
+ *          .rule(User::getEmail).notNull().matches("^[\\w.+-]+@[\\w-]+(\\.[\\w-]+)+$")
+ *          .rule(User::getPassword).length(6, 64).message("密码长度为 6 到 64 位")
+ *          .build();
+ *
+ *  boolean ok = VALIDATOR.isValid(user);                       // 遇到第一个违规即返回
+ *  Validator.Violations violations = new Validator.Violations();  // 可复用
+ *  VALIDATOR.validateAll(users, violations, 100);               // 最多收集 100 个违规
+ *  for (int i = 0; i < violations.size(); i++) {
+ *      log.warn("第 {} 个用户 {}", violations.index(i), violations.get(i));
+ *  }
+ * }</pre></blockquote>
+ * 编译结果不可变，线程安全；Violations 不是线程安全的
+ *
+ * @param <T> bean类型
+ * @author Ayaka
+ */
+public final class Validator<T> {
+
+    private static final String ERROR_MESSAGE = "[Validator] 校验异常";
+
+    private final Class<T> type;
+
+    private final Check<T>[] checks;
+
+    private Validator(Class<T> type, Check<T>[] checks) {
+        this.type = type;
+        this.checks = checks;
+    }
+
+    public static <T> Builder<T> builder(Class<T> type) {
+        return new Builder<>(type);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    // ================= 校验 ===================
+
+    /**
+     * 是否满足所有约束，遇到第一个违规即返回
+     */
+    public boolean isValid(T bean) {
+        for (Check<T> check : checks) {
+            if (check.test(bean) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 校验单个 bean，返回所有违规（每个属性最多一个）
+     */
+    public List<Violation> validate(T bean) {
+        Violations violations = new Violations();
+        validate(bean, violations);
+        return violations.toList();
+    }
+
+    /**
+     * <h3>
+     * 校验单个 bean
+     * </h3>
+     *
+     * @param bean       bean
+     * @param violations 违规追加到末尾，index 为 0
+     * @return 是否满足所有约束
+     */
+    public boolean validate(T bean, Violations violations) {
+        return validate(bean, 0, violations, Integer.MAX_VALUE);
+    }
+
+    public boolean validateAll(List<? extends T> beans, Violations violations) {
+        return validateAll(beans, violations, Integer.MAX_VALUE);
+    }
+
+    /**
+     * <h3>
+     * 批量校验
+     * </h3>
+     * 违规数量达到 limit 时立即停止（limit 为 1 时即第一个违规就停止）
+     *
+     * @param beans      bean，不能包含 null
+     * @param violations 先清空，再追加违规，index 为 bean 在 beans 中的下标
+     * @param limit      最多收集的违规数量，不能小于 1
+     * @return 是否所有 bean 都满足约束
+     */
+    public boolean validateAll(List<? extends T> beans, Violations violations, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException(ERROR_MESSAGE + "：limit 必须大于 0，当前为 " + limit);
+        }
+        violations.clear();
+        List<? extends T> src = Ranges.randomAccess(beans);
+        for (int i = 0, n = src.size(); i < n && violations.size < limit; i++) {
+            validate(src.get(i), i, violations, limit);
+        }
+        return violations.size == 0;
+    }
+
+    private boolean validate(T bean, int index, Violations violations, int limit) {
+        boolean valid = true;
+        for (Check<T> check : checks) {
+            int failed = check.test(bean);
+            if (failed >= 0) {
+                valid = false;
+                violations.add(index, check, failed, bean);
+                if (violations.size >= limit) {
+                    break;
+                }
+            }
+        }
+        return valid;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Validator{").append(type.getName());
+        for (Check<T> check : checks) {
+            sb.append(", ").append(check.property).append(Arrays.toString(check.codes));
+        }
+        return sb.append('}').toString();
+    }
+
+    // ================= 违规 ===================
+
+    /**
+     * <h3>
+     * 可复用的违规缓冲区
+     * </h3>
+     * 违规按 (下标, 检查, 约束) 保存在数组中，不为每个违规创建对象；违规的值在读取时重新从 bean 中读取
+     */
+    public static final class Violations {
+
+        private int size;
+
+        private int[] indexes = new int[16];
+
+        private Check<?>[] checks = new Check<?>[16];
+
+        private int[] constraints = new int[16];
+
+        private Object[] beans = new Object[16];
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * 清空，保留容量；同时释放对 bean 的引用
+         */
+        public void clear() {
+            Arrays.fill(beans, 0, size, null);
+            size = 0;
+        }
+
+        /**
+         * 违规的 bean 在批量校验中的下标
+         */
+        public int index(int i) {
+            return indexes[check(i)];
+        }
+
+        public String property(int i) {
+            return checks[check(i)].property;
+        }
+
+        /**
+         * 约束名称，如 notNull、length、matches
+         */
+        public String code(int i) {
+            return checks[check(i)].codes[constraints[i]];
+        }
+
+        public String message(int i) {
+            return checks[check(i)].messages[constraints[i]];
+        }
+
+        /**
+         * 违规的属性值，从 bean 中读取（基本类型装箱）
+         */
+        public Object value(int i) {
+            return checks[check(i)].value(beans[i]);
+        }
+
+        public Violation get(int i) {
+            return new Violation(index(i), property(i), code(i), message(i), value(i));
+        }
+
+        public List<Violation> toList() {
+            List<Violation> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(get(i));
+            }
+            return list;
+        }
+
+        @Override
+        public String toString() {
+            return toList().toString();
+        }
+
+        private int check(int i) {
+            if (i < 0 || i >= size) {
+                throw new IndexOutOfBoundsException("index: " + i + ", size: " + size);
+            }
+            return i;
+        }
+
+        private void add(int index, Check<?> check, int constraint, Object bean) {
+            if (size == indexes.length) {
+                int capacity = size * 2;
+                indexes = Arrays.copyOf(indexes, capacity);
+                checks = Arrays.copyOf(checks, capacity);
+                constraints = Arrays.copyOf(constraints, capacity);
+                beans = Arrays.copyOf(beans, capacity);
+            }
+            indexes[size] = index;
+            checks[size] = check;
+            constraints[size] = constraint;
+            beans[size] = bean;
+            size++;
+        }
+    }
+
+    /**
+     * 一个违规
+     */
+    public static final class Violation {
+
+        private final int index;
+
+        private final String property;
+
+        private final String code;
+
+        private final String message;
+
+        private final Object value;
+
+        private Violation(int index, String property, String code, String message, Object value) {
+            this.index = index;
+            this.property = property;
+            this.code = code;
+            this.message = message;
+            this.value = value;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return property + ": " + message + " (" + value + ")";
+        }
+    }
+
+    // ================= 检查 ===================
+
+    /**
+     * 一个属性的所有约束：读取一次属性，按顺序检查
+     */
+    private abstract static class Check<T> {
+
+        private final String property;
+
+        private final String[] codes;
+
+        private final String[] messages;
+
+        private final Function<T, Object> getter;
+
+        private Check(String property, List<Constraint> constraints, Function<T, Object> getter) {
+            this.property = property;
+            this.codes = constraints.stream().map(c -> c.code).toArray(String[]::new);
+            this.messages = constraints.stream().map(c -> c.message).toArray(String[]::new);
+            this.getter = getter;
+        }
+
+        /**
+         * @return 第一个不满足的约束下标，都满足时返回 -1
+         */
+        abstract int test(T bean);
+
+        @SuppressWarnings("unchecked")
+        private Object value(Object bean) {
+            return getter.apply((T) bean);
+        }
+    }
+
+    /**
+     * 整数基本类型属性的范围约束，不装箱
+     */
+    private static final class LongCheck<T> extends Check<T> {
+
+        private final ToLongFunction<T> reader;
+
+        private final long[] mins;
+
+        private final long[] maxs;
+
+        private LongCheck(PropertyAccessor<T> accessor, List<Constraint> constraints) {
+            super(accessor.getName(), constraints, accessor.getter());
+            this.reader = accessor.longGetter();
+            this.mins = constraints.stream().mapToLong(c -> c.min).toArray();
+            this.maxs = constraints.stream().mapToLong(c -> c.max).toArray();
+        }
+
+        @Override
+        int test(T bean) {
+            long v = reader.applyAsLong(bean);
+            for (int i = 0; i < mins.length; i++) {
+                if (v < mins[i] || v > maxs[i]) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 浮点数基本类型属性的范围约束，不装箱
+     */
+    private static final class DoubleCheck<T> extends Check<T> {
+
+        private final ToDoubleFunction<T> reader;
+
+        private final double[] mins;
+
+        private final double[] maxs;
+
+        private DoubleCheck(PropertyAccessor<T> accessor, List<Constraint> constraints) {
+            super(accessor.getName(), constraints, accessor.getter());
+            this.reader = accessor.doubleGetter();
+            // 没有声明的一端不设上下限
+            this.mins = constraints.stream()
+                    .mapToDouble(c -> c.min == Long.MIN_VALUE ? Double.NEGATIVE_INFINITY : c.min).toArray();
+            this.maxs = constraints.stream()
+                    .mapToDouble(c -> c.max == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : c.max).toArray();
+        }
+
+        @Override
+        int test(T bean) {
+            double v = reader.applyAsDouble(bean);
+            for (int i = 0; i < mins.length; i++) {
+                // NaN 不满足任何范围
+                if (!(v >= mins[i] && v <= maxs[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 其他属性：读取对象后依次检查
+     */
+    private static final class ObjectCheck<T> extends Check<T> {
+
+        private final Function<T, Object> reader;
+
+        private final Predicate<Object>[] tests;
+
+        /**
+         * notNull 约束的下标，没有时为 -1
+         */
+        private final int notNull;
+
+        @SuppressWarnings("unchecked")
+        private ObjectCheck(PropertyAccessor<T> accessor, List<Constraint> constraints) {
+            super(accessor.getName(), constraints, accessor.getter());
+            this.reader = accessor.getter();
+            this.tests = constraints.stream().map(c -> c.test).toArray(Predicate[]::new);
+            int notNull = -1;
+            for (int i = 0; i < constraints.size(); i++) {
+                if (constraints.get(i).test == null) {
+                    notNull = i;
+                    break;
+                }
+            }
+            this.notNull = notNull;
+        }
+
+        @Override
+        int test(T bean) {
+            Object v = reader.apply(bean);
+            if (v == null) {
+                return notNull;
+            }
+            Predicate<Object>[] tests = this.tests;
+            for (int i = 0; i < tests.length; i++) {
+                Predicate<Object> test = tests[i];
+                if (test != null && !test.test(v)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 一个约束；test 为 null 表示 notNull，min / max 只用于范围约束
+     */
+    private static final class Constraint {
+
+        private final String code;
+
+        private String message;
+
+        private final Predicate<Object> test;
+
+        private final long min;
+
+        private final long max;
+
+        private final boolean range;
+
+        private Constraint(String code, String message, Predicate<Object> test) {
+            this(code, message, test, 0, 0, false);
+        }
+
+        private Constraint(String code, String message, Predicate<Object> test, long min, long max, boolean range) {
+            this.code = code;
+            this.message = message;
+            this.test = test;
+            this.min = min;
+            this.max = max;
+            this.range = range;
+        }
+    }
+
+    // ================= Builder ===================
+
+    public static final class Builder<T> {
+
+        private final Class<T> type;
+
+        private final List<Rule<T, ?>> rules = new ArrayList<>();
+
+        private Builder(Class<T> type) {
+            this.type = type;
+        }
+
+        /**
+         * <h3>
+         * 为属性声明约束
+         * </h3>
+         * 同一属性可以声明多条规则，每条规则单独检查
+         *
+         * @param fn  lambda表达式，bean的属性的get方法
+         * @param <V> 属性类型
+         * @return 规则，继续声明约束
+         */
+        public <V> Rule<T, V> rule(SFunction<T, V> fn) {
+            PropertyAccessor<T> accessor = BeanAccessor.accessor(fn);
+            if (!accessor.getProperty().getBeanClass().isAssignableFrom(type)) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + accessor + " 不属于 " + type.getName());
+            }
+            Rule<T, V> rule = new Rule<>(this, accessor);
+            rules.add(rule);
+            return rule;
+        }
+
+        @SuppressWarnings("unchecked")
+        public Validator<T> build() {
+            List<Check<T>> checks = new ArrayList<>(rules.size());
+            for (Rule<T, ?> rule : rules) {
+                if (!rule.constraints.isEmpty()) {
+                    checks.add(rule.compile());
+                }
+            }
+            return new Validator<>(type, (Check<T>[]) checks.toArray(new Check<?>[0]));
+        }
+    }
+
+    /**
+     * 一个属性的约束声明
+     *
+     * @param <T> bean类型
+     * @param <V> 属性类型
+     */
+    public static final class Rule<T, V> {
+
+        private final Builder<T> builder;
+
+        private final PropertyAccessor<T> accessor;
+
+        private final Class<?> type;
+
+        private final List<Constraint> constraints = new ArrayList<>();
+
+        private Rule(Builder<T> builder, PropertyAccessor<T> accessor) {
+            this.builder = builder;
+            this.accessor = accessor;
+            this.type = LambdaFactory.wrap(accessor.getType());
+        }
+
+        /**
+         * 为下一个属性声明约束
+         */
+        public <U> Rule<T, U> rule(SFunction<T, U> fn) {
+            return builder.rule(fn);
+        }
+
+        public Validator<T> build() {
+            return builder.build();
+        }
+
+        public Rule<T, V> notNull() {
+            if (accessor.getType().isPrimitive()) {
+                // 基本类型不会为 null
+                return this;
+            }
+            return add(new Constraint("notNull", "不能为 null", null));
+        }
+
+        /**
+         * 字符串不能只包含空白字符，null 视为满足（与 notNull 组合使用）
+         */
+        public Rule<T, V> notBlank() {
+            requireType(CharSequence.class, "notBlank");
+            return add(new Constraint("notBlank", "不能为空白", v -> !isBlank((CharSequence) v)));
+        }
+
+        /**
+         * 字符串长度在 [min, max] 之间
+         */
+        public Rule<T, V> length(int min, int max) {
+            requireType(CharSequence.class, "length");
+            return add(new Constraint("length", "长度必须在 " + min + " 到 " + max + " 之间", v -> {
+                int length = ((CharSequence) v).length();
+                return length >= min && length <= max;
+            }));
+        }
+
+        /**
+         * 集合、Map、数组的元素个数在 [min, max] 之间
+         */
+        public Rule<T, V> size(int min, int max) {
+            if (!Collection.class.isAssignableFrom(type) && !Map.class.isAssignableFrom(type) && !type.isArray()) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + accessor + " 不能使用 size");
+            }
+            return add(new Constraint("size", "元素个数必须在 " + min + " 到 " + max + " 之间", v -> {
+                int size = v instanceof Collection ? ((Collection<?>) v).size()
+                        : v instanceof Map ? ((Map<?, ?>) v).size() : Array.getLength(v);
+                return size >= min && size <= max;
+            }));
+        }
+
+        /**
+         * 字符串完整匹配正则表达式，正则表达式在声明时编译
+         */
+        public Rule<T, V> matches(String regex) {
+            return matches(Pattern.compile(regex));
+        }
+
+        public Rule<T, V> matches(Pattern pattern) {
+            requireType(CharSequence.class, "matches");
+            return add(new Constraint("matches", "格式不正确", v -> pattern.matcher((CharSequence) v).matches()));
+        }
+
+        public Rule<T, V> min(long min) {
+            return range("min", "不能小于 " + min, min, Long.MAX_VALUE);
+        }
+
+        public Rule<T, V> max(long max) {
+            return range("max", "不能大于 " + max, Long.MIN_VALUE, max);
+        }
+
+        /**
+         * 数值在 [min, max] 之间
+         */
+        public Rule<T, V> range(long min, long max) {
+            return range("range", "必须在 " + min + " 到 " + max + " 之间", min, max);
+        }
+
+        /**
+         * <h3>
+         * 自定义约束
+         * </h3>
+         * 基本类型属性使用自定义约束时按装箱后的值检查
+         *
+         * @param code      约束名称
+         * @param message   违规信息
+         * @param predicate 检查，不会传入 null
+         * @return this
+         */
+        @SuppressWarnings("unchecked")
+        public Rule<T, V> check(String code, String message, Predicate<? super V> predicate) {
+            return add(new Constraint(code, message, v -> ((Predicate<Object>) predicate).test(v)));
+        }
+
+        /**
+         * 修改上一个约束的违规信息
+         */
+        public Rule<T, V> message(String message) {
+            if (constraints.isEmpty()) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + accessor + " 还没有约束");
+            }
+            constraints.get(constraints.size() - 1).message = message;
+            return this;
+        }
+
+        /**
+         * 只支持能精确比较的类型：整数 / 浮点数 的基本类型及其包装类型、BigDecimal、BigInteger
+         */
+        private Rule<T, V> range(String code, String message, long min, long max) {
+            Predicate<Object> test;
+            if (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) {
+                test = v -> {
+                    long l = ((Number) v).longValue();
+                    return l >= min && l <= max;
+                };
+            } else if (type == Double.class || type == Float.class) {
+                double lo = min == Long.MIN_VALUE ? Double.NEGATIVE_INFINITY : min;
+                double hi = max == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : max;
+                // NaN 不满足任何范围
+                test = v -> {
+                    double d = ((Number) v).doubleValue();
+                    return d >= lo && d <= hi;
+                };
+            } else if (type == BigDecimal.class || type == BigInteger.class) {
+                // longValue() 会截断小数、回绕超出 long 的值，按 compareTo 比较
+                BigDecimal lo = min == Long.MIN_VALUE ? null : BigDecimal.valueOf(min);
+                BigDecimal hi = max == Long.MAX_VALUE ? null : BigDecimal.valueOf(max);
+                test = v -> {
+                    BigDecimal d = v instanceof BigDecimal ? (BigDecimal) v : new BigDecimal((BigInteger) v);
+                    return (lo == null || d.compareTo(lo) >= 0) && (hi == null || d.compareTo(hi) <= 0);
+                };
+            } else {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + accessor + " 不是可精确比较的数值，不能使用 " + code);
+            }
+            return add(new Constraint(code, message, test, min, max, true));
+        }
+
+        private void requireType(Class<?> required, String code) {
+            if (!required.isAssignableFrom(type)) {
+                throw new RuntimeException(ERROR_MESSAGE + "：" + accessor + " 不能使用 " + code);
+            }
+        }
+
+        private Rule<T, V> add(Constraint constraint) {
+            constraints.add(constraint);
+            return this;
+        }
+
+        /**
+         * 只有范围约束的基本类型属性使用基本类型 getter，其余读取对象
+         */
+        private Check<T> compile() {
+            Class<?> primitive = accessor.getType();
+            boolean ranges = constraints.stream().allMatch(c -> c.range);
+            if (ranges && primitive.isPrimitive()) {
+                if (primitive == double.class || primitive == float.class) {
+                    return new DoubleCheck<>(accessor, constraints);
+                }
+                return new LongCheck<>(accessor, constraints);
+            }
+            return new ObjectCheck<>(accessor, constraints);
+        }
+
+        private static boolean isBlank(CharSequence s) {
+            for (int i = 0; i < s.length(); i++) {
+                if (!Character.isWhitespace(s.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
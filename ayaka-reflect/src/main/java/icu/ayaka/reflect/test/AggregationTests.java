@@ -0,0 +1,141 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.Aggregation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+public class AggregationTests {
+
+    private static List<User> users(int n) {
+        List<User> users = new ArrayList<>(n);
+        long start = 1_700_000_000_000L;
+        for (int i = 0; i < n; i++) {
+            Long id = i % 100 == 0 ? null : (long) i;
+            users.add(new User(id, "user" + (i % 7), null, null, null, new Date(start + i * 60_000L), i % 3 == 0));
+        }
+        return users;
+    }
+
+    @Test
+    public void groupByTest() {
+        Aggregation<User> byAdmin = Aggregation.builder(User.class)
+                .groupBy(User::isAdmin)
+                .count(User::getId)
+                .sum(User::getId)
+                .min(User::getId)
+                .max(User::getId)
+                .avg(User::getId)
+                .build();
+        System.out.println(byAdmin);
+        Assert.assertEquals(Arrays.asList("count(id)", "sum(id)", "min(id)", "max(id)", "avg(id)"), byAdmin.getLabels());
+
+        List<User> users = users(1000);
+        List<Aggregation.Group> groups = byAdmin.apply(users);
+        groups.forEach(System.out::println);
+        Assert.assertEquals(2, groups.size());
+
+        Map<Boolean, LongSummaryStatistics> expected = users.stream().filter(u -> u.getId() != null)
+                .collect(Collectors.partitioningBy(User::isAdmin, Collectors.summarizingLong(User::getId)));
+        for (Aggregation.Group group : groups) {
+            LongSummaryStatistics stats = expected.get((Boolean) group.getKey());
+            Assert.assertEquals(stats.getCount(), group.get("count(id)"));
+            Assert.assertEquals(stats.getSum(), group.getLong(1));
+            Assert.assertEquals(stats.getMin(), group.get("min(id)"));
+            Assert.assertEquals(stats.getMax(), group.getLong(3));
+            Assert.assertEquals(stats.getAverage(), group.getDouble(4), 1e-9);
+        }
+        // 分组按键排序，分组大小包含 id 为 null 的元素
+        Assert.assertEquals(false, groups.get(0).getKey());
+        Assert.assertEquals(users.size(), groups.get(0).getCount() + groups.get(1).getCount());
+        Assert.assertEquals(users.stream().filter(User::isAdmin).count(), groups.get(1).getCount());
+    }
+
+    @Test
+    public void bucketTest() {
+        // 并行：超过阈值后分片聚合再合并
+        List<User> users = users(Aggregation.PARALLEL_THRESHOLD * 3);
+        users.get(5).setCreateTime(null);
+        Aggregation<User> byDay = Aggregation.builder(User.class)
+                .groupBy(User::getCreateTime, Aggregation.DAY)
+                .max(User::getId)
+                .min(User::getCreateTime)
+                .sum(User::isAdmin)
+                .build();
+        List<Aggregation.Group> groups = byDay.apply(users);
+        groups.forEach(System.out::println);
+
+        Map<Long, List<User>> expected = new TreeMap<>(users.stream().filter(u -> u.getCreateTime() != null)
+                .collect(Collectors.groupingBy(u -> Math.floorDiv(u.getCreateTime().getTime(), Aggregation.DAY) * Aggregation.DAY)));
+        Assert.assertEquals(expected.size() + 1, groups.size());
+        Assert.assertNull(groups.get(0).getKey());
+        Assert.assertEquals(1, groups.get(0).getCount());
+
+        int i = 1;
+        for (Map.Entry<Long, List<User>> e : expected.entrySet()) {
+            Aggregation.Group group = groups.get(i++);
+            List<User> day = e.getValue();
+            Assert.assertEquals(new Date(e.getKey()), group.getKey());
+            Assert.assertEquals(day.size(), group.getCount());
+            Assert.assertEquals(day.stream().filter(u -> u.getId() != null).mapToLong(User::getId).max().getAsLong(), group.getLong(0));
+            Assert.assertEquals(day.stream().map(User::getCreateTime).min(Date::compareTo).get(), group.get(1));
+            Assert.assertEquals(day.stream().filter(User::isAdmin).count(), group.get("sum(admin)"));
+        }
+    }
+
+    @Test
+    public void objectKeyTest() {
+        List<User> users = users(100);
+        users.get(3).setName(null);
+        List<Aggregation.Group> groups = Aggregation.builder(User.class)
+                .groupBy(User::getName)
+                .min(User::getCreateTime)
+                .build()
+                .apply(users);
+        groups.forEach(System.out::println);
+        Assert.assertEquals(8, groups.size());
+        Assert.assertNull(groups.get(0).getKey());
+        Assert.assertEquals("user0", groups.get(1).getKey());
+        Assert.assertEquals(users.get(0).getCreateTime(), groups.get(1).get(0));
+
+        // 基本类型 long 按区间分组，键为区间起点
+        List<Order> orders = new ArrayList<>();
+        for (long amount : new long[]{-5, 3, 9, 10, 25}) {
+            Order order = Order.getTestOrder();
+            order.setAmount(amount);
+            orders.add(order);
+        }
+        List<Aggregation.Group> buckets = Aggregation.builder(Order.class)
+                .groupBy(Order::getAmount, 10)
+                .sum(Order::getAmount)
+                .build()
+                .apply(orders);
+        System.out.println(buckets);
+        Assert.assertEquals(Arrays.asList(-10L, 0L, 10L, 20L), buckets.stream().map(Aggregation.Group::getKey).collect(Collectors.toList()));
+        Assert.assertEquals(12L, buckets.get(1).get(0));
+        Assert.assertTrue(Aggregation.builder(User.class).groupBy(User::isAdmin).build().apply(new ArrayList<>()).isEmpty());
+
+        try {
+            Aggregation.builder(User.class).groupBy(User::getName, 10);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+        try {
+            Aggregation.builder(User.class).groupBy(User::isAdmin).sum(User::getName);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
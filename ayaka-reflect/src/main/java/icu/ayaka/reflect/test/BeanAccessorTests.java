@@ -0,0 +1,60 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.BeanAccessor;
+import icu.ayaka.reflect.ObjBooleanConsumer;
+import icu.ayaka.reflect.PropertyAccessor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+public class BeanAccessorTests {
+
+    @Test
+    public void getterSetterTest() {
+        User user = User.getTestUser();
+        BeanAccessor<User> accessor = BeanAccessor.of(User.class);
+        accessor.getAccessors().forEach(a -> System.out.println(a.getName() + ": " + a.get(user)));
+        System.out.println();
+
+        ToLongFunction<User> id = accessor.longGetter(User::getId);
+        Predicate<User> admin = accessor.booleanGetter(User::isAdmin);
+        Function<User, Object> name = accessor.getter(User::getName);
+        Assert.assertEquals(1L, id.applyAsLong(user));
+        Assert.assertTrue(admin.test(user));
+        Assert.assertEquals("ayaka", name.apply(user));
+
+        ObjLongConsumer<User> setId = accessor.property(User::getId).longSetter();
+        ObjBooleanConsumer<User> setAdmin = accessor.property("admin").booleanSetter();
+        BiConsumer<User, Object> setTime = BeanAccessor.accessor(User::getCreateTime).setter();
+        Date time = new Date(0);
+        setId.accept(user, 521L);
+        setAdmin.accept(user, false);
+        setTime.accept(user, time);
+        Assert.assertEquals(Long.valueOf(521L), user.getId());
+        Assert.assertFalse(user.isAdmin());
+        Assert.assertSame(time, user.getCreateTime());
+        System.out.println(user);
+    }
+
+    @Test
+    public void cacheTest() {
+        // 同一个类 同一个属性 复用生成的函数
+        PropertyAccessor<User> a = BeanAccessor.accessor(User::getName);
+        Assert.assertSame(BeanAccessor.of(User.class), BeanAccessor.of(User::getEmail));
+        Assert.assertSame(a, BeanAccessor.of(User.class).property("name"));
+        Assert.assertSame(a.getter(), a.getter());
+        Assert.assertNull(BeanAccessor.of(User.class).property("class"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void typeMismatchTest() {
+        BeanAccessor.accessor(User::getName).longGetter();
+    }
+}
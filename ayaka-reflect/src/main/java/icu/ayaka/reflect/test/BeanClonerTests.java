@@ -0,0 +1,116 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Department;
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.BeanCloner;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BeanClonerTests {
+
+    @Test
+    public void cloneTest() {
+        BeanCloner<Order> cloner = BeanCloner.of(Order.class);
+        System.out.println(cloner);
+        Assert.assertFalse(cloner.isCyclic());
+        Order order = Order.getTestOrder();
+        Order copy = cloner.clone(order);
+        Assert.assertEquals(order, copy);
+        Assert.assertNotSame(order, copy);
+        Assert.assertNotSame(order.getUser(), copy.getUser());
+        Assert.assertNotSame(order.getCreateTime(), copy.getCreateTime());
+        Assert.assertNotSame(order.getUser().getCreateTime(), copy.getUser().getCreateTime());
+        // 不可变类型共享
+        Assert.assertSame(order.getTitle(), copy.getTitle());
+        Assert.assertSame(order.getId(), copy.getId());
+
+        // 修改副本不影响原对象
+        copy.getCreateTime().setTime(0);
+        copy.getUser().setName("copy");
+        Assert.assertNotEquals(0, order.getCreateTime().getTime());
+        Assert.assertEquals("ayaka", order.getUser().getName());
+
+        Assert.assertNull(cloner.clone(null));
+        Assert.assertEquals(new Order(), cloner.clone(new Order()));
+        Assert.assertEquals(Collections.singletonList(order), cloner.cloneList(Collections.singletonList(order)));
+    }
+
+    @Test
+    public void graphTest() {
+        BeanCloner<Department> cloner = BeanCloner.of(Department.class);
+        System.out.println(cloner);
+        Assert.assertTrue(cloner.isCyclic());
+        Department root = Department.getTestDepartment();
+        Department copy = BeanCloner.deepClone(root);
+
+        Assert.assertNotSame(root, copy);
+        Assert.assertEquals(root.getName(), copy.getName());
+        Assert.assertEquals(2, copy.getChildren().size());
+        // 环：子部门的 parent 指向克隆后的根
+        for (Department child : copy.getChildren()) {
+            Assert.assertSame(copy, child.getParent());
+            Assert.assertFalse(root.getChildren().contains(child));
+        }
+        // 集合、数组、Map 都是新的
+        Assert.assertNotSame(root.getMembers(), copy.getMembers());
+        Assert.assertEquals(root.getMembers(), copy.getMembers());
+        Assert.assertNotSame(root.getMembers().get(0), copy.getMembers().get(0));
+        Assert.assertNotSame(root.getTags(), copy.getTags());
+        Assert.assertEquals(root.getTags(), copy.getTags());
+        Assert.assertNotSame(root.getBudgets(), copy.getBudgets());
+        Assert.assertArrayEquals(root.getBudgets(), copy.getBudgets());
+        Assert.assertEquals(new ArrayList<>(root.getAttributes().keySet()), new ArrayList<>(copy.getAttributes().keySet()));
+        Assert.assertEquals(1, copy.getAttributes().get("level"));
+        // 有环的对象图保留共享引用
+        Assert.assertSame(copy.getMembers().get(0), copy.getAttributes().get("leader"));
+
+        copy.getTags().add("copy");
+        copy.getBudgets()[0] = 0;
+        Assert.assertEquals(2, root.getTags().size());
+        Assert.assertEquals(521, root.getBudgets()[0]);
+    }
+
+    @Test
+    public void containerTest() {
+        Department department = new Department();
+        Map<String, Object> attributes = new HashMap<>();
+        TreeSet<String> sorted = new TreeSet<>(Collections.reverseOrder());
+        sorted.addAll(Arrays.asList("a", "b", "c"));
+        attributes.put("sorted", sorted);
+        attributes.put("array", new User[]{User.getTestUser(), null});
+        attributes.put("nested", new ArrayList<>(Collections.singletonList(new HashMap<>(Collections.singletonMap("k", new int[]{1})))));
+        department.setAttributes(attributes);
+        Department copy = BeanCloner.deepClone(department);
+
+        @SuppressWarnings("unchecked")
+        TreeSet<String> sortedCopy = (TreeSet<String>) copy.getAttributes().get("sorted");
+        Assert.assertNotSame(sorted, sortedCopy);
+        Assert.assertEquals("c", sortedCopy.first());
+        User[] users = (User[]) copy.getAttributes().get("array");
+        Assert.assertEquals(User.getTestUser().getName(), users[0].getName());
+        Assert.assertNull(users[1]);
+        Assert.assertNotSame(((User[]) attributes.get("array"))[0], users[0]);
+        int[] nested = (int[]) ((Map<?, ?>) ((List<?>) copy.getAttributes().get("nested")).get(0)).get("k");
+        Assert.assertArrayEquals(new int[]{1}, nested);
+        Assert.assertNotSame(((Map<?, ?>) ((List<?>) attributes.get("nested")).get(0)).get("k"), nested);
+
+        // 不认识的 JDK 类型
+        attributes.put("counter", new AtomicLong());
+        try {
+            BeanCloner.deepClone(department);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
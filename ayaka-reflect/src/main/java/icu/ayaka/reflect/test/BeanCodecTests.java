@@ -0,0 +1,129 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.common.entry.UserView;
+import icu.ayaka.reflect.BeanCodec;
+import icu.ayaka.reflect.BeanCopier;
+import lombok.Data;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Date;
+
+public class BeanCodecTests {
+
+    /**
+     * 与 User 属性相同，用于和 ObjectOutputStream 对比大小
+     */
+    @Data
+    public static class SerialUser implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private Long id;
+        private String name;
+        private String password;
+        private String nickname;
+        private String email;
+        private Date createTime;
+        private boolean admin;
+    }
+
+    @Test
+    public void roundTripTest() throws IOException {
+        BeanCodec<User> codec = BeanCodec.of(User.class);
+        System.out.println(codec);
+        Assert.assertSame(codec, BeanCodec.of(User.class));
+
+        User user = User.getTestUser();
+        byte[] bytes = codec.encode(user);
+        Assert.assertEquals(codec.sizeOf(user), bytes.length);
+        Assert.assertEquals(user, codec.decode(bytes));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(BeanCopier.copyProperties(user, SerialUser.class));
+        }
+        System.out.println("BeanCodec: " + bytes.length + " 字节, ObjectOutputStream: " + out.size() + " 字节");
+        Assert.assertTrue(bytes.length * 5 < out.size());
+
+        // null、负数、极值、非 ASCII
+        User edge = new User(Long.MIN_VALUE, "中文 😀 \uD800", null, "", null, new Date(-1L), false);
+        User decoded = codec.decode(codec.encode(edge));
+        Assert.assertEquals(Long.valueOf(Long.MIN_VALUE), decoded.getId());
+        Assert.assertEquals("中文 😀 ?", decoded.getName());
+        Assert.assertNull(decoded.getPassword());
+        Assert.assertEquals("", decoded.getNickname());
+        Assert.assertNull(decoded.getEmail());
+        Assert.assertEquals(new Date(-1L), decoded.getCreateTime());
+        Assert.assertEquals(new User(), codec.decode(codec.encode(new User())));
+    }
+
+    @Test
+    public void bufferTest() {
+        BeanCodec<User> codec = BeanCodec.of(User.class);
+        User user = User.getTestUser();
+        // 覆盖 1 到 4 字节的 UTF-8 编码和不成对的 surrogate
+        user.setName("ayaka é 绫华 😀 \uD800");
+        for (ByteBuffer buf : new ByteBuffer[]{ByteBuffer.allocate(1024), ByteBuffer.allocateDirect(1024),
+                ByteBuffer.allocateDirect(1024).order(ByteOrder.LITTLE_ENDIAN)}) {
+            // 连续写入多条，解码到同一个实例
+            for (int i = 0; i < 10; i++) {
+                user.setId((long) i);
+                codec.encode(user, buf);
+            }
+            buf.flip();
+            // direct buffer 与 heap buffer 编码结果一致
+            ByteBuffer heap = ByteBuffer.allocate(1024).order(buf.order());
+            user.setId(0L);
+            codec.encode(user, heap);
+            heap.flip();
+            Assert.assertEquals(heap, buf.duplicate().limit(heap.limit()));
+            User reuse = new User();
+            reuse.setPassword("will be overwritten");
+            for (int i = 0; i < 10; i++) {
+                Assert.assertSame(reuse, codec.decode(buf, reuse));
+                Assert.assertEquals(Long.valueOf(i), reuse.getId());
+                Assert.assertEquals("ayaka é 绫华 😀 ?", reuse.getName());
+                Assert.assertEquals(user.getPassword(), reuse.getPassword());
+            }
+            Assert.assertFalse(buf.hasRemaining());
+        }
+    }
+
+    @Test
+    public void nestedTest() {
+        BeanCodec<Order> codec = BeanCodec.of(Order.class);
+        System.out.println(codec);
+        Order order = Order.getTestOrder();
+        byte[] bytes = codec.encode(order);
+        Assert.assertEquals(codec.sizeOf(order), bytes.length);
+        Order decoded = codec.decode(bytes);
+        Assert.assertEquals(order, decoded);
+        Assert.assertNotSame(order.getUser(), decoded.getUser());
+
+        order.setUser(null);
+        order.setAmount(-521);
+        Assert.assertEquals(order, codec.decode(codec.encode(order)));
+    }
+
+    @Test
+    public void fingerprintTest() {
+        BeanCodec<User> userCodec = BeanCodec.of(User.class);
+        BeanCodec<UserView> viewCodec = BeanCodec.of(UserView.class);
+        Assert.assertNotEquals(userCodec.getFingerprint(), viewCodec.getFingerprint());
+        byte[] bytes = userCodec.encode(User.getTestUser());
+        try {
+            viewCodec.decode(bytes);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+            Assert.assertTrue(e.getMessage().contains("指纹"));
+        }
+    }
+}
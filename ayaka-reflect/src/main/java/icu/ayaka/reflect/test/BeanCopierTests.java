@@ -0,0 +1,130 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.common.entry.UserView;
+import icu.ayaka.reflect.BeanCopier;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class BeanCopierTests {
+
+    @Test
+    public void copyTest() {
+        BeanCopier<User, UserView> copier = BeanCopier.of(User.class, UserView.class);
+        System.out.println(copier);
+        Assert.assertSame(copier, BeanCopier.of(User.class, UserView.class));
+        // createTime 类型不同，不复制
+        Assert.assertEquals(List.of("admin", "email", "id", "name", "nickname"), copier.getProperties());
+
+        User user = User.getTestUser();
+        UserView view = copier.copy(user);
+        System.out.println(view);
+        Assert.assertEquals(user.getId(), view.getId());
+        Assert.assertEquals(user.getEmail(), view.getEmail());
+        Assert.assertTrue(view.isAdmin());
+        Assert.assertNull(view.getCreateTime());
+        Assert.assertNull(copier.copy(null));
+        // source 为 null 时 target 保持不变
+        Assert.assertSame(view, BeanCopier.copyProperties(null, view));
+        Assert.assertEquals(user.getName(), view.getName());
+        Assert.assertNull(BeanCopier.copyProperties(null, UserView.class));
+    }
+
+    @Test
+    public void sameTypeTest() {
+        Order order = Order.getTestOrder();
+        Order copy = BeanCopier.copyProperties(order, Order.class);
+        Assert.assertEquals(order, copy);
+        // 浅复制
+        Assert.assertSame(order.getUser(), copy.getUser());
+
+        User target = new User();
+        BeanCopier.copyProperties(User.getTestUser(), target);
+        Assert.assertEquals("ayaka", target.getName());
+    }
+
+    @Test
+    public void builderTest() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+        BeanCopier<User, UserView> copier = BeanCopier.builder(User.class, UserView.class)
+                .ignore(User::getEmail)
+                .convert(User::getCreateTime, time -> time == null ? null : format.format(time))
+                .map(User::getPassword, UserView::getNickname)
+                .build();
+        System.out.println(copier);
+        User user = User.getTestUser();
+        UserView view = copier.copy(user);
+        System.out.println(view);
+        Assert.assertNull(view.getEmail());
+        Assert.assertEquals(format.format(user.getCreateTime()), view.getCreateTime());
+        Assert.assertEquals("521", view.getNickname());
+    }
+
+    @Test
+    public void skipNullTest() {
+        BeanCopier<User, User> patch = BeanCopier.builder(User.class, User.class).skipNull().build();
+        User user = User.getTestUser();
+        User update = new User();
+        update.setName("new name");
+        patch.copy(update, user);
+        System.out.println(user);
+        Assert.assertEquals("new name", user.getName());
+        Assert.assertEquals(Long.valueOf(1L), user.getId());
+        // 基本类型没有 null，总是复制
+        Assert.assertFalse(user.isAdmin());
+    }
+
+    @Test
+    public void copyListTest() {
+        int n = BeanCopier.PARALLEL_THRESHOLD * 3 + 1;
+        List<User> users = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            users.add(new User((long) i, "ayaka" + i, "521", "ayaka-icu", "admin", new Date(), i % 2 == 0));
+        }
+        users.set(5, null);
+        BeanCopier<User, UserView> copier = BeanCopier.of(User.class, UserView.class);
+        long start = System.nanoTime();
+        List<UserView> views = copier.copyList(users);
+        System.out.println(n + " 个元素, 耗时: " + (System.nanoTime() - start) / 1000 + " us");
+        Assert.assertEquals(n, views.size());
+        Assert.assertNull(views.get(5));
+        for (int i = 0; i < n; i++) {
+            if (i != 5) {
+                Assert.assertEquals(Long.valueOf(i), views.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    public void classLoaderNotPinnedTest() throws Exception {
+        MetadataCacheTests.ChildFirstLoader loader = new MetadataCacheTests.ChildFirstLoader();
+        Class<?> pluginUser = loader.loadClass(User.class.getName());
+        Class<?> pluginView = loader.loadClass(UserView.class.getName());
+        Assert.assertNotSame(User.class, pluginUser);
+
+        // 插件类 -> 应用类，应用类 -> 插件类
+        Object user = pluginUser.getMethod("getTestUser").invoke(null);
+        UserView view = BeanCopier.copyProperties(user, new UserView());
+        Assert.assertEquals("ayaka", view.getName());
+        Object pluginCopy = BeanCopier.copyProperties(User.getTestUser(), pluginView.getDeclaredConstructor().newInstance());
+        Assert.assertEquals("ayaka", pluginView.getMethod("getName").invoke(pluginCopy));
+        Assert.assertSame(BeanCopier.of(pluginUser, UserView.class), BeanCopier.of(pluginUser, UserView.class));
+        Assert.assertSame(BeanCopier.of(User.class, pluginView), BeanCopier.of(User.class, pluginView));
+
+        WeakReference<ClassLoader> ref = new WeakReference<>(loader);
+        loader = null;
+        pluginUser = null;
+        pluginView = null;
+        user = null;
+        pluginCopy = null;
+        // 应用类长期存在，缓存的复制器不能让插件 classloader 无法回收
+        Assert.assertNull(MetadataCacheTests.awaitCollected(ref));
+    }
+}
@@ -0,0 +1,102 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.BeanDiff;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+public class BeanDiffTests {
+
+    @Test
+    public void diffTest() {
+        BeanDiff<User> diff = BeanDiff.of(User.class);
+        System.out.println(diff);
+        Assert.assertSame(diff, BeanDiff.of(User.class));
+        Assert.assertEquals(Arrays.asList("admin", "createTime", "email", "id", "name", "nickname", "password"), diff.getNames());
+
+        User before = User.getTestUser();
+        User after = User.getTestUser();
+        after.setCreateTime(before.getCreateTime());
+        BitSet dirty = new BitSet();
+        Assert.assertSame(dirty, diff.diff(before, after, dirty));
+        Assert.assertTrue(dirty.isEmpty());
+        Assert.assertFalse(diff.isDirty(before, after));
+
+        after.setName("绫华");
+        after.setAdmin(false);
+        after.setPassword(null);
+        diff.diff(before, after, dirty);
+        Assert.assertEquals(Arrays.asList("admin", "name", "password"), diff.names(dirty));
+        Assert.assertTrue(dirty.get(diff.ordinal(User::getName)));
+        Assert.assertTrue(diff.isDirty(before, after));
+
+        List<BeanDiff.Change> changes = diff.changes(before, after);
+        System.out.println(changes);
+        Assert.assertEquals(3, changes.size());
+        Assert.assertEquals("admin", changes.get(0).getName());
+        Assert.assertEquals(true, changes.get(0).getBefore());
+        Assert.assertEquals(false, changes.get(0).getAfter());
+        Assert.assertEquals("绫华", changes.get(1).getAfter());
+        Assert.assertNull(changes.get(2).getAfter());
+
+        // 复用时先清空
+        Assert.assertTrue(diff.diff(before, before, dirty).isEmpty());
+    }
+
+    @Test
+    public void snapshotTest() {
+        BeanDiff<Order> diff = BeanDiff.of(Order.class);
+        Order order = Order.getTestOrder();
+        BeanDiff.Snapshot<Order> snapshot = diff.snapshot(order);
+        System.out.println(snapshot);
+        Assert.assertFalse(snapshot.isDirty(order));
+        Assert.assertEquals(order.getAmount(), snapshot.get("amount"));
+
+        // Date 原地修改也能发现
+        order.getCreateTime().setTime(order.getCreateTime().getTime() + 1);
+        order.setAmount(order.getAmount() + 1);
+        BitSet dirty = snapshot.diff(order);
+        Assert.assertEquals(Arrays.asList("amount", "createTime"), diff.names(dirty));
+        List<BeanDiff.Change> changes = snapshot.changes(order);
+        System.out.println(changes);
+        Assert.assertEquals(order.getAmount() - 1, changes.get(0).getBefore());
+
+        // 浅拷贝：替换嵌套对象能发现，原地修改嵌套对象不能
+        diff.snapshot(order, snapshot);
+        Assert.assertFalse(snapshot.isDirty(order));
+        order.getUser().setName("changed in place");
+        Assert.assertFalse(snapshot.isDirty(order));
+        order.setUser(User.getTestUser());
+        Assert.assertEquals(Collections.singletonList("user"), diff.names(snapshot.diff(order)));
+
+        // 绕过泛型检查传入其他 BeanDiff 创建的快照，运行时拒绝
+        BeanDiff.Snapshot<User> foreign = BeanDiff.of(User.class).snapshot(new User());
+        @SuppressWarnings("unchecked")
+        BeanDiff.Snapshot<Order> polluted = (BeanDiff.Snapshot<Order>) (BeanDiff.Snapshot<?>) foreign;
+        try {
+            diff.snapshot(order, polluted);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void nullTest() {
+        BeanDiff<User> diff = BeanDiff.of(User.class);
+        User empty = new User();
+        User user = new User(null, null, null, null, null, new Date(0), false);
+        Assert.assertEquals(Collections.singletonList("createTime"), diff.names(diff.diff(empty, user)));
+        BeanDiff.Snapshot<User> snapshot = diff.snapshot(empty);
+        Assert.assertNull(snapshot.get("createTime"));
+        Assert.assertEquals(false, snapshot.get("admin"));
+        Assert.assertFalse(snapshot.isDirty(new User()));
+    }
+}
@@ -0,0 +1,148 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.BeanKey;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+public class BeanKeyTests {
+
+    @Data
+    @AllArgsConstructor
+    public static class Point {
+        private float x;
+        private double y;
+        private char tag;
+    }
+
+    private static List<User> users(int n) {
+        Random random = new Random(42);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            long id = random.nextInt(100);
+            String name = random.nextInt(10) == 0 ? null : "user-" + random.nextInt(20);
+            Date time = random.nextInt(10) == 0 ? null : new Date(random.nextInt(50));
+            users.add(new User(id, name, null, null, null, time, random.nextBoolean()));
+        }
+        return users;
+    }
+
+    @Test
+    public void comparatorTest() {
+        BeanKey<User> key = BeanKey.of(User::getName, User::getId, User::isAdmin);
+        System.out.println(key);
+        Comparator<User> expected = Comparator.comparing(User::getName, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(User::getId)
+                .thenComparing(User::isAdmin);
+        List<User> users = users(10_000);
+        List<User> sorted = new ArrayList<>(users);
+        sorted.sort(key.comparator());
+        List<User> check = new ArrayList<>(users);
+        check.sort(expected);
+        Assert.assertEquals(check, sorted);
+
+        // 并行排序
+        User[] array = users.toArray(new User[0]);
+        Arrays.parallelSort(array, key.comparator());
+        Assert.assertEquals(check, Arrays.asList(array));
+
+        for (int i = 0; i < 1000; i++) {
+            User a = users.get(i);
+            User b = users.get(i + 1);
+            Assert.assertEquals(Integer.signum(expected.compare(a, b)), Integer.signum(key.compare(a, b)));
+            Assert.assertEquals(key.compare(a, b) == 0, key.equal(a, b));
+        }
+    }
+
+    @Test
+    public void nullOrderTest() {
+        BeanKey<User> key = BeanKey.builder(User.class)
+                .desc(User::getCreateTime)
+                .asc(User::getId)
+                .nullsLast()
+                .build();
+        System.out.println(key);
+        List<User> users = users(1000);
+        users.sort(key.comparator());
+        Comparator<User> expected = Comparator.comparing(User::getCreateTime, Comparator.nullsLast(Comparator.<Date>reverseOrder()))
+                .thenComparing(User::getId);
+        for (int i = 1; i < users.size(); i++) {
+            Assert.assertTrue(expected.compare(users.get(i - 1), users.get(i)) <= 0);
+        }
+        Assert.assertNull(users.get(users.size() - 1).getCreateTime());
+        Assert.assertNotNull(users.get(0).getCreateTime());
+
+        BeanKey<User> first = BeanKey.builder(User.class).desc(User::getName).build();
+        users.sort(first.comparator());
+        // 降序时 null 仍在最前
+        int nulls = (int) users.stream().filter(u -> u.getName() == null).count();
+        Assert.assertTrue(nulls > 0);
+        Assert.assertNull(users.get(nulls - 1).getName());
+        Assert.assertEquals("user-9", users.get(nulls).getName());
+        Assert.assertEquals("user-0", users.get(users.size() - 1).getName());
+    }
+
+    @Test
+    public void hashTest() {
+        BeanKey<User> key = BeanKey.of(User::getName, User::getId, User::isAdmin);
+        for (User user : users(1000)) {
+            Assert.assertEquals(Objects.hash(user.getName(), user.getId(), user.isAdmin()), key.hash(user));
+        }
+        BeanKey<Order> orderKey = BeanKey.of(Order::getAmount, Order::getTitle);
+        Order order = new Order(1L, "order", 521L, null, null);
+        Assert.assertEquals(Objects.hash(521L, "order"), orderKey.hash(order));
+        Assert.assertTrue(orderKey.equal(order, new Order(2L, "order", 521L, User.getTestUser(), new Date())));
+        Assert.assertFalse(orderKey.equal(order, new Order(1L, "order", 520L, null, null)));
+        Assert.assertFalse(orderKey.equal(order, null));
+
+        // float / char 与包装类型的 hashCode 一致
+        BeanKey<Point> pointKey = BeanKey.of(Point::getX, Point::getY, Point::getTag);
+        for (float x : new float[]{0f, -0f, 1.5f, -3.25f, Float.NaN, Float.MAX_VALUE, Float.MIN_VALUE}) {
+            Point point = new Point(x, x, '绫');
+            Assert.assertEquals(Objects.hash(point.getX(), point.getY(), point.getTag()), pointKey.hash(point));
+        }
+
+        // 不能比较大小的属性只能用于哈希和判等
+        BeanKey<Order> byUser = BeanKey.of(Order::getUser);
+        Assert.assertTrue(byUser.equal(Order.getTestOrder(), Order.getTestOrder()));
+        try {
+            byUser.comparator();
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void distinctTest() {
+        BeanKey<User> key = BeanKey.of(User::getName, User::isAdmin);
+        List<User> users = users(10_000);
+        List<User> unique = key.distinct(users);
+        // 与 LinkedHashSet 的结果一致：每个键第一次出现的元素
+        LinkedHashSet<List<Object>> keys = new LinkedHashSet<>();
+        List<User> expected = new ArrayList<>();
+        for (User user : users) {
+            if (keys.add(Arrays.asList(user.getName(), user.isAdmin()))) {
+                expected.add(user);
+            }
+        }
+        System.out.println(users.size() + " -> " + unique.size());
+        Assert.assertEquals(expected.size(), unique.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertSame(expected.get(i), unique.get(i));
+        }
+        Assert.assertTrue(key.distinct(new ArrayList<>()).isEmpty());
+    }
+}
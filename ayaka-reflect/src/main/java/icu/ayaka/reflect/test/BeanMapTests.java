@@ -0,0 +1,125 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.BeanMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+public class BeanMapTests {
+
+    @Test
+    public void toMapTest() {
+        User user = User.getTestUser();
+        BeanMap map = BeanMap.of(user);
+        System.out.println(map);
+        Assert.assertEquals(7, map.size());
+        Assert.assertEquals("ayaka", map.get("name"));
+        Assert.assertEquals(true, map.get("admin"));
+        Assert.assertNull(map.get("class"));
+        Assert.assertFalse(map.containsKey("class"));
+        // key 集合同一个类共享
+        Assert.assertSame(map.keySet(), BeanMap.of(User.getTestUser()).keySet());
+        Assert.assertSame(map.keySet(), BeanMap.keys(User.class));
+
+        // 与 HashMap 相等
+        Map<String, Object> hashMap = new HashMap<>(map);
+        Assert.assertEquals(hashMap, map);
+        Assert.assertEquals(map, hashMap);
+        Assert.assertEquals(hashMap.hashCode(), map.hashCode());
+    }
+
+    @Test
+    public void toBeanTest() {
+        User user = User.getTestUser();
+        BeanMap map = BeanMap.of(user);
+        Assert.assertEquals(user, BeanMap.toBean(map, User.class));
+
+        map.put("name", "new name");
+        User changed = map.toBean();
+        Assert.assertEquals("new name", changed.getName());
+        Assert.assertEquals("ayaka", user.getName());
+
+        Map<String, Object> hashMap = new HashMap<>(BeanMap.of(user));
+        Assert.assertEquals(user, BeanMap.toBean(hashMap, User.class));
+    }
+
+    @Test
+    public void coerceTest() {
+        // 模拟 JSON 反序列化得到的 Map
+        Map<String, Object> json = new HashMap<>();
+        json.put("id", 10);
+        json.put("amount", "521");
+        json.put("title", "ayaka");
+        json.put("createTime", 0L);
+        json.put("unknown", "ignored");
+        Order order = BeanMap.toBean(json, Order.class);
+        System.out.println(order);
+        Assert.assertEquals(Long.valueOf(10L), order.getId());
+        Assert.assertEquals(521L, order.getAmount());
+        Assert.assertEquals(0L, order.getCreateTime().getTime());
+
+        // null 不写入基本类型属性，不存在的 key 不修改
+        json.clear();
+        json.put("amount", null);
+        json.put("title", null);
+        BeanMap.populate(json, order);
+        Assert.assertEquals(521L, order.getAmount());
+        Assert.assertNull(order.getTitle());
+        Assert.assertEquals(Long.valueOf(10L), order.getId());
+
+        // 整数属性只接受能精确表示的值，不截断小数 / 不回绕
+        json.clear();
+        json.put("amount", 3.0);
+        json.put("id", new BigDecimal("1E3"));
+        BeanMap.populate(json, order);
+        Assert.assertEquals(3L, order.getAmount());
+        Assert.assertEquals(Long.valueOf(1000L), order.getId());
+        for (Object inexact : new Object[]{3.7, "3.7", Double.NaN, new BigInteger("9223372036854775808")}) {
+            try {
+                BeanMap.populate(Map.of("amount", inexact), order);
+                Assert.fail();
+            } catch (RuntimeException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        // 非数值字符串原样返回，由 setter 报告类型不匹配
+        try {
+            BeanMap.populate(Map.of("amount", "abc"), order);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e);
+            Assert.assertFalse(e instanceof NumberFormatException);
+        }
+        Assert.assertEquals(3L, order.getAmount());
+    }
+
+    @Test
+    public void entrySetTest() {
+        BeanMap map = BeanMap.of(User.getTestUser());
+        for (Map.Entry<String, Object> e : map.entrySet()) {
+            if (e.getKey().equals("email")) {
+                e.setValue("ayaka@ayaka.icu");
+            }
+        }
+        Assert.assertEquals("ayaka@ayaka.icu", map.get("email"));
+        StringBuilder keys = new StringBuilder();
+        map.forEach((k, v) -> keys.append(k).append(','));
+        Assert.assertEquals("admin,createTime,email,id,name,nickname,password,", keys.toString());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void unknownKeyTest() {
+        BeanMap.of(User.getTestUser()).put("nothing", 1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void removeTest() {
+        BeanMap.of(User.getTestUser()).remove("name");
+    }
+}
@@ -0,0 +1,110 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.processor.BeanMeta;
+import icu.ayaka.processor.BeanMetadata;
+import icu.ayaka.reflect.BeanAccessor;
+import icu.ayaka.reflect.PropertyIndex;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.util.Arrays;
+
+public class BeanMetaTests {
+
+    @Getter
+    @Setter
+    public static class Base {
+        private Long id;
+        private String xIndex;
+        private String URL;
+    }
+
+    @BeanMeta
+    @Getter
+    @Setter
+    public static class Child extends Base {
+        private String name;
+        private boolean active;
+
+        public String getDisplayName() {
+            return name + "#" + getId();
+        }
+    }
+
+    public interface Labeled {
+        default String getLabel() {
+            return "label";
+        }
+    }
+
+    /**
+     * 生成的元数据不包含接口的默认方法，与类的方法不一致，运行时退化为 Introspector
+     */
+    @BeanMeta
+    @Getter
+    @Setter
+    public static class LabeledBean implements Labeled {
+        private String name;
+    }
+
+    @Test
+    public void generatedMetadataTest() throws Exception {
+        Class<?> metaClass = Class.forName(User.class.getName() + BeanMetadata.SUFFIX);
+        BeanMetadata meta = (BeanMetadata) metaClass.getDeclaredConstructor().newInstance();
+        System.out.println(metaClass.getName());
+        System.out.println(meta.getNames());
+        System.out.println(meta.getReadMethodNames());
+        System.out.println(meta.getWriteMethodNames() + "\n");
+    }
+
+    @Test
+    public void sameAsIntrospectorTest() throws Exception {
+        // User 标记了 @BeanMeta，索引由生成的元数据构建，结果应与 Introspector 一致
+        assertSameAsIntrospector(User.class);
+    }
+
+    @Test
+    public void inheritanceTest() throws Exception {
+        // 父类的属性、Introspector.decapitalize 命名规则（XIndex、URL）、没有字段的get方法
+        BeanMetadata meta = (BeanMetadata) Class.forName(Child.class.getName() + BeanMetadata.SUFFIX)
+                .getDeclaredConstructor().newInstance();
+        System.out.println(meta.getNames());
+        Assert.assertEquals(Arrays.asList("URL", "XIndex", "active", "displayName", "id", "name"), meta.getNames());
+        assertSameAsIntrospector(Child.class);
+
+        Child child = new Child();
+        PropertyIndex.of(Child.class).getByName("XIndex").getWriteMethod().invoke(child, "x");
+        Assert.assertEquals("x", child.getXIndex());
+
+        assertSameAsIntrospector(LabeledBean.class);
+    }
+
+    private static void assertSameAsIntrospector(Class<?> type) throws Exception {
+        PropertyIndex index = PropertyIndex.of(type);
+        PropertyDescriptor[] pds = Introspector.getBeanInfo(type).getPropertyDescriptors();
+        for (PropertyDescriptor pd : pds) {
+            PropertyIndex.Property p = index.getByName(pd.getName());
+            System.out.println(pd.getName() + ": " + p);
+            Assert.assertEquals(pd.getPropertyType(), p.getType());
+            Assert.assertEquals(pd.getReadMethod(), p.getReadMethod());
+            Assert.assertEquals(pd.getWriteMethod(), p.getWriteMethod());
+        }
+        Assert.assertEquals(pds.length - 1, index.size());
+    }
+
+    @Test
+    public void generatedAccessorTest() {
+        User user = User.getTestUser();
+        BeanAccessor<User> accessor = BeanAccessor.of(User.class);
+        accessor.property(User::getName).set(user, "kamisato");
+        accessor.property(User::isAdmin).set(user, false);
+        Assert.assertEquals("kamisato", accessor.property(User::getName).get(user));
+        Assert.assertEquals(false, accessor.property(User::isAdmin).get(user));
+        System.out.println(accessor.property(User::getName).getter().getClass());
+    }
+}
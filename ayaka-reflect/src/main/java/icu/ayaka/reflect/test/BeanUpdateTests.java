@@ -0,0 +1,95 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.BeanUpdate;
+import icu.ayaka.reflect.NamingStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+public class BeanUpdateTests {
+
+    @Test
+    public void applyTest() {
+        Date time = new Date(0);
+        BeanUpdate<User> update = BeanUpdate.builder(User.class)
+                .set(User::setName, "绫华")
+                .set(User::setAdmin, false)
+                .set(User::setCreateTime, time)
+                .set(User::setNickname, null)
+                .set(User::setName, "ayaka")
+                .build();
+        System.out.println(update);
+        Assert.assertEquals(Arrays.asList("name", "admin", "create_time", "nickname"), update.getColumns(NamingStrategy.SNAKE_CASE));
+        Assert.assertEquals(Arrays.asList("ayaka", false, time, null), update.getValues());
+
+        List<User> users = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            users.add(new User(i, "user", "pwd", "nick", i + "@ayaka.icu", null, true));
+        }
+        update.applyAll(users);
+        for (User user : users) {
+            Assert.assertEquals("ayaka", user.getName());
+            Assert.assertFalse(user.isAdmin());
+            Assert.assertSame(time, user.getCreateTime());
+            Assert.assertNull(user.getNickname());
+            Assert.assertEquals("pwd", user.getPassword());
+        }
+        User user = new User();
+        Assert.assertSame(user, update.apply(user));
+        Assert.assertEquals("ayaka", user.getName());
+    }
+
+    @Test
+    public void nameTest() {
+        // 按名称赋值时转换类型
+        BeanUpdate<Order> update = BeanUpdate.builder(Order.class)
+                .set("amount", "521")
+                .set("id", 1)
+                .set(Order::setTitle, "order")
+                .build();
+        Order order = update.apply(new Order());
+        Assert.assertEquals(521L, order.getAmount());
+        Assert.assertEquals(Long.valueOf(1), order.getId());
+        Assert.assertEquals("order", order.getTitle());
+
+        // 空的赋值什么都不做
+        Assert.assertEquals(new Order(), BeanUpdate.builder(Order.class).build().apply(new Order()));
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void errorTest() {
+        BeanUpdate.Builder<User> builder = BeanUpdate.builder(User.class);
+        try {
+            builder.set(User::setAdmin, null);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+        try {
+            builder.set("nobody", 1);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+        try {
+            // 绕过泛型检查
+            ((BeanUpdate.Builder) builder).set("name", "x").set((icu.ayaka.reflect.SBiConsumer<User, Object>) (icu.ayaka.reflect.SBiConsumer) (icu.ayaka.reflect.SBiConsumer<User, Long>) User::setId, "x");
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+        try {
+            BeanUpdate.builder(User.class).set((icu.ayaka.reflect.SBiConsumer) (icu.ayaka.reflect.SBiConsumer<Order, Long>) Order::setAmount, 1L);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
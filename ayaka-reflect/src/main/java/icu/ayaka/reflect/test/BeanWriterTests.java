@@ -0,0 +1,207 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.BeanFormat;
+import icu.ayaka.reflect.BeanReader;
+import icu.ayaka.reflect.BeanWriter;
+import icu.ayaka.reflect.NamingStrategy;
+import lombok.Data;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class BeanWriterTests {
+
+    @Data
+    public static class Sample {
+        private Double ratio;
+        private Float weight;
+        private double score;
+        private float rate;
+    }
+
+    private static List<User> users() {
+        List<User> users = new ArrayList<>();
+        users.add(User.getTestUser());
+        users.add(new User(-2L, "a,b \"quoted\"", null, "line\r\nbreak", "", new Date(0), false));
+        users.add(new User(Long.MIN_VALUE, "中文 😀 \\ \t", "p", null, null, null, true));
+        users.add(new User(null, null, null, null, null, new Date(-1L), false));
+        for (long i = 0; i < 5000; i++) {
+            users.add(new User(i, "user-" + i, "pwd", "nick", i + "@ayaka.icu", new Date(i * 86_400_123L), i % 2 == 0));
+        }
+        return users;
+    }
+
+    private static List<User> roundTrip(BeanFormat format, NamingStrategy naming, int bufferSize) throws IOException {
+        Path file = Files.createTempFile("bean-writer", format == BeanFormat.CSV ? ".csv" : ".jsonl");
+        try {
+            List<User> users = users();
+            try (BeanWriter<User> writer = BeanWriter.builder(User.class).format(format).naming(naming)
+                    .bufferSize(bufferSize).open(file)) {
+                writer.writeAll(users);
+                Assert.assertEquals(users.size(), writer.getRows());
+            }
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            lines.subList(0, 5).forEach(System.out::println);
+
+            List<User> read = new ArrayList<>();
+            try (BeanReader<User> reader = BeanReader.builder(User.class).format(format).naming(naming)
+                    .bufferSize(bufferSize).open(file)) {
+                reader.forEach(read::add);
+                Assert.assertEquals(users.size(), reader.getRows());
+            }
+            Assert.assertEquals(users, read);
+            return read;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void csvTest() throws IOException {
+        roundTrip(BeanFormat.CSV, NamingStrategy.IDENTITY, BeanWriter.DEFAULT_BUFFER_SIZE);
+        // 缓冲区小于一条记录时分段写出 / 读取
+        roundTrip(BeanFormat.CSV, NamingStrategy.SNAKE_CASE, 256);
+    }
+
+    @Test
+    public void jsonLinesTest() throws IOException {
+        roundTrip(BeanFormat.JSON_LINES, NamingStrategy.IDENTITY, BeanWriter.DEFAULT_BUFFER_SIZE);
+        roundTrip(BeanFormat.JSON_LINES, NamingStrategy.SNAKE_CASE, 256);
+    }
+
+    @Test
+    public void columnTest() throws IOException {
+        Path file = Files.createTempFile("bean-writer", ".csv");
+        try {
+            User user = User.getTestUser();
+            user.setCreateTime(new Date(1_700_000_000_123L));
+            try (BeanWriter<User> writer = BeanWriter.builder(User.class)
+                    .column(User::getId).column(User::getName).column(User::getCreateTime).column(User::isAdmin)
+                    .naming(NamingStrategy.SNAKE_CASE)
+                    .open(file)) {
+                writer.write(user);
+            }
+            String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            System.out.println(text);
+            Assert.assertEquals("id,name,create_time,admin\n1,ayaka,2023-11-14T22:13:20.123Z,true\n", text);
+
+            // 按表头匹配，表中没有的属性保持默认值
+            try (BeanReader<User> reader = BeanReader.builder(User.class).naming(NamingStrategy.SNAKE_CASE).open(file)) {
+                User read = reader.read();
+                Assert.assertEquals(user.getId(), read.getId());
+                Assert.assertEquals(user.getName(), read.getName());
+                Assert.assertEquals(user.getCreateTime(), read.getCreateTime());
+                Assert.assertTrue(read.isAdmin());
+                Assert.assertNull(read.getEmail());
+                Assert.assertNull(reader.read());
+            }
+
+            // 没有表头时按指定的列顺序读取
+            Files.write(file, "7,,1970-01-01T00:00:01Z,1\n\n8,\"\",1000,false".getBytes(StandardCharsets.UTF_8));
+            try (BeanReader<User> reader = BeanReader.builder(User.class).header(false)
+                    .column(User::getId).column(User::getName).column(User::getCreateTime).column(User::isAdmin)
+                    .open(file)) {
+                User first = reader.read();
+                Assert.assertEquals(Long.valueOf(7), first.getId());
+                Assert.assertNull(first.getName());
+                Assert.assertEquals(new Date(1000), first.getCreateTime());
+                Assert.assertTrue(first.isAdmin());
+                User second = new User();
+                Assert.assertTrue(reader.read(second));
+                Assert.assertEquals("", second.getName());
+                Assert.assertEquals(new Date(1000), second.getCreateTime());
+                Assert.assertFalse(reader.read(second));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void errorTest() throws IOException {
+        Path file = Files.createTempFile("bean-writer", ".jsonl");
+        try {
+            Files.write(file, "{\"id\":1}\n{\"id\":\"x\"}\n".getBytes(StandardCharsets.UTF_8));
+            try (BeanReader<User> reader = BeanReader.builder(User.class).format(BeanFormat.JSON_LINES).open(file)) {
+                Assert.assertEquals(Long.valueOf(1), reader.read().getId());
+                reader.read();
+                Assert.fail();
+            } catch (RuntimeException e) {
+                System.out.println(e.getMessage());
+                Assert.assertTrue(e.getMessage().contains("第 2 条记录"));
+            }
+            // 转义序列在行尾截断
+            for (String line : new String[]{"{\"name\":\"a\\", "{\"name\":\"\\u12"}) {
+                Files.write(file, (line + "\n{\"id\":1}\n").getBytes(StandardCharsets.UTF_8));
+                try (BeanReader<User> reader = BeanReader.builder(User.class).format(BeanFormat.JSON_LINES).open(file)) {
+                    reader.read();
+                    Assert.fail();
+                } catch (RuntimeException e) {
+                    System.out.println(e.getMessage() + " " + e.getCause().getMessage());
+                    Assert.assertEquals("字符串未结束", e.getCause().getMessage());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void nonFiniteTest() throws IOException {
+        Path file = Files.createTempFile("bean-writer", ".jsonl");
+        try {
+            Sample sample = new Sample();
+            sample.setRatio(Double.NaN);
+            sample.setWeight(Float.POSITIVE_INFINITY);
+            sample.setScore(Double.NEGATIVE_INFINITY);
+            sample.setRate(Float.NaN);
+            Sample finite = new Sample();
+            finite.setRatio(0.5);
+            finite.setWeight(1.5f);
+            finite.setRate(0.25f);
+            try (BeanWriter<Sample> writer = BeanWriter.builder(Sample.class).format(BeanFormat.JSON_LINES).open(file)) {
+                writer.write(sample);
+                writer.write(finite);
+            }
+            String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            System.out.println(text);
+            // JSON 没有 NaN / Infinity，包装类型与基本类型一样写为 null
+            Assert.assertEquals("{\"rate\":null,\"ratio\":null,\"score\":null,\"weight\":null}\n"
+                    + "{\"rate\":0.25,\"ratio\":0.5,\"score\":0.0,\"weight\":1.5}\n", text);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void invalidColumnTest() throws IOException {
+        Path file = Files.createTempFile("bean-writer", ".csv");
+        try {
+            Files.write(file, "id\n1\n".getBytes(StandardCharsets.UTF_8));
+            // 列无效时在打开文件之前失败，不会覆盖已有文件
+            try {
+                BeanWriter.builder(User.class).column(User::hashCode).open(file);
+                Assert.fail();
+            } catch (RuntimeException e) {
+                System.out.println(e.getMessage());
+            }
+            Assert.assertEquals("id\n1\n", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            try {
+                BeanReader.builder(User.class).column(User::getClass).open(file);
+                Assert.fail();
+            } catch (RuntimeException e) {
+                System.out.println(e.getMessage());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
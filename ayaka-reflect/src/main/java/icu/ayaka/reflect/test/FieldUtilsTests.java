@@ -1,7 +1,11 @@
 package icu.ayaka.reflect.test;
 
 import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.Column;
 import icu.ayaka.reflect.FieldUtils;
+import icu.ayaka.reflect.PropertyIndex;
+import icu.ayaka.reflect.SFunction;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.lang.reflect.Field;
@@ -84,62 +88,59 @@ public class FieldUtilsTests {
 
 
     @Test
-    public void getFieldMethodTimeTest() {
-        Field field = FieldUtils.getField(User::getName);
-        Method method = null;
-        String name = "name";
-        int count = 20000000;
-
-        long time = new Date().getTime();
-        for (int i = 0; i < count; i++) {
-            // method = FieldUtils.getFieldGetMethod(field);
-            method = FieldUtils.getFieldGetMethod(User.class, name);
+    public void getFieldLambdaCacheTest() {
+        SFunction<User, String> fn = User::getName;
+        Field first = FieldUtils.getField(fn);
+        for (int i = 0; i < 3; i++) {
+            // 同一个方法引用（同一个合成类）命中缓存，返回同一个 Field 对象
+            Assert.assertSame(first, FieldUtils.getField(fn));
         }
-        time = new Date().getTime() - time;
-        System.out.println("运行次数：" + count + "次");
-        System.out.println("运行耗时：" + time + "ms");
-        // 100000次 ≈ 17ms
-        // 20000000次 ≈ 755ms
-        System.out.println("运行结果：" + method.getName());
+        // 另一处的 User::getName 是不同的合成类，各自解析，得到同一个属性
+        Assert.assertEquals(first, FieldUtils.getField(User::getName));
+        Assert.assertEquals("admin", FieldUtils.getField(User::isAdmin).getName());
+        Assert.assertEquals("createTime", FieldUtils.getField(User::getCreateTime).getName());
     }
 
     @Test
-    public void getFieldByMethodTest() {
-        Field field = null;
-        String name = "getName";
-        Method method = FieldUtils.getFieldGetMethod(User.class, "name");
-
-        int count = 20000000;
-        long time = new Date().getTime();
-        for (int i = 0; i < count; i++) {
-            field = FieldUtils.getFieldByGetMethod(method);
-            // field = FieldUtils.getFieldByGetMethod(User.class, name);
+    public void setterLambdaTest() {
+        Field name = FieldUtils.getField(User::setName);
+        System.out.println(name.getName());
+        Assert.assertSame(FieldUtils.getField(User::getName), name);
+        Assert.assertEquals("admin", FieldUtils.getProperty(User::setAdmin).getName());
+        // get/set方法引用 解析为同一个属性
+        Assert.assertSame(Column.of(User::getEmail).getProperty(), Column.of(User::setEmail).getProperty());
+        Column first = null;
+        for (int i = 0; i < 3; i++) {
+            // 同一处方法引用 命中缓存
+            Column column = Column.of(User::setEmail);
+            Assert.assertTrue(first == null || first == column);
+            first = column;
+        }
+
+        User user = new User();
+        Column.of(User::setCreateTime).getAccessor().setter().accept(user, new Date(0));
+        Assert.assertEquals(new Date(0), user.getCreateTime());
+
+        try {
+            Column.of((User u, String v) -> u.setName(v));
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
         }
-        time = new Date().getTime() - time;
-        System.out.println("运行次数：" + count + "次");
-        System.out.println("运行耗时：" + time + "ms");
-        // 100000次 ≈ 35ms
-        // 20000000次 ≈ 2000~2200ms
-        System.out.println("运行结果：" + field.getName());
     }
 
     @Test
-    public void getMeLambda() {
-        Field field = null;
-        int count = 10000000;
-        long time = new Date().getTime();
-        for (int i = 0; i < count; i++) {
-            field = FieldUtils.getField(User::getName);
-        }
-        time = new Date().getTime() - time;
-        System.out.println("运行次数：" + count + "次");
-        System.out.println("运行耗时：" + time + "ms");
-        // 1000次 ≈ 21ms
-        // 10000次 ≈ 45ms
-        // 100000次 ≈ 163ms
-        // 1000000次 ≈ 800ms
-        // 10000000次 ≈ 6500ms
-        System.out.println("运行结果：" + field.getName());
+    public void propertyIndexTest() {
+        PropertyIndex index = PropertyIndex.of(User.class);
+        System.out.println("属性个数：" + index.size());
+        index.getProperties().forEach(p -> System.out.println(p.getOrdinal() + ": " + p));
+
+        Method getEmail = FieldUtils.getFieldGetMethod(User.class, "email");
+        System.out.println(index.getByReadMethod(getEmail).getName());
+        System.out.println(index.getByReadName("isAdmin").getName());
+        System.out.println(index.getByWriteName("setCreateTime").getField().getName());
+        // 同一个类 只构建一次
+        System.out.println("同一索引：" + (index == PropertyIndex.of(User.class)) + '\n');
     }
 
 }
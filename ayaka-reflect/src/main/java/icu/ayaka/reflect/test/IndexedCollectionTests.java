@@ -0,0 +1,215 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.IndexedCollection;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class IndexedCollectionTests {
+
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+        private int code;
+        private Integer level;
+    }
+
+    private static List<User> users(int n) {
+        List<User> users = new ArrayList<>();
+        for (long i = 0; i < n; i++) {
+            users.add(new User(i, "user-" + i % 100, "pwd", "nick", i + "@ayaka.icu", new Date(i * 1000), i % 2 == 0));
+        }
+        return users;
+    }
+
+    private static IndexedCollection<User> collection(List<User> users) {
+        return new IndexedCollection<>(users)
+                .uniqueIndex(User::getId)
+                .uniqueIndex(User::getEmail)
+                .index(User::getName)
+                .index(User::isAdmin)
+                .sortedIndex(User::getCreateTime)
+                .sortedIndex(User::getId);
+    }
+
+    @Test
+    public void findTest() {
+        List<User> users = users(10_000);
+        IndexedCollection<User> collection = collection(users);
+        Assert.assertEquals(10_000, collection.size());
+
+        Assert.assertSame(users.get(42), collection.findOne(User::getId, 42L));
+        Assert.assertSame(users.get(42), collection.findOne(User::getId, 42));
+        Assert.assertNull(collection.findOne(User::getId, -1L));
+        Assert.assertSame(users.get(7), collection.findOne(User::getEmail, "7@ayaka.icu"));
+        Assert.assertEquals(100, collection.find(User::getName, "user-3").size());
+        Assert.assertEquals(5000, collection.count(User::isAdmin, true));
+        Assert.assertEquals(0, collection.count(User::getName, "nobody"));
+
+        // [1000, 2000) 秒，按 createTime 排序
+        List<User> range = collection.range(User::getCreateTime, new Date(1_000_000), new Date(2_000_000));
+        Assert.assertEquals(1000, range.size());
+        Assert.assertSame(users.get(1000), range.get(0));
+        Assert.assertSame(users.get(1999), range.get(999));
+        Assert.assertEquals(11, collection.range(User::getId, 10L, true, 20L, true).size());
+        Assert.assertEquals(10, collection.range(User::getId, null, false, 10, false).size());
+        Assert.assertSame(users.get(0), collection.first(User::getCreateTime));
+        Assert.assertSame(users.get(9999), collection.last(User::getId));
+
+        try {
+            collection.findOne(User::getNickname, "nick");
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void mutationTest() {
+        List<User> users = users(100);
+        IndexedCollection<User> collection = collection(users);
+        User user = users.get(10);
+
+        Assert.assertTrue(collection.contains(user));
+        // 按引用区分，与 equals 相等的副本不在集合中
+        Assert.assertFalse(collection.contains(new User(10L, "user-10", "pwd", "nick", "10@ayaka.icu", new Date(10_000), true)));
+        Assert.assertFalse(collection.add(user));
+
+        // 唯一索引冲突时集合不变
+        try {
+            collection.add(new User(10L, "x", null, null, "x@ayaka.icu", null, false));
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+        Assert.assertEquals(100, collection.size());
+        Assert.assertNull(collection.findOne(User::getEmail, "x@ayaka.icu"));
+
+        collection.update(user, u -> {
+            u.setId(1000L);
+            u.setAdmin(false);
+            u.setCreateTime(null);
+        });
+        Assert.assertNull(collection.findOne(User::getId, 10L));
+        Assert.assertSame(user, collection.findOne(User::getId, 1000L));
+        Assert.assertEquals(49, collection.count(User::isAdmin, true));
+        Assert.assertEquals(99, collection.range(User::getCreateTime, null, null).size());
+        Assert.assertSame(user, collection.findOne(User::getEmail, "10@ayaka.icu"));
+
+        // 修改后冲突：恢复原来的索引
+        try {
+            collection.update(user, u -> u.setEmail("11@ayaka.icu"));
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+        Assert.assertSame(user, collection.findOne(User::getEmail, "10@ayaka.icu"));
+        user.setEmail("10@ayaka.icu");
+
+        // 直接修改后 reindex
+        user.setName("renamed");
+        collection.reindex(user);
+        Assert.assertEquals(1, collection.count(User::getName, "renamed"));
+        Assert.assertEquals(0, collection.count(User::getName, "user-10"));
+
+        // null 值
+        user.setEmail(null);
+        users.get(11).setEmail(null);
+        collection.reindex(user);
+        collection.reindex(users.get(11));
+        Assert.assertEquals(2, collection.count(User::getEmail, null));
+
+        Assert.assertTrue(collection.remove(user));
+        Assert.assertFalse(collection.remove(user));
+        Assert.assertNull(collection.findOne(User::getId, 1000L));
+        Assert.assertEquals(1, collection.count(User::getEmail, null));
+        Assert.assertEquals(99, collection.size());
+
+        collection.removeIf(User::isAdmin);
+        Assert.assertEquals(50, collection.size());
+        Assert.assertEquals(0, collection.count(User::isAdmin, true));
+        collection.clear();
+        Assert.assertTrue(collection.isEmpty());
+        Assert.assertNull(collection.findOne(User::getId, 1L));
+    }
+
+    @Test
+    public void primitiveLongTest() {
+        IndexedCollection<Order> orders = new IndexedCollection<Order>().index(Order::getAmount).sortedIndex(Order::getAmount);
+        for (long i = 0; i < 1000; i++) {
+            orders.add(new Order(i, "order-" + i, i % 10, null, null));
+        }
+        Assert.assertEquals(100, orders.find(Order::getAmount, 3L).size());
+        Assert.assertNotNull(orders.findOne(Order::getAmount, 9L));
+        Assert.assertNull(orders.findOne(Order::getAmount, 10L));
+        Assert.assertEquals(300, orders.range(Order::getAmount, 7, 10).size());
+        try {
+            new IndexedCollection<Order>(orders).uniqueIndex(Order::getAmount);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void intTest() {
+        IndexedCollection<Item> items = new IndexedCollection<Item>().uniqueIndex(Item::getCode).index(Item::getLevel);
+        for (int i = 0; i < 1000; i++) {
+            items.add(new Item(i - 500, i % 10 == 0 ? null : i % 3));
+        }
+        // int / Integer 键与 long 键使用同一种索引，查询值可以是 int 或 long
+        Assert.assertEquals(-500, items.findOne(Item::getCode, -500).getCode());
+        Assert.assertEquals(499, items.findOne(Item::getCode, 499L).getCode());
+        Assert.assertNull(items.findOne(Item::getCode, 500));
+        Assert.assertNull(items.findOne(Item::getCode, 1L << 32));
+        Assert.assertEquals(100, items.count(Item::getLevel, null));
+        Assert.assertEquals(items.count(Item::getLevel, 1), items.find(Item::getLevel, 1L).size());
+        Assert.assertEquals(900, items.count(Item::getLevel, 0) + items.count(Item::getLevel, 1)
+                + items.count(Item::getLevel, 2));
+        try {
+            items.add(new Item(0, 1));
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void concurrentReadTest() throws InterruptedException {
+        List<User> users = users(1000);
+        IndexedCollection<User> collection = collection(users);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger misses = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (!stop.get()) {
+                // 不会被修改的元素总能查到
+                for (long i = 0; i < 500; i++) {
+                    if (collection.findOne(User::getId, i) != users.get((int) i)) {
+                        misses.incrementAndGet();
+                    }
+                }
+            }
+        });
+        reader.start();
+        for (long i = 1000; i < 50_000; i++) {
+            User user = new User(i, "user", null, null, i + "@ayaka.icu", new Date(i), false);
+            collection.add(user);
+            if (i % 3 == 0) {
+                collection.remove(user);
+            }
+        }
+        stop.set(true);
+        reader.join();
+        Assert.assertEquals(0, misses.get());
+        Assert.assertEquals(1000 + 49_000 - 16_333, collection.size());
+    }
+}
@@ -0,0 +1,127 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.Column;
+import icu.ayaka.reflect.LambdaCondition;
+import icu.ayaka.reflect.NamingStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+public class LambdaConditionTests {
+
+    private static List<User> users() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            users.add(new User((long) i, "ayaka" + i, "521", "ayaka-icu", i % 2 == 0 ? "a" + i + "@ayaka.icu" : null,
+                    new Date(i * 1000L), i % 5 == 0));
+        }
+        return users;
+    }
+
+    @Test
+    public void namingStrategyTest() {
+        Assert.assertEquals("create_time", NamingStrategy.SNAKE_CASE.translate("createTime"));
+        Assert.assertEquals("url_value", NamingStrategy.SNAKE_CASE.translate("URLValue"));
+        Assert.assertEquals("user_id2", NamingStrategy.SNAKE_CASE.translate("userId2"));
+        Assert.assertEquals("CREATE_TIME", NamingStrategy.UPPER_SNAKE_CASE.translate("createTime"));
+        Assert.assertEquals("createTime", NamingStrategy.IDENTITY.translate("createTime"));
+    }
+
+    @Test
+    public void columnCacheTest() {
+        List<Column> columns = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            columns.add(Column.of(User::getCreateTime));
+        }
+        System.out.println(columns);
+        Assert.assertSame(columns.get(0), columns.get(1));
+        Assert.assertEquals("create_time", columns.get(0).getName(NamingStrategy.SNAKE_CASE));
+        Assert.assertEquals("CREATE_TIME", columns.get(0).getName(NamingStrategy.UPPER_SNAKE_CASE));
+    }
+
+    @Test
+    public void renderTest() {
+        LambdaCondition<User> condition = LambdaCondition.<User>create()
+                .eq(User::getName, "ayaka")
+                .gt(User::getId, 10)
+                .like(User::getNickname, "ayaka%")
+                .in(User::getId, Arrays.asList(1, 2, 3))
+                .between(User::getCreateTime, new Date(0), new Date())
+                .or(c -> c.isNull(User::getEmail).eq(User::isAdmin, true));
+        StringBuilder sql = new StringBuilder("SELECT * FROM user WHERE ");
+        List<Object> params = new ArrayList<>();
+        condition.render(sql, params);
+        System.out.println(sql);
+        System.out.println(params);
+        Assert.assertEquals("SELECT * FROM user WHERE name = ? AND id > ? AND nickname LIKE ? AND id IN (?, ?, ?)"
+                + " AND create_time BETWEEN ? AND ? OR (email IS NULL AND admin = ?)", sql.toString());
+        Assert.assertEquals(9, params.size());
+
+        // 复用 StringBuilder 与参数列表
+        sql.setLength(0);
+        params.clear();
+        LambdaCondition.<Order>create(NamingStrategy.IDENTITY).eq(Order::getCreateTime, null).or().ne(Order::getTitle, "x")
+                .in(Order::getId, List.of())
+                .render(sql, params);
+        Assert.assertEquals("createTime IS NULL OR title <> ? AND 1 = 0", sql.toString());
+        Assert.assertEquals(List.of("x"), params);
+    }
+
+    @Test
+    public void filterTest() {
+        List<User> users = users();
+        LambdaCondition<User> condition = LambdaCondition.<User>create()
+                .ge(User::getId, 5)
+                .lt(User::getId, 15L)
+                .isNotNull(User::getEmail)
+                .or(c -> c.eq(User::isAdmin, true).le(User::getId, 0));
+        List<User> result = condition.filter(users);
+        result.forEach(u -> System.out.println(u.getId() + " " + u.getEmail() + " " + u.isAdmin()));
+        // 6 8 10 12 14，以及 id = 0 的管理员
+        Assert.assertEquals(6, result.size());
+        Assert.assertEquals(Long.valueOf(0L), result.get(0).getId());
+
+        Assert.assertEquals(2, LambdaCondition.<User>create().like(User::getName, "ayaka1_").filter(users).size() - 8);
+        Assert.assertEquals(3, LambdaCondition.<User>create().in(User::getId, List.of(1, 2L, 3.0)).filter(users).size());
+        Assert.assertEquals(3, LambdaCondition.<User>create()
+                .between(User::getCreateTime, new Date(1000), new Date(3000)).filter(users).size());
+        Assert.assertEquals(10, LambdaCondition.<User>create().isNull(User::getEmail).filter(users).size());
+        Assert.assertEquals(20, LambdaCondition.<User>create().filter(users).size());
+    }
+
+    @Test
+    public void reuseTest() {
+        LambdaCondition<User> condition = LambdaCondition.create();
+        User user = User.getTestUser();
+        Assert.assertTrue(condition.eq(User::getName, "ayaka").test(user));
+        Assert.assertFalse(condition.clear().eq(User::getName, "other").test(user));
+        Assert.assertEquals(1, condition.size());
+    }
+
+    @Test
+    public void buildCostTest() {
+        int n = 100000;
+        StringBuilder sql = new StringBuilder(1024);
+        List<Object> params = new ArrayList<>(32);
+        LambdaCondition<User> condition = LambdaCondition.create();
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            condition.clear();
+            for (int j = 0; j < 4; j++) {
+                condition.eq(User::getName, "ayaka").gt(User::getId, j).like(User::getEmail, "%ayaka%")
+                        .isNotNull(User::getCreateTime).ne(User::isAdmin, false);
+            }
+            sql.setLength(0);
+            params.clear();
+            condition.render(sql, params);
+        }
+        System.out.println("20 个条件 构建并渲染, 平均耗时: " + (System.nanoTime() - start) / n + " ns");
+        Assert.assertEquals(20, condition.size());
+    }
+}
@@ -0,0 +1,249 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.MetadataCache;
+import icu.ayaka.reflect.PropertyIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class MetadataCacheTests {
+
+    @Test
+    public void evictionTest() {
+        MetadataCache<String> cache = new MetadataCache<>("test", 2, Class::getSimpleName);
+        cache.get(User.class);
+        cache.get(User.class);
+        cache.get(Date.class);
+        cache.get(String.class);
+        System.out.println(cache.stats());
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.stats().getHitCount());
+        Assert.assertEquals(3, cache.stats().getMissCount());
+        Assert.assertEquals(1, cache.stats().getEvictionCount());
+
+        cache.invalidate(String.class);
+        Assert.assertEquals(1, cache.size());
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+        // 被移除的类 再次访问时重新加载
+        Assert.assertEquals("User", cache.get(User.class));
+        Assert.assertEquals(4, cache.stats().getMissCount());
+        MetadataCache.caches().forEach(System.out::println);
+    }
+
+    @Test
+    public void singleFlightTest() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        MetadataCache<String> cache = new MetadataCache<>("singleFlight", type -> {
+            loads.incrementAndGet();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (type == Date.class && loads.get() == 1) {
+                throw new IllegalArgumentException("first load fails");
+            }
+            return type.getSimpleName();
+        });
+
+        // 多个线程同时访问未加载的类，只加载一次
+        int threads = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return cache.get(User.class);
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                Assert.assertEquals("User", result.get());
+            }
+            Assert.assertEquals(1, loads.get());
+            Assert.assertEquals(1, cache.stats().getMissCount());
+            System.out.println(cache.stats());
+
+            // 加载失败时等待的线程收到同一个异常，下次访问重新加载
+            loads.set(0);
+            CountDownLatch again = new CountDownLatch(1);
+            List<Future<String>> failures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                failures.add(pool.submit(() -> {
+                    again.await();
+                    return cache.get(Date.class);
+                }));
+            }
+            again.countDown();
+            int failed = 0;
+            for (Future<String> failure : failures) {
+                try {
+                    failure.get();
+                } catch (ExecutionException e) {
+                    Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+                    failed++;
+                }
+            }
+            Assert.assertTrue(failed > 0);
+            Assert.assertEquals("Date", cache.get(Date.class));
+        } finally {
+            pool.shutdown();
+        }
+
+        // 加载过程中访问同一个类，抛出异常而不是死锁
+        AtomicReference<MetadataCache<String>> self = new AtomicReference<>();
+        self.set(new MetadataCache<>("recursive", type -> self.get().get(type)));
+        try {
+            self.get().get(User.class);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void crossThreadCycleTest() throws Exception {
+        // 两个线程分别加载 User 和 Date，加载过程中互相访问对方
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        AtomicReference<MetadataCache<String>> cycle = new AtomicReference<>();
+        cycle.set(new MetadataCache<>("cycle", type -> {
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return cycle.get().get(type == User.class ? Date.class : User.class);
+        }));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> user = pool.submit(() -> cycle.get().get(User.class));
+            Future<String> date = pool.submit(() -> cycle.get().get(Date.class));
+            // 发现环的线程抛出异常，另一个线程收到同一个异常，不会死锁
+            int failed = 0;
+            for (Future<String> result : List.of(user, date)) {
+                try {
+                    result.get(10, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    System.out.println(e.getCause().getMessage());
+                    Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+                    failed++;
+                }
+            }
+            Assert.assertEquals(2, failed);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void invalidateDuringLoadTest() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        MetadataCache<String> cache = new MetadataCache<>("invalidate", 2, type -> {
+            if (loads.incrementAndGet() == 1) {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return type.getSimpleName();
+        });
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = pool.submit(() -> cache.get(User.class));
+            loading.await();
+            cache.invalidate(User.class);
+            release.countDown();
+            Assert.assertEquals("User", first.get());
+        } finally {
+            pool.shutdown();
+        }
+        // 加载期间被移除的值不登记淘汰记录，下次访问重新加载
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals("User", cache.get(User.class));
+        Assert.assertEquals(2, loads.get());
+        Assert.assertEquals(1, cache.size());
+        System.out.println(cache.stats());
+    }
+
+    @Test
+    public void classLoaderNotPinnedTest() throws Exception {
+        ChildFirstLoader loader = new ChildFirstLoader();
+        Class<?> plugin = loader.loadClass(User.class.getName());
+        Assert.assertNotSame(User.class, plugin);
+        System.out.println(PropertyIndex.of(plugin).getProperties());
+
+        WeakReference<ClassLoader> ref = new WeakReference<>(loader);
+        loader = null;
+        plugin = null;
+        // 缓存了插件类的元数据后，插件 classloader 仍然可以被回收
+        Assert.assertNull(awaitCollected(ref));
+    }
+
+    /**
+     * 反复 GC，直到引用被清除或超时，返回引用的对象
+     */
+    static Object awaitCollected(WeakReference<?> ref) throws InterruptedException {
+        List<byte[]> garbage = new ArrayList<>();
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            garbage.add(new byte[1024 * 1024]);
+            Thread.sleep(10);
+        }
+        return ref.get();
+    }
+
+    /**
+     * 模拟插件 classloader：icu.ayaka.common 下的类由自己加载
+     */
+    static final class ChildFirstLoader extends ClassLoader {
+
+        ChildFirstLoader() {
+            super(MetadataCacheTests.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith("icu.ayaka.common.")) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c == null) {
+                    try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                        if (in == null) {
+                            throw new ClassNotFoundException(name);
+                        }
+                        byte[] bytes = in.readAllBytes();
+                        c = defineClass(name, bytes, 0, bytes.length);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+                return c;
+            }
+        }
+    }
+}
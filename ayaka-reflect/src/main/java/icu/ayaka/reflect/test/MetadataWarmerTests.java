@@ -0,0 +1,55 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Department;
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.common.entry.UserView;
+import icu.ayaka.reflect.MetadataWarmer;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.notification.RunListener;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class MetadataWarmerTests {
+
+    @Test
+    public void scanTest() {
+        MetadataWarmer.Report report = MetadataWarmer.builder()
+                .scan("icu.ayaka.common.entry")
+                .build()
+                .run();
+        System.out.println(report);
+        Assert.assertTrue(report.isSuccess());
+        // 不包含 @BeanMeta 生成的元数据类
+        Assert.assertEquals(new HashSet<>(Arrays.asList(Department.class, Order.class, User.class, UserView.class)),
+                report.getNanos().keySet());
+        Assert.assertTrue(report.getNanos().values().stream().allMatch(n -> n > 0));
+        Assert.assertTrue(report.getElapsedNanos() > 0);
+    }
+
+    @Test
+    public void backgroundTest() {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            // jar 中的包 + 显式指定的类
+            CompletableFuture<MetadataWarmer.Report> future = MetadataWarmer.builder()
+                    .scan("org.junit.runner.notification")
+                    .classes(User.class, User.class)
+                    .executor(pool)
+                    .build()
+                    .start();
+            MetadataWarmer.Report report = future.join();
+            System.out.println(report);
+            Assert.assertTrue(report.getNanos().containsKey(RunListener.class));
+            Assert.assertTrue(report.getNanos().containsKey(User.class));
+            Assert.assertEquals(User.class, report.getNanos().keySet().iterator().next());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
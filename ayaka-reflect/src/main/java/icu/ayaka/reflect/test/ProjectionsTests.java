@@ -0,0 +1,95 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.Projections;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+
+public class ProjectionsTests {
+
+    private static List<User> users(int n) {
+        List<User> users = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            users.add(new User((long) i, "ayaka" + i, "521", "ayaka-icu", "admin", new Date(i), i % 3 == 0));
+        }
+        return users;
+    }
+
+    @Test
+    public void longArrayTest() {
+        List<User> users = users(1000);
+        users.get(7).setId(null);
+        long[] ids = Projections.toLongArray(users, User::getId);
+        System.out.println("ids[0..9]: " + Arrays.toString(Arrays.copyOf(ids, 10)));
+        Assert.assertEquals(999L, ids[999]);
+        Assert.assertEquals(0L, ids[7]);
+
+        long[] out = new long[1002];
+        Projections.project(users, User::getId, -1L, out, 2);
+        Assert.assertEquals(-1L, out[9]);
+        Assert.assertEquals(999L, out[1001]);
+
+        long[] times = Projections.toLongArray(users, User::getCreateTime);
+        Assert.assertEquals(500L, times[500]);
+    }
+
+    @Test
+    public void parallelTest() {
+        int n = Projections.PARALLEL_THRESHOLD * 4 + 37;
+        List<User> users = users(n);
+        long start = System.nanoTime();
+        long[] ids = Projections.toLongArray(users, User::getId);
+        BitSet admins = Projections.toBitSet(users, User::isAdmin);
+        boolean[] flags = Projections.toBooleanArray(users, User::isAdmin);
+        System.out.println(n + " 个元素, 耗时: " + (System.nanoTime() - start) / 1000 + " us");
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(i, ids[i]);
+            Assert.assertEquals(i % 3 == 0, admins.get(i));
+            Assert.assertEquals(i % 3 == 0, flags[i]);
+        }
+        Assert.assertEquals((n + 2) / 3, admins.cardinality());
+    }
+
+    @Test
+    public void directBufferTest() {
+        List<User> users = users(Projections.PARALLEL_THRESHOLD + 5);
+        LongBuffer buffer = ByteBuffer.allocateDirect((users.size() + 1) * Long.BYTES).asLongBuffer();
+        buffer.put(42L);
+        Projections.project(users, User::getId, 0L, buffer);
+        Assert.assertEquals(users.size() + 1, buffer.position());
+        Assert.assertEquals(42L, buffer.get(0));
+        Assert.assertEquals(users.size() - 1, buffer.get(users.size()));
+    }
+
+    @Test
+    public void linkedListTest() {
+        List<Order> orders = new LinkedList<>();
+        for (int i = 0; i < 100; i++) {
+            orders.add(new Order((long) i, "order" + i, i * 10L, null, null));
+        }
+        double[] amounts = Projections.toDoubleArray(orders, Order::getAmount);
+        int[] ids = Projections.toIntArray(orders, Order::getId);
+        Assert.assertEquals(990.0, amounts[99], 0.0);
+        Assert.assertEquals(99, ids[99]);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void notNumberTest() {
+        Projections.toLongArray(users(1), User::getName);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void outOfBoundsTest() {
+        Projections.project(users(10), User::getId, 0L, new long[10], 1);
+    }
+}
@@ -0,0 +1,53 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.PropertyPath;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+
+public class PropertyPathTests {
+
+    @Test
+    public void lambdaPathTest() {
+        Order order = Order.getTestOrder();
+        PropertyPath<Order, Long> time = PropertyPath.of(Order::getUser)
+                .then(User::getCreateTime)
+                .then(Date::getTime);
+        System.out.println(time + ": " + time.get(order));
+        Assert.assertEquals("user.createTime.time", time.toString());
+        Assert.assertEquals(Long.valueOf(order.getUser().getCreateTime().getTime()), time.get(order));
+
+        PropertyPath<Order, String> name = PropertyPath.of(Order::getUser).then(User::getName);
+        Assert.assertEquals("ayaka", name.get(order));
+    }
+
+    @Test
+    public void parsePathTest() {
+        Order order = Order.getTestOrder();
+        PropertyPath<Order, Object> time = PropertyPath.parse(Order.class, "user.createTime.time");
+        System.out.println(time + ": " + time.get(order) + " " + time.getType());
+        Assert.assertEquals(order.getUser().getCreateTime().getTime(), time.get(order));
+        Assert.assertEquals(long.class, time.getType());
+    }
+
+    @Test
+    public void nullSafeTest() {
+        PropertyPath<Order, Long> time = PropertyPath.of(Order::getUser)
+                .then(User::getCreateTime)
+                .then(Date::getTime);
+        Order order = Order.getTestOrder();
+        order.getUser().setCreateTime(null);
+        Assert.assertNull(time.get(order));
+        order.setUser(null);
+        Assert.assertNull(time.get(order));
+        Assert.assertNull(time.get(null));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void unknownPropertyTest() {
+        PropertyPath.parse(Order.class, "user.nothing");
+    }
+}
@@ -0,0 +1,138 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.common.entry.UserView;
+import icu.ayaka.reflect.RecordStore;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
+
+public class RecordStoreTests {
+
+    private static final int SIZE = 100_000;
+
+    private static User user(long i) {
+        return new User(i, "user-" + i, i % 3 == 0 ? null : "pwd", "绫华 " + i, i + "@ayaka.icu", new Date(i * 1000), i % 2 == 0);
+    }
+
+    private static void delete(Path path) throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(Paths.get(path + ".arena"));
+    }
+
+    @Test
+    public void storeTest() throws IOException {
+        Path path = Files.createTempFile("record-store", ".rec");
+        Files.delete(path);
+        try {
+            try (RecordStore<User> store = RecordStore.open(User.class, path)) {
+                System.out.println("记录长度：" + store.getRecordSize());
+                for (long i = 0; i < SIZE; i++) {
+                    Assert.assertEquals(i, store.append(user(i)));
+                }
+                Assert.assertEquals(SIZE, store.size());
+                Assert.assertEquals(user(12345), store.get(12345));
+
+                // 按槽位读写，不创建 User
+                RecordStore<User>.Slot id = store.slot(User::getId);
+                RecordStore<User>.Slot admin = store.slot(User::isAdmin);
+                RecordStore<User>.Slot password = store.slot(User::getPassword);
+                RecordStore<User>.Slot createTime = store.slot(User::getCreateTime);
+                System.out.println(id + " " + admin + " " + password + " " + createTime);
+                long sum = 0;
+                int admins = 0;
+                for (long i = 0; i < SIZE; i++) {
+                    sum += id.getLong(i);
+                    admins += admin.getBoolean(i) ? 1 : 0;
+                }
+                Assert.assertEquals((long) SIZE * (SIZE - 1) / 2, sum);
+                Assert.assertEquals(SIZE / 2, admins);
+                Assert.assertTrue(password.isNull(3));
+                Assert.assertNull(password.getString(3));
+                Assert.assertEquals("pwd", password.getString(4));
+                Assert.assertEquals(4000L, createTime.getLong(4));
+
+                id.setLong(7, 70);
+                id.setNull(8);
+                password.setString(9, "新密码");
+                admin.setBoolean(9, true);
+                createTime.set(10, null);
+            }
+
+            // 重新打开，数据仍在
+            try (RecordStore<User> store = RecordStore.open(User.class, path)) {
+                Assert.assertEquals(SIZE, store.size());
+                Assert.assertEquals(Long.valueOf(70), store.get(7).getId());
+                Assert.assertNull(store.get(8).getId());
+                User nine = store.get(9, new User());
+                Assert.assertEquals("新密码", nine.getPassword());
+                Assert.assertTrue(nine.isAdmin());
+                Assert.assertNull(store.get(10).getCreateTime());
+                Assert.assertEquals(user(SIZE - 1), store.get(SIZE - 1));
+                store.append(user(SIZE));
+                Assert.assertEquals(user(SIZE), store.get(SIZE));
+            }
+        } finally {
+            delete(path);
+        }
+    }
+
+    @Test
+    public void errorTest() throws IOException {
+        Path path = Files.createTempFile("record-store", ".rec");
+        Files.delete(path);
+        try {
+            try (RecordStore<User> store = RecordStore.open(User.class, path)) {
+                store.append(User.getTestUser());
+                try {
+                    store.get(1);
+                    Assert.fail();
+                } catch (IndexOutOfBoundsException e) {
+                    System.out.println(e.getMessage());
+                }
+                try {
+                    store.slot(User::getName).getLong(0);
+                    Assert.fail();
+                } catch (RuntimeException e) {
+                    System.out.println(e.getMessage());
+                }
+                // 写入失败的记录不计入记录数
+                User broken = new User() {
+                    @Override
+                    public String getName() {
+                        throw new IllegalStateException("broken getter");
+                    }
+                };
+                try {
+                    store.append(broken);
+                    Assert.fail();
+                } catch (IllegalStateException e) {
+                    System.out.println(e.getMessage());
+                }
+                Assert.assertEquals(1, store.size());
+            }
+            try (RecordStore<User> store = RecordStore.open(User.class, path)) {
+                Assert.assertEquals(1, store.size());
+                // getTestUser 每次创建新的 createTime，使用同一个实例比较
+                User user = User.getTestUser();
+                Assert.assertEquals(1, store.append(user));
+                Assert.assertEquals(user, store.get(1));
+            }
+            // 布局不一致
+            try {
+                RecordStore.open(UserView.class, path).close();
+                Assert.fail();
+            } catch (RuntimeException e) {
+                System.out.println(e.getMessage());
+                Assert.assertTrue(e.getMessage().contains("布局"));
+            }
+        } finally {
+            delete(path);
+        }
+    }
+}
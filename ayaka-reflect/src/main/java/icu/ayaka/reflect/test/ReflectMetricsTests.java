@@ -0,0 +1,47 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.FieldUtils;
+import icu.ayaka.reflect.LatencyHistogram;
+import icu.ayaka.reflect.ReflectMetrics;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+/**
+ * 埋点测试，需要以 -Dayaka.reflect.instrumentation=true 运行，否则跳过
+ */
+public class ReflectMetricsTests {
+
+    @Test
+    public void histogramTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 100L);
+        }
+        System.out.println(histogram);
+        Assert.assertEquals(1000, histogram.getCount());
+        // 分桶相对误差不超过 12.5%
+        Assert.assertEquals(50000, histogram.getValueAtPercentile(50), 50000 * 0.125);
+        Assert.assertEquals(99000, histogram.getValueAtPercentile(99), 99000 * 0.125);
+        Assert.assertEquals(100000, histogram.getMax(), 100000 * 0.125);
+    }
+
+    @Test
+    public void recordTest() {
+        Assume.assumeTrue(ReflectMetrics.isEnabled());
+        ReflectMetrics.reset();
+        for (int i = 0; i < 1000; i++) {
+            FieldUtils.getField(User::getName);
+            Method m = FieldUtils.getFieldGetMethod(User.class, "email");
+            FieldUtils.getFieldByGetMethod(m);
+        }
+        System.out.println(ReflectMetrics.report());
+        Assert.assertEquals(1000, ReflectMetrics.getCount(ReflectMetrics.Path.LAMBDA));
+        Assert.assertEquals(1000, ReflectMetrics.getCount(ReflectMetrics.Path.NAME_TO_METHOD));
+        Assert.assertEquals(1000, ReflectMetrics.getCount(ReflectMetrics.Path.METHOD_TO_FIELD));
+        Assert.assertEquals(Long.valueOf(3000), ReflectMetrics.getTopClasses(1).get(User.class.getName()));
+    }
+}
@@ -0,0 +1,159 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Department;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.RowMapper;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.beans.ConstructorProperties;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+public class RowMapperTests {
+
+    public record Point(long id, String name, Date at) {
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Contact {
+        private String name;
+        private String email;
+
+        // 参数顺序与字段相反，且类型相同
+        public Contact(String email, String name) {
+            this.email = email;
+            this.name = name;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class NamedContact {
+        private String name;
+        private String email = "none";
+
+        @ConstructorProperties({"email", "name"})
+        public NamedContact(String email, String name) {
+            this.email = email;
+            this.name = name;
+        }
+    }
+
+    @Test
+    public void constructorTest() {
+        // User 的全参构造器没有参数名称，列也只覆盖部分属性，使用 set方法
+        RowMapper<User> mapper = RowMapper.of(User.class, "id", "name", "createTime", "admin");
+        System.out.println(mapper);
+        Assert.assertFalse(mapper.isConstructorBased());
+
+        // Integer -> Long，毫秒时间戳 -> Date，字符串 -> boolean
+        User user = mapper.map(new Object[]{1, "ayaka", 1700000000000L, "true"});
+        System.out.println(user);
+        Assert.assertEquals(Long.valueOf(1), user.getId());
+        Assert.assertEquals("ayaka", user.getName());
+        Assert.assertEquals(new Date(1700000000000L), user.getCreateTime());
+        Assert.assertTrue(user.isAdmin());
+        // 没有指定的列为 null
+        Assert.assertNull(user.getPassword());
+
+        // 列的顺序与构造器参数无关；null 写入基本类型为 false
+        RowMapper<User> reordered = RowMapper.of(User.class, User::isAdmin, User::getEmail, User::getId);
+        User other = reordered.map(new Object[]{null, "a@b.c", 2L, "ignored"});
+        Assert.assertFalse(other.isAdmin());
+        Assert.assertEquals("a@b.c", other.getEmail());
+        Assert.assertEquals(Long.valueOf(2), other.getId());
+
+        // record 按组件名称调用规范构造器，列必须包含所有组件
+        RowMapper<Point> points = RowMapper.of(Point.class, "at", "name", "id");
+        Assert.assertTrue(points.isConstructorBased());
+        Assert.assertEquals(new Point(7, null, new Date(5)), points.map(new Object[]{5L, null, 7}));
+        try {
+            RowMapper.of(Point.class, "at", "id");
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void parameterNameTest() {
+        // 无法确定参数名称的构造器不按类型顺序绑定，回退到 setter
+        RowMapper<Contact> contacts = RowMapper.of(Contact.class, "name", "email");
+        System.out.println(contacts);
+        Assert.assertFalse(contacts.isConstructorBased());
+        Contact contact = contacts.map(new Object[]{"ayaka", "a@b.c"});
+        Assert.assertEquals("ayaka", contact.getName());
+        Assert.assertEquals("a@b.c", contact.getEmail());
+
+        // @ConstructorProperties 声明了参数名称时按名称绑定
+        RowMapper<NamedContact> named = RowMapper.of(NamedContact.class, "name", "email");
+        System.out.println(named);
+        Assert.assertTrue(named.isConstructorBased());
+        NamedContact namedContact = named.map(new Object[]{"ayaka", "a@b.c"});
+        Assert.assertEquals("ayaka", namedContact.getName());
+        Assert.assertEquals("a@b.c", namedContact.getEmail());
+
+        // 列只覆盖部分参数时不用零值补齐，使用 set方法 并保留字段的初始值
+        RowMapper<NamedContact> partial = RowMapper.of(NamedContact.class, "name");
+        Assert.assertFalse(partial.isConstructorBased());
+        NamedContact named2 = partial.map(new Object[]{"ayaka"});
+        Assert.assertEquals("ayaka", named2.getName());
+        Assert.assertEquals("none", named2.getEmail());
+    }
+
+    @Test
+    public void setterTest() {
+        RowMapper<Department> mapper = RowMapper.of(Department.class, "name", "id", "createTime");
+        System.out.println(mapper);
+        Assert.assertFalse(mapper.isConstructorBased());
+        Date now = new Date();
+        Department department = mapper.map(new Object[]{"研发部", 10, now});
+        Assert.assertEquals("研发部", department.getName());
+        Assert.assertEquals(Long.valueOf(10), department.getId());
+        Assert.assertSame(now, department.getCreateTime());
+
+        try {
+            mapper.map(new Object[]{"研发部"});
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+        try {
+            mapper.map(new Object[]{"研发部", new Object(), now});
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+        try {
+            RowMapper.of(User.class, "id", "missing");
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void batchTest() {
+        RowMapper<User> mapper = RowMapper.of(User.class, "id", "name", "admin");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < RowMapper.PARALLEL_THRESHOLD * 2 + 3; i++) {
+            rows.add(new Object[]{(long) i, "user" + i, i % 2 == 0});
+        }
+        List<User> parallel = mapper.mapAll(rows);
+        List<User> sequential = mapper.mapAll(rows, false);
+        Assert.assertEquals(rows.size(), parallel.size());
+        Assert.assertEquals(sequential, parallel);
+        Assert.assertEquals("user12345", parallel.get(12345).getName());
+
+        List<Integer> sizes = new ArrayList<>();
+        long total = mapper.forEachBatch(rows.iterator(), 10_000, batch -> sizes.add(batch.size()));
+        Assert.assertEquals(rows.size(), total);
+        Assert.assertEquals(Arrays.asList(10_000, 10_000, 10_000, 10_000, 10_000, 10_000, 5539), sizes);
+    }
+}
@@ -0,0 +1,171 @@
+package icu.ayaka.reflect.test;
+
+import icu.ayaka.common.entry.Order;
+import icu.ayaka.common.entry.User;
+import icu.ayaka.reflect.Validator;
+import lombok.Data;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ValidatorTests {
+
+    @Data
+    public static class Account {
+        private BigDecimal balance;
+        private BigInteger serial;
+        private Number score;
+    }
+
+    private static final Validator<User> VALIDATOR = Validator.builder(User.class)
+            .rule(User::getName).notNull().notBlank().length(1, 32)
+            .rule(User::getEmail).notNull().matches("^[\\w.+-]+@[\\w-]+(\\.[\\w-]+)+$")
+            .rule(User::getPassword).length(6, 64).message("密码长度为 6 到 64 位")
+            .rule(User::getId).notNull().min(1)
+            .build();
+
+    @Test
+    public void validateTest() {
+        System.out.println(VALIDATOR);
+        User user = User.getTestUser();
+        user.setEmail("ayaka@example.com");
+        user.setPassword("123456");
+        System.out.println(VALIDATOR.validate(user));
+        Assert.assertTrue(VALIDATOR.isValid(user));
+        Assert.assertTrue(VALIDATOR.validate(user).isEmpty());
+
+        // 每个属性只报告第一个不满足的约束
+        user.setName("   ");
+        user.setEmail(null);
+        user.setPassword("123");
+        user.setId(0L);
+        List<Validator.Violation> violations = VALIDATOR.validate(user);
+        System.out.println(violations);
+        Assert.assertFalse(VALIDATOR.isValid(user));
+        Assert.assertEquals(4, violations.size());
+        Assert.assertEquals("notBlank", violations.get(0).getCode());
+        Assert.assertEquals("notNull", violations.get(1).getCode());
+        Assert.assertEquals("email", violations.get(1).getProperty());
+        Assert.assertEquals("密码长度为 6 到 64 位", violations.get(2).getMessage());
+        Assert.assertEquals("123", violations.get(2).getValue());
+        Assert.assertEquals("min", violations.get(3).getCode());
+
+        // null 只违反 notNull，password 没有 notNull 约束
+        user.setPassword(null);
+        user.setEmail("not an email");
+        violations = VALIDATOR.validate(user);
+        Assert.assertEquals(3, violations.size());
+        Assert.assertEquals("matches", violations.get(1).getCode());
+    }
+
+    @Test
+    public void primitiveTest() {
+        Validator<Order> validator = Validator.builder(Order.class)
+                .rule(Order::getAmount).notNull().range(1, 10_000)
+                .rule(Order::getAmount).check("even", "必须为偶数", amount -> amount % 2 == 0)
+                .rule(Order::getTitle).notNull().notBlank()
+                .build();
+        System.out.println(validator);
+        Order order = Order.getTestOrder();
+        order.setTitle("订单");
+        order.setAmount(100);
+        Assert.assertTrue(validator.isValid(order));
+
+        order.setAmount(10_001);
+        List<Validator.Violation> violations = validator.validate(order);
+        System.out.println(violations);
+        Assert.assertEquals(2, violations.size());
+        Assert.assertEquals("range", violations.get(0).getCode());
+        Assert.assertEquals(10_001L, violations.get(0).getValue());
+        Assert.assertEquals("even", violations.get(1).getCode());
+
+        // 约束与属性类型不匹配时在声明时报错
+        try {
+            Validator.builder(Order.class).rule(Order::getTitle).min(1);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+        try {
+            Validator.builder(Order.class).rule(Order::getAmount).matches("\\d+");
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void batchTest() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            User user = User.getTestUser();
+            user.setId((long) i + 1);
+            user.setEmail(i % 100 == 0 ? "invalid" : "user" + i + "@example.com");
+            user.setPassword("password");
+            users.add(user);
+        }
+        Validator.Violations violations = new Validator.Violations();
+        Assert.assertFalse(VALIDATOR.validateAll(users, violations));
+        System.out.println(violations);
+        Assert.assertEquals(10, violations.size());
+        for (int i = 0; i < violations.size(); i++) {
+            Assert.assertEquals(i * 100, violations.index(i));
+            Assert.assertEquals("email", violations.property(i));
+            Assert.assertEquals("invalid", violations.value(i));
+        }
+
+        // 复用缓冲区，达到上限立即停止
+        Assert.assertFalse(VALIDATOR.validateAll(users, violations, 3));
+        Assert.assertEquals(3, violations.size());
+        Assert.assertEquals(200, violations.get(2).getIndex());
+
+        users.removeIf(u -> u.getEmail().equals("invalid"));
+        Assert.assertTrue(VALIDATOR.validateAll(users, violations));
+        Assert.assertTrue(violations.isEmpty());
+        try {
+            VALIDATOR.validateAll(users, violations, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+        try {
+            violations.get(0);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void bigNumberTest() {
+        Validator<Account> validator = Validator.builder(Account.class)
+                .rule(Account::getBalance).max(10)
+                .rule(Account::getSerial).range(0, 100)
+                .build();
+        Account account = new Account();
+        account.setBalance(new BigDecimal("10"));
+        account.setSerial(BigInteger.valueOf(100));
+        Assert.assertTrue(validator.isValid(account));
+
+        // 按 compareTo 比较：小数部分不截断，超出 long 的值不回绕
+        account.setBalance(new BigDecimal("10.5"));
+        account.setSerial(BigInteger.ONE.shiftLeft(64).add(BigInteger.TEN));
+        List<Validator.Violation> violations = validator.validate(account);
+        System.out.println(violations);
+        Assert.assertEquals(2, violations.size());
+        Assert.assertEquals("max", violations.get(0).getCode());
+        Assert.assertEquals("range", violations.get(1).getCode());
+
+        // 无法精确比较的数值类型在声明时报错
+        try {
+            Validator.builder(Account.class).rule(Account::getScore).min(0);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}